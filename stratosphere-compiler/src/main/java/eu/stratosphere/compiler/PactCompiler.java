@@ -42,6 +42,7 @@ import eu.stratosphere.api.common.operators.base.CrossOperatorBase;
 import eu.stratosphere.api.common.operators.base.FlatMapOperatorBase;
 import eu.stratosphere.api.common.operators.base.JoinOperatorBase;
 import eu.stratosphere.api.common.operators.base.MapOperatorBase;
+import eu.stratosphere.api.common.operators.base.DistinctOperatorBase;
 import eu.stratosphere.api.common.operators.base.GroupReduceOperatorBase;
 import eu.stratosphere.api.common.operators.base.PlainMapOperatorBase;
 import eu.stratosphere.api.common.operators.base.ReduceOperatorBase;
@@ -60,6 +61,7 @@ import eu.stratosphere.compiler.dag.MapNode;
 import eu.stratosphere.compiler.dag.MatchNode;
 import eu.stratosphere.compiler.dag.OptimizerNode;
 import eu.stratosphere.compiler.dag.PactConnection;
+import eu.stratosphere.compiler.dag.DistinctNode;
 import eu.stratosphere.compiler.dag.GroupReduceNode;
 import eu.stratosphere.compiler.dag.ReduceNode;
 import eu.stratosphere.compiler.dag.SinkJoiner;
@@ -182,6 +184,26 @@ public class PactCompiler {
 	 * @see #HINT_SHIP_STRATEGY_SECOND_INPUT
 	 */
 	public static final String HINT_SHIP_STRATEGY_BROADCAST = "SHIP_BROADCAST";
+	
+	/**
+	 * Value for the shipping strategy compiler hint that enforces a skew resilient hash-partition strategy,
+	 * for a <i>Match</i> whose <b>first</b> input has heavy hitter keys. The heavy hitters are found by sampling
+	 * the first input. Their records are spread over several partitions, and the matching records of the second
+	 * input are replicated to all of these partitions.
+	 * 
+	 * @see #HINT_SHIP_STRATEGY
+	 */
+	public static final String HINT_SHIP_STRATEGY_REPARTITION_HASH_SKEWED_FIRST = "SHIP_REPARTITION_HASH_SKEWED_FIRST";
+	
+	/**
+	 * Value for the shipping strategy compiler hint that enforces a skew resilient hash-partition strategy,
+	 * for a <i>Match</i> whose <b>second</b> input has heavy hitter keys. The heavy hitters are found by sampling
+	 * the second input. Their records are spread over several partitions, and the matching records of the first
+	 * input are replicated to all of these partitions.
+	 * 
+	 * @see #HINT_SHIP_STRATEGY
+	 */
+	public static final String HINT_SHIP_STRATEGY_REPARTITION_HASH_SKEWED_SECOND = "SHIP_REPARTITION_HASH_SKEWED_SECOND";
 
 	/**
 	 * Compiler hint key for the operator's local strategy. This String is a key to the operator's stub
@@ -270,6 +292,15 @@ public class PactCompiler {
 	 * @see #HINT_LOCAL_STRATEGY
 	 */
 	public static final String HINT_LOCAL_STRATEGY_HASH_BUILD_SECOND = "LOCAL_STRATEGY_HASH_BUILD_SECOND";
+	
+	/**
+	 * Value for the local strategy compiler hint that enforces a <b>hash based</b> grouping.
+	 * A <i>Reduce</i> operator will aggregate the records of each group in a hash table, rather than sorting
+	 * the data. This requires the user function to be a {@link eu.stratosphere.api.common.functions.GenericReduce}.
+	 * 
+	 * @see #HINT_LOCAL_STRATEGY
+	 */
+	public static final String HINT_LOCAL_STRATEGY_HASH = "LOCAL_STRATEGY_HASH";
 
 	/**
 	 * Value for the local strategy compiler hint that chooses the outer side of the <b>nested-loop</b> local strategy.
@@ -834,6 +865,9 @@ public class PactCompiler {
 			else if (c instanceof ReduceOperatorBase) {
 				n = new ReduceNode((ReduceOperatorBase<?>) c);
 			}
+			else if (c instanceof DistinctOperatorBase) {
+				n = new DistinctNode((DistinctOperatorBase<?>) c);
+			}
 			else if (c instanceof GroupReduceOperatorBase) {
 				n = new GroupReduceNode((GroupReduceOperatorBase<?>) c);
 			}
@@ -1267,6 +1301,17 @@ public class PactCompiler {
 									c + " (" + mib * node.getDegreeOfParallelism() + " MiBytes total.)"); 
 							}
 						}
+						if (c.isPartitionedBasedOnSample()) {
+							// the data is materialized on the sender side, while the boundaries are sampled
+							final PlanNode source = c.getSource();
+							final long mem = memoryPerInstanceAndWeight / source.getSubtasksPerInstance();
+							c.setMemoryGlobalStrategy(mem);
+							if (LOG.isDebugEnabled()) {
+								final long mib = mem >> 20;
+								LOG.debug("Assigned " + mib + " MiBytes memory to each instance of the range partitioning of " + 
+									c + " (" + mib * source.getDegreeOfParallelism() + " MiBytes total.)"); 
+							}
+						}
 					}
 				}
 			}
@@ -1346,6 +1391,9 @@ public class PactCompiler {
 				if (c.getTempMode() != TempMode.NONE) {
 					this.memoryConsumerWeights++;
 				}
+				if (c.isPartitionedBasedOnSample()) {
+					this.memoryConsumerWeights++;
+				}
 			}
 			for (Channel c : visitable.getBroadcastInputs()) {
 				if (c.getLocalStrategy().dams()) {
@@ -100,6 +100,8 @@ public abstract class CostEstimator {
 				addRandomPartitioningCost(channel, costs);
 				break;
 			case PARTITION_HASH:
+			case PARTITION_HASH_SPLIT_HEAVY:
+			case PARTITION_HASH_REPLICATE_HEAVY:
 				addHashPartitioningCost(channel, costs);
 				break;
 			case PARTITION_RANGE:
@@ -167,6 +169,12 @@ public abstract class CostEstimator {
 		case PARTIAL_GROUP:
 			// partial grouping is always local and main memory resident. we should add a relative cpu cost at some point
 		
+		case HASH_GROUP:
+		case HASH_PARTIAL_GROUP:
+		case HASH_DISTINCT:
+		case HASH_PARTIAL_DISTINCT:
+			// hash based grouping is main memory resident, unless the groups exceed the memory
+		
 		case UNION:
 			// pipelined local union is for free
 			
@@ -0,0 +1,72 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.compiler.dag;
+
+import java.util.Collections;
+import java.util.List;
+
+import eu.stratosphere.api.common.operators.base.DistinctOperatorBase;
+import eu.stratosphere.compiler.operators.HashDistinctProperties;
+import eu.stratosphere.compiler.operators.OperatorDescriptorSingle;
+
+/**
+ * The Optimizer representation of a <i>Distinct</i> operator node. The duplicates are eliminated by a hash set,
+ * optionally preceded by a hash based partial elimination on the sending side.
+ */
+public class DistinctNode extends GroupReduceNode {
+	
+	private DistinctNode combinerUtilityNode;
+	
+	/**
+	 * Creates a new DistinctNode for the given operator.
+	 * 
+	 * @param operator The distinct operator object.
+	 */
+	public DistinctNode(DistinctOperatorBase<?> operator) {
+		super(operator);
+	}
+	
+	public DistinctNode(DistinctNode distinctToCopyForCombiner) {
+		super(distinctToCopyForCombiner);
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public DistinctOperatorBase<?> getPactContract() {
+		return (DistinctOperatorBase<?>) super.getPactContract();
+	}
+
+	@Override
+	public String getName() {
+		return "Distinct";
+	}
+	
+	@Override
+	protected List<OperatorDescriptorSingle> getPossibleProperties() {
+		return Collections.<OperatorDescriptorSingle>singletonList(new HashDistinctProperties(this.keys));
+	}
+	
+	@Override
+	public DistinctNode getCombinerUtilityNode() {
+		if (this.combinerUtilityNode == null) {
+			this.combinerUtilityNode = new DistinctNode(this);
+			
+			// we conservatively assume the partial distinct returns the same data size as it consumes 
+			this.combinerUtilityNode.estimatedOutputSize = getPredecessorNode().getEstimatedOutputSize();
+			this.combinerUtilityNode.estimatedNumRecords = getPredecessorNode().getEstimatedNumRecords();
+		}
+		return this.combinerUtilityNode;
+	}
+}
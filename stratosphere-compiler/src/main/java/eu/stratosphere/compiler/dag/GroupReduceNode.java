@@ -16,6 +16,7 @@ package eu.stratosphere.compiler.dag;
 import java.util.Collections;
 import java.util.List;
 
+import eu.stratosphere.api.common.functions.GenericReduce;
 import eu.stratosphere.api.common.operators.Ordering;
 import eu.stratosphere.api.common.operators.base.GroupReduceOperatorBase;
 import eu.stratosphere.compiler.CompilerException;
@@ -25,6 +26,7 @@ import eu.stratosphere.compiler.operators.AllGroupProperties;
 import eu.stratosphere.compiler.operators.AllGroupWithPartialPreGroupProperties;
 import eu.stratosphere.compiler.operators.GroupProperties;
 import eu.stratosphere.compiler.operators.GroupWithPartialPreGroupProperties;
+import eu.stratosphere.compiler.operators.HashGroupProperties;
 import eu.stratosphere.compiler.operators.OperatorDescriptorSingle;
 import eu.stratosphere.configuration.Configuration;
 
@@ -33,6 +35,12 @@ import eu.stratosphere.configuration.Configuration;
  */
 public class GroupReduceNode extends SingleInputNode {
 	
+	/**
+	 * The maximal number of groups per parallel instance, for which a hash based grouping is chosen
+	 * without an explicit hint.
+	 */
+	private static final long MAX_GROUPS_PER_INSTANCE_FOR_HASHING = 100000;
+	
 	private GroupReduceNode combinerUtilityNode;
 	
 	/**
@@ -88,20 +96,36 @@ public class GroupReduceNode extends SingleInputNode {
 		final String localStrategy = conf.getString(PactCompiler.HINT_LOCAL_STRATEGY, null);
 
 		final boolean useCombiner;
+		final boolean useHashing;
 		if (localStrategy != null) {
 			if (PactCompiler.HINT_LOCAL_STRATEGY_SORT.equals(localStrategy)) {
 				useCombiner = false;
+				useHashing = false;
 			} else if (PactCompiler.HINT_LOCAL_STRATEGY_COMBINING_SORT.equals(localStrategy)) {
 				if (!isCombineable()) {
 					PactCompiler.LOG.warn("Strategy hint for Reduce Pact '" + getPactContract().getName() + 
 						"' desires combinable reduce, but user function is not marked combinable.");
 				}
 				useCombiner = true;
+				useHashing = false;
+			} else if (PactCompiler.HINT_LOCAL_STRATEGY_HASH.equals(localStrategy)) {
+				if (!isHashable()) {
+					throw new CompilerException("Strategy hint for Reduce Pact '" + getPactContract().getName() + 
+						"' desires hash based grouping, but the operator has no keys, has a group order, " +
+						"or its user function does not implement a pairwise reduce.");
+				}
+				useCombiner = true;
+				useHashing = true;
 			} else {
 				throw new CompilerException("Invalid local strategy hint for match contract: " + localStrategy);
 			}
 		} else {
 			useCombiner = isCombineable();
+			useHashing = isHashable() && hasFewGroups();
+		}
+		
+		if (useHashing) {
+			return Collections.<OperatorDescriptorSingle>singletonList(new HashGroupProperties(this.keys));
 		}
 		
 		// check if we can work with a grouping (simple reducer), or if we need ordering because of a group order
@@ -120,6 +144,33 @@ public class GroupReduceNode extends SingleInputNode {
 			return Collections.singletonList(props);
 	}
 	
+	/**
+	 * Checks whether the groups can be aggregated in a hash table. That requires the user function to support
+	 * the pairwise reduction of two records, and the operator to have keys and no order within the groups.
+	 * 
+	 * @return True, if hash based grouping is possible, false otherwise.
+	 */
+	private boolean isHashable() {
+		final Ordering groupOrder = getPactContract().getGroupOrder();
+		return this.keys != null && (groupOrder == null || groupOrder.getNumberOfFields() == 0) &&
+			GenericReduce.class.isAssignableFrom(getPactContract().getUserCodeWrapper().getUserCodeClass());
+	}
+	
+	/**
+	 * Checks whether the compiler hints state that the number of groups is small enough to be aggregated
+	 * in memory by the parallel instances.
+	 * 
+	 * @return True, if the hinted number of groups is small, false if it is large or unknown.
+	 */
+	private boolean hasFewGroups() {
+		final long numGroups = getPactContract().getCompilerHints().getOutputCardinality();
+		if (numGroups < 0) {
+			return false;
+		}
+		final int dop = Math.max(1, getDegreeOfParallelism());
+		return numGroups / dop <= MAX_GROUPS_PER_INSTANCE_FOR_HASHING;
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	//  Estimates
 	// --------------------------------------------------------------------------------------------
@@ -169,6 +169,14 @@ public abstract class TwoInputNode extends OptimizerNode {
 				preSet1 = preSet2 = ShipStrategyType.PARTITION_RANGE;
 			} else if (shipStrategy.equalsIgnoreCase(PactCompiler.HINT_SHIP_STRATEGY_REPARTITION)) {
 				preSet1 = preSet2 = ShipStrategyType.PARTITION_RANDOM;
+			} else if (PactCompiler.HINT_SHIP_STRATEGY_REPARTITION_HASH_SKEWED_FIRST.equals(shipStrategy)) {
+				checkSkewResilientPartitioningSupported();
+				preSet1 = ShipStrategyType.PARTITION_HASH_SPLIT_HEAVY;
+				preSet2 = ShipStrategyType.PARTITION_HASH_REPLICATE_HEAVY;
+			} else if (PactCompiler.HINT_SHIP_STRATEGY_REPARTITION_HASH_SKEWED_SECOND.equals(shipStrategy)) {
+				checkSkewResilientPartitioningSupported();
+				preSet1 = ShipStrategyType.PARTITION_HASH_REPLICATE_HEAVY;
+				preSet2 = ShipStrategyType.PARTITION_HASH_SPLIT_HEAVY;
 			} else {
 				throw new CompilerException("Unknown hint for shipping strategy: " + shipStrategy);
 			}
@@ -257,6 +265,26 @@ public abstract class TwoInputNode extends OptimizerNode {
 	
 	protected abstract List<OperatorDescriptorDual> getPossibleProperties();
 	
+	/**
+	 * Checks whether this node can have its inputs partitioned with the skew resilient hash partitioning
+	 * strategies. Splitting the records of a heavy hitter key across several partitions is only correct for
+	 * operators that process pairs of records independently, such as the <i>Match</i>. Operators that need to see
+	 * all records of a key together (<i>CoGroup</i>) must not use it.
+	 * 
+	 * @throws CompilerException Thrown, if the skew resilient partitioning is not supported by this node.
+	 */
+	protected void checkSkewResilientPartitioningSupported() {
+		if (!(this instanceof MatchNode)) {
+			throw new CompilerException("Skew resilient hash partitioning is only supported for Match operators, not for '" +
+				getPactContract().getName() + "'.");
+		}
+		DualInputOperator<?> contr = getPactContract();
+		if (contr.getFirstInputs().size() > 1 || contr.getSecondInputs().size() > 1) {
+			throw new CompilerException("Skew resilient hash partitioning is not supported for unioned inputs of '" +
+				contr.getName() + "'.");
+		}
+	}
+	
 	@Override
 	public boolean isMemoryConsumer() {
 		for (OperatorDescriptorDual dpd : this.possibleProperties) {
@@ -551,6 +579,11 @@ public abstract class TwoInputNode extends OptimizerNode {
 			GlobalProperties gp1 = in1.getGlobalProperties().clone().filterByNodesConstantSet(this, 0);
 			GlobalProperties gp2 = in2.getGlobalProperties().clone().filterByNodesConstantSet(this, 1);
 			GlobalProperties combined = operator.computeGlobalProperties(gp1, gp2);
+			if (in1.getShipStrategy().isSkewResilient() || in2.getShipStrategy().isSkewResilient()) {
+				// the records of heavy hitter keys are spread over several partitions, so the
+				// result is not partitioned on the key any more
+				combined.reset();
+			}
 
 			LocalProperties lp1 = in1.getLocalProperties().clone().filterByNodesConstantSet(this, 0);
 			LocalProperties lp2 = in2.getLocalProperties().clone().filterByNodesConstantSet(this, 1);
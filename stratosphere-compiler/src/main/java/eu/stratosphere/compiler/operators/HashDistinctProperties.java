@@ -0,0 +1,96 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.compiler.operators;
+
+import java.util.Collections;
+import java.util.List;
+
+import eu.stratosphere.api.common.operators.util.FieldSet;
+import eu.stratosphere.compiler.costs.Costs;
+import eu.stratosphere.compiler.dag.DistinctNode;
+import eu.stratosphere.compiler.dag.SingleInputNode;
+import eu.stratosphere.compiler.dataproperties.GlobalProperties;
+import eu.stratosphere.compiler.dataproperties.LocalProperties;
+import eu.stratosphere.compiler.dataproperties.RequestedGlobalProperties;
+import eu.stratosphere.compiler.dataproperties.RequestedLocalProperties;
+import eu.stratosphere.compiler.plan.Channel;
+import eu.stratosphere.compiler.plan.SingleInputPlanNode;
+import eu.stratosphere.pact.runtime.shipping.ShipStrategyType;
+import eu.stratosphere.pact.runtime.task.DriverStrategy;
+
+/**
+ * Properties of a duplicate elimination with a hash set. The records need to be partitioned on the keys, but
+ * need no local grouping or order. If the records are shipped over the network, a partial duplicate elimination
+ * is performed before shipping them.
+ */
+public final class HashDistinctProperties extends OperatorDescriptorSingle {
+	
+	public HashDistinctProperties(FieldSet keys) {
+		super(keys);
+	}
+	
+	@Override
+	public DriverStrategy getStrategy() {
+		return DriverStrategy.HASH_DISTINCT;
+	}
+
+	@Override
+	public SingleInputPlanNode instantiate(Channel in, SingleInputNode node) {
+		if (in.getShipStrategy() == ShipStrategyType.FORWARD) {
+			return new SingleInputPlanNode(node, "Distinct("+node.getPactContract().getName()+")", in, DriverStrategy.HASH_DISTINCT, this.keyList);
+		} else {
+			// non forward case. plug in a partial distinct before the data is shipped
+			Channel toCombiner = new Channel(in.getSource());
+			toCombiner.setShipStrategy(ShipStrategyType.FORWARD);
+			// create an input node for the partial distinct with same DOP as input node
+			DistinctNode combinerNode = ((DistinctNode) node).getCombinerUtilityNode();
+			combinerNode.setDegreeOfParallelism(in.getSource().getDegreeOfParallelism());
+			combinerNode.setSubtasksPerInstance(in.getSource().getSubtasksPerInstance());
+			
+			SingleInputPlanNode combiner = new SingleInputPlanNode(combinerNode, "Partial Distinct("+node.getPactContract().getName()+")", toCombiner, DriverStrategy.HASH_PARTIAL_DISTINCT, this.keyList);
+			combiner.setCosts(new Costs(0, 0));
+			combiner.initProperties(toCombiner.getGlobalProperties(), toCombiner.getLocalProperties());
+			
+			Channel toDistinct = new Channel(combiner);
+			toDistinct.setShipStrategy(in.getShipStrategy(), in.getShipStrategyKeys(), in.getShipStrategySortOrder());
+			toDistinct.setLocalStrategy(in.getLocalStrategy(), in.getLocalStrategyKeys(), in.getLocalStrategySortOrder());
+			return new SingleInputPlanNode(node, "Distinct("+node.getPactContract().getName()+")", toDistinct, DriverStrategy.HASH_DISTINCT, this.keyList);
+		}
+	}
+
+	@Override
+	protected List<RequestedGlobalProperties> createPossibleGlobalProperties() {
+		RequestedGlobalProperties props = new RequestedGlobalProperties();
+		props.setAnyPartitioning(this.keys);
+		return Collections.singletonList(props);
+	}
+
+	@Override
+	protected List<RequestedLocalProperties> createPossibleLocalProperties() {
+		return Collections.singletonList(new RequestedLocalProperties());
+	}
+
+	@Override
+	public GlobalProperties computeGlobalProperties(GlobalProperties gProps) {
+		gProps.clearUniqueFieldCombinations();
+		return gProps;
+	}
+
+	@Override
+	public LocalProperties computeLocalProperties(LocalProperties lProps) {
+		// the hash set emits the records in the order in which they arrive, minus the duplicates 
+		lProps.clearUniqueFieldSets();
+		return lProps;
+	}
+}
@@ -280,6 +280,29 @@ public class Channel implements EstimateProvider, Cloneable, DumpableConnection<
 		this.localStrategyComparator = localStrategyComparator;
 	}
 	
+	/**
+	 * Checks whether this channel range partitions its data without a given data distribution. In that case,
+	 * the partition boundaries are computed from a sample of the data, which requires the data to be
+	 * materialized until the sample is complete. The memory for that materialization is the memory of the
+	 * global strategy.
+	 * 
+	 * @return True, if the channel range partitions the data based on a sample, false otherwise.
+	 */
+	public boolean isRangePartitionedWithSampling() {
+		return this.shipStrategy == ShipStrategyType.PARTITION_RANGE && this.dataDistribution == null;
+	}
+	
+	/**
+	 * Checks whether the partitioning of this channel depends on a sample of the data, either for range
+	 * partitioning without a given data distribution, or for skew resilient hash partitioning. In both cases,
+	 * the data is materialized until the sample is complete, using the memory of the global strategy.
+	 * 
+	 * @return True, if the channel partitions the data based on a sample, false otherwise.
+	 */
+	public boolean isPartitionedBasedOnSample() {
+		return isRangePartitionedWithSampling() || this.shipStrategy.isSkewResilient();
+	}
+	
 	public long getMemoryGlobalStrategy() {
 		return memoryGlobalStrategy;
 	}
@@ -340,6 +363,14 @@ public class Channel implements EstimateProvider, Cloneable, DumpableConnection<
 				case PARTITION_HASH:
 					this.globalProps.setHashPartitioned(this.shipKeys);
 					break;
+				case PARTITION_HASH_SPLIT_HEAVY:
+				case PARTITION_HASH_REPLICATE_HEAVY:
+					// the heavy hitter keys are spread over several partitions, but all records of the
+					// other side that match them are replicated to these partitions. towards the consumer
+					// that pairs the two inputs, the data is hence co-located as if it was hash partitioned.
+					this.globalProps.clearUniqueFieldCombinations();
+					this.globalProps.setHashPartitioned(this.shipKeys);
+					break;
 				case PARTITION_RANGE:
 					this.globalProps.setRangePartitioned(Utils.createOrdering(this.shipKeys, this.shipSortOrder));
 					break;
@@ -395,6 +426,8 @@ public class Channel implements EstimateProvider, Cloneable, DumpableConnection<
 			switch (this.shipStrategy) {
 				case BROADCAST:
 				case PARTITION_HASH:
+				case PARTITION_HASH_SPLIT_HEAVY:
+				case PARTITION_HASH_REPLICATE_HEAVY:
 				case PARTITION_RANGE:
 				case PARTITION_RANDOM:
 					props.reset();
@@ -429,6 +462,8 @@ public class Channel implements EstimateProvider, Cloneable, DumpableConnection<
 		case NONE: // excluded by sanity check. lust here for verification check completion
 		case BROADCAST:
 		case PARTITION_HASH:
+		case PARTITION_HASH_SPLIT_HEAVY:
+		case PARTITION_HASH_REPLICATE_HEAVY:
 		case PARTITION_RANGE:
 		case PARTITION_RANDOM:
 			return;
@@ -456,6 +491,8 @@ public class Channel implements EstimateProvider, Cloneable, DumpableConnection<
 		case PARTITION_LOCAL_HASH:
 		case BROADCAST:
 		case PARTITION_HASH:
+		case PARTITION_HASH_SPLIT_HEAVY:
+		case PARTITION_HASH_REPLICATE_HEAVY:
 		case PARTITION_RANGE:
 		case PARTITION_RANDOM:
 			return;
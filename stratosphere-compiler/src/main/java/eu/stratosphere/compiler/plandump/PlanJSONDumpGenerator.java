@@ -234,6 +234,10 @@ public class PlanJSONDumpGenerator {
 				((SingleInputPlanNode) node).getDriverStrategy() == DriverStrategy.PARTIAL_GROUP) {
 			name = "Combine";
 		}
+		else if (name.equals("Distinct") && (node instanceof SingleInputPlanNode) && 
+				((SingleInputPlanNode) node).getDriverStrategy() == DriverStrategy.HASH_PARTIAL_DISTINCT) {
+			name = "Partial Distinct";
+		}
 		
 		// output the type identifier
 		writer.print(",\n\t\t\"type\": \"" + type + "\"");
@@ -314,6 +318,12 @@ public class PlanJSONDumpGenerator {
 						case PARTITION_HASH:
 							shipStrategy = "Hash Partition";
 							break;
+						case PARTITION_HASH_SPLIT_HEAVY:
+							shipStrategy = "Hash Partition (split heavy hitters)";
+							break;
+						case PARTITION_HASH_REPLICATE_HEAVY:
+							shipStrategy = "Hash Partition (replicate heavy hitters)";
+							break;
 						case PARTITION_RANGE:
 							shipStrategy = "Range Partition";
 							break;
@@ -409,6 +419,18 @@ public class PlanJSONDumpGenerator {
 			case SORTED_GROUP:
 				locString = "Ordered Grouping";
 				break;
+			case HASH_GROUP:
+				locString = "Hash Grouping";
+				break;
+			case HASH_PARTIAL_GROUP:
+				locString = "Hash Partial Grouping";
+				break;
+			case HASH_DISTINCT:
+				locString = "Hash Distinct";
+				break;
+			case HASH_PARTIAL_DISTINCT:
+				locString = "Hash Partial Distinct";
+				break;
 			case ALL_GROUP: 
 				locString = "Group all into a single group";
 				break;
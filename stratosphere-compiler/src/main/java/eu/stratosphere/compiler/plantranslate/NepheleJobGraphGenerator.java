@@ -67,6 +67,7 @@ import eu.stratosphere.pact.runtime.iterative.task.IterationHeadPactTask;
 import eu.stratosphere.pact.runtime.iterative.task.IterationIntermediatePactTask;
 import eu.stratosphere.pact.runtime.iterative.task.IterationSynchronizationSinkTask;
 import eu.stratosphere.pact.runtime.iterative.task.IterationTailPactTask;
+import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordSerializerFactory;
 import eu.stratosphere.pact.runtime.shipping.ShipStrategyType;
 import eu.stratosphere.pact.runtime.task.CoGroupDriver;
 import eu.stratosphere.pact.runtime.task.DataSinkTask;
@@ -76,9 +77,11 @@ import eu.stratosphere.pact.runtime.task.JoinWithSolutionSetCoGroupDriver.Soluti
 import eu.stratosphere.pact.runtime.task.JoinWithSolutionSetCoGroupDriver.SolutionSetSecondCoGroupDriver;
 import eu.stratosphere.pact.runtime.task.JoinWithSolutionSetMatchDriver.SolutionSetFirstJoinDriver;
 import eu.stratosphere.pact.runtime.task.JoinWithSolutionSetMatchDriver.SolutionSetSecondJoinDriver;
+import eu.stratosphere.pact.runtime.task.KeyHashSampleDriver;
 import eu.stratosphere.pact.runtime.task.MatchDriver;
 import eu.stratosphere.pact.runtime.task.NoOpDriver;
 import eu.stratosphere.pact.runtime.task.RegularPactTask;
+import eu.stratosphere.pact.runtime.task.SampleDriver;
 import eu.stratosphere.pact.runtime.task.chaining.ChainedDriver;
 import eu.stratosphere.pact.runtime.task.util.LocalStrategy;
 import eu.stratosphere.pact.runtime.task.util.TaskConfig;
@@ -102,6 +105,10 @@ public class NepheleJobGraphGenerator implements Visitor<PlanNode> {
 	
 	private static final Log LOG = LogFactory.getLog(NepheleJobGraphGenerator.class);
 	
+	private static final String RANGE_PARTITION_SAMPLE_NAME = "range-partition-sample";
+	
+	private static final String HEAVY_HITTER_SAMPLE_NAME = "heavy-hitter-sample";
+	
 	// ------------------------------------------------------------------------
 
 	private JobGraph jobGraph; // the job that is currently built
@@ -115,6 +122,8 @@ public class NepheleJobGraphGenerator implements Visitor<PlanNode> {
 	private List<TaskInChain> chainedTasksInSequence;
 	
 	private List<AbstractJobVertex> auxVertices; // auxiliary vertices which are added during job graph generation
+	
+	private Map<AbstractJobVertex, JobTaskVertex> heavyHitterSamplers; // the heavy hitter samplers, by the vertex whose inputs they sample
 
 	private AbstractJobVertex maxDegreeVertex; // the vertex with the highest degree of parallelism
 	
@@ -158,6 +167,7 @@ public class NepheleJobGraphGenerator implements Visitor<PlanNode> {
 		this.chainedTasks = new HashMap<PlanNode, TaskInChain>();
 		this.chainedTasksInSequence = new ArrayList<TaskInChain>();
 		this.auxVertices = new ArrayList<AbstractJobVertex>();
+		this.heavyHitterSamplers = new HashMap<AbstractJobVertex, JobTaskVertex>();
 		this.iterations = new HashMap<IterationPlanNode, IterationDescriptor>();
 		this.maxDegreeVertex = null;
 		
@@ -210,6 +220,7 @@ public class NepheleJobGraphGenerator implements Visitor<PlanNode> {
 		this.chainedTasks = null;
 		this.chainedTasksInSequence = null;
 		this.auxVertices = null;
+		this.heavyHitterSamplers = null;
 		this.iterations = null;
 		this.jobGraph = null;
 
@@ -566,6 +577,7 @@ public class NepheleJobGraphGenerator implements Visitor<PlanNode> {
 				int broadcastInputIndexDelta = translateChannel(broadcastInput, broadcastInputIndex, targetVertex, targetVertexConfig, true);
 				targetVertexConfig.setBroadcastInputName(broadcastInput.getName(), broadcastInputIndex);
 				targetVertexConfig.setBroadcastInputSerializer(broadcastInput.getSerializer(), broadcastInputIndex);
+				targetVertexConfig.setBroadcastVariableId(targetVertex.getID() + "." + broadcastInputIndex, broadcastInputIndex);
 				broadcastInputIndex += broadcastInputIndexDelta;
 			}
 		} catch (Exception e) {
@@ -1035,6 +1047,15 @@ public class NepheleJobGraphGenerator implements Visitor<PlanNode> {
 			final AbstractJobVertex targetVertex, final TaskConfig targetConfig, boolean isBroadcast)
 	throws JobGraphDefinitionException, CompilerException
 	{
+		if (channel.isRangePartitionedWithSampling()) {
+			return connectWithSampledRangePartitioning(channel, inputNumber, sourceVertex, sourceConfig,
+				targetVertex, targetConfig);
+		}
+		if (channel.getShipStrategy().isSkewResilient()) {
+			return connectWithSkewResilientPartitioning(channel, inputNumber, sourceVertex, sourceConfig,
+				targetVertex, targetConfig);
+		}
+		
 		// ------------ connect the vertices to the job graph --------------
 		final ChannelType channelType;
 		final DistributionPattern distributionPattern;
@@ -1048,6 +1069,8 @@ public class NepheleJobGraphGenerator implements Visitor<PlanNode> {
 			case PARTITION_RANDOM:
 			case BROADCAST:
 			case PARTITION_HASH:
+			case PARTITION_HASH_SPLIT_HEAVY:
+			case PARTITION_HASH_REPLICATE_HEAVY:
 			case PARTITION_RANGE:
 				distributionPattern = DistributionPattern.BIPARTITE;
 				channelType = ChannelType.NETWORK;
@@ -1069,14 +1092,8 @@ public class NepheleJobGraphGenerator implements Visitor<PlanNode> {
 		}
 		
 		if (channel.getShipStrategy() == ShipStrategyType.PARTITION_RANGE) {
-			
 			final DataDistribution dataDistribution = channel.getDataDistribution();
-			if(dataDistribution != null) {
-				sourceConfig.setOutputDataDistribution(dataDistribution, outputIndex);
-			} else {
-				throw new RuntimeException("Range partitioning requires data distribution");
-				// TODO: inject code and configuration for automatic histogram generation
-			}
+			sourceConfig.setOutputDataDistribution(dataDistribution, outputIndex);
 		}
 //		if (targetContract instanceof GenericDataSink) {
 //			final DataDistribution distri = ((GenericDataSink) targetContract).getDataDistribution();
@@ -1094,6 +1111,189 @@ public class NepheleJobGraphGenerator implements Visitor<PlanNode> {
 		return distributionPattern;
 	}
 	
+	/**
+	 * Connects the source to the target through a range partitioning whose boundaries are computed from a
+	 * sample of the data. Two auxiliary vertices are inserted with the degree of parallelism of the source:
+	 * A sampler that draws a sample from each parallel instance of the source and broadcasts it, and a
+	 * partitioner that materializes the source's data until the sample is complete, computes the boundaries
+	 * from the sample and range partitions the materialized data towards the target. Since all partitioner
+	 * instances receive the same sample, they compute the same boundaries.
+	 */
+	private DistributionPattern connectWithSampledRangePartitioning(Channel channel, int inputNumber,
+			final AbstractJobVertex sourceVertex, final TaskConfig sourceConfig,
+			final AbstractJobVertex targetVertex, final TaskConfig targetConfig)
+	throws JobGraphDefinitionException, CompilerException
+	{
+		if (this.currentIteration != null) {
+			throw new CompilerException("Range partitioning without a data distribution is currently not supported " +
+					"inside iterations.");
+		}
+		if (!channel.getShipStrategyComparator().createComparator().supportsNormalizedKey()) {
+			throw new CompilerException("Range partitioning without a data distribution requires a key type " +
+					"that supports normalized keys.");
+		}
+		if (channel.getMemoryGlobalStrategy() < 1) {
+			throw new CompilerException("Bug: No memory has been assigned to materialize the range partitioned data.");
+		}
+		
+		final TypeSerializerFactory<?> serializer = channel.getSerializer();
+		final String sourceName = channel.getSource().getNodeName();
+		
+		// create the partitioner, which is fed the source's data
+		final JobTaskVertex partitioner = createSampleBasedPartitioner("RangePartition(" + sourceName + ")",
+			channel, sourceVertex, sourceConfig, serializer, RANGE_PARTITION_SAMPLE_NAME);
+		final TaskConfig partitionerConfig = new TaskConfig(partitioner.getConfiguration());
+		
+		// create the sampler, which is fed the source's data as well
+		final JobTaskVertex sampler = new JobTaskVertex("RangeSample(" + sourceName + ")", this.jobGraph);
+		sampler.setTaskClass(RegularPactTask.class);
+		sampler.setNumberOfSubtasks(sourceVertex.getNumberOfSubtasks());
+		sampler.setNumberOfSubtasksPerInstance(sourceVertex.getNumberOfSubtasksPerInstance());
+		this.auxVertices.add(sampler);
+		
+		final TaskConfig samplerConfig = new TaskConfig(sampler.getConfiguration());
+		samplerConfig.setDriver(SampleDriver.class);
+		samplerConfig.setDriverStrategy(DriverStrategy.SAMPLE);
+		samplerConfig.setInputSerializer(serializer, 0);
+		
+		sourceVertex.connectTo(sampler, ChannelType.NETWORK, DistributionPattern.POINTWISE);
+		sourceConfig.addOutputShipStrategy(ShipStrategyType.FORWARD);
+		samplerConfig.addInputToGroup(0);
+		
+		// broadcast the sample to all partitioners
+		sampler.connectTo(partitioner, ChannelType.NETWORK, DistributionPattern.BIPARTITE);
+		samplerConfig.addOutputShipStrategy(ShipStrategyType.BROADCAST);
+		samplerConfig.setOutputSerializer(serializer);
+		partitionerConfig.addBroadcastInputToGroup(0);
+		
+		// range partition the data towards the target
+		partitioner.connectTo(targetVertex, ChannelType.NETWORK, DistributionPattern.BIPARTITE);
+		partitionerConfig.addOutputShipStrategy(ShipStrategyType.PARTITION_RANGE);
+		partitionerConfig.setOutputSerializer(serializer);
+		partitionerConfig.setOutputComparator(channel.getShipStrategyComparator(), 0);
+		partitionerConfig.setOutputRangePartitionSampleName(RANGE_PARTITION_SAMPLE_NAME, 0);
+		targetConfig.addInputToGroup(inputNumber);
+		
+		return DistributionPattern.BIPARTITE;
+	}
+	
+	/**
+	 * Connects the source to the target through a skew resilient hash partitioning. Both inputs of the target
+	 * share a sampler, which draws a sample of the key hashes of the input whose heavy hitters are split, and
+	 * broadcasts it. Each input gets a partitioner with the degree of parallelism of its source, which
+	 * materializes the source's data until the sample is complete, determines the heavy hitters from it, and
+	 * partitions the materialized data towards the target. Since all partitioners of both inputs receive the
+	 * same sample, they agree on the heavy hitters and on the partitions that they are spread over.
+	 */
+	private DistributionPattern connectWithSkewResilientPartitioning(Channel channel, int inputNumber,
+			final AbstractJobVertex sourceVertex, final TaskConfig sourceConfig,
+			final AbstractJobVertex targetVertex, final TaskConfig targetConfig)
+	throws JobGraphDefinitionException, CompilerException
+	{
+		if (this.currentIteration != null) {
+			throw new CompilerException("Skew resilient hash partitioning is currently not supported inside iterations.");
+		}
+		if (channel.getMemoryGlobalStrategy() < 1) {
+			throw new CompilerException("Bug: No memory has been assigned to materialize the skew resilient partitioned data.");
+		}
+		
+		final TypeSerializerFactory<?> serializer = channel.getSerializer();
+		final TypeSerializerFactory<?> sampleSerializer = new RecordSerializerFactory();
+		final ShipStrategyType shipStrategy = channel.getShipStrategy();
+		
+		// create the partitioner, which is fed the source's data
+		final JobTaskVertex partitioner = createSampleBasedPartitioner(
+			"SkewResilientPartition(" + channel.getSource().getNodeName() + ")",
+			channel, sourceVertex, sourceConfig, sampleSerializer, HEAVY_HITTER_SAMPLE_NAME);
+		final TaskConfig partitionerConfig = new TaskConfig(partitioner.getConfiguration());
+		
+		// get the sampler shared by both inputs, or create it, if this is the first of the two inputs
+		JobTaskVertex sampler = this.heavyHitterSamplers.get(targetVertex);
+		if (sampler == null) {
+			sampler = new JobTaskVertex("HeavyHitterSample(" + targetVertex.getName() + ")", this.jobGraph);
+			sampler.setTaskClass(RegularPactTask.class);
+			sampler.setNumberOfSubtasks(targetVertex.getNumberOfSubtasks());
+			sampler.setNumberOfSubtasksPerInstance(targetVertex.getNumberOfSubtasksPerInstance());
+			this.auxVertices.add(sampler);
+			this.heavyHitterSamplers.put(targetVertex, sampler);
+		}
+		final TaskConfig samplerConfig = new TaskConfig(sampler.getConfiguration());
+		if (samplerConfig.getNumOutputs() == 0) {
+			samplerConfig.setOutputSerializer(sampleSerializer);
+		}
+		
+		// the sampler is fed the data of the input whose heavy hitters are split
+		if (shipStrategy == ShipStrategyType.PARTITION_HASH_SPLIT_HEAVY) {
+			samplerConfig.setDriver(KeyHashSampleDriver.class);
+			samplerConfig.setDriverStrategy(DriverStrategy.SAMPLE_KEY_HASHES);
+			samplerConfig.setInputSerializer(serializer, 0);
+			samplerConfig.setDriverComparator(channel.getShipStrategyComparator(), 0);
+			
+			if (sourceVertex.getNumberOfSubtasks() == sampler.getNumberOfSubtasks() &&
+					sourceVertex.getNumberOfSubtasksPerInstance() == sampler.getNumberOfSubtasksPerInstance())
+			{
+				sourceVertex.connectTo(sampler, ChannelType.NETWORK, DistributionPattern.POINTWISE);
+				sourceConfig.addOutputShipStrategy(ShipStrategyType.FORWARD);
+			} else {
+				sourceVertex.connectTo(sampler, ChannelType.NETWORK, DistributionPattern.BIPARTITE);
+				sourceConfig.addOutputShipStrategy(ShipStrategyType.PARTITION_RANDOM);
+			}
+			samplerConfig.addInputToGroup(0);
+		}
+		
+		// broadcast the sample to the partitioner
+		sampler.connectTo(partitioner, ChannelType.NETWORK, DistributionPattern.BIPARTITE);
+		samplerConfig.addOutputShipStrategy(ShipStrategyType.BROADCAST);
+		partitionerConfig.addBroadcastInputToGroup(0);
+		
+		// partition the data towards the target
+		partitioner.connectTo(targetVertex, ChannelType.NETWORK, DistributionPattern.BIPARTITE);
+		partitionerConfig.addOutputShipStrategy(shipStrategy);
+		partitionerConfig.setOutputSerializer(serializer);
+		partitionerConfig.setOutputComparator(channel.getShipStrategyComparator(), 0);
+		partitionerConfig.setOutputHeavyHitterSampleName(HEAVY_HITTER_SAMPLE_NAME, 0);
+		targetConfig.addInputToGroup(inputNumber);
+		
+		return DistributionPattern.BIPARTITE;
+	}
+	
+	/**
+	 * Creates a partitioner vertex with the degree of parallelism of the source, and forwards the source's data
+	 * to it. The partitioner materializes its input until the sample, which it receives as the broadcast
+	 * variable with the given name, is complete. The sample and the output still need to be connected.
+	 */
+	private JobTaskVertex createSampleBasedPartitioner(String name, Channel channel,
+			final AbstractJobVertex sourceVertex, final TaskConfig sourceConfig,
+			TypeSerializerFactory<?> sampleSerializer, String sampleName)
+	throws JobGraphDefinitionException
+	{
+		final TypeSerializerFactory<?> serializer = channel.getSerializer();
+		
+		final JobTaskVertex partitioner = new JobTaskVertex(name, this.jobGraph);
+		partitioner.setTaskClass(RegularPactTask.class);
+		partitioner.setNumberOfSubtasks(sourceVertex.getNumberOfSubtasks());
+		partitioner.setNumberOfSubtasksPerInstance(sourceVertex.getNumberOfSubtasksPerInstance());
+		this.auxVertices.add(partitioner);
+		
+		final TaskConfig partitionerConfig = new TaskConfig(partitioner.getConfiguration());
+		partitionerConfig.setDriver(NoOpDriver.class);
+		partitionerConfig.setDriverStrategy(DriverStrategy.UNARY_NO_OP);
+		partitionerConfig.setInputSerializer(serializer, 0);
+		partitionerConfig.setInputAsynchronouslyMaterialized(0, true);
+		partitionerConfig.setInputMaterializationMemory(0, channel.getMemoryGlobalStrategy());
+		partitionerConfig.setBroadcastInputSerializer(sampleSerializer, 0);
+		partitionerConfig.setBroadcastInputName(sampleName, 0);
+		
+		if (sourceConfig.getNumOutputs() == 0) {
+			sourceConfig.setOutputSerializer(serializer);
+		}
+		sourceVertex.connectTo(partitioner, ChannelType.NETWORK, DistributionPattern.POINTWISE);
+		sourceConfig.addOutputShipStrategy(ShipStrategyType.FORWARD);
+		partitionerConfig.addInputToGroup(0);
+		
+		return partitioner;
+	}
+	
 	private void addLocalInfoFromChannelToConfig(Channel channel, TaskConfig config, int inputNum, boolean isBroadcastChannel) {
 		// serializer
 		if (isBroadcastChannel) {
@@ -360,21 +360,27 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 			while (samplesTaken < numSamples && fileNum < allFiles.size()) {
 				// make a split for the sample and use it to read a record
 				FileStatus file = allFiles.get(fileNum);
-				FileInputSplit split = new FileInputSplit(0, file.getPath(), offset, file.getLen() - offset, null);
-
-				// we open the split, read one line, and take its length
-				try {
-					open(split);
-					if (readLine()) {
-						totalNumBytes += this.currLen + this.delimiter.length;
-						samplesTaken++;
+				
+				// compressed files can only be entered at their beginning, so we sample only their first record
+				if (offset != 0 && testForUnsplittable(file)) {
+					offset = file.getLen();
+				} else {
+					FileInputSplit split = new FileInputSplit(0, file.getPath(), offset, file.getLen() - offset, null);
+
+					// we open the split, read one line, and take its length
+					try {
+						open(split);
+						if (readLine()) {
+							totalNumBytes += this.currLen + this.delimiter.length;
+							samplesTaken++;
+						}
+					} finally {
+						// close the file stream, do not release the buffers
+						super.close();
 					}
-				} finally {
-					// close the file stream, do not release the buffers
-					super.close();
-				}
 
-				offset += stepSize;
+					offset += stepSize;
+				}
 
 				// skip to the next file, if necessary
 				while (fileNum < allFiles.size() && offset >= (file = allFiles.get(fileNum)).getLen()) {
@@ -383,6 +389,10 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 				}
 			}
 			
+			if (samplesTaken == 0) {
+				return stats;
+			}
+			
 			// we have the width, store it
 			return new FileBaseStatistics(stats.getLastModificationTime(),
 				stats.getTotalInputSize(), totalNumBytes / (float) samplesTaken);
@@ -562,8 +572,12 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 	}
 
 	private final boolean fillBuffer() throws IOException {
+		final boolean readWholeSplit = this.splitLength == READ_WHOLE_SPLIT_FLAG;
+		
 		int toRead = this.splitLength > this.readBuffer.length ? this.readBuffer.length : (int) this.splitLength;
-		if (this.splitLength <= 0) {
+		if (readWholeSplit) {
+			toRead = this.readBuffer.length;
+		} else if (this.splitLength <= 0) {
 			toRead = this.readBuffer.length;
 			this.overLimit = true;
 		}
@@ -575,7 +589,9 @@ public abstract class DelimitedInputFormat<OT> extends FileInputFormat<OT> {
 			this.stream = null;
 			return false;
 		} else {
-			this.splitLength -= read;
+			if (!readWholeSplit) {
+				this.splitLength -= read;
+			}
 			this.readPos = 0;
 			this.limit = read;
 			return true;
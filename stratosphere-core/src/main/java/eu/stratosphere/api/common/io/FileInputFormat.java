@@ -16,11 +16,16 @@ package eu.stratosphere.api.common.io;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import eu.stratosphere.api.common.io.compression.DeflateInflaterInputStreamFactory;
+import eu.stratosphere.api.common.io.compression.GzipInflaterInputStreamFactory;
+import eu.stratosphere.api.common.io.compression.InflaterInputStreamFactory;
 import eu.stratosphere.api.common.io.statistics.BaseStatistics;
 import eu.stratosphere.api.common.operators.GenericDataSource;
 import eu.stratosphere.configuration.Configuration;
@@ -98,6 +103,74 @@ public abstract class FileInputFormat<OT> implements InputFormat<OT, FileInputSp
 		}
 	}
 	
+	/**
+	 * The split length that indicates that the split is read until the end of the (decompressed) stream,
+	 * rather than up to a given number of bytes.
+	 */
+	public static final long READ_WHOLE_SPLIT_FLAG = -1L;
+	
+	/**
+	 * The factories for decompressing streams, keyed by the (lower case) file extension they are used for.
+	 */
+	private static final Map<String, InflaterInputStreamFactory<?>> INFLATER_INPUT_STREAM_FACTORIES = 
+			new HashMap<String, InflaterInputStreamFactory<?>>();
+	
+	static {
+		registerInflaterInputStreamFactory(DeflateInflaterInputStreamFactory.getInstance());
+		registerInflaterInputStreamFactory(GzipInflaterInputStreamFactory.getInstance());
+	}
+	
+	/**
+	 * Registers a decompression codec for all of its common file extensions. Files with one of these extensions
+	 * are transparently decompressed when read. Because a compressed stream cannot be entered at an arbitrary
+	 * position, such files are read as a whole by a single split.
+	 * 
+	 * @param factory The factory for the decompressing streams.
+	 */
+	public static void registerInflaterInputStreamFactory(InflaterInputStreamFactory<?> factory) {
+		for (String fileExtension : factory.getCommonFileExtensions()) {
+			registerInflaterInputStreamFactory(fileExtension, factory);
+		}
+	}
+	
+	/**
+	 * Registers a decompression codec for files with the given extension, replacing any codec that was 
+	 * previously registered for that extension.
+	 * 
+	 * @param fileExtension The file extension, without the leading dot.
+	 * @param factory The factory for the decompressing streams.
+	 */
+	public static void registerInflaterInputStreamFactory(String fileExtension, InflaterInputStreamFactory<?> factory) {
+		if (fileExtension == null || factory == null) {
+			throw new NullPointerException();
+		}
+		synchronized (INFLATER_INPUT_STREAM_FACTORIES) {
+			final InflaterInputStreamFactory<?> previous = 
+					INFLATER_INPUT_STREAM_FACTORIES.put(fileExtension.toLowerCase(), factory);
+			if (previous != null && previous != factory && LOG.isWarnEnabled()) {
+				LOG.warn("Replacing the decompression codec for file extension '" + fileExtension + "'.");
+			}
+		}
+	}
+	
+	/**
+	 * Gets the decompression codec for the given file, based on its extension.
+	 * 
+	 * @param path The path of the file.
+	 * @return The factory for the decompressing streams, or null, if the file is not compressed.
+	 */
+	protected static InflaterInputStreamFactory<?> getInflaterInputStreamFactory(Path path) {
+		final String name = path.getName();
+		final int dotPos = name.lastIndexOf('.');
+		if (dotPos < 0 || dotPos == name.length() - 1) {
+			return null;
+		}
+		
+		synchronized (INFLATER_INPUT_STREAM_FACTORIES) {
+			return INFLATER_INPUT_STREAM_FACTORIES.get(name.substring(dotPos + 1).toLowerCase());
+		}
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	//  Variables for internal operation.
 	//  They are all transient, because we do not want them so be serialized 
@@ -431,6 +504,15 @@ public abstract class FileInputFormat<OT> implements InputFormat<OT, FileInputSp
 			final long len = file.getLen();
 			final long blockSize = file.getBlockSize();
 			
+			if (testForUnsplittable(file)) {
+				// the whole file goes into one split, which is placed on the host holding its first block
+				final BlockLocation[] blocks = fs.getFileBlockLocations(file, 0, len);
+				Arrays.sort(blocks);
+				final String[] hosts = blocks.length > 0 ? blocks[0].getHosts() : new String[0];
+				inputSplits.add(new FileInputSplit(splitNum++, file.getPath(), 0, len, hosts));
+				continue;
+			}
+			
 			final long minSplitSize;
 			if (this.minSplitSize <= blockSize) {
 				minSplitSize = this.minSplitSize;
@@ -495,6 +577,18 @@ public abstract class FileInputFormat<OT> implements InputFormat<OT, FileInputSp
 		return inputSplits.toArray(new FileInputSplit[inputSplits.size()]);
 	}
 
+	/**
+	 * Checks whether the given file must be read as a whole by a single split. That is the case for files
+	 * that are compressed with a stream codec, because decompression can only start at the beginning of the file.
+	 * The method may be overridden by formats that are able to enter a compressed file at certain positions.
+	 * 
+	 * @param file The file to check.
+	 * @return True, if the file cannot be split, false otherwise.
+	 */
+	protected boolean testForUnsplittable(FileStatus file) {
+		return getInflaterInputStreamFactory(file.getPath()) != null;
+	}
+
 	/**
 	 * A simple hook to filter files and directories from the input.
 	 * The method may be overridden. Hadoop's FileInputFormat has a similar mechanism and applies the
@@ -544,6 +638,10 @@ public abstract class FileInputFormat<OT> implements InputFormat<OT, FileInputSp
 	 * <p>
 	 * The stream is actually opened in an asynchronous thread to make sure any interruptions to the thread 
 	 * working on the input format do not reach the file system.
+	 * <p>
+	 * If the file is compressed with a registered codec, the stream is wrapped into a decompressing stream.
+	 * In that case, the split must start at the beginning of the file, and its length is set to 
+	 * {@link #READ_WHOLE_SPLIT_FLAG}, because the decompressed length is not known in advance.
 	 * 
 	 * @see eu.stratosphere.api.io.InputFormat#open(eu.stratosphere.nephele.template.InputSplit)
 	 */
@@ -575,8 +673,20 @@ public abstract class FileInputFormat<OT> implements InputFormat<OT, FileInputSp
 					" [" + splitStart + "," + splitLength + "]: " + t.getMessage(), t);
 		}
 		
-		// get FSDataInputStream
-		this.stream.seek(this.splitStart);
+		final InflaterInputStreamFactory<?> inflaterFactory = getInflaterInputStreamFactory(fileSplit.getPath());
+		if (inflaterFactory != null) {
+			if (this.splitStart != 0) {
+				this.stream.close();
+				this.stream = null;
+				throw new IOException("The compressed file " + fileSplit.getPath() + " can only be read as a whole, " +
+					"but the split starts at offset " + this.splitStart + '.');
+			}
+			this.stream = new InputStreamFSInputWrapper(inflaterFactory.create(this.stream));
+			this.splitLength = READ_WHOLE_SPLIT_FLAG;
+		} else {
+			// get FSDataInputStream
+			this.stream.seek(this.splitStart);
+		}
 	}
 	
 	/**
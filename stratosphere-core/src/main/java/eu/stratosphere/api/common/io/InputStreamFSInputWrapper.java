@@ -0,0 +1,84 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.api.common.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import eu.stratosphere.core.fs.FSDataInputStream;
+
+/**
+ * Wraps an arbitrary {@link InputStream} (such as a decompressing stream) as an {@link FSDataInputStream}.
+ * The wrapped stream can only be positioned forward, which is done by skipping over the bytes in between.
+ */
+public class InputStreamFSInputWrapper extends FSDataInputStream {
+
+	private final InputStream inStream;
+
+	private long pos;
+
+	public InputStreamFSInputWrapper(InputStream inStream) {
+		this.inStream = inStream;
+	}
+
+	@Override
+	public void seek(long desired) throws IOException {
+		if (desired < this.pos) {
+			throw new IllegalArgumentException("Wrapped InputStream: cannot seek backwards from position " + 
+				this.pos + " to " + desired + '.');
+		}
+
+		while (this.pos < desired) {
+			long skipped = this.inStream.skip(desired - this.pos);
+			if (skipped <= 0) {
+				// skip() may return zero before the end of the stream, so probe with a single byte
+				if (read() == -1) {
+					throw new IOException("Wrapped InputStream: reached the end of the stream at position " + 
+						this.pos + " while seeking to " + desired + '.');
+				}
+			} else {
+				this.pos += skipped;
+			}
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		int read = this.inStream.read();
+		if (read != -1) {
+			this.pos++;
+		}
+		return read;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int numReadBytes = this.inStream.read(b, off, len);
+		if (numReadBytes > 0) {
+			this.pos += numReadBytes;
+		}
+		return numReadBytes;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return this.inStream.available();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.inStream.close();
+	}
+}
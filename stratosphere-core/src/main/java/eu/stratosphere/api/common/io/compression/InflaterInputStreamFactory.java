@@ -0,0 +1,45 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.api.common.io.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+
+/**
+ * Creates a new instance of a decompressing {@link InputStream} that reads from a given (compressed) stream.
+ * The {@link eu.stratosphere.api.common.io.FileInputFormat} picks the factory by the extension of the file
+ * that is read.
+ *
+ * @param <T> The type of the decompressing stream.
+ */
+public interface InflaterInputStreamFactory<T extends InputStream> {
+
+	/**
+	 * Creates a stream that decompresses the data read from the given stream.
+	 *
+	 * @param in The stream of compressed data.
+	 * @return A stream returning the decompressed data.
+	 * @throws IOException Thrown, if the decompressing stream could not be set up, e.g. because of a malformed header.
+	 */
+	T create(InputStream in) throws IOException;
+
+	/**
+	 * Gets the file extensions (without the leading dot) that files compressed with this codec commonly have.
+	 *
+	 * @return The common file extensions of this codec.
+	 */
+	Collection<String> getCommonFileExtensions();
+}
@@ -308,12 +308,14 @@ public class GenericDataSink extends Operator {
 	
 	/**
 	 * Sets the sink to partition the records into ranges over the given ordering.
+	 * The bucket boundaries are determined from a sample of the data that is drawn at runtime.
+	 * That requires the key types of the ordering to support normalized keys.
 	 * 
 	 * @param partitionOrdering The record ordering over which to partition in ranges.
 	 */
 	public void setRangePartitioned(Ordering partitionOrdering) {
-		throw new UnsupportedOperationException(
-			"Range partitioning is currently only supported with a user supplied data distribution.");
+		this.partitionOrdering = partitionOrdering;
+		this.distribution = null;
 	}
 	
 	/**
@@ -0,0 +1,44 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.api.common.operators.base;
+
+import eu.stratosphere.api.common.functions.GenericGroupReduce;
+import eu.stratosphere.api.common.operators.util.UserCodeWrapper;
+
+
+/**
+ * Operator that eliminates duplicates: For each distinct combination of values in the key fields, exactly one
+ * (arbitrary) record is retained. The operator is a special case of a group reduce, which emits the first
+ * record of each group. The user function implements exactly that behavior, but the runtime is free to eliminate
+ * the duplicates in a different way (for example with a hash set) without invoking the user function.
+ * 
+ * @see GenericGroupReduce
+ */
+public class DistinctOperatorBase<T extends GenericGroupReduce<?, ?>> extends GroupReduceOperatorBase<T> {
+	
+	public DistinctOperatorBase(UserCodeWrapper<T> udf, int[] keyPositions, String name) {
+		super(udf, keyPositions, name);
+		setCombinable(true);
+	}
+	
+	public DistinctOperatorBase(T udf, int[] keyPositions, String name) {
+		super(udf, keyPositions, name);
+		setCombinable(true);
+	}
+	
+	public DistinctOperatorBase(Class<? extends T> udf, int[] keyPositions, String name) {
+		super(udf, keyPositions, name);
+		setCombinable(true);
+	}
+}
@@ -34,28 +34,50 @@ public final class DoubleComparator extends BasicTypeComparator<Double> {
 	public int compare(DataInputView firstSource, DataInputView secondSource) throws IOException {
 		double l1 = firstSource.readDouble();
 		double l2 = secondSource.readDouble();
-		return (l1 < l2 ? -1 : (l1 > l2 ? 1 : 0));
+		int comp = Double.compare(l1, l2);
+		return ascendingComparison ? comp : -comp;
 	}
 
 
 	@Override
 	public boolean supportsNormalizedKey() {
-		return false;
+		return true;
 	}
 
 	@Override
 	public int getNormalizeKeyLen() {
-		return 0;
+		return 8;
 	}
 
 	@Override
 	public boolean isNormalizedKeyPrefixOnly(int keyBytes) {
-		return true;
+		return keyBytes < 8;
 	}
 
 	@Override
-	public void putNormalizedKey(Double value, MemorySegment target, int offset, int numBytes) {
-		throw new UnsupportedOperationException();
+	public void putNormalizedKey(Double dValue, MemorySegment target, int offset, int numBytes) {
+		// see FloatComparator for an explanation of the bit transformation
+		long bits = Double.doubleToLongBits(dValue.doubleValue());
+		long value = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+		
+		// see IntValue for an explanation of the logic
+		if (numBytes == 8) {
+			// default case, full normalized key
+			target.putLongBigEndian(offset, value);
+		}
+		else if (numBytes <= 0) {
+		}
+		else if (numBytes < 8) {
+			for (int i = 0; numBytes > 0; numBytes--, i++) {
+				target.put(offset + i, (byte) (value >>> ((7-i)<<3)));
+			}
+		}
+		else {
+			target.putLongBigEndian(offset, value);
+			for (int i = 8; i < numBytes; i++) {
+				target.put(offset + i, (byte) 0);
+			}
+		}
 	}
 
 	@Override
@@ -0,0 +1,82 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.common.typeutils.base.array;
+
+import java.io.IOException;
+
+import eu.stratosphere.api.common.typeutils.Serializer;
+import eu.stratosphere.core.memory.DataInputView;
+import eu.stratosphere.core.memory.DataOutputView;
+
+
+/**
+ * A serializer for char arrays. The array is written as its length, followed by the elements.
+ */
+public final class CharPrimitiveArraySerializer extends Serializer<char[]> {
+
+	private static final long serialVersionUID = 1L;
+	
+	public static final CharPrimitiveArraySerializer INSTANCE = new CharPrimitiveArraySerializer();
+	
+	private static final char[] EMPTY = new char[0];
+
+
+	@Override
+	public char[] createInstance() {
+		return EMPTY;
+	}
+
+	@Override
+	public char[] copy(char[] from, char[] reuse) {
+		if (reuse.length != from.length) {
+			reuse = new char[from.length];
+		}
+		System.arraycopy(from, 0, reuse, 0, from.length);
+		return reuse;
+	}
+
+	@Override
+	public int getLength() {
+		return -1;
+	}
+
+	@Override
+	public void serialize(char[] record, DataOutputView target) throws IOException {
+		final int len = record.length;
+		target.writeInt(len);
+		for (int i = 0; i < len; i++) {
+			target.writeChar(record[i]);
+		}
+	}
+
+	@Override
+	public char[] deserialize(char[] reuse, DataInputView source) throws IOException {
+		final int len = source.readInt();
+		if (reuse.length != len) {
+			reuse = new char[len];
+		}
+		for (int i = 0; i < len; i++) {
+			reuse[i] = source.readChar();
+		}
+		return reuse;
+	}
+
+	@Override
+	public void copy(DataInputView source, DataOutputView target) throws IOException {
+		final int len = source.readInt();
+		target.writeInt(len);
+		target.write(source, len * 2);
+	}
+}
@@ -0,0 +1,63 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.common.typeutils.base.array;
+
+import java.util.Arrays;
+
+import eu.stratosphere.api.common.typeutils.base.FloatComparator;
+import eu.stratosphere.core.memory.MemorySegment;
+
+
+public final class FloatPrimitiveArrayComparator extends PrimitiveArrayComparator<float[], FloatComparator> {
+
+	private static final long serialVersionUID = 1L;
+	
+	
+	public FloatPrimitiveArrayComparator(boolean ascending) {
+		super(ascending, FloatPrimitiveArraySerializer.INSTANCE, new FloatComparator(true));
+	}
+
+	@Override
+	public int hash(float[] record) {
+		return Arrays.hashCode(record);
+	}
+
+	@Override
+	protected int compareArrays(float[] a, float[] b) {
+		final int len = Math.min(a.length, b.length);
+		for (int i = 0; i < len; i++) {
+			int comp = Float.compare(a[i], b[i]);
+			if (comp != 0) {
+				return comp;
+			}
+		}
+		return a.length - b.length;
+	}
+
+	@Override
+	protected int getArrayLength(float[] array) {
+		return array.length;
+	}
+
+	@Override
+	protected void putElementNormalizedKey(float[] array, int index, MemorySegment target, int offset, int numBytes) {
+		this.elementComparator.putNormalizedKey(array[index], target, offset, numBytes);
+	}
+
+	@Override
+	public FloatPrimitiveArrayComparator duplicate() {
+		return new FloatPrimitiveArrayComparator(this.ascendingComparison);
+	}
+}
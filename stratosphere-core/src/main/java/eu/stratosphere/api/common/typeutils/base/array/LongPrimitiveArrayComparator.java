@@ -0,0 +1,62 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.common.typeutils.base.array;
+
+import java.util.Arrays;
+
+import eu.stratosphere.api.common.typeutils.base.LongComparator;
+import eu.stratosphere.core.memory.MemorySegment;
+
+
+public final class LongPrimitiveArrayComparator extends PrimitiveArrayComparator<long[], LongComparator> {
+
+	private static final long serialVersionUID = 1L;
+	
+	
+	public LongPrimitiveArrayComparator(boolean ascending) {
+		super(ascending, LongPrimitiveArraySerializer.INSTANCE, new LongComparator(true));
+	}
+
+	@Override
+	public int hash(long[] record) {
+		return Arrays.hashCode(record);
+	}
+
+	@Override
+	protected int compareArrays(long[] a, long[] b) {
+		final int len = Math.min(a.length, b.length);
+		for (int i = 0; i < len; i++) {
+			if (a[i] != b[i]) {
+				return (a[i] < b[i] ? -1 : 1);
+			}
+		}
+		return a.length - b.length;
+	}
+
+	@Override
+	protected int getArrayLength(long[] array) {
+		return array.length;
+	}
+
+	@Override
+	protected void putElementNormalizedKey(long[] array, int index, MemorySegment target, int offset, int numBytes) {
+		this.elementComparator.putNormalizedKey(array[index], target, offset, numBytes);
+	}
+
+	@Override
+	public LongPrimitiveArrayComparator duplicate() {
+		return new LongPrimitiveArrayComparator(this.ascendingComparison);
+	}
+}
@@ -0,0 +1,153 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.common.typeutils.base.array;
+
+import java.io.IOException;
+
+import eu.stratosphere.api.common.typeutils.Serializer;
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.common.typeutils.base.BasicTypeComparator;
+import eu.stratosphere.core.memory.DataInputView;
+import eu.stratosphere.core.memory.DataOutputView;
+import eu.stratosphere.core.memory.MemorySegment;
+
+
+/**
+ * Base class for the comparators of primitive arrays. Arrays are ordered lexicographically by their elements,
+ * with an array that is a prefix of another array being the smaller one. The normalized key of an array is
+ * the concatenation of the normalized keys of its elements, padded with zeros. Because a shorter array
+ * therefore never gets a larger key than an array it is a prefix of, the key is always only a prefix.
+ *
+ * @param <T> The array type.
+ * @param <C> The type of the comparator for the array elements.
+ */
+public abstract class PrimitiveArrayComparator<T, C extends BasicTypeComparator<?>> extends TypeComparator<T> implements java.io.Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	protected final boolean ascendingComparison;
+	
+	protected final C elementComparator;
+	
+	private final Serializer<T> serializer;
+	
+	private transient T reference;
+	
+	private transient T first;
+	
+	private transient T second;
+	
+
+	protected PrimitiveArrayComparator(boolean ascending, Serializer<T> serializer, C elementComparator) {
+		this.ascendingComparison = ascending;
+		this.serializer = serializer;
+		this.elementComparator = elementComparator;
+	}
+
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Compares the two arrays lexicographically in ascending order.
+	 */
+	protected abstract int compareArrays(T first, T second);
+	
+	protected abstract int getArrayLength(T array);
+	
+	protected abstract void putElementNormalizedKey(T array, int index, MemorySegment target, int offset, int numBytes);
+	
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public void setReference(T toCompare) {
+		this.reference = toCompare;
+	}
+
+	@Override
+	public boolean equalToReference(T candidate) {
+		return compareArrays(candidate, this.reference) == 0;
+	}
+
+	@Override
+	public int compareToReference(TypeComparator<T> referencedComparator) {
+		@SuppressWarnings("unchecked")
+		int comp = compareArrays(((PrimitiveArrayComparator<T, C>) referencedComparator).reference, this.reference);
+		return ascendingComparison ? comp : -comp;
+	}
+
+	@Override
+	public int compare(DataInputView firstSource, DataInputView secondSource) throws IOException {
+		if (this.first == null) {
+			this.first = this.serializer.createInstance();
+			this.second = this.serializer.createInstance();
+		}
+		this.first = this.serializer.deserialize(this.first, firstSource);
+		this.second = this.serializer.deserialize(this.second, secondSource);
+		
+		int comp = compareArrays(this.first, this.second);
+		return ascendingComparison ? comp : -comp;
+	}
+
+	@Override
+	public boolean supportsNormalizedKey() {
+		return true;
+	}
+
+	@Override
+	public int getNormalizeKeyLen() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public boolean isNormalizedKeyPrefixOnly(int keyBytes) {
+		return true;
+	}
+
+	@Override
+	public void putNormalizedKey(T record, MemorySegment target, int offset, int numBytes) {
+		final int elementLen = this.elementComparator.getNormalizeKeyLen();
+		final int len = getArrayLength(record);
+		
+		for (int i = 0; i < len && numBytes > 0; i++) {
+			final int bytes = Math.min(elementLen, numBytes);
+			putElementNormalizedKey(record, i, target, offset, bytes);
+			offset += bytes;
+			numBytes -= bytes;
+		}
+		
+		for (; numBytes > 0; numBytes--) {
+			target.put(offset++, (byte) 0);
+		}
+	}
+
+	@Override
+	public boolean invertNormalizedKey() {
+		return !ascendingComparison;
+	}
+
+	@Override
+	public boolean supportsSerializationWithKeyNormalization() {
+		return false;
+	}
+
+	@Override
+	public void writeWithKeyNormalization(T record, DataOutputView target) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void readWithKeyDenormalization(T record, DataInputView source) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -81,6 +81,20 @@ public final class ConfigConstants {
 	 * The config parameter defining the fraction of free memory allocated by the memory manager.
 	 */
 	public static final String TASK_MANAGER_MEMORY_FRACTION_KEY = "taskmanager.memory.fraction";
+	
+	/**
+	 * The config parameter defining whether the memory manager's memory and the network buffers are
+	 * allocated off-heap, as direct memory. In that case, the JVM's maximum direct memory size must be
+	 * large enough to hold them.
+	 */
+	public static final String TASK_MANAGER_MEMORY_OFF_HEAP_KEY = "taskmanager.memory.off-heap";
+	
+	/**
+	 * The config parameter defining whether the memory manager allocates all of its memory when the task
+	 * manager starts. If not, the memory is allocated when tasks request it, and released when the task
+	 * manager is idle.
+	 */
+	public static final String TASK_MANAGER_MEMORY_PRE_ALLOCATE_KEY = "taskmanager.memory.preallocate";
 
 	/**
 	 * The config parameter defining the number of buffers used in the network stack. This defines the
@@ -93,6 +107,13 @@ public final class ConfigConstants {
 	 */
 	public static final String TASK_MANAGER_NETWORK_BUFFER_SIZE_KEY = "taskmanager.network.bufferSizeInBytes";
 	
+	/**
+	 * The config parameter defining whether the buffers shipped between task managers are compressed. The
+	 * parameter can also be set in a job's configuration, where it overrides the task manager's setting for
+	 * the channels of that job.
+	 */
+	public static final String TASK_MANAGER_NETWORK_COMPRESSION_KEY = "taskmanager.network.compression";
+	
 	/**
 	 * Parameter for the maximum fan for out-of-core algorithms.
 	 * Corresponds to the maximum fan-in for merge-sorts and the maximum fan-out
@@ -106,6 +127,19 @@ public final class ConfigConstants {
 	 */
 	public static final String DEFAULT_SORT_SPILLING_THRESHOLD_KEY = "taskmanager.runtime.sort-spilling-threshold";
 	
+	/**
+	 * The config parameter defining whether the blocks that the I/O manager spills to its temp directories
+	 * (sort runs, hash table partitions, spilling buffers) are compressed.
+	 */
+	public static final String SPILL_COMPRESSION_KEY = "taskmanager.runtime.spill-compression";
+	
+	/**
+	 * The config parameter defining the number of threads that sort the in-memory buffers of the sort-merge
+	 * algorithms. The threads are shared by all tasks of a TaskManager. A value of 1 sorts each buffer in the
+	 * sorting thread of its task, a value of 0 uses one thread per CPU core.
+	 */
+	public static final String SORT_PARALLELISM_KEY = "taskmanager.runtime.sort-parallelism";
+	
 	/**
 	 * The config parameter defining the timeout for filesystem stream opening.
 	 * A value of 0 indicates infinite waiting.
@@ -274,6 +308,16 @@ public final class ConfigConstants {
 	 * The default fraction of the free memory allocated by the task manager's memory manager.
 	 */
 	public static final float DEFAULT_MEMORY_MANAGER_MEMORY_FRACTION = 0.7f;
+	
+	/**
+	 * The default setting for allocating the memory manager's memory and the network buffers off-heap.
+	 */
+	public static final boolean DEFAULT_TASK_MANAGER_MEMORY_OFF_HEAP = false;
+	
+	/**
+	 * The default setting for allocating the memory manager's memory when the task manager starts.
+	 */
+	public static final boolean DEFAULT_TASK_MANAGER_MEMORY_PRE_ALLOCATE = false;
 
 	/**
 	 * Default number of buffers used in the network stack.
@@ -285,6 +329,11 @@ public final class ConfigConstants {
 	 */
 	public static final int DEFAULT_TASK_MANAGER_NETWORK_BUFFER_SIZE = 32768;
 	
+	/**
+	 * The default setting for compressing the buffers shipped between task managers.
+	 */
+	public static final boolean DEFAULT_TASK_MANAGER_NETWORK_COMPRESSION = false;
+	
 	/**
 	 * The default value for the JobClient's polling interval. 2 Seconds.
 	 */
@@ -300,6 +349,16 @@ public final class ConfigConstants {
 	 */
 	public static final float DEFAULT_SORT_SPILLING_THRESHOLD = 0.8f;
 	
+	/**
+	 * The default setting for compressing spilled blocks.
+	 */
+	public static final boolean DEFAULT_SPILL_COMPRESSION = false;
+	
+	/**
+	 * The default number of threads that sort in-memory buffers: none besides the sorting thread of the task.
+	 */
+	public static final int DEFAULT_SORT_PARALLELISM = 1;
+	
 	/**
 	 * The default timeout for filesystem stream opening: infinite (means max long milliseconds).
 	 */
@@ -23,8 +23,15 @@ import java.nio.ByteOrder;
 
 /**
  * This class represents a piece of memory allocated from the memory manager. The segment is backed
- * by a byte array and features random put and get methods for the basic types that are stored in a byte-wise
- * fashion in the memory.
+ * either by a byte array on the heap, or by off-heap memory of a direct byte buffer, and features random
+ * put and get methods for the basic types that are stored in a byte-wise fashion in the memory.
+ * 
+ * <p>
+ * 
+ * Both kinds of memory are accessed through the same code paths: The "unsafe" accesses take a base object
+ * and an offset, which are the array and the offset of its first element for heap memory, and {@code null}
+ * and the absolute address for off-heap memory. Users of the segment hence do not need to distinguish
+ * between the two kinds.
  * 
  * <p>
  * 
@@ -70,28 +77,72 @@ public class MemorySegment {
 	private static final boolean CHECKED = true;
 	
 	/**
-	 * The array in which the data is stored.
+	 * The array in which the data is stored, or null, if the segment is backed by off-heap memory.
 	 */
 	protected byte[] memory;
 	
+	/**
+	 * The direct byte buffer that holds the off-heap memory, or null, if the segment is backed by an array.
+	 */
+	protected ByteBuffer offHeapMemory;
+	
+	/**
+	 * The address of the segment's first byte. For array-backed segments, this is the offset of the first
+	 * element in the array, for off-heap segments, this is the absolute memory address.
+	 */
+	protected long address;
+	
+	/**
+	 * The size of the segment, in bytes. Set to zero when the segment is freed.
+	 */
+	protected int size;
+	
 	/**
 	 * Wrapper for I/O requests.
 	 */
 	protected ByteBuffer wrapper;
 	
+	/**
+	 * View on the off-heap memory, used for bulk transfers between the off-heap memory and arrays or buffers.
+	 */
+	private ByteBuffer offHeapView;
+	
 	// -------------------------------------------------------------------------
 	//                             Constructors
 	// -------------------------------------------------------------------------
 
 	/**
-	 * Creates a new memory segment of given size with the provided views.
+	 * Creates a new memory segment that represents the given byte array.
 	 * 
-	 * @param size The size of the memory segment.
-	 * @param inputView The input view to use.
-	 * @param outputView The output view to use.
+	 * @param memory The array that holds the segment's memory.
 	 */
 	public MemorySegment(byte[] memory) {
 		this.memory = memory;
+		this.address = BASE_OFFSET;
+		this.size = memory.length;
+	}
+	
+	/**
+	 * Creates a new memory segment that represents the memory of the given byte buffer, from position zero up
+	 * to the buffer's capacity. For a direct buffer, the segment is backed by the buffer's off-heap memory,
+	 * otherwise by the buffer's array, which the buffer must span completely.
+	 * 
+	 * @param buffer The byte buffer that holds the segment's memory.
+	 * 
+	 * @throws IllegalArgumentException Thrown, if the buffer is a heap buffer that does not span its
+	 *                                  complete backing array.
+	 */
+	public MemorySegment(ByteBuffer buffer) {
+		if (buffer.isDirect()) {
+			this.offHeapMemory = buffer;
+			this.address = MemoryUtils.getDirectBufferAddress(buffer);
+		} else if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.capacity() == buffer.array().length) {
+			this.memory = buffer.array();
+			this.address = BASE_OFFSET;
+		} else {
+			throw new IllegalArgumentException("The buffer must be a direct buffer, or span its complete backing array.");
+		}
+		this.size = buffer.capacity();
 	}
 
 	// -------------------------------------------------------------------------
@@ -105,7 +156,16 @@ public class MemorySegment {
 	 * @return True, if the segment has been freed, false otherwise.
 	 */
 	public final boolean isFreed() {
-		return this.memory == null;
+		return this.memory == null && this.offHeapMemory == null;
+	}
+	
+	/**
+	 * Checks whether this memory segment is backed by off-heap memory, rather than by a byte array.
+	 * 
+	 * @return True, if the segment's memory is off-heap, false otherwise.
+	 */
+	public final boolean isOffHeap() {
+		return this.offHeapMemory != null;
 	}
 	
 	/**
@@ -115,7 +175,19 @@ public class MemorySegment {
 	 * @return The size in bytes.
 	 */
 	public final int size() {
-		return this.memory.length;
+		return this.size;
+	}
+	
+	/**
+	 * Marks the segment as freed and drops the references to its memory. After this method, every access
+	 * to the segment fails with an {@link IndexOutOfBoundsException}.
+	 */
+	protected void free() {
+		this.memory = null;
+		this.offHeapMemory = null;
+		this.wrapper = null;
+		this.offHeapView = null;
+		this.size = 0;
 	}
 
 	/**
@@ -129,18 +201,15 @@ public class MemorySegment {
 	 *                                   or if the offset plus the length is larger than the segment size.
 	 */
 	public ByteBuffer wrap(int offset, int length) {
-		if (offset > this.memory.length || offset > this.memory.length - length) {
+		if (offset > this.size || offset > this.size - length) {
 			throw new IndexOutOfBoundsException();
 		}
 		
 		if (this.wrapper == null) {
-			this.wrapper = ByteBuffer.wrap(this.memory, offset, length);
-		}
-		else {
-			this.wrapper.position(offset);
-			this.wrapper.limit(offset + length);
+			this.wrapper = this.offHeapMemory == null ? ByteBuffer.wrap(this.memory) : this.offHeapMemory.duplicate();
 		}
-		
+		this.wrapper.limit(offset + length);
+		this.wrapper.position(offset);
 		return this.wrapper;
 	}
 
@@ -169,7 +238,15 @@ public class MemorySegment {
 	 *                                   the memory segment.
 	 */
 	public final byte get(int index) {
-		return this.memory[index];
+		if (CHECKED) {
+			if (index >= 0 && index < this.size) {
+				return UNSAFE.getByte(this.memory, this.address + index);
+			} else {
+				throw new IndexOutOfBoundsException();
+			}
+		} else {
+			return UNSAFE.getByte(this.memory, this.address + index);
+		}
 	}
 
 	/**
@@ -183,7 +260,15 @@ public class MemorySegment {
 	 *                                   the memory segment.
 	 */
 	public final void put(int index, byte b) {
-		this.memory[index] = b;
+		if (CHECKED) {
+			if (index >= 0 && index < this.size) {
+				UNSAFE.putByte(this.memory, this.address + index, b);
+			} else {
+				throw new IndexOutOfBoundsException();
+			}
+		} else {
+			UNSAFE.putByte(this.memory, this.address + index, b);
+		}
 	}
 
 	/**
@@ -236,8 +321,13 @@ public class MemorySegment {
 	 *                                   segment's end.
 	 */
 	public final void get(int index, byte[] dst, int offset, int length) {
-		// system arraycopy does the boundary checks anyways, no need to check extra
-		System.arraycopy(this.memory, index, dst, offset, length);
+		if (this.memory != null) {
+			// system arraycopy does the boundary checks anyways, no need to check extra
+			System.arraycopy(this.memory, index, dst, offset, length);
+		} else {
+			// the byte buffer checks the bounds of the destination array
+			offHeapView(index, length).get(dst, offset, length);
+		}
 	}
 
 	/**
@@ -256,8 +346,13 @@ public class MemorySegment {
 	 *                                   segment's end.
 	 */
 	public final void put(int index, byte[] src, int offset, int length) {
-		// system arraycopy does the boundary checks anyways, no need to check extra
-		System.arraycopy(src, offset, this.memory, index, length);
+		if (this.memory != null) {
+			// system arraycopy does the boundary checks anyways, no need to check extra
+			System.arraycopy(src, offset, this.memory, index, length);
+		} else {
+			// the byte buffer checks the bounds of the source array
+			offHeapView(index, length).put(src, offset, length);
+		}
 	}
 
 	/**
@@ -271,7 +366,7 @@ public class MemorySegment {
 	 *                                   size minus 1.
 	 */
 	public final boolean getBoolean(int index) {
-		return this.memory[index] != 0;
+		return get(index) != 0;
 	}
 
 	/**
@@ -286,7 +381,7 @@ public class MemorySegment {
 	 *                                   size minus 1.
 	 */
 	public final void putBoolean(int index, boolean value) {
-		this.memory[index] = (byte) (value ? 1 : 0);
+		put(index, (byte) (value ? 1 : 0));
 	}
 
 	/**
@@ -300,8 +395,14 @@ public class MemorySegment {
 	 *                                   size minus 2.
 	 */
 	public final char getChar(int index) {
-		return (char) ( ((this.memory[index    ] & 0xff) << 8) | 
-		                 (this.memory[index + 1] & 0xff) );
+		if (CHECKED) {
+			if (index < 0 || index > this.size - 2) {
+				throw new IndexOutOfBoundsException();
+			}
+		}
+		final long pos = this.address + index;
+		return (char) ( ((UNSAFE.getByte(this.memory, pos    ) & 0xff) << 8) | 
+		                 (UNSAFE.getByte(this.memory, pos + 1) & 0xff) );
 	}
 
 	/**
@@ -316,8 +417,14 @@ public class MemorySegment {
 	 *                                   size minus 2.
 	 */
 	public final void putChar(int index, char value) {
-		this.memory[index    ] = (byte) (value >> 8);
-		this.memory[index + 1] = (byte) value;
+		if (CHECKED) {
+			if (index < 0 || index > this.size - 2) {
+				throw new IndexOutOfBoundsException();
+			}
+		}
+		final long pos = this.address + index;
+		UNSAFE.putByte(this.memory, pos    , (byte) (value >> 8));
+		UNSAFE.putByte(this.memory, pos + 1, (byte) value);
 	}
 
 	/**
@@ -331,9 +438,15 @@ public class MemorySegment {
 	 *                                   size minus 2.
 	 */
 	public final short getShort(int index) {
+		if (CHECKED) {
+			if (index < 0 || index > this.size - 2) {
+				throw new IndexOutOfBoundsException();
+			}
+		}
+		final long pos = this.address + index;
 		return (short) (
-				((this.memory[index    ] & 0xff) << 8) |
-				((this.memory[index + 1] & 0xff)) );
+				((UNSAFE.getByte(this.memory, pos    ) & 0xff) << 8) |
+				((UNSAFE.getByte(this.memory, pos + 1) & 0xff)) );
 	}
 
 	/**
@@ -347,8 +460,14 @@ public class MemorySegment {
 	 *                                   size minus 2.
 	 */
 	public final void putShort(int index, short value) {
-		this.memory[index    ] = (byte) (value >> 8);
-		this.memory[index + 1] = (byte) value;
+		if (CHECKED) {
+			if (index < 0 || index > this.size - 2) {
+				throw new IndexOutOfBoundsException();
+			}
+		}
+		final long pos = this.address + index;
+		UNSAFE.putByte(this.memory, pos    , (byte) (value >> 8));
+		UNSAFE.putByte(this.memory, pos + 1, (byte) value);
 	}
 	
 	/**
@@ -368,13 +487,13 @@ public class MemorySegment {
 	@SuppressWarnings("restriction")
 	public final int getInt(int index) {
 		if (CHECKED) {
-			if (index >= 0 && index <= this.memory.length - 4) {
-				return UNSAFE.getInt(this.memory, BASE_OFFSET + index);
+			if (index >= 0 && index <= this.size - 4) {
+				return UNSAFE.getInt(this.memory, this.address + index);
 			} else {
 				throw new IndexOutOfBoundsException();
 			}
 		} else {
-			return UNSAFE.getInt(this.memory, BASE_OFFSET + index);
+			return UNSAFE.getInt(this.memory, this.address + index);
 		}
 	}
 	
@@ -439,13 +558,13 @@ public class MemorySegment {
 	@SuppressWarnings("restriction")
 	public final void putInt(int index, int value) {
 		if (CHECKED) {
-			if (index >= 0 && index <= this.memory.length - 4) {
-				UNSAFE.putInt(this.memory, BASE_OFFSET + index, value);
+			if (index >= 0 && index <= this.size - 4) {
+				UNSAFE.putInt(this.memory, this.address + index, value);
 			} else {
 				throw new IndexOutOfBoundsException();
 			}
 		} else {
-			UNSAFE.putInt(this.memory, BASE_OFFSET + index, value);
+			UNSAFE.putInt(this.memory, this.address + index, value);
 		}
 	}
 	
@@ -510,13 +629,13 @@ public class MemorySegment {
 	@SuppressWarnings("restriction")
 	public final long getLong(int index) {
 		if (CHECKED) {
-			if (index >= 0 && index <= this.memory.length - 8) {
-				return UNSAFE.getLong(this.memory, BASE_OFFSET + index);
+			if (index >= 0 && index <= this.size - 8) {
+				return UNSAFE.getLong(this.memory, this.address + index);
 			} else {
 				throw new IndexOutOfBoundsException();
 			}
 		} else {
-			return UNSAFE.getLong(this.memory, BASE_OFFSET + index);
+			return UNSAFE.getLong(this.memory, this.address + index);
 		}
 	}
 	
@@ -581,13 +700,13 @@ public class MemorySegment {
 	@SuppressWarnings("restriction")
 	public final void putLong(int index, long value) {
 		if (CHECKED) {
-			if (index >= 0 && index <= this.memory.length - 8) {
-				UNSAFE.putLong(this.memory, BASE_OFFSET + index, value);
+			if (index >= 0 && index <= this.size - 8) {
+				UNSAFE.putLong(this.memory, this.address + index, value);
 			} else {
 				throw new IndexOutOfBoundsException();
 			}
 		} else {
-			UNSAFE.putLong(this.memory, BASE_OFFSET + index, value);
+			UNSAFE.putLong(this.memory, this.address + index, value);
 		}
 	}
 	
@@ -867,7 +986,24 @@ public class MemorySegment {
 	 * @throws IOException Thrown, if the DataOutput encountered a problem upon writing.
 	 */
 	public final void get(DataOutput out, int offset, int length) throws IOException {
-		out.write(this.memory, offset, length);
+		if (this.memory != null) {
+			out.write(this.memory, offset, length);
+		} else {
+			// off-heap memory has no array to hand to the output, so transfer it in longs
+			if (offset < 0 || length < 0 || offset > this.size - length) {
+				throw new IndexOutOfBoundsException();
+			}
+			while (length >= 8) {
+				out.writeLong(getLongBigEndian(offset));
+				offset += 8;
+				length -= 8;
+			}
+			while (length > 0) {
+				out.writeByte(get(offset));
+				offset++;
+				length--;
+			}
+		}
 	}
 
 	/**
@@ -882,7 +1018,24 @@ public class MemorySegment {
 	 *                     such as an End-Of-File.
 	 */
 	public final void put(DataInput in, int offset, int length) throws IOException {
-		in.readFully(this.memory, offset, length);
+		if (this.memory != null) {
+			in.readFully(this.memory, offset, length);
+		} else {
+			// off-heap memory has no array to hand to the input, so transfer it in longs
+			if (offset < 0 || length < 0 || offset > this.size - length) {
+				throw new IndexOutOfBoundsException();
+			}
+			while (length >= 8) {
+				putLongBigEndian(offset, in.readLong());
+				offset += 8;
+				length -= 8;
+			}
+			while (length > 0) {
+				put(offset, in.readByte());
+				offset++;
+				length--;
+			}
+		}
 	}
 	
 	/**
@@ -902,7 +1055,11 @@ public class MemorySegment {
 	 */
 	public final void get(int offset, ByteBuffer target, int numBytes) {
 		// ByteBuffer performs the boundy checks
-		target.put(this.memory, offset, numBytes);
+		if (this.memory != null) {
+			target.put(this.memory, offset, numBytes);
+		} else {
+			target.put(offHeapView(offset, numBytes));
+		}
 	}
 	
 	/**
@@ -924,7 +1081,18 @@ public class MemorySegment {
 	 */
 	public final void put(int offset, ByteBuffer source, int numBytes) {
 		// ByteBuffer performs the boundy checks
-		source.get(this.memory, offset, numBytes);
+		if (this.memory != null) {
+			source.get(this.memory, offset, numBytes);
+		} else {
+			if (source.remaining() < numBytes) {
+				throw new BufferUnderflowException();
+			}
+			final ByteBuffer view = offHeapView(offset, numBytes);
+			final int sourceLimit = source.limit();
+			source.limit(source.position() + numBytes);
+			view.put(source);
+			source.limit(sourceLimit);
+		}
 	}
 	
 	/**
@@ -942,8 +1110,24 @@ public class MemorySegment {
 	 *           not have enough space for the bytes (counting from targetOffset).
 	 */
 	public final void copyTo(int offset, MemorySegment target, int targetOffset, int numBytes) {
-		// system arraycopy does the boundary checks anyways, no need to check extra
-		System.arraycopy(this.memory, offset, target.memory, targetOffset, numBytes);
+		if (this.memory != null) {
+			if (target.memory != null) {
+				// system arraycopy does the boundary checks anyways, no need to check extra
+				System.arraycopy(this.memory, offset, target.memory, targetOffset, numBytes);
+			} else {
+				target.put(targetOffset, this.memory, offset, numBytes);
+			}
+		} else if (target.memory != null) {
+			get(offset, target.memory, targetOffset, numBytes);
+		} else {
+			// both segments are off-heap
+			if (offset < 0 || targetOffset < 0 || numBytes < 0 ||
+					offset > this.size - numBytes || targetOffset > target.size - numBytes)
+			{
+				throw new IndexOutOfBoundsException();
+			}
+			UNSAFE.copyMemory(this.address + offset, target.address + targetOffset, numBytes);
+		}
 	}
 	
 	// -------------------------------------------------------------------------
@@ -951,20 +1135,51 @@ public class MemorySegment {
 	// -------------------------------------------------------------------------
 	
 	public static final int compare(MemorySegment seg1, MemorySegment seg2, int offset1, int offset2, int len) {
+		if (offset1 < 0 || offset2 < 0 || len < 0 || offset1 > seg1.size - len || offset2 > seg2.size - len) {
+			throw new IndexOutOfBoundsException();
+		}
+		
 		final byte[] b1 = seg1.memory;
 		final byte[] b2 = seg2.memory;
+		final long a1 = seg1.address + offset1;
+		final long a2 = seg2.address + offset2;
 		
 		int val = 0;
 		for (int pos = 0;
-			pos < len && (val = (b1[offset1 + pos] & 0xff) - (b2[offset2 + pos] & 0xff)) == 0; pos++);
+			pos < len && (val = (UNSAFE.getByte(b1, a1 + pos) & 0xff) - (UNSAFE.getByte(b2, a2 + pos) & 0xff)) == 0; pos++);
 		return val;
 	}
 	
 	public static final void swapBytes(MemorySegment seg1, MemorySegment seg2, byte[] tempBuffer, int offset1, int offset2, int len) {
-		// system arraycopy does the boundary checks anyways, no need to check extra
-		System.arraycopy(seg1.memory, offset1, tempBuffer, 0, len);
-		System.arraycopy(seg2.memory, offset2, seg1.memory, offset1, len);
-		System.arraycopy(tempBuffer, 0, seg2.memory, offset2, len);
+		if (seg1.memory != null && seg2.memory != null) {
+			// system arraycopy does the boundary checks anyways, no need to check extra
+			System.arraycopy(seg1.memory, offset1, tempBuffer, 0, len);
+			System.arraycopy(seg2.memory, offset2, seg1.memory, offset1, len);
+			System.arraycopy(tempBuffer, 0, seg2.memory, offset2, len);
+		} else {
+			seg1.get(offset1, tempBuffer, 0, len);
+			seg2.copyTo(offset2, seg1, offset1, len);
+			seg2.put(offset2, tempBuffer, 0, len);
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Gets a view on the given range of the off-heap memory. The view is reused across calls.
+	 */
+	private ByteBuffer offHeapView(int offset, int length) {
+		if (offset < 0 || length < 0 || offset > this.size - length) {
+			throw new IndexOutOfBoundsException();
+		}
+		ByteBuffer view = this.offHeapView;
+		if (view == null) {
+			view = this.offHeapMemory.duplicate();
+			this.offHeapView = view;
+		}
+		view.limit(offset + length);
+		view.position(offset);
+		return view;
 	}
 	
 	// --------------------------------------------------------------------------------------------
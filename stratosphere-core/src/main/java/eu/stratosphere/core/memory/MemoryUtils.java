@@ -13,6 +13,8 @@
 package eu.stratosphere.core.memory;
 
 import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 /**
@@ -31,6 +33,27 @@ public class MemoryUtils {
 	 */
 	public static final ByteOrder NATIVE_BYTE_ORDER = getByteOrder();
 	
+	/**
+	 * The offset of the field that holds the memory address of a direct buffer.
+	 */
+	private static final long BUFFER_ADDRESS_FIELD_OFFSET = getBufferAddressFieldOffset();
+	
+	/**
+	 * Gets the memory address of the first byte of the given direct byte buffer.
+	 * 
+	 * @param buffer The direct byte buffer.
+	 * @return The memory address of the buffer's first byte.
+	 * 
+	 * @throws IllegalArgumentException Thrown, if the buffer is not a direct buffer.
+	 */
+	@SuppressWarnings("restriction")
+	public static long getDirectBufferAddress(ByteBuffer buffer) {
+		if (!buffer.isDirect()) {
+			throw new IllegalArgumentException("The buffer is not a direct buffer.");
+		}
+		return UNSAFE.getLong(buffer, BUFFER_ADDRESS_FIELD_OFFSET);
+	}
+	
 	
 	@SuppressWarnings("restriction")
 	private static sun.misc.Unsafe getUnsafe() {
@@ -49,6 +72,17 @@ public class MemoryUtils {
 		}
 	}
 	
+	@SuppressWarnings("restriction")
+	private static long getBufferAddressFieldOffset() {
+		try {
+			return UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+		} catch (NoSuchFieldException e) {
+			throw new RuntimeException("The address field of direct buffers could not be found.");
+		} catch (SecurityException e) {
+			throw new RuntimeException("Could not access the address field of direct buffers.", e);
+		}
+	}
+	
 	@SuppressWarnings("restriction")
 	private static ByteOrder getByteOrder() {
 		final byte[] bytes = new byte[8];
@@ -816,6 +816,7 @@ public class StringValue implements Key, NormalizableKey, CharSequence, Copyable
 				shift += 7;
 				out.writeByte(curr);
 			}
+			out.writeByte(curr);
 			len |= curr << shift;
 		}
 
@@ -827,6 +828,7 @@ public class StringValue implements Key, NormalizableKey, CharSequence, Copyable
 				while ((curr = in.readUnsignedByte()) >= HIGH_BIT) {
 					out.writeByte(curr);
 				}
+				out.writeByte(curr);
 			}
 		}
 	}
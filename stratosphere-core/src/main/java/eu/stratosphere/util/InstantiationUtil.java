@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 
@@ -221,7 +222,58 @@ public class InstantiationUtil {
 		byte[] bytes = baos.toByteArray();
 		config.setBytes(key, bytes);
 	}
+
+	/**
+	 * Creates a deep copy of the given object by serializing and deserializing it with Java serialization.
+	 * The classes of the copy are resolved through the class loader of the original object's class.
+	 *
+	 * @param obj The object to copy.
+	 * @return A deep copy of the object.
+	 *
+	 * @throws IOException Thrown, if the object could not be serialized or deserialized.
+	 * @throws ClassNotFoundException Thrown, if a class of the serialized object could not be resolved.
+	 */
+	public static <T extends Serializable> T clone(T obj) throws IOException, ClassNotFoundException {
+		if (obj == null) {
+			return null;
+		}
+		return clone(obj, obj.getClass().getClassLoader());
+	}
 	
+	/**
+	 * Creates a deep copy of the given object by serializing and deserializing it with Java serialization.
+	 * The classes of the copy are resolved through the given class loader.
+	 *
+	 * @param obj The object to copy.
+	 * @param classLoader The class loader to resolve the classes of the copy, or null for the default one.
+	 * @return A deep copy of the object.
+	 *
+	 * @throws IOException Thrown, if the object could not be serialized or deserialized.
+	 * @throws ClassNotFoundException Thrown, if a class of the serialized object could not be resolved.
+	 */
+	public static <T extends Serializable> T clone(T obj, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+		if (obj == null) {
+			return null;
+		}
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(baos);
+		oos.writeObject(obj);
+		oos.close();
+
+		ObjectInputStream oois = null;
+		try {
+			oois = new ClassLoaderObjectInputStream(new ByteArrayInputStream(baos.toByteArray()), classLoader);
+			@SuppressWarnings("unchecked")
+			T copy = (T) oois.readObject();
+			return copy;
+		} finally {
+			if (oois != null) {
+				oois.close();
+			}
+		}
+	}
+
 	// --------------------------------------------------------------------------------------------
 	
 	/**
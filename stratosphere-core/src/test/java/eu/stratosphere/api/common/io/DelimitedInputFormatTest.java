@@ -22,7 +22,10 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.log4j.Level;
 import org.junit.After;
@@ -176,6 +179,51 @@ public class DelimitedInputFormatTest {
 		assertTrue(format.reachedEnd());
 	}
 	
+	@Test
+	public void testReadGzipCompressed() throws IOException {
+		testReadCompressed(".gz");
+	}
+	
+	@Test
+	public void testReadDeflateCompressed() throws IOException {
+		testReadCompressed(".deflate");
+	}
+	
+	private void testReadCompressed(String extension) throws IOException {
+		final int numLines = 10000;
+		final StringBuilder bld = new StringBuilder();
+		for (int i = 0; i < numLines; i++) {
+			bld.append("key ").append(i).append("|value ").append(i).append('\n');
+		}
+		
+		this.tempFile = File.createTempFile("test_contents", extension);
+		this.tempFile.deleteOnExit();
+		
+		final FileOutputStream fos = new FileOutputStream(this.tempFile);
+		final OutputStream out = extension.equals(".gz") ? new GZIPOutputStream(fos) : new DeflaterOutputStream(fos);
+		out.write(bld.toString().getBytes());
+		out.close();
+		
+		// the split covers the compressed bytes, which are much less than the decompressed ones
+		final FileInputSplit split = new FileInputSplit(0, new Path(this.tempFile.toURI().toString()), 0, 
+			this.tempFile.length(), new String[] {"localhost"});
+		
+		format.setBufferSize(1024);
+		format.configure(new Configuration());
+		format.open(split);
+		assertEquals(FileInputFormat.READ_WHOLE_SPLIT_FLAG, format.splitLength);
+		
+		Record theRecord = new Record();
+		for (int i = 0; i < numLines; i++) {
+			assertNotNull(format.nextRecord(theRecord));
+			assertEquals("key " + i, theRecord.getField(0, StringValue.class).getValue());
+			assertEquals("value " + i, theRecord.getField(1, StringValue.class).getValue());
+		}
+		
+		assertNull(format.nextRecord(theRecord));
+		assertTrue(format.reachedEnd());
+	}
+	
 	private FileInputSplit createTempFile(String contents) throws IOException {
 		this.tempFile = File.createTempFile("test_contents", "tmp");
 		this.tempFile.deleteOnExit();
@@ -12,7 +12,10 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.common.io;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.log4j.Level;
 import org.junit.Assert;
@@ -23,6 +26,7 @@ import eu.stratosphere.api.common.io.statistics.BaseStatistics;
 import eu.stratosphere.api.common.io.FileInputFormat;
 import eu.stratosphere.api.common.io.FileInputFormat.FileBaseStatistics;
 import eu.stratosphere.configuration.Configuration;
+import eu.stratosphere.core.fs.FileInputSplit;
 import eu.stratosphere.testutils.TestFileUtils;
 import eu.stratosphere.types.IntValue;
 import eu.stratosphere.util.LogUtils;
@@ -185,6 +189,39 @@ public class FileInputFormatTest {
 		}
 	}
 	
+	@Test
+	public void testCompressedFileIsReadAsOneSplit() {
+		try {
+			final File tempFile = File.createTempFile("test_contents", ".gz");
+			tempFile.deleteOnExit();
+			
+			final GZIPOutputStream out = new GZIPOutputStream(new FileOutputStream(tempFile));
+			for (int i = 0; i < 100000; i++) {
+				out.write(i * 31);
+			}
+			out.close();
+			
+			final DummyFileInputFormat format = new DummyFileInputFormat();
+			format.setFilePath(tempFile.toURI().toString());
+			format.configure(new Configuration());
+			
+			FileInputSplit[] splits = format.createInputSplits(4);
+			Assert.assertEquals("A compressed file must not be split.", 1, splits.length);
+			Assert.assertEquals(0, splits[0].getStart());
+			Assert.assertEquals(tempFile.length(), splits[0].getLength());
+			
+			// the uncompressed file is split as requested
+			final String uncompressed = TestFileUtils.createTempFile(tempFile.length());
+			final DummyFileInputFormat uncompressedFormat = new DummyFileInputFormat();
+			uncompressedFormat.setFilePath(uncompressed);
+			uncompressedFormat.configure(new Configuration());
+			Assert.assertEquals(4, uncompressedFormat.createInputSplits(4).length);
+		} catch (Exception ex) {
+			ex.printStackTrace();
+			Assert.fail(ex.getMessage());
+		}
+	}
+	
 	// ------------------------------------------------------------------------
 	
 	private class DummyFileInputFormat extends FileInputFormat<IntValue> {
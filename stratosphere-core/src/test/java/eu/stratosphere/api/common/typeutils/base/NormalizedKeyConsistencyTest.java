@@ -0,0 +1,161 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.api.common.typeutils.base;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.common.typeutils.base.array.DoublePrimitiveArrayComparator;
+import eu.stratosphere.api.common.typeutils.base.array.IntPrimitiveArrayComparator;
+import eu.stratosphere.core.memory.MemorySegment;
+
+/**
+ * Checks that the normalized keys of the basic type comparators are consistent with the order defined by
+ * {@link TypeComparator#compareToReference(TypeComparator)}.
+ */
+public class NormalizedKeyConsistencyTest {
+
+	@Test
+	public void testBoolean() {
+		check(new BooleanComparator(true), new BooleanComparator(true), Boolean.FALSE, Boolean.TRUE);
+	}
+	
+	@Test
+	public void testByte() {
+		check(new ByteComparator(true), new ByteComparator(true),
+			Byte.MIN_VALUE, (byte) -1, (byte) 0, (byte) 1, (byte) 100, Byte.MAX_VALUE);
+	}
+	
+	@Test
+	public void testShort() {
+		check(new ShortComparator(true), new ShortComparator(true),
+			Short.MIN_VALUE, (short) -256, (short) -1, (short) 0, (short) 1, (short) 255, (short) 256, Short.MAX_VALUE);
+	}
+	
+	@Test
+	public void testChar() {
+		check(new CharComparator(true), new CharComparator(true),
+			(char) 0, 'a', 'z', (char) 255, (char) 256, (char) 0xd800, Character.MAX_VALUE);
+	}
+	
+	@Test
+	public void testInt() {
+		// the keys are also checked with more than four bytes, which must be padded rather than sign extended
+		check(new IntComparator(true), new IntComparator(true),
+			Integer.MIN_VALUE, -65536, -1, 0, 1, 255, 256, 65536, Integer.MAX_VALUE);
+	}
+	
+	@Test
+	public void testLong() {
+		check(new LongComparator(true), new LongComparator(true),
+			Long.MIN_VALUE, (long) Integer.MIN_VALUE - 1, -1L, 0L, 1L, (long) Integer.MAX_VALUE + 1, Long.MAX_VALUE);
+	}
+	
+	@Test
+	public void testDescendingOrder() {
+		final IntComparator descending = new IntComparator(false);
+		final IntComparator duplicate = descending.duplicate();
+		Assert.assertTrue(descending.invertNormalizedKey());
+		Assert.assertTrue(duplicate.invertNormalizedKey());
+		
+		// in descending order, the larger value comes first
+		descending.setReference(1);
+		duplicate.setReference(2);
+		Assert.assertEquals(-1, Integer.signum(descending.compareToReference(duplicate)));
+		
+		final IntComparator ascending = new IntComparator(true);
+		final IntComparator ascendingDuplicate = ascending.duplicate();
+		Assert.assertFalse(ascendingDuplicate.invertNormalizedKey());
+		ascending.setReference(1);
+		ascendingDuplicate.setReference(2);
+		Assert.assertEquals(1, Integer.signum(ascending.compareToReference(ascendingDuplicate)));
+	}
+	
+	@Test
+	public void testFloat() {
+		check(new FloatComparator(true), new FloatComparator(true),
+			Float.NEGATIVE_INFINITY, -Float.MAX_VALUE, -1.5f, -1.0f, -Float.MIN_VALUE, -0.0f, 0.0f,
+			Float.MIN_VALUE, 1.0f, 1.5f, Float.MAX_VALUE, Float.POSITIVE_INFINITY, Float.NaN);
+	}
+	
+	@Test
+	public void testDouble() {
+		check(new DoubleComparator(true), new DoubleComparator(true),
+			Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -1.0, -Double.MIN_VALUE, -0.0, 0.0,
+			Double.MIN_VALUE, 1.0, 1.5, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN);
+	}
+	
+	@Test
+	public void testIntArray() {
+		check(new IntPrimitiveArrayComparator(true), new IntPrimitiveArrayComparator(true),
+			new int[0], new int[] { Integer.MIN_VALUE }, new int[] { -1, 5 }, new int[] { 0 }, new int[] { 0, 0 },
+			new int[] { 0, 1 }, new int[] { 1 }, new int[] { 1, Integer.MIN_VALUE }, new int[] { Integer.MAX_VALUE });
+	}
+	
+	@Test
+	public void testDoubleArray() {
+		check(new DoublePrimitiveArrayComparator(true), new DoublePrimitiveArrayComparator(true),
+			new double[0], new double[] { -1.0 }, new double[] { -0.0, 2.0 }, new double[] { 0.0 },
+			new double[] { 0.5, -3.0 }, new double[] { Double.NaN });
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Checks all pairs of the given values, which must be given in strictly ascending order.
+	 */
+	private static <T> void check(TypeComparator<T> comp1, TypeComparator<T> comp2, T... values) {
+		final int len = comp1.getNormalizeKeyLen() == Integer.MAX_VALUE ? 12 : comp1.getNormalizeKeyLen();
+		
+		for (int i = 0; i < values.length; i++) {
+			for (int k = 0; k < values.length; k++) {
+				comp1.setReference(values[i]);
+				comp2.setReference(values[k]);
+				
+				// compareToReference returns the order of the argument's reference relative to the own reference
+				int expected = i < k ? 1 : (i == k ? 0 : -1);
+				Assert.assertEquals(expected, Integer.signum(comp1.compareToReference(comp2)));
+				Assert.assertEquals(i == k, comp1.equalToReference(values[k]));
+				
+				for (int numBytes = 1; numBytes <= len + 2; numBytes++) {
+					int normComp = compareNormalizedKeys(comp1, values[i], values[k], numBytes);
+					if (comp1.isNormalizedKeyPrefixOnly(numBytes)) {
+						Assert.assertTrue("Normalized key contradicts the order.", normComp == 0 || normComp == -expected);
+					} else {
+						Assert.assertEquals(-expected, normComp);
+					}
+				}
+			}
+		}
+	}
+	
+	private static <T> int compareNormalizedKeys(TypeComparator<T> comp, T first, T second, int numBytes) {
+		MemorySegment seg1 = new MemorySegment(new byte[numBytes]);
+		MemorySegment seg2 = new MemorySegment(new byte[numBytes]);
+		comp.putNormalizedKey(first, seg1, 0, numBytes);
+		comp.putNormalizedKey(second, seg2, 0, numBytes);
+		
+		for (int i = 0; i < numBytes; i++) {
+			int b1 = seg1.get(i) & 0xff;
+			int b2 = seg2.get(i) & 0xff;
+			if (b1 != b2) {
+				return b1 < b2 ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+}
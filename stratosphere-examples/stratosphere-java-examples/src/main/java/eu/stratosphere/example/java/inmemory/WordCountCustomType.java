@@ -16,7 +16,6 @@ package eu.stratosphere.example.java.inmemory;
 
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.ExecutionEnvironment;
-import eu.stratosphere.api.java.collectionbased.InMemoryDataSet;
 import eu.stratosphere.api.java.collectionbased.InMemoryEnviroment;
 import eu.stratosphere.api.java.functions.FlatMapFunction;
 import eu.stratosphere.api.java.functions.KeySelector;
@@ -61,9 +60,6 @@ public class WordCountCustomType {
 		
 		InMemoryEnviroment mem = new InMemoryEnviroment();
 		
-		mem.registerDataSource();
-		DataSet<Tuble2<Integer, String>> user = InMemoryDataSet.initializeFromIteratable();
-		
 		ExecutionEnvironment.initializeContextEnvironment(mem);
 		final ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
 		
@@ -166,6 +166,10 @@ public abstract class DataSet<T> {
 	//  Union
 	// --------------------------------------------------------------------------------------------
 
+	public UnionOperator<T> union(DataSet<T> other) {
+		return new UnionOperator<T>(this, other);
+	}
+
 	// --------------------------------------------------------------------------------------------
 	//  Top-K
 	// --------------------------------------------------------------------------------------------
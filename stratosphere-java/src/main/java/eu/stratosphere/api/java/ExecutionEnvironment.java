@@ -237,6 +237,10 @@ public abstract class ExecutionEnvironment {
 		this.sinks.add(sink);
 	}
 	
+	protected List<DataSink<?>> getDataSinks() {
+		return this.sinks;
+	}
+	
 	protected JavaPlan createPlan(String jobName) {
 		if (this.sinks.isEmpty()) {
 			throw new RuntimeException("No data sinks have been created yet.");
@@ -0,0 +1,51 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.aggregation;
+
+import java.io.Serializable;
+
+/**
+ * An aggregation function computes one aggregate (such as a sum or a minimum) over the values of a field.
+ * The function is stateful: it is initialized once per group, receives all values of the group, and is
+ * finally asked for the aggregate.
+ * <p>
+ * Aggregation functions are specialized for the type of the aggregated values, such that the running
+ * aggregate is kept in primitive form and only the final aggregate is boxed.
+ *
+ * @param <T> The type of the aggregated values.
+ */
+public abstract class AggregationFunction<T> implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Resets the aggregate, to start the aggregation of a new group.
+	 */
+	public abstract void initializeAggregate();
+	
+	/**
+	 * Adds the given value to the aggregate.
+	 * 
+	 * @param value The value to add, never null.
+	 */
+	public abstract void aggregate(T value);
+	
+	/**
+	 * Gets the aggregate of all values added since the last initialization.
+	 * 
+	 * @return The aggregate.
+	 */
+	public abstract T getAggregate();
+}
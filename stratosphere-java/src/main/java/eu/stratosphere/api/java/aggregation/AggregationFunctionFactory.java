@@ -0,0 +1,33 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.aggregation;
+
+import java.io.Serializable;
+
+/**
+ * Creates the aggregation functions of one kind of aggregation, specialized for the type of the aggregated values.
+ */
+public interface AggregationFunctionFactory extends Serializable {
+	
+	/**
+	 * Creates an aggregation function for values of the given type.
+	 * 
+	 * @param type The type of the aggregated values.
+	 * @return The aggregation function.
+	 * 
+	 * @throws UnsupportedOperationException Thrown, if the aggregation is not defined for the given type.
+	 */
+	<T> AggregationFunction<T> createAggregationFunction(Class<T> type);
+}
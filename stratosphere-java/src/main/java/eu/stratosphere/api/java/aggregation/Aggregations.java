@@ -15,13 +15,49 @@
 package eu.stratosphere.api.java.aggregation;
 
 /**
- *
+ * The aggregations that can be applied to the fields of a tuple data set, through
+ * {@link eu.stratosphere.api.java.DataSet#aggregate(Aggregations, int)} or
+ * {@link eu.stratosphere.api.java.operators.Grouping#aggregate(Aggregations, int)}.
  */
 public enum Aggregations {
 	
-	SUM,
-	MIN,
-	MAX,
-	AVG,
-	STD_DEV;
+	SUM (new SumAggregationFunction.SumAggregationFunctionFactory(), true),
+	MIN (new MinAggregationFunction.MinAggregationFunctionFactory(), true),
+	MAX (new MaxAggregationFunction.MaxAggregationFunctionFactory(), true),
+	AVG (new AvgAggregationFunction.AvgAggregationFunctionFactory(), false),
+	STD_DEV (new StdDevAggregationFunction.StdDevAggregationFunctionFactory(), false);
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private final AggregationFunctionFactory factory;
+	
+	private final boolean decomposable;
+	
+	private Aggregations(AggregationFunctionFactory factory, boolean decomposable) {
+		this.factory = factory;
+		this.decomposable = decomposable;
+	}
+	
+	/**
+	 * Creates the function that computes this aggregation for values of the given type.
+	 * 
+	 * @param type The type of the aggregated values.
+	 * @return The aggregation function.
+	 * 
+	 * @throws UnsupportedOperationException Thrown, if the aggregation is not defined for the given type.
+	 */
+	public <T> AggregationFunction<T> createAggregationFunction(Class<T> type) {
+		return this.factory.createAggregationFunction(type);
+	}
+	
+	/**
+	 * Checks whether this aggregation can be computed from partial aggregates of the same type, i.e. whether
+	 * the aggregate of a group equals the aggregate of the partial aggregates of any split of the group.
+	 * Only those aggregations can be pre-aggregated by a combiner.
+	 * 
+	 * @return True, if the aggregation is decomposable, false otherwise.
+	 */
+	public boolean isDecomposable() {
+		return this.decomposable;
+	}
 }
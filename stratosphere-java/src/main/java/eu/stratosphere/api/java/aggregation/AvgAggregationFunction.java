@@ -0,0 +1,202 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.aggregation;
+
+/**
+ * The aggregation functions that compute the arithmetic mean of the values. The mean is of the same type as
+ * the values, so the mean of integral values is truncated towards zero. Integral values are summed up as longs,
+ * floating point values as doubles.
+ */
+public abstract class AvgAggregationFunction<T> extends AggregationFunction<T> {
+	
+	private static final long serialVersionUID = 1L;
+	
+	protected long count;
+	
+	@Override
+	public void initializeAggregate() {
+		this.count = 0;
+		resetSum();
+	}
+	
+	protected abstract void resetSum();
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static final class ByteAvgAgg extends AvgAggregationFunction<Byte> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private long sum;
+		
+		@Override
+		protected void resetSum() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Byte value) {
+			this.sum += value.byteValue();
+			this.count++;
+		}
+		
+		@Override
+		public Byte getAggregate() {
+			return (byte) (this.sum / this.count);
+		}
+	}
+	
+	public static final class ShortAvgAgg extends AvgAggregationFunction<Short> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private long sum;
+		
+		@Override
+		protected void resetSum() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Short value) {
+			this.sum += value.shortValue();
+			this.count++;
+		}
+		
+		@Override
+		public Short getAggregate() {
+			return (short) (this.sum / this.count);
+		}
+	}
+	
+	public static final class IntAvgAgg extends AvgAggregationFunction<Integer> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private long sum;
+		
+		@Override
+		protected void resetSum() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Integer value) {
+			this.sum += value.intValue();
+			this.count++;
+		}
+		
+		@Override
+		public Integer getAggregate() {
+			return (int) (this.sum / this.count);
+		}
+	}
+	
+	public static final class LongAvgAgg extends AvgAggregationFunction<Long> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private long sum;
+		
+		@Override
+		protected void resetSum() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Long value) {
+			this.sum += value.longValue();
+			this.count++;
+		}
+		
+		@Override
+		public Long getAggregate() {
+			return this.sum / this.count;
+		}
+	}
+	
+	public static final class FloatAvgAgg extends AvgAggregationFunction<Float> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private double sum;
+		
+		@Override
+		protected void resetSum() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Float value) {
+			this.sum += value.floatValue();
+			this.count++;
+		}
+		
+		@Override
+		public Float getAggregate() {
+			return (float) (this.sum / this.count);
+		}
+	}
+	
+	public static final class DoubleAvgAgg extends AvgAggregationFunction<Double> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private double sum;
+		
+		@Override
+		protected void resetSum() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Double value) {
+			this.sum += value.doubleValue();
+			this.count++;
+		}
+		
+		@Override
+		public Double getAggregate() {
+			return this.sum / this.count;
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static final class AvgAggregationFunctionFactory implements AggregationFunctionFactory {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> AggregationFunction<T> createAggregationFunction(Class<T> type) {
+			if (type == Byte.class) {
+				return (AggregationFunction<T>) new ByteAvgAgg();
+			} else if (type == Short.class) {
+				return (AggregationFunction<T>) new ShortAvgAgg();
+			} else if (type == Integer.class) {
+				return (AggregationFunction<T>) new IntAvgAgg();
+			} else if (type == Long.class) {
+				return (AggregationFunction<T>) new LongAvgAgg();
+			} else if (type == Float.class) {
+				return (AggregationFunction<T>) new FloatAvgAgg();
+			} else if (type == Double.class) {
+				return (AggregationFunction<T>) new DoubleAvgAgg();
+			} else {
+				throw new UnsupportedOperationException("Cannot compute the average of values of type " + type.getName() + ".");
+			}
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.aggregation;
+
+/**
+ * The aggregation function that computes the maximum of the values. It works on all types that are comparable.
+ */
+public class MaxAggregationFunction<T extends Comparable<T>> extends AggregationFunction<T> {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private T value;
+	
+	@Override
+	public void initializeAggregate() {
+		this.value = null;
+	}
+	
+	@Override
+	public void aggregate(T value) {
+		if (this.value == null || value.compareTo(this.value) > 0) {
+			this.value = value;
+		}
+	}
+	
+	@Override
+	public T getAggregate() {
+		return this.value;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static final class MaxAggregationFunctionFactory implements AggregationFunctionFactory {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		@Override
+		public <T> AggregationFunction<T> createAggregationFunction(Class<T> type) {
+			if (Comparable.class.isAssignableFrom(type)) {
+				return (AggregationFunction<T>) new MaxAggregationFunction();
+			} else {
+				throw new UnsupportedOperationException("Cannot compute the maximum of values of type " + type.getName() +
+						", because the type is not comparable.");
+			}
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.aggregation;
+
+/**
+ * The aggregation functions that compute the population standard deviation of the values. The running mean and
+ * the sum of squared deviations are updated with every value (Welford's method), which is numerically stable and
+ * needs only a single pass over the values. The standard deviation is of the same type as the values, so the
+ * standard deviation of integral values is truncated towards zero.
+ */
+public abstract class StdDevAggregationFunction<T extends Number> extends AggregationFunction<T> {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private long count;
+	
+	private double mean;
+	
+	private double m2;
+	
+	@Override
+	public void initializeAggregate() {
+		this.count = 0;
+		this.mean = 0.0;
+		this.m2 = 0.0;
+	}
+	
+	protected void add(double value) {
+		this.count++;
+		double delta = value - this.mean;
+		this.mean += delta / this.count;
+		this.m2 += delta * (value - this.mean);
+	}
+	
+	protected double getStdDev() {
+		return this.count == 0 ? 0.0 : Math.sqrt(this.m2 / this.count);
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static final class ByteStdDevAgg extends StdDevAggregationFunction<Byte> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		public void aggregate(Byte value) {
+			add(value.byteValue());
+		}
+		
+		@Override
+		public Byte getAggregate() {
+			return (byte) getStdDev();
+		}
+	}
+	
+	public static final class ShortStdDevAgg extends StdDevAggregationFunction<Short> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		public void aggregate(Short value) {
+			add(value.shortValue());
+		}
+		
+		@Override
+		public Short getAggregate() {
+			return (short) getStdDev();
+		}
+	}
+	
+	public static final class IntStdDevAgg extends StdDevAggregationFunction<Integer> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		public void aggregate(Integer value) {
+			add(value.intValue());
+		}
+		
+		@Override
+		public Integer getAggregate() {
+			return (int) getStdDev();
+		}
+	}
+	
+	public static final class LongStdDevAgg extends StdDevAggregationFunction<Long> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		public void aggregate(Long value) {
+			add(value.longValue());
+		}
+		
+		@Override
+		public Long getAggregate() {
+			return (long) getStdDev();
+		}
+	}
+	
+	public static final class FloatStdDevAgg extends StdDevAggregationFunction<Float> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		public void aggregate(Float value) {
+			add(value.floatValue());
+		}
+		
+		@Override
+		public Float getAggregate() {
+			return (float) getStdDev();
+		}
+	}
+	
+	public static final class DoubleStdDevAgg extends StdDevAggregationFunction<Double> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		public void aggregate(Double value) {
+			add(value.doubleValue());
+		}
+		
+		@Override
+		public Double getAggregate() {
+			return getStdDev();
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static final class StdDevAggregationFunctionFactory implements AggregationFunctionFactory {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> AggregationFunction<T> createAggregationFunction(Class<T> type) {
+			if (type == Byte.class) {
+				return (AggregationFunction<T>) new ByteStdDevAgg();
+			} else if (type == Short.class) {
+				return (AggregationFunction<T>) new ShortStdDevAgg();
+			} else if (type == Integer.class) {
+				return (AggregationFunction<T>) new IntStdDevAgg();
+			} else if (type == Long.class) {
+				return (AggregationFunction<T>) new LongStdDevAgg();
+			} else if (type == Float.class) {
+				return (AggregationFunction<T>) new FloatStdDevAgg();
+			} else if (type == Double.class) {
+				return (AggregationFunction<T>) new DoubleStdDevAgg();
+			} else {
+				throw new UnsupportedOperationException("Cannot compute the standard deviation of values of type " + type.getName() + ".");
+			}
+		}
+	}
+}
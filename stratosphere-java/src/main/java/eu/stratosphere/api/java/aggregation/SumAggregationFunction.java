@@ -0,0 +1,185 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.aggregation;
+
+/**
+ * The aggregation functions that sum up the values. Integral values are summed up with the overflow
+ * semantics of Java's primitive types.
+ */
+public abstract class SumAggregationFunction<T> extends AggregationFunction<T> {
+	
+	private static final long serialVersionUID = 1L;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static final class ByteSumAgg extends SumAggregationFunction<Byte> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private int sum;
+		
+		@Override
+		public void initializeAggregate() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Byte value) {
+			this.sum += value.byteValue();
+		}
+		
+		@Override
+		public Byte getAggregate() {
+			return (byte) this.sum;
+		}
+	}
+	
+	public static final class ShortSumAgg extends SumAggregationFunction<Short> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private int sum;
+		
+		@Override
+		public void initializeAggregate() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Short value) {
+			this.sum += value.shortValue();
+		}
+		
+		@Override
+		public Short getAggregate() {
+			return (short) this.sum;
+		}
+	}
+	
+	public static final class IntSumAgg extends SumAggregationFunction<Integer> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private int sum;
+		
+		@Override
+		public void initializeAggregate() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Integer value) {
+			this.sum += value.intValue();
+		}
+		
+		@Override
+		public Integer getAggregate() {
+			return this.sum;
+		}
+	}
+	
+	public static final class LongSumAgg extends SumAggregationFunction<Long> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private long sum;
+		
+		@Override
+		public void initializeAggregate() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Long value) {
+			this.sum += value.longValue();
+		}
+		
+		@Override
+		public Long getAggregate() {
+			return this.sum;
+		}
+	}
+	
+	public static final class FloatSumAgg extends SumAggregationFunction<Float> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private float sum;
+		
+		@Override
+		public void initializeAggregate() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Float value) {
+			this.sum += value.floatValue();
+		}
+		
+		@Override
+		public Float getAggregate() {
+			return this.sum;
+		}
+	}
+	
+	public static final class DoubleSumAgg extends SumAggregationFunction<Double> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private double sum;
+		
+		@Override
+		public void initializeAggregate() {
+			this.sum = 0;
+		}
+		
+		@Override
+		public void aggregate(Double value) {
+			this.sum += value.doubleValue();
+		}
+		
+		@Override
+		public Double getAggregate() {
+			return this.sum;
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static final class SumAggregationFunctionFactory implements AggregationFunctionFactory {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> AggregationFunction<T> createAggregationFunction(Class<T> type) {
+			if (type == Byte.class) {
+				return (AggregationFunction<T>) new ByteSumAgg();
+			} else if (type == Short.class) {
+				return (AggregationFunction<T>) new ShortSumAgg();
+			} else if (type == Integer.class) {
+				return (AggregationFunction<T>) new IntSumAgg();
+			} else if (type == Long.class) {
+				return (AggregationFunction<T>) new LongSumAgg();
+			} else if (type == Float.class) {
+				return (AggregationFunction<T>) new FloatSumAgg();
+			} else if (type == Double.class) {
+				return (AggregationFunction<T>) new DoubleSumAgg();
+			} else {
+				throw new UnsupportedOperationException("Cannot compute the sum of values of type " + type.getName() + ".");
+			}
+		}
+	}
+}
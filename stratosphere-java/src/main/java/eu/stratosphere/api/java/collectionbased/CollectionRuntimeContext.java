@@ -0,0 +1,136 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.collectionbased;
+
+import java.util.Collection;
+import java.util.HashMap;
+
+import eu.stratosphere.api.common.accumulators.Accumulator;
+import eu.stratosphere.api.common.accumulators.AccumulatorHelper;
+import eu.stratosphere.api.common.accumulators.DoubleCounter;
+import eu.stratosphere.api.common.accumulators.Histogram;
+import eu.stratosphere.api.common.accumulators.IntCounter;
+import eu.stratosphere.api.common.accumulators.LongCounter;
+import eu.stratosphere.api.common.functions.RuntimeContext;
+
+/**
+ * The runtime context handed to user functions when a program is executed directly on Java collections.
+ * It holds the accumulators and broadcast variables of one (parallel instance of an) operator.
+ */
+public class CollectionRuntimeContext implements RuntimeContext {
+
+	private final String name;
+
+	private final int numParallelSubtasks;
+
+	private final int subtaskIndex;
+
+	private final HashMap<String, Accumulator<?, ?>> accumulators = new HashMap<String, Accumulator<?, ?>>();
+
+	private final HashMap<String, Collection<?>> broadcastVars = new HashMap<String, Collection<?>>();
+
+	
+	public CollectionRuntimeContext(String name, int numParallelSubtasks, int subtaskIndex) {
+		this.name = name;
+		this.numParallelSubtasks = numParallelSubtasks;
+		this.subtaskIndex = subtaskIndex;
+	}
+
+	@Override
+	public String getTaskName() {
+		return this.name;
+	}
+
+	@Override
+	public int getNumberOfParallelSubtasks() {
+		return this.numParallelSubtasks;
+	}
+
+	@Override
+	public int getIndexOfThisSubtask() {
+		return this.subtaskIndex;
+	}
+
+	@Override
+	public IntCounter getIntCounter(String name) {
+		return (IntCounter) getAccumulator(name, IntCounter.class);
+	}
+
+	@Override
+	public LongCounter getLongCounter(String name) {
+		return (LongCounter) getAccumulator(name, LongCounter.class);
+	}
+
+	@Override
+	public Histogram getHistogram(String name) {
+		return (Histogram) getAccumulator(name, Histogram.class);
+	}
+
+	@Override
+	public DoubleCounter getDoubleCounter(String name) {
+		return (DoubleCounter) getAccumulator(name, DoubleCounter.class);
+	}
+
+	@Override
+	public <V, A> void addAccumulator(String name, Accumulator<V, A> accumulator) {
+		if (this.accumulators.containsKey(name)) {
+			throw new UnsupportedOperationException("The counter '" + name + "' already exists and cannot be added.");
+		}
+		this.accumulators.put(name, accumulator);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <V, A> Accumulator<V, A> getAccumulator(String name) {
+		return (Accumulator<V, A>) this.accumulators.get(name);
+	}
+
+	@Override
+	public HashMap<String, Accumulator<?, ?>> getAllAccumulators() {
+		return this.accumulators;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <V, A> Accumulator<V, A> getAccumulator(String name, Class<? extends Accumulator<V, A>> accumulatorClass) {
+		Accumulator<?, ?> accumulator = this.accumulators.get(name);
+
+		if (accumulator != null) {
+			AccumulatorHelper.compareAccumulatorTypes(name, accumulator.getClass(), accumulatorClass);
+		} else {
+			try {
+				accumulator = accumulatorClass.newInstance();
+			} catch (Exception e) {
+				throw new RuntimeException("Could not instantiate accumulator '" + name + "': " + e.getMessage(), e);
+			}
+			this.accumulators.put(name, accumulator);
+		}
+		return (Accumulator<V, A>) accumulator;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+
+	public void setBroadcastVariable(String name, Collection<?> value) {
+		this.broadcastVars.put(name, value);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <RT> Collection<RT> getBroadcastVariable(String name) {
+		if (!this.broadcastVars.containsKey(name)) {
+			throw new IllegalArgumentException("Trying to access an unbound broadcast variable '" + name + "'.");
+		}
+		return (Collection<RT>) this.broadcastVars.get(name);
+	}
+}
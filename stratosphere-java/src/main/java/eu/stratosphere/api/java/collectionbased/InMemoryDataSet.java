@@ -1,25 +1,60 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
 package eu.stratosphere.api.java.collectionbased;
 
-import eu.stratosphere.api.java.DataSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import eu.stratosphere.api.java.ExecutionEnvironment;
-import eu.stratosphere.api.java.functions.MapFunction;
-import eu.stratosphere.api.java.operators.MapOperator;
+import eu.stratosphere.api.java.io.CollectionInputFormat;
+import eu.stratosphere.api.java.operators.DataSource;
 import eu.stratosphere.api.java.typeutils.TypeInformation;
 
-public class InMemoryDataSet extends DataSet {
+/**
+ * A data source whose elements are held in a Java collection. When executed on collections, the elements
+ * are handed to the consuming operators directly, without going through the input format.
+ * 
+ * @param <T> The type of the elements.
+ */
+public class InMemoryDataSet<T> extends DataSource<T> {
+	
+	private final Collection<T> data;
 	
-	private Object[] data;
 	
-	protected InMemoryDataSet(ExecutionEnvironment context, TypeInformation type, Object[] data) {
-		super(context, type);
+	public InMemoryDataSet(ExecutionEnvironment context, Collection<T> data, TypeInformation<T> type) {
+		super(context, new CollectionInputFormat<T>(data), type);
+		
+		this.data = data;
+	}
+	
+	public Collection<T> getData() {
+		return this.data;
 	}
-
 	
 	@Override
-	public MapOperator map(MapFunction mapper) {
-		for(int i = 0; i < data.length; i++) {
-			mapper.map(data[i]);
+	protected List<List<T>> executeOnCollection(int numPartitions) {
+		// split the elements into consecutive ranges, so that the partitions together retain the collection's order
+		List<T> all = new ArrayList<T>(this.data);
+		List<List<T>> partitions = new ArrayList<List<T>>(numPartitions);
+		
+		for (int i = 0; i < numPartitions; i++) {
+			int from = (int) ((long) all.size() * i / numPartitions);
+			int to = (int) ((long) all.size() * (i + 1) / numPartitions);
+			partitions.add(new ArrayList<T>(all.subList(from, to)));
 		}
+		return partitions;
 	}
-	
 }
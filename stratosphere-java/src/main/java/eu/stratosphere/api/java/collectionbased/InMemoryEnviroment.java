@@ -1,28 +1,67 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
 package eu.stratosphere.api.java.collectionbased;
 
+import java.util.Collection;
+import java.util.Map;
+
 import eu.stratosphere.api.common.JobExecutionResult;
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.ExecutionEnvironment;
+import eu.stratosphere.api.java.io.CollectionInputFormat;
+import eu.stratosphere.api.java.operators.CollectionExecutor;
+import eu.stratosphere.api.java.typeutils.TypeInformation;
 
+/**
+ * An execution environment that runs programs directly on Java collections inside the current JVM.
+ * It does not create a job graph, does not serialize any records, and does not start any TaskManagers,
+ * which makes it well suited for testing programs on small inputs.
+ * <p>
+ * Records are passed between operators by reference. Functions must therefore not modify the objects
+ * they receive as input, unless they return them as their result.
+ * <p>
+ * If a degree of parallelism is set, every operator runs that many parallel instances in separate threads,
+ * and the data is partitioned between them as it would be on the cluster.
+ */
 public class InMemoryEnviroment extends ExecutionEnvironment {
-
-	private Object[] data;
+	
 	@Override
 	public JobExecutionResult execute(String jobName) throws Exception {
-		// TODO Auto-generated method stub
-		return null;
+		long startTime = System.currentTimeMillis();
+		
+		int dop = getDegreeOfParallelism();
+		CollectionExecutor executor = new CollectionExecutor(dop > 0 ? dop : 1);
+		Map<String, Object> accumulators = executor.execute(getDataSinks());
+		
+		return new JobExecutionResult(System.currentTimeMillis() - startTime, accumulators);
 	}
 
 	@Override
 	public String getExecutionPlan() throws Exception {
-		// TODO Auto-generated method stub
-		return null;
+		throw new UnsupportedOperationException("Programs that are executed on collections have no execution plan.");
 	}
 	
 	@Override
-	public <X> DataSet<X> fromElements(X... data) {
-		this.data = data;
-		return new InMemoryDataSet(context, type, data);
+	public <X> DataSet<X> fromCollection(Collection<X> data, TypeInformation<X> type) {
+		CollectionInputFormat.checkCollection(data, type.getTypeClass());
+		
+		return new InMemoryDataSet<X>(this, data, type);
+	}
+	
+	@Override
+	public String toString() {
+		return "In-Memory Environment : " + getIdString();
 	}
-
 }
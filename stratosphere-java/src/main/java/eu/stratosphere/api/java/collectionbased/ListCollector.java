@@ -0,0 +1,43 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.collectionbased;
+
+import java.util.List;
+
+import eu.stratosphere.util.Collector;
+
+/**
+ * A collector that adds all collected records to a list.
+ */
+public class ListCollector<T> implements Collector<T> {
+	
+	private final List<T> list;
+	
+	
+	public ListCollector(List<T> list) {
+		if (list == null)
+			throw new NullPointerException();
+		
+		this.list = list;
+	}
+
+	@Override
+	public void collect(T record) {
+		this.list.add(record);
+	}
+
+	@Override
+	public void close() {}
+}
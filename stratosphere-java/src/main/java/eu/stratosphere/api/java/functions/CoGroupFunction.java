@@ -27,4 +27,14 @@ public abstract class CoGroupFunction<IN1, IN2, OUT> extends AbstractFunction im
 
 	@Override
 	public abstract void coGroup(Iterator<IN1> first, Iterator<IN2> second, Collector<OUT> out) throws Exception;
+	
+	@Override
+	public void combineFirst(Iterator<IN1> records, Collector<IN1> out) throws Exception {
+		throw new UnsupportedOperationException();
+	}
+	
+	@Override
+	public void combineSecond(Iterator<IN2> records, Collector<IN2> out) throws Exception {
+		throw new UnsupportedOperationException();
+	}
 }
@@ -14,11 +14,33 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import eu.stratosphere.api.common.InvalidProgramException;
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
+import eu.stratosphere.api.java.aggregation.AggregationFunction;
 import eu.stratosphere.api.java.aggregation.Aggregations;
+import eu.stratosphere.api.java.collectionbased.ListCollector;
+import eu.stratosphere.api.java.functions.GroupReduceFunction;
+import eu.stratosphere.api.java.operators.translation.PlanGroupReduceOperator;
 import eu.stratosphere.api.java.operators.translation.UnaryNodeTranslation;
+import eu.stratosphere.api.java.tuple.Tuple;
+import eu.stratosphere.api.java.typeutils.TupleTypeInfo;
+import eu.stratosphere.api.java.typeutils.TypeInformation;
+import eu.stratosphere.util.Collector;
+import eu.stratosphere.util.InstantiationUtil;
 
 /**
+ * An operator that aggregates fields of a tuple data set, either over all tuples or per group. Several
+ * aggregations that are applied one after the other are merged into one operator and computed in a single
+ * pass over the data. If all of them are {@link Aggregations#isDecomposable() decomposable}, the tuples are
+ * pre-aggregated by a combiner before they are shipped.
+ * 
  * @param <IN> The type of the data set aggregated by the operator.
  */
 public class AggregateOperator<IN> extends SingleInputOperator<IN, IN, AggregateOperator<IN>> {
@@ -29,6 +51,8 @@ public class AggregateOperator<IN> extends SingleInputOperator<IN, IN, Aggregate
 	
 	private final int[] groupingFields;
 	
+	private final Keys<IN> groupingKeys;
+	
 	/**
 	 * <p>
 	 * This constructor merges this operator with the previous operator, if that
@@ -40,8 +64,7 @@ public class AggregateOperator<IN> extends SingleInputOperator<IN, IN, Aggregate
 		if (input == null || function == null)
 			throw new NullPointerException();
 		
-		if (field < 0 || field >= input.getType().getArity())
-			throw new IllegalArgumentException("Field position is out of range.");
+		checkAggregation(input.getType(), function, field);
 		
 		// check if this is the first of multiple chained aggregation operators
 		if (input.getClass() != AggregateOperator.class) {
@@ -49,11 +72,21 @@ public class AggregateOperator<IN> extends SingleInputOperator<IN, IN, Aggregate
 			this.aggregationFunctions = new Aggregations[] { function };
 			this.fields = new int[] { field };
 			this.groupingFields = new int[0];
+			this.groupingKeys = null;
 		} else {
 			// this aggregation operator succeeds another one, so merge them
 			AggregateOperator<IN> pred = (AggregateOperator<IN>) input;
 			int num = pred.aggregationFunctions.length;
 			
+			// all aggregations write their result into their field, and the combiner would aggregate the
+			// partial results of one aggregation with another one
+			for (int i = 0; i < num; i++) {
+				if (pred.fields[i] == field) {
+					throw new InvalidProgramException("The field " + field + " is aggregated more than once (" + 
+							pred.aggregationFunctions[i] + " and " + function + ").");
+				}
+			}
+			
 			// copy the previous operators aggregation fields and add our own
 			this.aggregationFunctions = new Aggregations[num + 1];
 			this.fields = new int[num + 1];
@@ -64,6 +97,7 @@ public class AggregateOperator<IN> extends SingleInputOperator<IN, IN, Aggregate
 			
 			// copy the previous operator's grouping fields
 			this.groupingFields = pred.groupingFields;
+			this.groupingKeys = pred.groupingKeys;
 		}
 	}
 	
@@ -73,19 +107,177 @@ public class AggregateOperator<IN> extends SingleInputOperator<IN, IN, Aggregate
 		if (input == null || function == null)
 			throw new NullPointerException();
 		
-		if (field < 0 || field >= input.getDataSet().getType().getArity())
-			throw new IllegalArgumentException("Aggregation field position is out of range.");
+		checkAggregation(input.getDataSet().getType(), function, field);
+		
+		if (!(input.getKeys() instanceof Keys.FieldPositionKeys)) {
+			throw new InvalidProgramException("Aggregations are only supported on data sets that are grouped by field positions.");
+		}
 		
 		// set the aggregation fields
 		this.aggregationFunctions = new Aggregations[] { function };
 		this.fields = new int[] { field };
 		
 		// get the grouping fields
-		this.groupingFields = null; //input.getGroupingFields();
+		this.groupingFields = input.getKeys().computeLogicalKeyPositions();
+		this.groupingKeys = input.getKeys();
 	}
 	
 	@Override
 	protected UnaryNodeTranslation translateToDataFlow() {
-		throw new UnsupportedOperationException("NOT IMPLEMENTED");
+		String name = getName() != null ? getName() : getDefaultName();
+		
+		PlanGroupReduceOperator<IN, IN> reducer = new PlanGroupReduceOperator<IN, IN>(createAggregatingUdf(),
+				this.groupingFields, name, getInputType(), getResultType());
+		
+		// the partial aggregates of decomposable aggregations can be computed by a combiner
+		boolean combinable = true;
+		for (Aggregations aggregation : this.aggregationFunctions) {
+			combinable &= aggregation.isDecomposable();
+		}
+		reducer.setCombinable(combinable);
+		
+		return new UnaryNodeTranslation(reducer);
+	}
+	
+	@Override
+	protected boolean isGroupOperation() {
+		return true;
+	}
+	
+	@Override
+	protected Keys<IN> getGroupingKeys() {
+		return this.groupingKeys;
+	}
+	
+	@Override
+	protected List<IN> executeOnCollection(List<IN> input, RuntimeContext ctx) throws Exception {
+		GroupReduceFunction<IN, IN> aggregator = CollectionExecutor.openFunction(createAggregatingUdf(), null, ctx);
+		
+		Collection<List<IN>> groups = this.groupingKeys == null ? Collections.singletonList(input) :
+				CollectionExecutor.group(input, this.groupingKeys);
+		
+		List<IN> result = new ArrayList<IN>();
+		ListCollector<IN> collector = new ListCollector<IN>(result);
+		
+		for (List<IN> group : groups) {
+			if (!group.isEmpty()) {
+				aggregator.reduce(group.iterator(), collector);
+			}
+		}
+		
+		aggregator.close();
+		return result;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private GroupReduceFunction<IN, IN> createAggregatingUdf() {
+		TupleTypeInfo<?> inType = (TupleTypeInfo<?>) getInputType();
+		
+		AggregationFunction<?>[] functions = new AggregationFunction<?>[this.aggregationFunctions.length];
+		for (int i = 0; i < functions.length; i++) {
+			Class<?> fieldType = inType.getTypeAt(this.fields[i]).getTypeClass();
+			functions[i] = this.aggregationFunctions[i].createAggregationFunction(fieldType);
+		}
+		
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		GroupReduceFunction<IN, IN> udf = new AggregatingUdf(inType.getTypeClass(), inType.getArity(), this.fields, functions);
+		return udf;
+	}
+	
+	private String getDefaultName() {
+		StringBuilder bld = new StringBuilder("Aggregate ");
+		for (int i = 0; i < this.fields.length; i++) {
+			if (i > 0) {
+				bld.append(", ");
+			}
+			bld.append(this.aggregationFunctions[i]).append('(').append(this.fields[i]).append(')');
+		}
+		return bld.toString();
+	}
+	
+	private static void checkAggregation(TypeInformation<?> type, Aggregations function, int field) {
+		if (!type.isTupleType()) {
+			throw new InvalidProgramException("Aggregations on field positions are only supported on tuple data sets.");
+		}
+		
+		if (field < 0 || field >= type.getArity())
+			throw new IllegalArgumentException("Aggregation field position is out of range.");
+		
+		// make sure the aggregation is defined for the field's type
+		Class<?> fieldType = ((TupleTypeInfo<?>) type).getTypeAt(field).getTypeClass();
+		try {
+			function.createAggregationFunction(fieldType);
+		}
+		catch (UnsupportedOperationException e) {
+			throw new InvalidProgramException(e.getMessage());
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * The function that computes all aggregations of the operator in a single pass over a group. It emits one
+	 * tuple per group, which carries the aggregates in the aggregated fields and the values of the group's last
+	 * tuple in all other fields. Since the result has the same type as the input, the function serves as its own
+	 * combiner, as long as all aggregations are decomposable.
+	 * <p>
+	 * The fields of a tuple hold boxed values, so the function hands the field objects as they are to the
+	 * aggregation functions, which are specialized for the field type. They unbox each value into a primitive
+	 * running aggregate, and only the final aggregate of a group is boxed again.
+	 */
+	public static final class AggregatingUdf<T extends Tuple> extends GroupReduceFunction<T, T> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final Class<T> tupleClass;
+		
+		private final int arity;
+		
+		private final int[] fieldPositions;
+		
+		private final AggregationFunction<Object>[] aggFunctions;
+		
+		
+		@SuppressWarnings("unchecked")
+		public AggregatingUdf(Class<T> tupleClass, int arity, int[] fieldPositions, AggregationFunction<?>[] aggFunctions) {
+			this.tupleClass = tupleClass;
+			this.arity = arity;
+			this.fieldPositions = fieldPositions;
+			this.aggFunctions = (AggregationFunction<Object>[]) aggFunctions;
+		}
+		
+		@Override
+		public void reduce(Iterator<T> values, Collector<T> out) {
+			final int[] fieldPositions = this.fieldPositions;
+			final AggregationFunction<Object>[] aggFunctions = this.aggFunctions;
+			
+			for (int i = 0; i < aggFunctions.length; i++) {
+				aggFunctions[i].initializeAggregate();
+			}
+			
+			T current = null;
+			while (values.hasNext()) {
+				current = values.next();
+				
+				for (int i = 0; i < fieldPositions.length; i++) {
+					Object val = current.getFieldFast(fieldPositions[i]);
+					if (val != null) {
+						aggFunctions[i].aggregate(val);
+					}
+				}
+			}
+			
+			// write the aggregates into a new tuple, so that the input tuples are not modified
+			T result = InstantiationUtil.instantiate(this.tupleClass, Tuple.class);
+			for (int i = 0; i < this.arity; i++) {
+				result.setField(current.getFieldFast(i), i);
+			}
+			for (int i = 0; i < fieldPositions.length; i++) {
+				result.setField(aggFunctions[i].getAggregate(), fieldPositions[i]);
+			}
+			
+			out.collect(result);
+		}
 	}
 }
@@ -14,8 +14,15 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 import eu.stratosphere.api.common.InvalidProgramException;
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
+import eu.stratosphere.api.java.collectionbased.ListCollector;
 import eu.stratosphere.api.java.functions.CoGroupFunction;
 import eu.stratosphere.api.java.functions.KeySelector;
 import eu.stratosphere.api.java.typeutils.TypeExtractor;
@@ -54,6 +61,34 @@ public class CoGroupOperator<I1, I2, OUT> extends TwoInputUdfOperator<I1, I2, OU
 	protected Keys<I2> getKeys2() {
 		return this.keys2;
 	}
+	
+	@Override
+	protected List<OUT> executeOnCollections(List<I1> input1, List<I2> input2, RuntimeContext ctx) throws Exception {
+		CoGroupFunction<I1, I2, OUT> coGrouper = CollectionExecutor.openFunction(this.function, getParameters(), ctx);
+		
+		Map<Object, List<I1>> groups1 = CollectionExecutor.groupByKey(input1, this.keys1);
+		Map<Object, List<I2>> groups2 = CollectionExecutor.groupByKey(input2, this.keys2);
+		
+		List<OUT> result = new ArrayList<OUT>();
+		ListCollector<OUT> collector = new ListCollector<OUT>(result);
+		
+		for (Map.Entry<Object, List<I1>> group1 : groups1.entrySet()) {
+			List<I2> group2 = groups2.get(group1.getKey());
+			if (group2 == null) {
+				group2 = Collections.emptyList();
+			}
+			coGrouper.coGroup(group1.getValue().iterator(), group2.iterator(), collector);
+		}
+		
+		for (Map.Entry<Object, List<I2>> group2 : groups2.entrySet()) {
+			if (!groups1.containsKey(group2.getKey())) {
+				coGrouper.coGroup(Collections.<I1>emptyList().iterator(), group2.getValue().iterator(), collector);
+			}
+		}
+		
+		coGrouper.close();
+		return result;
+	}
 
 	// --------------------------------------------------------------------------------------------
 	// Builder classes for incremental construction
@@ -0,0 +1,442 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.operators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import eu.stratosphere.api.common.accumulators.Accumulator;
+import eu.stratosphere.api.common.accumulators.AccumulatorHelper;
+import eu.stratosphere.api.common.functions.AbstractFunction;
+import eu.stratosphere.api.common.functions.RuntimeContext;
+import eu.stratosphere.api.java.DataSet;
+import eu.stratosphere.api.java.collectionbased.CollectionRuntimeContext;
+import eu.stratosphere.configuration.Configuration;
+import eu.stratosphere.util.InstantiationUtil;
+
+/**
+ * Executes the data flow program defined by a set of data sinks directly on Java collections inside the
+ * current JVM. The program is not translated into a job graph, and records are neither serialized nor
+ * shipped over the network; they are handed from operator to operator as object references.
+ * <p>
+ * Similar to the {@link OperatorTranslation}, the executor walks the program backwards from the sinks and
+ * computes every data set exactly once, no matter how many operators consume it.
+ * <p>
+ * With a degree of parallelism larger than one, every data set is held as that many partitions, and each
+ * operator runs one instance per partition in a thread pool. Between operators, the records are exchanged the
+ * way the parallel runtime would exchange them: operators that group their input receive it hash-partitioned
+ * on the grouping keys (or gathered in a single partition, if they form one group of all records), joins and
+ * co-groups receive both inputs hash-partitioned, and crosses receive their second input broadcast to all
+ * partitions. That way, programs that rely on a particular partitioning or order show the same behavior as
+ * on the cluster.
+ */
+public class CollectionExecutor {
+	
+	/** The number of partitions of every data set, respectively the number of parallel operator instances */
+	private final int degreeOfParallelism;
+	
+	/** The already computed data sets (operations or sources), as partitions */
+	private final Map<DataSet<?>, List<?>> intermediateResults = new HashMap<DataSet<?>, List<?>>();
+	
+	/** The accumulators of all executed user functions, merged by name */
+	private final Map<String, Accumulator<?, ?>> accumulators = new HashMap<String, Accumulator<?, ?>>();
+	
+	/** The threads running the parallel operator instances, null for a non-parallel execution */
+	private ExecutorService executorService;
+	
+	
+	/**
+	 * Creates an executor that runs every operator as a single instance in the calling thread.
+	 */
+	public CollectionExecutor() {
+		this(1);
+	}
+	
+	/**
+	 * Creates an executor that runs every operator with the given number of parallel instances.
+	 * 
+	 * @param degreeOfParallelism The number of parallel instances, which must be at least one.
+	 */
+	public CollectionExecutor(int degreeOfParallelism) {
+		if (degreeOfParallelism < 1) {
+			throw new IllegalArgumentException("The degree of parallelism must be at least one.");
+		}
+		this.degreeOfParallelism = degreeOfParallelism;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public int getDegreeOfParallelism() {
+		return this.degreeOfParallelism;
+	}
+	
+	/**
+	 * Executes the program that produces the given data sinks.
+	 * 
+	 * @param sinks The data sinks of the program.
+	 * @return The final values of the accumulators, by name.
+	 * @throws Exception Any exception thrown by an input format, a user function, or an output format.
+	 */
+	public Map<String, Object> execute(List<DataSink<?>> sinks) throws Exception {
+		if (sinks.isEmpty()) {
+			throw new RuntimeException("No data sinks have been created yet.");
+		}
+		
+		if (this.degreeOfParallelism > 1) {
+			this.executorService = Executors.newFixedThreadPool(this.degreeOfParallelism, new ExecutorThreadFactory());
+		}
+		
+		try {
+			for (DataSink<?> sink : sinks) {
+				executeSink(sink);
+			}
+		}
+		finally {
+			if (this.executorService != null) {
+				this.executorService.shutdownNow();
+				this.executorService = null;
+			}
+		}
+		
+		return AccumulatorHelper.toResultMap(this.accumulators);
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private <T> void executeSink(DataSink<T> sink) throws Exception {
+		List<List<T>> input = execute(sink.getDataSet());
+		sink.executeOnCollection(input);
+	}
+	
+	private <T> List<List<T>> execute(DataSet<T> dataSet) throws Exception {
+		// check if we have already computed that data set (operation or source)
+		@SuppressWarnings("unchecked")
+		List<List<T>> previous = (List<List<T>>) this.intermediateResults.get(dataSet);
+		if (previous != null) {
+			return previous;
+		}
+		
+		List<List<T>> result;
+		
+		if (dataSet instanceof DataSource) {
+			result = ((DataSource<T>) dataSet).executeOnCollection(this.degreeOfParallelism);
+		}
+		else if (dataSet instanceof SingleInputOperator) {
+			result = executeSingleOp((SingleInputOperator<?, T, ?>) dataSet);
+		}
+		else if (dataSet instanceof TwoInputOperator) {
+			result = executeBinaryOp((TwoInputOperator<?, ?, T, ?>) dataSet);
+		}
+		else {
+			throw new RuntimeException("Error while executing the program on collections: Unknown operator or data set type.");
+		}
+		
+		this.intermediateResults.put(dataSet, result);
+		return result;
+	}
+	
+	private <IN, OUT> List<List<OUT>> executeSingleOp(SingleInputOperator<?, OUT, ?> rawOp) throws Exception {
+		@SuppressWarnings("unchecked")
+		final SingleInputOperator<IN, OUT, ?> op = (SingleInputOperator<IN, OUT, ?>) rawOp;
+		
+		List<List<IN>> input = execute(op.getInput());
+		
+		// bring the input into the partitioning required by the operator
+		final int numInstances;
+		if (op.isGroupOperation()) {
+			Keys<IN> keys = op.getGroupingKeys();
+			if (keys == null) {
+				input = gather(input);
+				numInstances = 1;
+			} else {
+				input = hashPartition(input, keys);
+				numInstances = this.degreeOfParallelism;
+			}
+		} else {
+			numInstances = this.degreeOfParallelism;
+		}
+		
+		final List<List<IN>> partitions = input;
+		final Map<String, List<?>> broadcastVariables = computeBroadcastVariables(op);
+		
+		return runInstances(op, numInstances, broadcastVariables, new InstanceCall<OUT>() {
+			@Override
+			public List<OUT> call(int partition, RuntimeContext ctx) throws Exception {
+				return op.executeOnCollection(partitions.get(partition), ctx);
+			}
+		});
+	}
+	
+	private <IN1, IN2, OUT> List<List<OUT>> executeBinaryOp(TwoInputOperator<?, ?, OUT, ?> rawOp) throws Exception {
+		@SuppressWarnings("unchecked")
+		final TwoInputOperator<IN1, IN2, OUT, ?> op = (TwoInputOperator<IN1, IN2, OUT, ?>) rawOp;
+		
+		List<List<IN1>> input1 = execute(op.getInput1());
+		List<List<IN2>> input2 = execute(op.getInput2());
+		
+		// bring the inputs into the partitioning required by the operator
+		if (op instanceof JoinOperator) {
+			@SuppressWarnings("unchecked")
+			JoinOperator<IN1, IN2, OUT> join = (JoinOperator<IN1, IN2, OUT>) op;
+			input1 = hashPartition(input1, join.getKeys1());
+			input2 = hashPartition(input2, join.getKeys2());
+		}
+		else if (op instanceof CoGroupOperator) {
+			@SuppressWarnings("unchecked")
+			CoGroupOperator<IN1, IN2, OUT> coGroup = (CoGroupOperator<IN1, IN2, OUT>) op;
+			input1 = hashPartition(input1, coGroup.getKeys1());
+			input2 = hashPartition(input2, coGroup.getKeys2());
+		}
+		else if (op instanceof CrossOperator) {
+			input2 = broadcast(input2);
+		}
+		
+		final List<List<IN1>> partitions1 = input1;
+		final List<List<IN2>> partitions2 = input2;
+		final Map<String, List<?>> broadcastVariables = computeBroadcastVariables(op);
+		
+		return runInstances(op, this.degreeOfParallelism, broadcastVariables, new InstanceCall<OUT>() {
+			@Override
+			public List<OUT> call(int partition, RuntimeContext ctx) throws Exception {
+				return op.executeOnCollections(partitions1.get(partition), partitions2.get(partition), ctx);
+			}
+		});
+	}
+	
+	/**
+	 * Runs the given number of instances of an operator, each one with its own runtime context, and merges
+	 * the accumulators of all instances once they are done. Partitions for which no instance runs remain empty.
+	 */
+	private <OUT> List<List<OUT>> runInstances(Operator<?, ?> op, int numInstances, Map<String, List<?>> broadcastVariables,
+			final InstanceCall<OUT> call) throws Exception
+	{
+		String name = op.getName() != null ? op.getName() : op.getClass().getSimpleName();
+		
+		final CollectionRuntimeContext[] contexts = new CollectionRuntimeContext[numInstances];
+		for (int i = 0; i < numInstances; i++) {
+			contexts[i] = new CollectionRuntimeContext(name, numInstances, i);
+			for (Map.Entry<String, List<?>> bcVariable : broadcastVariables.entrySet()) {
+				contexts[i].setBroadcastVariable(bcVariable.getKey(), bcVariable.getValue());
+			}
+		}
+		
+		List<List<OUT>> result = new ArrayList<List<OUT>>(this.degreeOfParallelism);
+		
+		if (numInstances == 1 || this.executorService == null) {
+			for (int i = 0; i < numInstances; i++) {
+				result.add(call.call(i, contexts[i]));
+			}
+		}
+		else {
+			List<Future<List<OUT>>> futures = new ArrayList<Future<List<OUT>>>(numInstances);
+			for (int i = 0; i < numInstances; i++) {
+				final int partition = i;
+				futures.add(this.executorService.submit(new Callable<List<OUT>>() {
+					@Override
+					public List<OUT> call() throws Exception {
+						return call.call(partition, contexts[partition]);
+					}
+				}));
+			}
+			
+			try {
+				for (Future<List<OUT>> future : futures) {
+					result.add(future.get());
+				}
+			}
+			catch (ExecutionException e) {
+				for (Future<List<OUT>> future : futures) {
+					future.cancel(true);
+				}
+				
+				Throwable cause = e.getCause();
+				if (cause instanceof Exception) {
+					throw (Exception) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else {
+					throw e;
+				}
+			}
+		}
+		
+		while (result.size() < this.degreeOfParallelism) {
+			result.add(new ArrayList<OUT>());
+		}
+		
+		for (CollectionRuntimeContext ctx : contexts) {
+			AccumulatorHelper.mergeInto(this.accumulators, ctx.getAllAccumulators());
+		}
+		return result;
+	}
+	
+	private Map<String, List<?>> computeBroadcastVariables(Operator<?, ?> op) throws Exception {
+		if (!(op instanceof UdfOperator)) {
+			return Collections.emptyMap();
+		}
+		
+		Map<String, List<?>> variables = new HashMap<String, List<?>>();
+		for (Map.Entry<String, DataSet<?>> bcVariable : ((UdfOperator<?>) op).getBroadcastSets().entrySet()) {
+			// every instance sees all records of the broadcast data set
+			variables.put(bcVariable.getKey(), Collections.unmodifiableList(gather(execute(bcVariable.getValue())).get(0)));
+		}
+		return variables;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	//  Data exchange between the partitions
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Re-partitions the records such that all records with the same key end up in the same partition.
+	 * Records from the same source partition keep their relative order.
+	 */
+	private <T> List<List<T>> hashPartition(List<List<T>> partitions, Keys<T> keys) {
+		if (this.degreeOfParallelism == 1) {
+			return partitions;
+		}
+		
+		List<List<T>> result = createPartitions(this.degreeOfParallelism);
+		for (List<T> partition : partitions) {
+			for (T record : partition) {
+				Object key = keys.getKey(record);
+				int hash = key == null ? 0 : key.hashCode();
+				result.get((hash & Integer.MAX_VALUE) % this.degreeOfParallelism).add(record);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Moves all records into the first partition, keeping the remaining partitions empty.
+	 */
+	private <T> List<List<T>> gather(List<List<T>> partitions) {
+		if (this.degreeOfParallelism == 1) {
+			return partitions;
+		}
+		
+		List<List<T>> result = createPartitions(this.degreeOfParallelism);
+		for (List<T> partition : partitions) {
+			result.get(0).addAll(partition);
+		}
+		return result;
+	}
+	
+	/**
+	 * Makes all records available in every partition.
+	 */
+	private <T> List<List<T>> broadcast(List<List<T>> partitions) {
+		if (this.degreeOfParallelism == 1) {
+			return partitions;
+		}
+		
+		List<T> all = gather(partitions).get(0);
+		return Collections.nCopies(this.degreeOfParallelism, all);
+	}
+	
+	static <T> List<List<T>> createPartitions(int numPartitions) {
+		List<List<T>> partitions = new ArrayList<List<T>>(numPartitions);
+		for (int i = 0; i < numPartitions; i++) {
+			partitions.add(new ArrayList<T>());
+		}
+		return partitions;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	//  Utilities for the operators
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Creates the instance of a user function that is used for one execution. Just like a task on the cluster,
+	 * every execution works on its own copy of the function, so that state kept in the function's fields does
+	 * not leak from one execution into the next, and parallel instances do not share state.
+	 * 
+	 * @param function The function as given by the program.
+	 * @param parameters The parameters for the function's {@code open()} method, may be null.
+	 * @param ctx The runtime context for the function.
+	 * @return The opened copy of the function.
+	 */
+	static <F extends AbstractFunction> F openFunction(F function, Configuration parameters, RuntimeContext ctx) throws Exception {
+		F copy = InstantiationUtil.clone(function);
+		copy.setRuntimeContext(ctx);
+		copy.open(parameters == null ? new Configuration() : parameters);
+		return copy;
+	}
+	
+	/**
+	 * Groups the given records by their keys. The groups appear in the order in which their first
+	 * record appears in the input.
+	 */
+	static <T> Collection<List<T>> group(List<T> input, Keys<T> keys) {
+		Map<Object, List<T>> groups = groupByKey(input, keys);
+		return groups.values();
+	}
+	
+	/**
+	 * Groups the given records by their keys, retaining the key of every group. The groups appear in the
+	 * order in which their first record appears in the input.
+	 */
+	static <T> Map<Object, List<T>> groupByKey(List<T> input, Keys<T> keys) {
+		Map<Object, List<T>> groups = new LinkedHashMap<Object, List<T>>();
+		
+		for (T record : input) {
+			Object key = keys.getKey(record);
+			List<T> group = groups.get(key);
+			if (group == null) {
+				group = new ArrayList<T>();
+				groups.put(key, group);
+			}
+			group.add(record);
+		}
+		return groups;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * The computation of one parallel instance of an operator.
+	 */
+	private static interface InstanceCall<OUT> {
+		
+		List<OUT> call(int partition, RuntimeContext ctx) throws Exception;
+	}
+	
+	/**
+	 * Creates the daemon threads that run the parallel operator instances.
+	 */
+	private static final class ExecutorThreadFactory implements ThreadFactory {
+		
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+		
+		@Override
+		public Thread newThread(Runnable target) {
+			Thread t = new Thread(target, "Collection Executor Thread " + this.threadNumber.getAndIncrement());
+			t.setDaemon(true);
+			return t;
+		}
+	}
+}
@@ -14,6 +14,10 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.functions.CrossFunction;
 import eu.stratosphere.api.java.typeutils.TypeExtractor;
@@ -33,6 +37,21 @@ public class CrossOperator<I1, I2, OUT> extends TwoInputUdfOperator<I1, I2, OUT,
 
 		this.function = function;
 	}
+	
+	@Override
+	protected List<OUT> executeOnCollections(List<I1> input1, List<I2> input2, RuntimeContext ctx) throws Exception {
+		CrossFunction<I1, I2, OUT> crosser = CollectionExecutor.openFunction(this.function, getParameters(), ctx);
+		
+		List<OUT> result = new ArrayList<OUT>();
+		for (I1 first : input1) {
+			for (I2 second : input2) {
+				result.add(crosser.cross(first, second));
+			}
+		}
+		
+		crosser.close();
+		return result;
+	}
 
 	// --------------------------------------------------------------------------------------------
 	// Builder classes for incremental construction
@@ -14,11 +14,14 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.List;
+
 import eu.stratosphere.api.common.io.OutputFormat;
 import eu.stratosphere.api.common.operators.GenericDataSink;
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.operators.translation.PlanDataSink;
 import eu.stratosphere.api.java.typeutils.TypeInformation;
+import eu.stratosphere.configuration.Configuration;
 
 
 public class DataSink<T> {
@@ -75,6 +78,28 @@ public class DataSink<T> {
 		return sink;
 	}
 	
+	/**
+	 * Writes the given partitions through this sink's output format. Every partition is written by its own
+	 * parallel instance of the format. The instances are opened one after the other, because they all share
+	 * the same format object.
+	 * 
+	 * @param partitions The records to write, as partitions.
+	 */
+	protected void executeOnCollection(List<List<T>> partitions) throws Exception {
+		this.format.configure(new Configuration());
+		
+		for (int i = 0; i < partitions.size(); i++) {
+			this.format.open(i, partitions.size());
+			try {
+				for (T record : partitions.get(i)) {
+					this.format.writeRecord(record);
+				}
+			} finally {
+				this.format.close();
+			}
+		}
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	
 	@Override
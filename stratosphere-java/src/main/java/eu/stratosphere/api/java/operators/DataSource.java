@@ -14,12 +14,17 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.List;
+
 import eu.stratosphere.api.common.io.InputFormat;
 import eu.stratosphere.api.common.operators.GenericDataSource;
+import eu.stratosphere.api.common.typeutils.Serializer;
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.ExecutionEnvironment;
 import eu.stratosphere.api.java.operators.translation.PlanDataSource;
 import eu.stratosphere.api.java.typeutils.TypeInformation;
+import eu.stratosphere.configuration.Configuration;
+import eu.stratosphere.core.io.InputSplit;
 
 /**
  *
@@ -63,4 +68,45 @@ public class DataSource<OUT> extends DataSet<OUT> {
 		PlanDataSource<OUT> source = new PlanDataSource<OUT>(this.inputFormat, name, getType());
 		return source;
 	}
+	
+	/**
+	 * Reads all records of this data source into the given number of partitions. The input format is asked
+	 * for one split per partition at minimum, and the splits are assigned to the partitions round robin.
+	 * 
+	 * @param numPartitions The number of partitions to create.
+	 * @return The records produced by the input format, as partitions.
+	 */
+	protected List<List<OUT>> executeOnCollection(int numPartitions) throws Exception {
+		@SuppressWarnings("unchecked")
+		InputFormat<OUT, InputSplit> format = (InputFormat<OUT, InputSplit>) this.inputFormat;
+		format.configure(new Configuration());
+		
+		// formats that reuse the given object need a fresh instance for every record they return,
+		// because the records are kept as objects and not serialized
+		Serializer<OUT> serializer = getType().createSerializer();
+		OUT reuse = serializer == null ? null : serializer.createInstance();
+		
+		List<List<OUT>> partitions = CollectionExecutor.createPartitions(numPartitions);
+		InputSplit[] splits = format.createInputSplits(numPartitions);
+		
+		for (int i = 0; i < splits.length; i++) {
+			List<OUT> result = partitions.get(i % numPartitions);
+			
+			format.open(splits[i]);
+			try {
+				while (!format.reachedEnd()) {
+					OUT next = format.nextRecord(reuse);
+					if (next != null) {
+						result.add(next);
+						if (next == reuse) {
+							reuse = serializer.createInstance();
+						}
+					}
+				}
+			} finally {
+				format.close();
+			}
+		}
+		return partitions;
+	}
 }
@@ -14,8 +14,21 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
+import eu.stratosphere.api.java.operators.translation.KeyExtractingMapper;
+import eu.stratosphere.api.java.operators.translation.KeyRemovingMapper;
+import eu.stratosphere.api.java.operators.translation.PlanDistinctOperator;
+import eu.stratosphere.api.java.operators.translation.PlanMapOperator;
 import eu.stratosphere.api.java.operators.translation.UnaryNodeTranslation;
+import eu.stratosphere.api.java.tuple.Tuple2;
+import eu.stratosphere.api.java.typeutils.TupleTypeInfo;
+import eu.stratosphere.api.java.typeutils.TypeInformation;
 
 /**
  * @param <IN> The type of the data set made distinct by the operator.
@@ -36,6 +49,66 @@ public class DistinctOperator<IN> extends SingleInputOperator<IN, IN, DistinctOp
 
 	@Override
 	protected UnaryNodeTranslation translateToDataFlow() {
-		throw new UnsupportedOperationException("NOT IMPLEMENTED");
+		String name = getName() != null ? getName() : "Distinct";
+		
+		if (keys instanceof Keys.FieldPositionKeys || keys instanceof Keys.ExpressionKeys) {
+			int[] logicalKeyPositions = keys.computeLogicalKeyPositions();
+			
+			return new UnaryNodeTranslation(new PlanDistinctOperator<IN>(logicalKeyPositions, name, getInputType()));
+		}
+		else if (keys instanceof Keys.SelectorFunctionKeys) {
+			@SuppressWarnings("unchecked")
+			Keys.SelectorFunctionKeys<IN, ?> selectorKeys = (Keys.SelectorFunctionKeys<IN, ?>) keys;
+			
+			return translateSelectorFunctionDistinct(selectorKeys, getInputType(), name);
+		}
+		else {
+			throw new UnsupportedOperationException("Unrecognized key type.");
+		}
+	}
+	
+	@Override
+	protected boolean isGroupOperation() {
+		return true;
+	}
+	
+	@Override
+	protected Keys<IN> getGroupingKeys() {
+		return this.keys;
+	}
+	
+	@Override
+	protected List<IN> executeOnCollection(List<IN> input, RuntimeContext ctx) {
+		Set<Object> seenKeys = new HashSet<Object>();
+		List<IN> result = new ArrayList<IN>();
+		
+		for (IN record : input) {
+			if (seenKeys.add(keys.getKey(record))) {
+				result.add(record);
+			}
+		}
+		return result;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private static <IN, K> UnaryNodeTranslation translateSelectorFunctionDistinct(Keys.SelectorFunctionKeys<IN, ?> rawKeys,
+			TypeInformation<IN> inputType, String name)
+	{
+		@SuppressWarnings("unchecked")
+		final Keys.SelectorFunctionKeys<IN, K> keys = (Keys.SelectorFunctionKeys<IN, K>) rawKeys;
+		
+		TypeInformation<Tuple2<K, IN>> typeInfoWithKey = new TupleTypeInfo<Tuple2<K, IN>>(keys.getKeyType(), inputType);
+		
+		KeyExtractingMapper<IN, K> extractor = new KeyExtractingMapper<IN, K>(keys.getKeyExtractor());
+		
+		PlanMapOperator<IN, Tuple2<K, IN>> keyExtractingMap = new PlanMapOperator<IN, Tuple2<K, IN>>(extractor, "Key Extractor", inputType, typeInfoWithKey);
+		PlanDistinctOperator<Tuple2<K, IN>> distinct = new PlanDistinctOperator<Tuple2<K, IN>>(keys.computeLogicalKeyPositions(), name, typeInfoWithKey);
+		PlanMapOperator<Tuple2<K, IN>, IN> keyRemovingMap = new PlanMapOperator<Tuple2<K, IN>, IN>(new KeyRemovingMapper<IN, K>(), "Key Remover", typeInfoWithKey, inputType);
+		
+		distinct.setInput(keyExtractingMap);
+		keyRemovingMap.setInput(distinct);
+		
+		return new UnaryNodeTranslation(keyExtractingMap, keyRemovingMap);
 	}
 }
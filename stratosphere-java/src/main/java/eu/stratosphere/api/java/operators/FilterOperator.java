@@ -14,6 +14,10 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.functions.FilterFunction;
 import eu.stratosphere.api.java.operators.translation.PlanFilterOperator;
@@ -43,4 +47,19 @@ public class FilterOperator<IN> extends SingleInputUdfOperator<IN, IN, FilterOpe
 		String name = getName() != null ? getName() : function.getClass().getName();
 		return new UnaryNodeTranslation(new PlanFilterOperator<IN>(function, name, getInputType()));
 	}
+	
+	@Override
+	protected List<IN> executeOnCollection(List<IN> input, RuntimeContext ctx) throws Exception {
+		FilterFunction<IN> filter = CollectionExecutor.openFunction(this.function, getParameters(), ctx);
+		
+		List<IN> result = new ArrayList<IN>();
+		for (IN record : input) {
+			if (filter.filter(record)) {
+				result.add(record);
+			}
+		}
+		
+		filter.close();
+		return result;
+	}
 }
@@ -14,7 +14,12 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
+import eu.stratosphere.api.java.collectionbased.ListCollector;
 import eu.stratosphere.api.java.functions.FlatMapFunction;
 import eu.stratosphere.api.java.operators.translation.PlanFlatMapOperator;
 import eu.stratosphere.api.java.operators.translation.UnaryNodeTranslation;
@@ -44,4 +49,18 @@ public class FlatMapOperator<IN, OUT> extends SingleInputUdfOperator<IN, OUT, Fl
 		String name = getName() != null ? getName() : function.getClass().getName();
 		return new UnaryNodeTranslation(new PlanFlatMapOperator<IN, OUT>(function, name, getInputType(), getResultType()));
 	}
+	
+	@Override
+	protected List<OUT> executeOnCollection(List<IN> input, RuntimeContext ctx) throws Exception {
+		FlatMapFunction<IN, OUT> flatMapper = CollectionExecutor.openFunction(this.function, getParameters(), ctx);
+		
+		List<OUT> result = new ArrayList<OUT>();
+		ListCollector<OUT> collector = new ListCollector<OUT>(result);
+		for (IN record : input) {
+			flatMapper.flatMap(record, collector);
+		}
+		
+		flatMapper.close();
+		return result;
+	}
 }
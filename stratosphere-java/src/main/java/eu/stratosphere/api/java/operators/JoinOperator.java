@@ -14,7 +14,14 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import eu.stratosphere.api.common.InvalidProgramException;
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.functions.JoinFunction;
 import eu.stratosphere.api.java.functions.KeySelector;
@@ -71,6 +78,20 @@ public abstract class JoinOperator<I1, I2, OUT> extends TwoInputUdfOperator<I1,
 		 * as the join strategy.
 		 */
 		REPARTITION_SORT_MERGE,
+
+		/**
+		 * Hint that a few keys of the first join input are much more frequent than the others. This results in
+		 * a skew resilient repartitioning: the frequent keys of the first input are spread over several partitions,
+		 * and the matching records of the second input are replicated to all of these partitions.
+		 */
+		REPARTITION_HASH_SKEWED_FIRST,
+
+		/**
+		 * Hint that a few keys of the second join input are much more frequent than the others. This results in
+		 * a skew resilient repartitioning: the frequent keys of the second input are spread over several partitions,
+		 * and the matching records of the first input are replicated to all of these partitions.
+		 */
+		REPARTITION_HASH_SKEWED_SECOND,
 	};
 	
 	
@@ -106,6 +127,25 @@ public abstract class JoinOperator<I1, I2, OUT> extends TwoInputUdfOperator<I1,
 		return this.joinHint;
 	}
 	
+	/**
+	 * Returns the records of the given input that have (or, for an anti join, have not) a join partner
+	 * in the other input.
+	 */
+	private static <X, Y> List<X> semiJoinOnCollections(List<X> input, Keys<X> keys, List<Y> other, Keys<Y> otherKeys, boolean anti) {
+		Set<Object> otherKeySet = new HashSet<Object>();
+		for (Y record : other) {
+			otherKeySet.add(otherKeys.getKey(record));
+		}
+		
+		List<X> result = new ArrayList<X>();
+		for (X record : input) {
+			if (otherKeySet.contains(keys.getKey(record)) != anti) {
+				result.add(record);
+			}
+		}
+		return result;
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	// special join types
 	// --------------------------------------------------------------------------------------------
@@ -145,6 +185,45 @@ public abstract class JoinOperator<I1, I2, OUT> extends TwoInputUdfOperator<I1,
 			this.preserve2 = true;
 			return this;
 		}
+		
+		@Override
+		protected List<OUT> executeOnCollections(List<I1> input1, List<I2> input2, RuntimeContext ctx) throws Exception {
+			JoinFunction<I1, I2, OUT> joiner = CollectionExecutor.openFunction(this.function, getParameters(), ctx);
+			
+			// build a hash table on the second input and probe it with the first input
+			Map<Object, List<I2>> buildSide = CollectionExecutor.groupByKey(input2, getKeys2());
+			Set<Object> matchedKeys = new HashSet<Object>();
+			
+			List<OUT> result = new ArrayList<OUT>();
+			
+			for (I1 probe : input1) {
+				Object key = getKeys1().getKey(probe);
+				List<I2> matches = buildSide.get(key);
+				
+				if (matches != null) {
+					for (I2 match : matches) {
+						result.add(joiner.join(probe, match));
+					}
+					matchedKeys.add(key);
+				}
+				else if (this.preserve1) {
+					result.add(joiner.join(probe, null));
+				}
+			}
+			
+			if (this.preserve2) {
+				for (Map.Entry<Object, List<I2>> group : buildSide.entrySet()) {
+					if (!matchedKeys.contains(group.getKey())) {
+						for (I2 unmatched : group.getValue()) {
+							result.add(joiner.join(null, unmatched));
+						}
+					}
+				}
+			}
+			
+			joiner.close();
+			return result;
+		}
 	}
 	
 	public static final class DefaultJoin<I1, I2> extends EquiJoin<I1, I2, Tuple2<I1, I2>> {
@@ -188,6 +267,11 @@ public abstract class JoinOperator<I1, I2, OUT> extends TwoInputUdfOperator<I1,
 		protected LeftAntiJoin(DataSet<I1> input1, DataSet<I2> input2, Keys<I1> keys1, Keys<I2> keys2, JoinHint hint) {
 			super(input1, input2, keys1, keys2, input1.getType(), hint);
 		}
+		
+		@Override
+		protected List<I1> executeOnCollections(List<I1> input1, List<I2> input2, RuntimeContext ctx) {
+			return semiJoinOnCollections(input1, getKeys1(), input2, getKeys2(), true);
+		}
 	}
 	
 	private static final class RightAntiJoin<I1, I2> extends JoinOperator<I1, I2, I2> {
@@ -195,6 +279,11 @@ public abstract class JoinOperator<I1, I2, OUT> extends TwoInputUdfOperator<I1,
 		protected RightAntiJoin(DataSet<I1> input1, DataSet<I2> input2, Keys<I1> keys1, Keys<I2> keys2, JoinHint hint) {
 			super(input1, input2, keys1, keys2, input2.getType(), hint);
 		}
+		
+		@Override
+		protected List<I2> executeOnCollections(List<I1> input1, List<I2> input2, RuntimeContext ctx) {
+			return semiJoinOnCollections(input2, getKeys2(), input1, getKeys1(), true);
+		}
 	}
 	
 	private static final class LeftSemiJoin<I1, I2> extends JoinOperator<I1, I2, I1> {
@@ -202,6 +291,11 @@ public abstract class JoinOperator<I1, I2, OUT> extends TwoInputUdfOperator<I1,
 		protected LeftSemiJoin(DataSet<I1> input1, DataSet<I2> input2, Keys<I1> keys1, Keys<I2> keys2, JoinHint hint) {
 			super(input1, input2, keys1, keys2, input1.getType(), hint);
 		}
+		
+		@Override
+		protected List<I1> executeOnCollections(List<I1> input1, List<I2> input2, RuntimeContext ctx) {
+			return semiJoinOnCollections(input1, getKeys1(), input2, getKeys2(), false);
+		}
 	}
 	
 	private static final class RightSemiJoin<I1, I2> extends JoinOperator<I1, I2, I2> {
@@ -209,6 +303,11 @@ public abstract class JoinOperator<I1, I2, OUT> extends TwoInputUdfOperator<I1,
 		protected RightSemiJoin(DataSet<I1> input1, DataSet<I2> input2, Keys<I1> keys1, Keys<I2> keys2, JoinHint hint) {
 			super(input1, input2, keys1, keys2, input2.getType(), hint);
 		}
+		
+		@Override
+		protected List<I2> executeOnCollections(List<I1> input1, List<I2> input2, RuntimeContext ctx) {
+			return semiJoinOnCollections(input2, getKeys2(), input1, getKeys1(), false);
+		}
 	}
 	
 	// --------------------------------------------------------------------------------------------
@@ -18,6 +18,8 @@ import java.util.Arrays;
 
 import eu.stratosphere.api.common.InvalidProgramException;
 import eu.stratosphere.api.java.functions.KeySelector;
+import eu.stratosphere.api.java.tuple.Tuple;
+import eu.stratosphere.api.java.typeutils.PojoTypeInfo;
 import eu.stratosphere.api.java.typeutils.TupleTypeInfo;
 import eu.stratosphere.api.java.typeutils.TypeExtractor;
 import eu.stratosphere.api.java.typeutils.TypeInformation;
@@ -36,6 +38,17 @@ public abstract class Keys<T> {
 	
 	public abstract int[] computeLogicalKeyPositions();
 	
+	/**
+	 * Extracts the key of the given record as a plain object. Keys extracted from two records are
+	 * equal (in the sense of {@link Object#equals(Object)} and {@link Object#hashCode()}) exactly
+	 * when the records belong to the same group. This is used when executing programs directly on
+	 * Java collections, where no serializers or comparators are involved.
+	 * 
+	 * @param record The record to extract the key from.
+	 * @return The key of the record.
+	 */
+	public abstract Object getKey(T record);
+	
 	// --------------------------------------------------------------------------------------------
 	//  Specializations for field indexed / expression-based / extractor-based grouping
 	// --------------------------------------------------------------------------------------------
@@ -44,11 +57,25 @@ public abstract class Keys<T> {
 		
 		private final int[] groupingFields;
 		
+		private final TupleTypeInfo<?> type;
+		
+		/**
+		 * Creates keys that are paired field by field with the keys of another input, as for joins and co-groups.
+		 * The fields keep the declared order and must not repeat.
+		 */
 		public FieldPositionKeys(int[] groupingFields, TypeInformation<T> type) {
-			this(groupingFields, type, false);
+			this(groupingFields, type, false, true);
 		}
 		
+		/**
+		 * Creates grouping keys. The order of the fields does not matter for grouping, so they are sorted
+		 * and repeated fields are dropped.
+		 */
 		public FieldPositionKeys(int[] groupingFields, TypeInformation<T> type, boolean allowEmpty) {
+			this(groupingFields, type, allowEmpty, false);
+		}
+		
+		private FieldPositionKeys(int[] groupingFields, TypeInformation<T> type, boolean allowEmpty, boolean keepOrder) {
 			if (!type.isTupleType()) {
 				throw new InvalidProgramException("Specifying keys via field positions is only valid for tuple data types");
 			}
@@ -57,7 +84,8 @@ public abstract class Keys<T> {
 				throw new IllegalArgumentException("The grouping fields must not be empty.");
 			}
 	
-			this.groupingFields = makeFields(groupingFields, (TupleTypeInfo<?>) type);
+			this.type = (TupleTypeInfo<?>) type;
+			this.groupingFields = makeFields(groupingFields, this.type, keepOrder);
 		}
 
 		@Override
@@ -67,14 +95,47 @@ public abstract class Keys<T> {
 
 		@Override
 		public boolean areCompatibale(Keys<?> other) {
-			throw new UnsupportedOperationException();
+			if (other instanceof FieldPositionKeys) {
+				FieldPositionKeys<?> fpk = (FieldPositionKeys<?>) other;
+				
+				if (fpk.groupingFields.length != this.groupingFields.length) {
+					return false;
+				}
+				
+				for (int i = 0; i < this.groupingFields.length; i++) {
+					Class<?> thisType = this.type.getTypeAt(this.groupingFields[i]).getTypeClass();
+					Class<?> otherType = fpk.type.getTypeAt(fpk.groupingFields[i]).getTypeClass();
+					
+					if (thisType != otherType) {
+						return false;
+					}
+				}
+				return true;
+			}
+			else {
+				return false;
+			}
 		}
 
 		@Override
 		public int[] computeLogicalKeyPositions() {
 			return this.groupingFields;
 		}
-	
+		
+		@Override
+		public Object getKey(T record) {
+			Tuple tuple = (Tuple) record;
+			
+			if (this.groupingFields.length == 1) {
+				return tuple.getField(this.groupingFields[0]);
+			}
+			
+			Object[] key = new Object[this.groupingFields.length];
+			for (int i = 0; i < key.length; i++) {
+				key[i] = tuple.getField(this.groupingFields[i]);
+			}
+			return Arrays.asList(key);
+		}
 	}
 	
 	// --------------------------------------------------------------------------------------------
@@ -120,28 +181,100 @@ public abstract class Keys<T> {
 		public int[] computeLogicalKeyPositions() {
 			return new int[] {0};
 		}
+		
+		@Override
+		public Object getKey(T record) {
+			return this.keyExtractor.getKey(record);
+		}
 	}
 	
 	// --------------------------------------------------------------------------------------------
 	
 	public static class ExpressionKeys<T> extends Keys<T> {
 
+		private final int[] keyFields;
+		
+		private final PojoTypeInfo<?> type;
+		
 		public ExpressionKeys(String expression, TypeInformation<T> type) {
+			if (!(type instanceof PojoTypeInfo)) {
+				throw new InvalidProgramException("Specifying keys via field names is only valid for POJO data types");
+			}
+			if (expression == null || expression.trim().length() == 0) {
+				throw new IllegalArgumentException("The key expression must not be empty.");
+			}
+			
+			this.type = (PojoTypeInfo<?>) type;
+			
+			// the expression is a comma separated list of field names. the fields keep the order of the
+			// expression, because they are paired field by field with the keys of the other input of joins
+			String[] fieldNames = expression.split(",");
+			int[] fields = new int[fieldNames.length];
+			for (int i = 0; i < fieldNames.length; i++) {
+				String fieldName = fieldNames[i].trim();
+				fields[i] = this.type.getFieldIndex(fieldName);
+				if (fields[i] < 0) {
+					throw new IllegalArgumentException("The type " + type + " has no field named '" + fieldName + "'.");
+				}
+				for (int k = 0; k < i; k++) {
+					if (fields[k] == fields[i]) {
+						throw new IllegalArgumentException("The field '" + fieldName + "' is part of the key more than once.");
+					}
+				}
+			}
+			this.keyFields = fields;
 		}
 
 		@Override
 		public int getNumberOfKeyFields() {
-			throw new UnsupportedOperationException("Expression keys not yet implemented");
+			return this.keyFields.length;
 		}
 
 		@Override
 		public boolean areCompatibale(Keys<?> other) {
-			throw new UnsupportedOperationException("Expression keys not yet implemented");
+			if (other instanceof ExpressionKeys) {
+				ExpressionKeys<?> ek = (ExpressionKeys<?>) other;
+				
+				if (ek.keyFields.length != this.keyFields.length) {
+					return false;
+				}
+				
+				for (int i = 0; i < this.keyFields.length; i++) {
+					Class<?> thisType = this.type.getPojoFieldAt(this.keyFields[i]).getType().getTypeClass();
+					Class<?> otherType = ek.type.getPojoFieldAt(ek.keyFields[i]).getType().getTypeClass();
+					
+					if (thisType != otherType) {
+						return false;
+					}
+				}
+				return true;
+			}
+			else {
+				return false;
+			}
 		}
 
 		@Override
 		public int[] computeLogicalKeyPositions() {
-			throw new UnsupportedOperationException("Expression keys not yet implemented");
+			return this.keyFields;
+		}
+		
+		@Override
+		public Object getKey(T record) {
+			try {
+				if (this.keyFields.length == 1) {
+					return this.type.getPojoFieldAt(this.keyFields[0]).getField().get(record);
+				}
+				
+				Object[] key = new Object[this.keyFields.length];
+				for (int i = 0; i < key.length; i++) {
+					key[i] = this.type.getPojoFieldAt(this.keyFields[i]).getField().get(record);
+				}
+				return Arrays.asList(key);
+			}
+			catch (IllegalAccessException e) {
+				throw new RuntimeException("Cannot access the key fields of " + this.type + ".", e);
+			}
 		}
 	}
 	
@@ -150,7 +283,7 @@ public abstract class Keys<T> {
 	//  Utilities
 	// --------------------------------------------------------------------------------------------
 	
-	private static int[] makeFields(int[] fields, TupleTypeInfo<?> type) {
+	private static int[] makeFields(int[] fields, TupleTypeInfo<?> type, boolean keepOrder) {
 		int inLength = type.getArity();
 		
 		// null parameter means all fields are considered
@@ -160,13 +293,31 @@ public abstract class Keys<T> {
 				fields[i] = i;
 			}
 			return fields;
+		} else if (keepOrder) {
+			return rangeCheckFields(fields, inLength-1);
 		} else {
 			return rangeCheckAndOrderFields(fields, inLength-1);
 		}
 	}
 	
+	private static final int[] rangeCheckFields(int[] fields, int maxAllowedField) {
+		fields = fields.clone();
+		
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i] < 0 || fields[i] > maxAllowedField)
+				throw new IllegalArgumentException("Tuple position is out of range.");
+			
+			for (int k = 0; k < i; k++) {
+				if (fields[k] == fields[i])
+					throw new IllegalArgumentException("Tuple position " + fields[i] + " is part of the key more than once.");
+			}
+		}
+		return fields;
+	}
+	
 	private static final int[] rangeCheckAndOrderFields(int[] fields, int maxAllowedField) {
-		// order
+		// order a copy, the array may be the varargs array of the caller
+		fields = fields.clone();
 		Arrays.sort(fields);
 		
 		// range check and duplicate eliminate
@@ -177,11 +328,12 @@ public abstract class Keys<T> {
 			throw new IllegalArgumentException("Tuple position is out of range.");
 		
 		for (; i < fields.length; i++) {
-			if (fields[i] < 0 || i > maxAllowedField)
+			if (fields[i] < 0 || fields[i] > maxAllowedField)
 				throw new IllegalArgumentException("Tuple position is out of range.");
 			
 			if (fields[i] != last) {
 				k++;
+				last = fields[i];
 				fields[k] = fields[i];
 			}
 		}
@@ -190,7 +342,7 @@ public abstract class Keys<T> {
 		if (k == fields.length - 1) {
 			return fields;
 		} else {
-			return Arrays.copyOfRange(fields, 0, k);
+			return Arrays.copyOfRange(fields, 0, k + 1);
 		}
 	}
 }
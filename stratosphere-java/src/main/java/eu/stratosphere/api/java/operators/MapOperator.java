@@ -14,6 +14,10 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.functions.MapFunction;
 import eu.stratosphere.api.java.operators.translation.PlanMapOperator;
@@ -45,4 +49,17 @@ public class MapOperator<IN, OUT> extends SingleInputUdfOperator<IN, OUT, MapOpe
 		String name = getName() != null ? getName() : function.getClass().getName();
 		return new UnaryNodeTranslation(new PlanMapOperator<IN, OUT>(function, name, getInputType(), getResultType()));
 	}
+	
+	@Override
+	protected List<OUT> executeOnCollection(List<IN> input, RuntimeContext ctx) throws Exception {
+		MapFunction<IN, OUT> mapper = CollectionExecutor.openFunction(this.function, getParameters(), ctx);
+		
+		List<OUT> result = new ArrayList<OUT>(input.size());
+		for (IN record : input) {
+			result.add(mapper.map(record));
+		}
+		
+		mapper.close();
+		return result;
+	}
 }
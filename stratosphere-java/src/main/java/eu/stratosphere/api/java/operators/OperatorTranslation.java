@@ -19,6 +19,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import eu.stratosphere.api.common.InvalidProgramException;
 import eu.stratosphere.api.common.operators.AbstractUdfOperator;
 import eu.stratosphere.api.common.operators.GenericDataSink;
 import eu.stratosphere.api.common.operators.GenericDataSource;
@@ -53,13 +54,29 @@ public class OperatorTranslation {
 		GenericDataSink translatedSink = sink.translateToDataFlow();
 		
 		// translate the input recursively
-		Operator input = translate(sink.getDataSet());
-		translatedSink.setInput(input);
+		translatedSink.setInputs(translateInputs(sink.getDataSet()));
 		
 		return translatedSink;
 	}
 	
 	
+	/**
+	 * Translates the given data set as the input of an operation. Unions have no operator in the data flow, the
+	 * operators of their inputs become the inputs of the consuming operation.
+	 */
+	private List<Operator> translateInputs(DataSet<?> dataSet) {
+		List<Operator> inputs = new ArrayList<Operator>();
+		
+		if (dataSet instanceof UnionOperator) {
+			UnionOperator<?> union = (UnionOperator<?>) dataSet;
+			inputs.addAll(translateInputs(union.getInput1()));
+			inputs.addAll(translateInputs(union.getInput2()));
+		} else {
+			inputs.add(translate(dataSet));
+		}
+		return inputs;
+	}
+	
 	private Operator translate(DataSet<?> dataSet) {
 		// check if we have already translated that data set (operation or source)
 		Operator previous = this.translated.get(dataSet);
@@ -75,6 +92,9 @@ public class OperatorTranslation {
 		else if (dataSet instanceof SingleInputOperator) {
 			dataFlowOp =  translateSingleOp((SingleInputOperator<?, ?, ?>) dataSet);
 		}
+		else if (dataSet instanceof UnionOperator) {
+			throw new InvalidProgramException("A union can only be the input of an operation or a data sink.");
+		}
 		else if (dataSet instanceof TwoInputOperator) {
 			dataFlowOp =  translateBinaryOp((TwoInputOperator<?, ?, ?, ?>) dataSet);
 		}
@@ -99,8 +119,7 @@ public class OperatorTranslation {
 		UnaryNodeTranslation translated = op.translateToDataFlow();
 
 		// translate the input
-		Operator input = translate(op.getInput());
-		translated.getInputOperator().setInput(input);
+		translated.getInputOperator().setInputs(translateInputs(op.getInput()));
 		
 		return translated.getOutputOperator();
 	}
@@ -108,11 +127,8 @@ public class OperatorTranslation {
 	private eu.stratosphere.api.common.operators.DualInputOperator<?> translateBinaryOp(TwoInputOperator<?, ?, ?, ?> op) {
 		eu.stratosphere.api.common.operators.DualInputOperator<?> dataFlowOp = op.translateToDataFlow();
 		
-		Operator input1 = translate(op.getInput1());
-		Operator input2 = translate(op.getInput2());
-		
-		dataFlowOp.setFirstInput(input1);
-		dataFlowOp.setSecondInput(input2);
+		dataFlowOp.setFirstInputs(translateInputs(op.getInput1()));
+		dataFlowOp.setSecondInputs(translateInputs(op.getInput2()));
 		
 		return dataFlowOp;
 	}
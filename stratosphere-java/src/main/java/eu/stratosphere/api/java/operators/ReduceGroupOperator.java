@@ -14,7 +14,14 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
+import eu.stratosphere.api.java.collectionbased.ListCollector;
 import eu.stratosphere.api.java.functions.GroupReduceFunction;
 import eu.stratosphere.api.java.operators.translation.KeyExtractingMapper;
 import eu.stratosphere.api.java.operators.translation.PlanGroupReduceOperator;
@@ -91,7 +98,7 @@ public class ReduceGroupOperator<IN, OUT> extends SingleInputUdfOperator<IN, OUT
 			
 			return translateSelectorFunctionReducer(selectorKeys, function, getInputType(),getResultType(), name);
 		}
-		else if (grouper.getKeys() instanceof Keys.FieldPositionKeys) {
+		else if (grouper.getKeys() instanceof Keys.FieldPositionKeys || grouper.getKeys() instanceof Keys.ExpressionKeys) {
 			int[] logicalKeyPositions = grouper.getKeys().computeLogicalKeyPositions();
 
 			return new UnaryNodeTranslation(new PlanGroupReduceOperator<IN, OUT>(function, logicalKeyPositions, name, getInputType(), getResultType()));
@@ -101,6 +108,36 @@ public class ReduceGroupOperator<IN, OUT> extends SingleInputUdfOperator<IN, OUT
 		}
 	}
 	
+	@Override
+	protected boolean isGroupOperation() {
+		return true;
+	}
+	
+	@Override
+	protected Keys<IN> getGroupingKeys() {
+		return this.grouper == null ? null : this.grouper.getKeys();
+	}
+	
+	@Override
+	protected List<OUT> executeOnCollection(List<IN> input, RuntimeContext ctx) throws Exception {
+		GroupReduceFunction<IN, OUT> reducer = CollectionExecutor.openFunction(this.function, getParameters(), ctx);
+		
+		Collection<List<IN>> groups = grouper == null ? Collections.singletonList(input) :
+				CollectionExecutor.group(input, grouper.getKeys());
+		
+		List<OUT> result = new ArrayList<OUT>();
+		ListCollector<OUT> collector = new ListCollector<OUT>(result);
+		
+		for (List<IN> group : groups) {
+			if (!group.isEmpty()) {
+				reducer.reduce(group.iterator(), collector);
+			}
+		}
+		
+		reducer.close();
+		return result;
+	}
+	
 	
 	// --------------------------------------------------------------------------------------------
 	
@@ -14,6 +14,12 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.functions.ReduceFunction;
 import eu.stratosphere.api.java.operators.translation.KeyExtractingMapper;
@@ -83,7 +89,7 @@ public class ReduceOperator<IN> extends SingleInputUdfOperator<IN, IN, ReduceOpe
 			
 			return translateSelectorFunctionReducer(selectorKeys, function, getInputType(), name);
 		}
-		else if (grouper.getKeys() instanceof Keys.FieldPositionKeys) {
+		else if (grouper.getKeys() instanceof Keys.FieldPositionKeys || grouper.getKeys() instanceof Keys.ExpressionKeys) {
 			int[] logicalKeyPositions = grouper.getKeys().computeLogicalKeyPositions();
 
 			return new UnaryNodeTranslation(new PlanReduceOperator<IN>(function, logicalKeyPositions, name, getInputType()));
@@ -93,6 +99,40 @@ public class ReduceOperator<IN> extends SingleInputUdfOperator<IN, IN, ReduceOpe
 		}
 	}
 	
+	@Override
+	protected boolean isGroupOperation() {
+		return true;
+	}
+	
+	@Override
+	protected Keys<IN> getGroupingKeys() {
+		return this.grouper == null ? null : this.grouper.getKeys();
+	}
+	
+	@Override
+	protected List<IN> executeOnCollection(List<IN> input, RuntimeContext ctx) throws Exception {
+		ReduceFunction<IN> reducer = CollectionExecutor.openFunction(this.function, getParameters(), ctx);
+		
+		Collection<List<IN>> groups = grouper == null ? Collections.singletonList(input) :
+				CollectionExecutor.group(input, grouper.getKeys());
+		
+		List<IN> result = new ArrayList<IN>();
+		for (List<IN> group : groups) {
+			if (group.isEmpty()) {
+				continue;
+			}
+			
+			IN current = group.get(0);
+			for (int i = 1; i < group.size(); i++) {
+				current = reducer.reduce(current, group.get(i));
+			}
+			result.add(current);
+		}
+		
+		reducer.close();
+		return result;
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	
 	private static <T, K> UnaryNodeTranslation translateSelectorFunctionReducer(Keys.SelectorFunctionKeys<T, ?> rawKeys,
@@ -14,8 +14,9 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
-import java.util.Collection;
+import java.util.List;
 
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.operators.translation.UnaryNodeTranslation;
 import eu.stratosphere.api.java.typeutils.TypeInformation;
@@ -46,5 +47,35 @@ public abstract class SingleInputOperator<IN, OUT, O extends SingleInputOperator
 	
 	protected abstract UnaryNodeTranslation translateToDataFlow();
 	
-	protected abstract Collection<OUT> executeAsCollection();
+	/**
+	 * Computes the result of this operator directly on the given input collection.
+	 * 
+	 * @param input The records of the input data set.
+	 * @param ctx The runtime context to hand to the operator's user function.
+	 * @return The records of the result data set.
+	 */
+	protected abstract List<OUT> executeOnCollection(List<IN> input, RuntimeContext ctx) throws Exception;
+	
+	/**
+	 * Checks whether this operator works on groups of records, rather than on individual records. The groups
+	 * are defined by the {@link #getGroupingKeys() grouping keys}. If the operator has no grouping keys, all
+	 * records form a single group.
+	 * <p>
+	 * When the operator is executed on collections in parallel, all records of a group are given to the same
+	 * instance of the operator.
+	 * 
+	 * @return True, if the operator works on groups of records, false otherwise.
+	 */
+	protected boolean isGroupOperation() {
+		return false;
+	}
+	
+	/**
+	 * Gets the keys by which this operator groups its input.
+	 * 
+	 * @return The grouping keys, or null, if the operator does not group its input by keys.
+	 */
+	protected Keys<IN> getGroupingKeys() {
+		return null;
+	}
 }
@@ -14,6 +14,9 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.operators;
 
+import java.util.List;
+
+import eu.stratosphere.api.common.functions.RuntimeContext;
 import eu.stratosphere.api.common.operators.DualInputOperator;
 import eu.stratosphere.api.java.DataSet;
 import eu.stratosphere.api.java.typeutils.TypeInformation;
@@ -58,4 +61,14 @@ public abstract class TwoInputOperator<IN1, IN2, OUT, O extends TwoInputOperator
 	protected DualInputOperator<?> translateToDataFlow() {
 		return null;
 	}
+	
+	/**
+	 * Computes the result of this operator directly on the given input collections.
+	 * 
+	 * @param input1 The records of the first input data set.
+	 * @param input2 The records of the second input data set.
+	 * @param ctx The runtime context to hand to the operator's user function.
+	 * @return The records of the result data set.
+	 */
+	protected abstract List<OUT> executeOnCollections(List<IN1> input1, List<IN2> input2, RuntimeContext ctx) throws Exception;
 }
@@ -0,0 +1,48 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.operators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import eu.stratosphere.api.common.functions.RuntimeContext;
+import eu.stratosphere.api.common.operators.DualInputOperator;
+import eu.stratosphere.api.java.DataSet;
+
+/**
+ * The union of two data sets. A union has no operator in the data flow: the {@link OperatorTranslation} connects
+ * the inputs of the union directly to the operation that consumes it.
+ * 
+ * @param <T> The type of the two input data sets and the result data set 
+ */
+public class UnionOperator<T> extends TwoInputOperator<T, T, T, UnionOperator<T>> {
+
+	public UnionOperator(DataSet<T> input1, DataSet<T> input2) {
+		super(input1, input2, input1.getType());
+	}
+	
+	@Override
+	protected DualInputOperator<?> translateToDataFlow() {
+		throw new UnsupportedOperationException("A union is translated into the inputs of the consuming operation.");
+	}
+	
+	@Override
+	protected List<T> executeOnCollections(List<T> input1, List<T> input2, RuntimeContext ctx) {
+		List<T> result = new ArrayList<T>(input1.size() + input2.size());
+		result.addAll(input1);
+		result.addAll(input2);
+		return result;
+	}
+}
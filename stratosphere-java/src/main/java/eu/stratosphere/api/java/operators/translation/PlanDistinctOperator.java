@@ -0,0 +1,70 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.operators.translation;
+
+import java.util.Iterator;
+
+import eu.stratosphere.api.common.functions.AbstractFunction;
+import eu.stratosphere.api.common.functions.GenericGroupReduce;
+import eu.stratosphere.api.common.operators.base.DistinctOperatorBase;
+import eu.stratosphere.api.java.typeutils.TypeInformation;
+import eu.stratosphere.util.Collector;
+import eu.stratosphere.util.Reference;
+
+/**
+ * The distinct operator of the data flow. Its function emits the first record of each group, which is the
+ * behavior of the runtime's hash based duplicate elimination.
+ */
+public class PlanDistinctOperator<T> extends DistinctOperatorBase<GenericGroupReduce<Reference<T>, Reference<T>>>
+	implements UnaryJavaPlanNode<T, T>
+{
+	private final TypeInformation<T> type;
+	
+	
+	public PlanDistinctOperator(int[] logicalKeyFields, String name, TypeInformation<T> type) {
+		super(new FirstOfGroupReducer<T>(), logicalKeyFields, name);
+		
+		this.type = type;
+	}
+	
+	
+	@Override
+	public TypeInformation<T> getReturnType() {
+		return this.type;
+	}
+
+	@Override
+	public TypeInformation<T> getInputType() {
+		return this.type;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static final class FirstOfGroupReducer<T> extends AbstractFunction
+		implements GenericGroupReduce<Reference<T>, Reference<T>>
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void reduce(Iterator<Reference<T>> values, Collector<Reference<T>> out) {
+			out.collect(values.next());
+		}
+
+		@Override
+		public void combine(Iterator<Reference<T>> values, Collector<Reference<T>> out) {
+			out.collect(values.next());
+		}
+	}
+}
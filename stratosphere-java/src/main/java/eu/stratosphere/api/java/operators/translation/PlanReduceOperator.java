@@ -17,6 +17,7 @@ package eu.stratosphere.api.java.operators.translation;
 import java.util.Iterator;
 
 import eu.stratosphere.api.common.functions.GenericGroupReduce;
+import eu.stratosphere.api.common.functions.GenericReduce;
 import eu.stratosphere.api.common.operators.base.GroupReduceOperatorBase;
 import eu.stratosphere.api.java.functions.ReduceFunction;
 import eu.stratosphere.api.java.typeutils.TypeInformation;
@@ -52,8 +53,12 @@ public class PlanReduceOperator<T> extends GroupReduceOperatorBase<GenericGroupR
 	
 	// --------------------------------------------------------------------------------------------
 	
+	/**
+	 * Wraps the reduce function both as a group reduce function, for sort based grouping, and as a pairwise
+	 * reduce function, for hash based grouping.
+	 */
 	public static final class ReferenceWrappingReducer<T> extends WrappingFunction<ReduceFunction<T>>
-		implements GenericGroupReduce<Reference<T>, Reference<T>>
+		implements GenericGroupReduce<Reference<T>, Reference<T>>, GenericReduce<Reference<T>>
 	{
 
 		private static final long serialVersionUID = 1L;
@@ -81,6 +86,12 @@ public class PlanReduceOperator<T> extends GroupReduceOperatorBase<GenericGroupR
 		public void combine(Iterator<Reference<T>> values, Collector<Reference<T>> out) throws Exception {
 			reduce(values, out);
 		}
+		
+		@Override
+		public Reference<T> reduce(Reference<T> value1, Reference<T> value2) throws Exception {
+			ref.ref = this.wrappedFunction.reduce(value1.ref, value2.ref);
+			return ref;
+		}
 
 	}
 }
@@ -145,8 +145,12 @@ public abstract class FixedLengthInputFormat extends FileInputFormat {
 			super.stream.seek(this.splitStart + recordOffset);
 		}
 		this.streamPos = this.splitStart + recordOffset;
-		this.streamEnd = this.splitStart + this.splitLength;
-		this.streamEnd += this.streamEnd % this.recordLength;
+		if (this.splitLength == READ_WHOLE_SPLIT_FLAG) {
+			this.streamEnd = Long.MAX_VALUE;
+		} else {
+			this.streamEnd = this.splitStart + this.splitLength;
+			this.streamEnd += this.streamEnd % this.recordLength;
+		}
 		
 		// adjust readBufferSize
 		this.readBufferSize += this.recordLength - (this.readBufferSize % this.recordLength);
@@ -0,0 +1,51 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.typeutils;
+
+import java.lang.reflect.Field;
+
+/**
+ * A field of a POJO, together with the type information of the field's type.
+ */
+public class PojoField {
+
+	private final Field field;
+	
+	private final TypeInformation<?> type;
+	
+	
+	public PojoField(Field field, TypeInformation<?> type) {
+		this.field = field;
+		this.type = type;
+	}
+	
+	
+	public Field getField() {
+		return field;
+	}
+	
+	public String getName() {
+		return field.getName();
+	}
+	
+	public TypeInformation<?> getType() {
+		return type;
+	}
+	
+	@Override
+	public String toString() {
+		return field.getName() + ": " + type;
+	}
+}
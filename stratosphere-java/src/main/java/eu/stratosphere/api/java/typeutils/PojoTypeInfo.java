@@ -0,0 +1,154 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.typeutils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import eu.stratosphere.api.common.typeutils.Serializer;
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.java.typeutils.runtime.PojoComparator;
+import eu.stratosphere.api.java.typeutils.runtime.PojoSerializer;
+
+/**
+ * Type information for plain old Java objects, i.e., public classes with a public nullary constructor, whose
+ * fields are public or accessible through getters and setters. POJOs are serialized field by field and can be
+ * grouped and sorted on their fields, which are addressed by name.
+ * 
+ * @see TypeExtractor#analyzePojo(Class)
+ */
+public class PojoTypeInfo<T> extends TypeInformation<T> implements CompositeType<T> {
+
+	private final Class<T> typeClass;
+	
+	private final PojoField[] fields;
+	
+	
+	public PojoTypeInfo(Class<T> typeClass, List<PojoField> fields) {
+		if (typeClass == null || fields == null || fields.isEmpty()) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.typeClass = typeClass;
+		this.fields = fields.toArray(new PojoField[fields.size()]);
+	}
+	
+	
+	@Override
+	public boolean isBasicType() {
+		return false;
+	}
+
+	@Override
+	public boolean isTupleType() {
+		return false;
+	}
+
+	@Override
+	public int getArity() {
+		return fields.length;
+	}
+
+	@Override
+	public Class<T> getTypeClass() {
+		return typeClass;
+	}
+
+	@Override
+	public boolean isKeyType() {
+		return false;
+	}
+	
+	public PojoField getPojoFieldAt(int pos) {
+		if (pos < 0 || pos >= this.fields.length)
+			throw new IndexOutOfBoundsException();
+		
+		return this.fields[pos];
+	}
+	
+	/**
+	 * Gets the position of the field with the given name.
+	 * 
+	 * @param fieldName The name of the field.
+	 * @return The position of the field, or -1, if the POJO has no field with that name.
+	 */
+	public int getFieldIndex(String fieldName) {
+		for (int i = 0; i < this.fields.length; i++) {
+			if (this.fields[i].getName().equals(fieldName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public Serializer<T> createSerializer() {
+		Field[] reflectiveFields = new Field[fields.length];
+		Serializer<?>[] fieldSerializers = new Serializer<?>[fields.length];
+		
+		for (int i = 0; i < fields.length; i++) {
+			reflectiveFields[i] = fields[i].getField();
+			fieldSerializers[i] = fields[i].getType().createSerializer();
+		}
+		
+		return new PojoSerializer<T>(typeClass, reflectiveFields, fieldSerializers);
+	}
+	
+	@Override
+	public TypeComparator<T> createComparator(int[] logicalKeyFields, boolean[] orders) {
+		// sanity checks
+		if (logicalKeyFields == null || orders == null || logicalKeyFields.length != orders.length ||
+				logicalKeyFields.length > fields.length)
+		{
+			throw new IllegalArgumentException();
+		}
+		
+		// create the comparators for the individual fields
+		Field[] keyFields = new Field[logicalKeyFields.length];
+		TypeComparator<?>[] fieldComparators = new TypeComparator<?>[logicalKeyFields.length];
+		
+		for (int i = 0; i < logicalKeyFields.length; i++) {
+			int pos = logicalKeyFields[i];
+			
+			if (pos < 0 || pos >= fields.length) {
+				throw new IllegalArgumentException("The field position " + pos + " is out of range [0," + fields.length + ")");
+			}
+			
+			TypeInformation<?> type = fields[pos].getType();
+			if (type.isKeyType() && type instanceof AtomicType) {
+				keyFields[i] = fields[pos].getField();
+				fieldComparators[i] = ((AtomicType<?>) type).createComparator(orders[i]);
+			} else {
+				throw new IllegalArgumentException("The field '" + fields[pos].getName() + "' (" + type + ") is no atomic key type.");
+			}
+		}
+		
+		return new PojoComparator<T>(keyFields, fieldComparators, createSerializer(), typeClass);
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder bld = new StringBuilder("PojoType<");
+		bld.append(typeClass.getCanonicalName()).append(", fields = [");
+		bld.append(fields[0]);
+		
+		for (int i = 1; i < fields.length; i++) {
+			bld.append(", ").append(fields[i]);
+		}
+		
+		bld.append("]>");
+		return bld.toString();
+	}
+}
@@ -0,0 +1,150 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.typeutils;
+
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
+
+import eu.stratosphere.api.common.typeutils.Serializer;
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.common.typeutils.base.array.BooleanPrimitiveArrayComparator;
+import eu.stratosphere.api.common.typeutils.base.array.BooleanPrimitiveArraySerializer;
+import eu.stratosphere.api.common.typeutils.base.array.BytePrimitiveArrayComparator;
+import eu.stratosphere.api.common.typeutils.base.array.BytePrimitiveArraySerializer;
+import eu.stratosphere.api.common.typeutils.base.array.CharPrimitiveArrayComparator;
+import eu.stratosphere.api.common.typeutils.base.array.CharPrimitiveArraySerializer;
+import eu.stratosphere.api.common.typeutils.base.array.DoublePrimitiveArrayComparator;
+import eu.stratosphere.api.common.typeutils.base.array.DoublePrimitiveArraySerializer;
+import eu.stratosphere.api.common.typeutils.base.array.FloatPrimitiveArrayComparator;
+import eu.stratosphere.api.common.typeutils.base.array.FloatPrimitiveArraySerializer;
+import eu.stratosphere.api.common.typeutils.base.array.IntPrimitiveArrayComparator;
+import eu.stratosphere.api.common.typeutils.base.array.IntPrimitiveArraySerializer;
+import eu.stratosphere.api.common.typeutils.base.array.LongPrimitiveArrayComparator;
+import eu.stratosphere.api.common.typeutils.base.array.LongPrimitiveArraySerializer;
+import eu.stratosphere.api.common.typeutils.base.array.ShortPrimitiveArrayComparator;
+import eu.stratosphere.api.common.typeutils.base.array.ShortPrimitiveArraySerializer;
+
+
+/**
+ * Type information for arrays of primitive types, such as <code>int[]</code>. In contrast to arrays of objects,
+ * these arrays have no null elements and can be used as keys.
+ */
+public class PrimitiveArrayTypeInfo<T> extends TypeInformation<T> implements AtomicType<T> {
+
+	public static final PrimitiveArrayTypeInfo<boolean[]> BOOLEAN_PRIMITIVE_ARRAY_TYPE_INFO = new PrimitiveArrayTypeInfo<boolean[]>(boolean[].class, BooleanPrimitiveArraySerializer.INSTANCE, BooleanPrimitiveArrayComparator.class);
+	public static final PrimitiveArrayTypeInfo<byte[]> BYTE_PRIMITIVE_ARRAY_TYPE_INFO = new PrimitiveArrayTypeInfo<byte[]>(byte[].class, BytePrimitiveArraySerializer.INSTANCE, BytePrimitiveArrayComparator.class);
+	public static final PrimitiveArrayTypeInfo<short[]> SHORT_PRIMITIVE_ARRAY_TYPE_INFO = new PrimitiveArrayTypeInfo<short[]>(short[].class, ShortPrimitiveArraySerializer.INSTANCE, ShortPrimitiveArrayComparator.class);
+	public static final PrimitiveArrayTypeInfo<int[]> INT_PRIMITIVE_ARRAY_TYPE_INFO = new PrimitiveArrayTypeInfo<int[]>(int[].class, IntPrimitiveArraySerializer.INSTANCE, IntPrimitiveArrayComparator.class);
+	public static final PrimitiveArrayTypeInfo<long[]> LONG_PRIMITIVE_ARRAY_TYPE_INFO = new PrimitiveArrayTypeInfo<long[]>(long[].class, LongPrimitiveArraySerializer.INSTANCE, LongPrimitiveArrayComparator.class);
+	public static final PrimitiveArrayTypeInfo<float[]> FLOAT_PRIMITIVE_ARRAY_TYPE_INFO = new PrimitiveArrayTypeInfo<float[]>(float[].class, FloatPrimitiveArraySerializer.INSTANCE, FloatPrimitiveArrayComparator.class);
+	public static final PrimitiveArrayTypeInfo<double[]> DOUBLE_PRIMITIVE_ARRAY_TYPE_INFO = new PrimitiveArrayTypeInfo<double[]>(double[].class, DoublePrimitiveArraySerializer.INSTANCE, DoublePrimitiveArrayComparator.class);
+	public static final PrimitiveArrayTypeInfo<char[]> CHAR_PRIMITIVE_ARRAY_TYPE_INFO = new PrimitiveArrayTypeInfo<char[]>(char[].class, CharPrimitiveArraySerializer.INSTANCE, CharPrimitiveArrayComparator.class);
+	
+	// --------------------------------------------------------------------------------------------
+
+	private final Class<T> arrayClass;
+	
+	private final Serializer<T> serializer;
+	
+	private final Class<? extends TypeComparator<T>> comparatorClass;
+	
+	
+	private PrimitiveArrayTypeInfo(Class<T> arrayClass, Serializer<T> serializer, Class<? extends TypeComparator<T>> comparatorClass) {
+		if (!(arrayClass.isArray() && arrayClass.getComponentType().isPrimitive())) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.arrayClass = arrayClass;
+		this.serializer = serializer;
+		this.comparatorClass = comparatorClass;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	@Override
+	public boolean isBasicType() {
+		return false;
+	}
+
+	@Override
+	public boolean isTupleType() {
+		return false;
+	}
+
+	@Override
+	public int getArity() {
+		return 1;
+	}
+
+	@Override
+	public Class<T> getTypeClass() {
+		return this.arrayClass;
+	}
+	
+	public Class<?> getComponentClass() {
+		return this.arrayClass.getComponentType();
+	}
+	
+	@Override
+	public boolean isKeyType() {
+		return true;
+	}
+	
+	@Override
+	public Serializer<T> createSerializer() {
+		return this.serializer;
+	}
+	
+	@Override
+	public TypeComparator<T> createComparator(boolean sortOrderAscending) {
+		try {
+			Constructor<? extends TypeComparator<T>> constructor = comparatorClass.getConstructor(boolean.class);
+			return constructor.newInstance(sortOrderAscending);
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Could not initialize primitive array comparator " + comparatorClass.getName(), e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return arrayClass.getComponentType().getName() + "[]";
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static <X> PrimitiveArrayTypeInfo<X> getInfoFor(Class<X> type) {
+		if (type == null)
+			throw new NullPointerException();
+		
+		@SuppressWarnings("unchecked")
+		PrimitiveArrayTypeInfo<X> info = (PrimitiveArrayTypeInfo<X>) TYPES.get(type);
+		return info;
+	}
+	
+	private static final Map<Class<?>, PrimitiveArrayTypeInfo<?>> TYPES = new HashMap<Class<?>, PrimitiveArrayTypeInfo<?>>();
+	
+	static {
+		TYPES.put(boolean[].class, BOOLEAN_PRIMITIVE_ARRAY_TYPE_INFO);
+		TYPES.put(byte[].class, BYTE_PRIMITIVE_ARRAY_TYPE_INFO);
+		TYPES.put(short[].class, SHORT_PRIMITIVE_ARRAY_TYPE_INFO);
+		TYPES.put(int[].class, INT_PRIMITIVE_ARRAY_TYPE_INFO);
+		TYPES.put(long[].class, LONG_PRIMITIVE_ARRAY_TYPE_INFO);
+		TYPES.put(float[].class, FLOAT_PRIMITIVE_ARRAY_TYPE_INFO);
+		TYPES.put(double[].class, DOUBLE_PRIMITIVE_ARRAY_TYPE_INFO);
+		TYPES.put(char[].class, CHAR_PRIMITIVE_ARRAY_TYPE_INFO);
+	}
+}
@@ -14,6 +14,8 @@
  **********************************************************************************************************************/
 package eu.stratosphere.api.java.typeutils;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 
@@ -21,23 +23,40 @@ import eu.stratosphere.api.java.functions.KeySelector;
 
 
 /**
- *
+ * Generates key selectors that extract a field of a POJO, addressed by its name, via reflection.
  */
 public class ReflectKeyExtractorGenerator {
 	
 	
 	public static <IN, KEY> KeySelector<IN, KEY> generateKeyExtractor(TypeInformation<IN> type, String expression) {
-		return null;
+		if (!(type instanceof PojoTypeInfo)) {
+			throw new IllegalArgumentException("Key extractors for field expressions can only be generated for POJO types.");
+		}
+		
+		PojoTypeInfo<IN> pojoType = (PojoTypeInfo<IN>) type;
+		
+		String fieldName = expression.trim();
+		int pos = pojoType.getFieldIndex(fieldName);
+		if (pos < 0) {
+			throw new IllegalArgumentException("The type " + type + " has no field named '" + fieldName + "'.");
+		}
+		
+		return new DirectReflectKeyAccessor<IN, KEY>(pojoType.getPojoFieldAt(pos).getField());
 	}
 	
 	
-	@SuppressWarnings("unused")
 	private static final class DirectReflectKeyAccessor<IN, KEY> extends KeySelector<IN, KEY> implements Serializable {
 		private static final long serialVersionUID = 1L;
 		
-		private final Field field;
+		private final Class<?> declaringClass;
+		
+		private final String fieldName;
+		
+		private transient Field field;
 		
 		private DirectReflectKeyAccessor(Field field) {
+			this.declaringClass = field.getDeclaringClass();
+			this.fieldName = field.getName();
 			this.field = field;
 			this.field.setAccessible(true);
 		}
@@ -51,5 +70,16 @@ public class ReflectKeyExtractorGenerator {
 				throw new RuntimeException("Reflection key accessor could not extract key: " + t.getMessage(), t);
 			}
 		}
+		
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			in.defaultReadObject();
+			try {
+				this.field = this.declaringClass.getDeclaredField(this.fieldName);
+				this.field.setAccessible(true);
+			}
+			catch (NoSuchFieldException e) {
+				throw new IOException("The key field " + this.fieldName + " of class " + this.declaringClass.getName() + " does not exist.");
+			}
+		}
 	}
 }
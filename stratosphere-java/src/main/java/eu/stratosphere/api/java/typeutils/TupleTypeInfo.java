@@ -93,8 +93,23 @@ public class TupleTypeInfo<T extends Tuple> extends TypeInformation<T> implement
 			throw new IllegalArgumentException();
 		}
 		
+		// the serializers of all fields up to the last key field, used to compare serialized tuples
+		int maxKey = 0;
+		for (int i = 0; i < logicalKeyFields.length; i++) {
+			int field = logicalKeyFields[i];
+			if (field < 0 || field >= types.length) {
+				throw new IllegalArgumentException("The field position " + field + " is out of range [0," + types.length + ")");
+			}
+			maxKey = Math.max(maxKey, field);
+		}
+		
+		Serializer<?>[] fieldSerializers = new Serializer<?>[maxKey + 1];
+		for (int i = 0; i <= maxKey; i++) {
+			fieldSerializers[i] = types[i].createSerializer();
+		}
+		
 		if (logicalKeyFields.length == 1) {
-			return createSinglefieldComparator(logicalKeyFields[0], orders[0], types[logicalKeyFields[0]]);
+			return createSinglefieldComparator(logicalKeyFields[0], orders[0], types[logicalKeyFields[0]], fieldSerializers);
 		}
 		
 		// create the comparators for the individual fields
@@ -103,9 +118,6 @@ public class TupleTypeInfo<T extends Tuple> extends TypeInformation<T> implement
 		for (int i = 0; i < logicalKeyFields.length; i++) {
 			int field = logicalKeyFields[i];
 			
-			if (field < 0 || field >= logicalKeyFields.length) {
-				throw new IllegalArgumentException("The field position " + field + " is out of range [0," + logicalKeyFields.length + ")");
-			}
 			if (types[field].isKeyType() && types[field] instanceof AtomicType) {
 				fieldComparators[i] = ((AtomicType<?>) types[field]).createComparator(orders[i]);
 			} else {
@@ -113,7 +125,7 @@ public class TupleTypeInfo<T extends Tuple> extends TypeInformation<T> implement
 			}
 		}
 		
-		return new TupleComparator<T>(logicalKeyFields, fieldComparators);
+		return new TupleComparator<T>(logicalKeyFields, fieldComparators, fieldSerializers);
 	}
 	
 	@Override
@@ -166,7 +178,9 @@ public class TupleTypeInfo<T extends Tuple> extends TypeInformation<T> implement
 	};
 	
 	
-	private static final <T extends Tuple, K extends Comparable<K>> TypeComparator<T> createSinglefieldComparator(int pos, boolean ascending, TypeInformation<?> info) {
+	private static final <T extends Tuple, K extends Comparable<K>> TypeComparator<T> createSinglefieldComparator(int pos, boolean ascending, TypeInformation<?> info,
+			Serializer<?>[] fieldSerializers)
+	{
 		if (!(info.isKeyType() && info instanceof AtomicType)) {
 			throw new IllegalArgumentException("The field at position " + pos + " (" + info + ") is no atomic key type.");
 		}
@@ -174,6 +188,6 @@ public class TupleTypeInfo<T extends Tuple> extends TypeInformation<T> implement
 		
 		@SuppressWarnings("unchecked")
 		AtomicType<K> typedInfo = (AtomicType<K>) info;
-		return new TupleSingleFieldComparator<T, K>(pos, typedInfo.createComparator(ascending));
+		return new TupleSingleFieldComparator<T, K>(pos, typedInfo.createComparator(ascending), fieldSerializers);
 	}
 }
\ No newline at end of file
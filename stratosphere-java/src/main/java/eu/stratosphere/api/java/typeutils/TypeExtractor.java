@@ -15,13 +15,25 @@
 package eu.stratosphere.api.java.typeutils;
 
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 
 import eu.stratosphere.api.common.io.InputFormat;
 import eu.stratosphere.api.java.functions.*;
 import eu.stratosphere.api.java.tuple.Tuple;
+import eu.stratosphere.types.CopyableValue;
+import eu.stratosphere.types.Value;
+import eu.stratosphere.util.InstantiationUtil;
 
 
 public class TypeExtractor {
@@ -157,6 +169,139 @@ public class TypeExtractor {
 	}
 	
 	
+	// --------------------------------------------------------------------------------------------
+	//  POJO analysis
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Analyzes whether the given class is a POJO: A public, non-abstract class with a public nullary constructor,
+	 * whose fields (including the inherited ones) are either public, or private with a public getter and setter.
+	 * Static and transient fields are ignored. The types of all fields must be basic types, primitive arrays, values,
+	 * tuples or POJOs themselves.
+	 * 
+	 * @param clazz The class to analyze.
+	 * @return The POJO type information for the class, or null, if the class is no POJO.
+	 */
+	public static <X> PojoTypeInfo<X> analyzePojo(Class<X> clazz) {
+		return analyzePojo(clazz, new HashSet<Class<?>>());
+	}
+	
+	private static <X> PojoTypeInfo<X> analyzePojo(Class<X> clazz, Set<Class<?>> inAnalysis) {
+		if (clazz.isArray() || clazz.isPrimitive() || clazz.isEnum() || Tuple.class.isAssignableFrom(clazz) ||
+				InstantiationUtil.checkForInstantiationError(clazz) != null)
+		{
+			return null;
+		}
+		
+		// recursive types cannot be serialized field by field
+		if (!inAnalysis.add(clazz)) {
+			return null;
+		}
+		
+		try {
+			List<PojoField> pojoFields = new ArrayList<PojoField>();
+			Set<String> names = new HashSet<String>();
+			
+			for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					int mods = field.getModifiers();
+					if (Modifier.isStatic(mods) || Modifier.isTransient(mods) || field.isSynthetic()) {
+						continue;
+					}
+					
+					// shadowed fields cannot be addressed by their name
+					if (Modifier.isFinal(mods) || !names.add(field.getName()) ||
+							!(Modifier.isPublic(mods) || hasGetterAndSetter(c, field)))
+					{
+						return null;
+					}
+					
+					TypeInformation<?> fieldType = createPojoFieldType(field, inAnalysis);
+					if (fieldType == null) {
+						return null;
+					}
+					
+					field.setAccessible(true);
+					pojoFields.add(new PojoField(field, fieldType));
+				}
+			}
+			
+			if (pojoFields.isEmpty()) {
+				return null;
+			}
+			
+			// the declaration order of the fields is not defined, so we order them by name
+			Collections.sort(pojoFields, new Comparator<PojoField>() {
+				@Override
+				public int compare(PojoField o1, PojoField o2) {
+					return o1.getName().compareTo(o2.getName());
+				}
+			});
+			
+			return new PojoTypeInfo<X>(clazz, pojoFields);
+		}
+		catch (SecurityException e) {
+			return null;
+		}
+		finally {
+			inAnalysis.remove(clazz);
+		}
+	}
+	
+	private static TypeInformation<?> createPojoFieldType(Field field, Set<Class<?>> inAnalysis) {
+		Class<?> type = field.getType();
+		
+		BasicTypeInfo<?> basicType = BasicTypeInfo.getInfoFor(type);
+		if (basicType != null) {
+			return basicType;
+		}
+		
+		PrimitiveArrayTypeInfo<?> primitiveArrayType = PrimitiveArrayTypeInfo.getInfoFor(type);
+		if (primitiveArrayType != null) {
+			return primitiveArrayType;
+		}
+		
+		if (Value.class.isAssignableFrom(type)) {
+			// only copyable values can be serialized
+			return CopyableValue.class.isAssignableFrom(type) ?
+					ValueTypeInfo.getValueTypeInfo(type.asSubclass(Value.class)) : null;
+		}
+		
+		if (Tuple.class.isAssignableFrom(type)) {
+			return field.getGenericType() instanceof ParameterizedType ? createTypeInfo(field.getGenericType()) : null;
+		}
+		
+		return analyzePojo(type, inAnalysis);
+	}
+	
+	private static boolean hasGetterAndSetter(Class<?> clazz, Field field) {
+		final String name = field.getName();
+		final String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		final Class<?> type = field.getType();
+		
+		boolean getter = false;
+		boolean setter = false;
+		
+		for (Method m : clazz.getMethods()) {
+			final String methodName = m.getName();
+			final Class<?>[] params = m.getParameterTypes();
+			
+			if (params.length == 0 && m.getReturnType() == type && (methodName.equals("get" + capitalized) ||
+					((type == boolean.class || type == Boolean.class) && methodName.equals("is" + capitalized))))
+			{
+				getter = true;
+			}
+			else if (params.length == 1 && params[0] == type && m.getReturnType() == void.class &&
+					methodName.equals("set" + capitalized))
+			{
+				setter = true;
+			}
+		}
+		return getter && setter;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
 	public static <X> TypeInformation<X> getTypeInformation(Type type) {
 		return null;
 	}
@@ -46,12 +46,28 @@ public abstract class TypeInformation<T> {
 			}
 		}
 		
+		// check for arrays of primitive types
+		{
+			TypeInformation<X> primitiveArrayInfo = PrimitiveArrayTypeInfo.getInfoFor(clazz);
+			if (primitiveArrayInfo != null) {
+				return primitiveArrayInfo;
+			}
+		}
+		
 		// check for subclasses of Value
 		if (Value.class.isAssignableFrom(clazz)) {
 			Class<? extends Value> valueClass = clazz.asSubclass(Value.class);
 			return (TypeInformation<X>) ValueTypeInfo.getValueTypeInfo(valueClass);
 		}
 		
+		// check for POJOs, which can be serialized and compared field by field
+		{
+			TypeInformation<X> pojoTypeInfo = TypeExtractor.analyzePojo(clazz);
+			if (pojoTypeInfo != null) {
+				return pojoTypeInfo;
+			}
+		}
+		
 		// return a generic type
 		return new GenericTypeInfo<X>(clazz);
 	}
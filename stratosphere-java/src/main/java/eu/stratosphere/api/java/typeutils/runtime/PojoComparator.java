@@ -0,0 +1,285 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.typeutils.runtime;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+
+import eu.stratosphere.api.common.typeutils.Serializer;
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.core.memory.DataInputView;
+import eu.stratosphere.core.memory.DataOutputView;
+import eu.stratosphere.core.memory.MemorySegment;
+import eu.stratosphere.types.NullKeyFieldException;
+
+/**
+ * Comparator for POJOs on a composite key of atomic fields. Normalized keys are composed from the normalized
+ * keys of the leading key fields, as long as these support normalized keys.
+ */
+public final class PojoComparator<T> extends TypeComparator<T> implements java.io.Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	
+	private transient Field[] keyFields;
+	
+	private final TypeComparator<Object>[] comparators;
+	
+	private final Serializer<T> serializer;
+	
+	private final Class<T> type;
+	
+	private final int[] normalizedKeyLengths;
+	
+	private final int numLeadingNormalizableKeys;
+	
+	private final int normalizableKeyPrefixLen;
+	
+	private final boolean invertNormKey;
+	
+	// the objects and comparators used for comparing serialized records
+	
+	private transient T first;
+	
+	private transient T second;
+	
+	private transient TypeComparator<Object>[] firstComparators;
+	
+	private transient TypeComparator<Object>[] secondComparators;
+	
+	
+	@SuppressWarnings("unchecked")
+	public PojoComparator(Field[] keyFields, TypeComparator<?>[] comparators, Serializer<T> serializer, Class<T> type) {
+		this.keyFields = keyFields;
+		this.comparators = (TypeComparator<Object>[]) comparators;
+		this.serializer = serializer;
+		this.type = type;
+		
+		for (Field field : keyFields) {
+			field.setAccessible(true);
+		}
+		
+		// set up auxiliary fields for normalized key support
+		this.normalizedKeyLengths = new int[keyFields.length];
+		int nKeys = 0;
+		int nKeyLen = 0;
+		boolean inverted = false;
+		
+		for (int i = 0; i < this.comparators.length; i++) {
+			TypeComparator<?> k = this.comparators[i];
+			
+			// as long as the leading keys support normalized keys, we can build up the composite key
+			if (k.supportsNormalizedKey()) {
+				if (i == 0) {
+					// the first comparator decides whether we need to invert the key direction
+					inverted = k.invertNormalizedKey();
+				}
+				else if (k.invertNormalizedKey() != inverted) {
+					// if a successor does not agree on the invertion direction, it cannot be part of the normalized key
+					break;
+				}
+				
+				nKeys++;
+				final int len = k.getNormalizeKeyLen();
+				if (len < 0) {
+					throw new RuntimeException("Comparator " + k.getClass().getName() + " specifies an invalid length for the normalized key: " + len);
+				}
+				this.normalizedKeyLengths[i] = len;
+				nKeyLen += this.normalizedKeyLengths[i];
+				
+				if (nKeyLen < 0) {
+					// overflow, which means we are out of budget for normalized key space anyways
+					nKeyLen = Integer.MAX_VALUE;
+					break;
+				}
+			}
+			else break;
+		}
+		this.numLeadingNormalizableKeys = nKeys;
+		this.normalizableKeyPrefixLen = nKeyLen;
+		this.invertNormKey = inverted;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private PojoComparator(PojoComparator<T> toClone) {
+		this.keyFields = toClone.keyFields;
+		this.comparators = new TypeComparator[toClone.comparators.length];
+		
+		for (int i = 0; i < toClone.comparators.length; i++) {
+			this.comparators[i] = toClone.comparators[i].duplicate();
+		}
+		
+		// the serializer may hold state, so every duplicate gets its own instance
+		this.serializer = TupleComparator.duplicateSerializer(toClone.serializer);
+		this.type = toClone.type;
+		this.normalizedKeyLengths = toClone.normalizedKeyLengths;
+		this.numLeadingNormalizableKeys = toClone.numLeadingNormalizableKeys;
+		this.normalizableKeyPrefixLen = toClone.normalizableKeyPrefixLen;
+		this.invertNormKey = toClone.invertNormKey;
+	}
+	
+	
+	@Override
+	public int hash(T value) {
+		int code = 0;
+		for (int i = 0; i < this.keyFields.length; i++) {
+			code ^= this.comparators[i].hash(accessKey(value, i));
+			code *= TupleComparator.HASH_SALT[i & 0x1F]; // salt code with (i % HASH_SALT.length)-th salt component
+		}
+		return code;
+	}
+
+	@Override
+	public void setReference(T toCompare) {
+		for (int i = 0; i < this.keyFields.length; i++) {
+			this.comparators[i].setReference(accessKey(toCompare, i));
+		}
+	}
+
+	@Override
+	public boolean equalToReference(T candidate) {
+		for (int i = 0; i < this.keyFields.length; i++) {
+			if (!this.comparators[i].equalToReference(accessKey(candidate, i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int compareToReference(TypeComparator<T> referencedComparator) {
+		PojoComparator<T> other = (PojoComparator<T>) referencedComparator;
+		
+		for (int i = 0; i < this.keyFields.length; i++) {
+			int cmp = this.comparators[i].compareToReference(other.comparators[i]);
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public int compare(DataInputView firstSource, DataInputView secondSource) throws IOException {
+		// the key fields are not at fixed positions of the serialized POJO, so both records are deserialized
+		if (this.firstComparators == null) {
+			this.firstComparators = new TypeComparator[this.comparators.length];
+			this.secondComparators = new TypeComparator[this.comparators.length];
+			for (int i = 0; i < this.comparators.length; i++) {
+				this.firstComparators[i] = this.comparators[i].duplicate();
+				this.secondComparators[i] = this.comparators[i].duplicate();
+			}
+		}
+		
+		this.first = this.serializer.deserialize(this.first, firstSource);
+		this.second = this.serializer.deserialize(this.second, secondSource);
+		
+		for (int i = 0; i < this.keyFields.length; i++) {
+			this.firstComparators[i].setReference(accessKey(this.first, i));
+			this.secondComparators[i].setReference(accessKey(this.second, i));
+			
+			// compares the reference of the first comparator against the one of the second
+			int cmp = this.secondComparators[i].compareToReference(this.firstComparators[i]);
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public boolean supportsNormalizedKey() {
+		return this.numLeadingNormalizableKeys > 0;
+	}
+
+	@Override
+	public int getNormalizeKeyLen() {
+		return this.normalizableKeyPrefixLen;
+	}
+
+	@Override
+	public boolean isNormalizedKeyPrefixOnly(int keyBytes) {
+		return this.numLeadingNormalizableKeys < this.keyFields.length ||
+				this.normalizableKeyPrefixLen == Integer.MAX_VALUE ||
+				this.normalizableKeyPrefixLen > keyBytes;
+	}
+
+	@Override
+	public void putNormalizedKey(T value, MemorySegment target, int offset, int numBytes) {
+		for (int i = 0; i < this.numLeadingNormalizableKeys & numBytes > 0; i++)
+		{
+			int len = this.normalizedKeyLengths[i]; 
+			len = numBytes >= len ? len : numBytes;
+			this.comparators[i].putNormalizedKey(accessKey(value, i), target, offset, len);
+			numBytes -= len;
+			offset += len;
+		}
+	}
+
+	@Override
+	public boolean invertNormalizedKey() {
+		return this.invertNormKey;
+	}
+	
+	@Override
+	public boolean supportsSerializationWithKeyNormalization() {
+		return false;
+	}
+	
+	@Override
+	public void writeWithKeyNormalization(T record, DataOutputView target) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void readWithKeyDenormalization(T record, DataInputView source) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public PojoComparator<T> duplicate() {
+		return new PojoComparator<T>(this);
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private Object accessKey(T value, int i) {
+		final Object key;
+		try {
+			key = this.keyFields[i].get(value);
+		}
+		catch (IllegalAccessException e) {
+			throw new RuntimeException("Cannot access the fields of POJO type " + this.type.getName() + ".", e);
+		}
+		
+		if (key == null) {
+			throw new NullKeyFieldException("The key field '" + this.keyFields[i].getName() + "' is null.");
+		}
+		return key;
+	}
+	
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		PojoSerializer.writeFields(out, keyFields);
+	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		keyFields = PojoSerializer.readFields(in);
+	}
+}
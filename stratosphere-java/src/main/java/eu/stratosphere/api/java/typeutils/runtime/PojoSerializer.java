@@ -0,0 +1,207 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.typeutils.runtime;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+
+import eu.stratosphere.api.common.typeutils.Serializer;
+import eu.stratosphere.core.memory.DataInputView;
+import eu.stratosphere.core.memory.DataOutputView;
+import eu.stratosphere.util.InstantiationUtil;
+
+/**
+ * Serializer for POJOs, which serializes the object field by field. Fields of non-primitive types are preceded
+ * by a flag that marks null values. When deserializing, the objects referenced by the fields of the reused
+ * object are reused as well.
+ */
+public final class PojoSerializer<T> extends Serializer<T> {
+
+	private static final long serialVersionUID = 1L;
+	
+	
+	private final Class<T> clazz;
+	
+	private transient Field[] fields;
+	
+	private final Serializer<Object>[] fieldSerializers;
+	
+	private final boolean[] nullable;
+	
+	private final int numFields;
+	
+	
+	@SuppressWarnings("unchecked")
+	public PojoSerializer(Class<T> clazz, Field[] fields, Serializer<?>[] fieldSerializers) {
+		if (fields.length != fieldSerializers.length) {
+			throw new IllegalArgumentException("The number of fields and serializers must match.");
+		}
+		
+		this.clazz = clazz;
+		this.fields = fields;
+		this.fieldSerializers = (Serializer<Object>[]) fieldSerializers;
+		this.numFields = fields.length;
+		
+		this.nullable = new boolean[this.numFields];
+		for (int i = 0; i < this.numFields; i++) {
+			this.fields[i].setAccessible(true);
+			this.nullable[i] = !this.fields[i].getType().isPrimitive();
+		}
+	}
+	
+	
+	@Override
+	public T createInstance() {
+		return InstantiationUtil.instantiate(clazz, Object.class);
+	}
+
+	@Override
+	public T copy(T from, T reuse) {
+		if (reuse == null) {
+			reuse = createInstance();
+		}
+		
+		try {
+			for (int i = 0; i < numFields; i++) {
+				final Object value = fields[i].get(from);
+				if (value == null) {
+					fields[i].set(reuse, null);
+				} else {
+					Object target = fields[i].get(reuse);
+					if (target == null) {
+						target = fieldSerializers[i].createInstance();
+					}
+					fields[i].set(reuse, fieldSerializers[i].copy(value, target));
+				}
+			}
+		}
+		catch (IllegalAccessException e) {
+			throw new RuntimeException("Cannot access the fields of POJO type " + clazz.getName() + ".", e);
+		}
+		
+		return reuse;
+	}
+
+	@Override
+	public int getLength() {
+		return -1;
+	}
+
+	@Override
+	public void serialize(T value, DataOutputView target) throws IOException {
+		try {
+			for (int i = 0; i < numFields; i++) {
+				final Object o = fields[i].get(value);
+				if (nullable[i]) {
+					target.writeBoolean(o == null);
+					if (o == null) {
+						continue;
+					}
+				}
+				fieldSerializers[i].serialize(o, target);
+			}
+		}
+		catch (IllegalAccessException e) {
+			throw new RuntimeException("Cannot access the fields of POJO type " + clazz.getName() + ".", e);
+		}
+	}
+
+	@Override
+	public T deserialize(T reuse, DataInputView source) throws IOException {
+		if (reuse == null) {
+			reuse = createInstance();
+		}
+		
+		try {
+			for (int i = 0; i < numFields; i++) {
+				if (nullable[i] && source.readBoolean()) {
+					fields[i].set(reuse, null);
+					continue;
+				}
+				
+				Object field = fields[i].get(reuse);
+				if (field == null) {
+					field = fieldSerializers[i].createInstance();
+				}
+				fields[i].set(reuse, fieldSerializers[i].deserialize(field, source));
+			}
+		}
+		catch (IllegalAccessException e) {
+			throw new RuntimeException("Cannot access the fields of POJO type " + clazz.getName() + ".", e);
+		}
+		
+		return reuse;
+	}
+
+	@Override
+	public void copy(DataInputView source, DataOutputView target) throws IOException {
+		for (int i = 0; i < numFields; i++) {
+			if (nullable[i]) {
+				final boolean isNull = source.readBoolean();
+				target.writeBoolean(isNull);
+				if (isNull) {
+					continue;
+				}
+			}
+			fieldSerializers[i].copy(source, target);
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	//  Java Serialization of the reflective fields
+	// --------------------------------------------------------------------------------------------
+	
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		writeFields(out, fields);
+	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		fields = readFields(in);
+	}
+	
+	/**
+	 * Writes the given fields, which are not serializable themselves, as their declaring class and name.
+	 */
+	static void writeFields(ObjectOutputStream out, Field[] fields) throws IOException {
+		out.writeInt(fields.length);
+		for (Field field : fields) {
+			out.writeObject(field.getDeclaringClass());
+			out.writeUTF(field.getName());
+		}
+	}
+	
+	/**
+	 * Reads fields written by {@link #writeFields(ObjectOutputStream, Field[])}.
+	 */
+	static Field[] readFields(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		Field[] fields = new Field[in.readInt()];
+		for (int i = 0; i < fields.length; i++) {
+			Class<?> declaringClass = (Class<?>) in.readObject();
+			String name = in.readUTF();
+			try {
+				fields[i] = declaringClass.getDeclaredField(name);
+				fields[i].setAccessible(true);
+			}
+			catch (NoSuchFieldException e) {
+				throw new IOException("The field " + name + " of class " + declaringClass.getName() + " does not exist.");
+			}
+		}
+		return fields;
+	}
+}
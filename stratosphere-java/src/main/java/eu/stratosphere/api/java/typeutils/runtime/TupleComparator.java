@@ -15,16 +15,33 @@
 package eu.stratosphere.api.java.typeutils.runtime;
 
 import java.io.IOException;
+import java.util.Arrays;
 
+import eu.stratosphere.api.common.typeutils.Serializer;
 import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.common.typeutils.base.DoubleComparator;
+import eu.stratosphere.api.common.typeutils.base.IntComparator;
+import eu.stratosphere.api.common.typeutils.base.LongComparator;
+import eu.stratosphere.api.common.typeutils.base.StringComparator;
 import eu.stratosphere.api.java.tuple.Tuple;
 import eu.stratosphere.core.memory.DataInputView;
 import eu.stratosphere.core.memory.DataOutputView;
 import eu.stratosphere.core.memory.MemorySegment;
 import eu.stratosphere.types.KeyFieldOutOfBoundsException;
 import eu.stratosphere.types.NullKeyFieldException;
+import eu.stratosphere.util.InstantiationUtil;
 
-
+/**
+ * Comparator for the tuples of the Java API on a composite key. Hash codes of basic type key fields and the
+ * normalized keys of int and long key fields are computed directly on the field values, without going through
+ * the field's comparator.
+ * <p>
+ * Serialized tuples are compared without deserializing them: The fields of the serialized tuples are walked in
+ * their serialized order up to the last key field. Key fields are compared with their comparators directly on the
+ * binary data, runs of fixed-length non-key fields are skipped at once, and only variable-length non-key fields
+ * are read. Keys that are not in the order of the fields are resolved as soon as all keys before them in the key
+ * order are known to be equal.
+ */
 public final class TupleComparator<T extends Tuple> extends TypeComparator<T> implements java.io.Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -42,12 +59,87 @@ public final class TupleComparator<T extends Tuple> extends TypeComparator<T> im
 	
 	private final boolean invertNormKey;
 	
-		
+	private final byte[] keyKinds;
+	
+	private final Serializer<Object>[] serializers;		// the serializers for the fields up to the last key field
+	
+	private final int[] fieldKeys;						// the index of the key on each field, -1 for non-key fields
+	
+	private final int[] fixedLengthRuns;				// the length of the fixed-length non-key fields at each field
+	
+	private final int[] fixedLengthRunEnds;				// the field after the fixed-length non-key fields at each field
+	
+	private final byte[] initialKeyResults;				// the initial state of the binary key comparison results
+	
+	private transient byte[] keyResults;
+	
+	private transient Object[] firstHolders;
+	
+	private transient Object[] secondHolders;
+	
+	
+	/**
+	 * Creates a new comparator for the given key fields.
+	 * 
+	 * @param keyPositions The positions of the key fields.
+	 * @param comparators The comparators for the key fields.
+	 * @param serializers The serializers for the fields of the tuple, at least up to the last key field.
+	 */
 	@SuppressWarnings("unchecked")
-	public TupleComparator(int[] keyPositions, TypeComparator<?>[] comparators) {
+	public TupleComparator(int[] keyPositions, TypeComparator<?>[] comparators, Serializer<?>[] serializers) {
 		this.keyPositions = keyPositions;
 		this.comparators = (TypeComparator<Object>[]) comparators;
 		
+		// set up the field layout for the comparison of serialized tuples
+		int numFields = 0;
+		for (int i = 0; i < keyPositions.length; i++) {
+			numFields = Math.max(numFields, keyPositions[i] + 1);
+		}
+		if (serializers.length < numFields) {
+			throw new IllegalArgumentException("No serializers are given for all fields up to the last key field.");
+		}
+		
+		this.serializers = new Serializer[numFields];
+		System.arraycopy(serializers, 0, this.serializers, 0, numFields);
+		
+		this.fieldKeys = new int[numFields];
+		this.initialKeyResults = new byte[keyPositions.length];
+		Arrays.fill(this.fieldKeys, -1);
+		
+		for (int i = 0; i < keyPositions.length; i++) {
+			if (this.fieldKeys[keyPositions[i]] == -1) {
+				this.fieldKeys[keyPositions[i]] = i;
+				this.initialKeyResults[i] = RESULT_UNKNOWN;
+			} else {
+				// a field that is already compared by a previous key can never decide the order again
+				this.initialKeyResults[i] = 0;
+			}
+		}
+		
+		this.fixedLengthRuns = new int[numFields];
+		this.fixedLengthRunEnds = new int[numFields];
+		for (int i = numFields - 1; i >= 0; i--) {
+			final int len = this.serializers[i].getLength();
+			if (this.fieldKeys[i] == -1 && len >= 0) {
+				// extend the run of fixed-length non-key fields that starts at the next field, if there is one
+				if (i + 1 < numFields && this.fixedLengthRuns[i + 1] >= 0) {
+					this.fixedLengthRuns[i] = len + this.fixedLengthRuns[i + 1];
+					this.fixedLengthRunEnds[i] = this.fixedLengthRunEnds[i + 1];
+				} else {
+					this.fixedLengthRuns[i] = len;
+					this.fixedLengthRunEnds[i] = i + 1;
+				}
+			} else {
+				this.fixedLengthRuns[i] = -1;
+				this.fixedLengthRunEnds[i] = i + 1;
+			}
+		}
+		
+		this.keyKinds = new byte[comparators.length];
+		for (int i = 0; i < comparators.length; i++) {
+			this.keyKinds[i] = getKeyKind(comparators[i]);
+		}
+		
 		// set up auxiliary fields for normalized key support
 		this.normalizedKeyLengths = new int[keyPositions.length];
 		int nKeys = 0;
@@ -102,6 +194,18 @@ public final class TupleComparator<T extends Tuple> extends TypeComparator<T> im
 		this.numLeadingNormalizableKeys = toClone.numLeadingNormalizableKeys;
 		this.normalizableKeyPrefixLen = toClone.normalizableKeyPrefixLen;
 		this.invertNormKey = toClone.invertNormKey;
+		this.keyKinds = toClone.keyKinds;
+		
+		// serializers may hold state, so every duplicate gets its own instances
+		this.serializers = new Serializer[toClone.serializers.length];
+		for (int i = 0; i < toClone.serializers.length; i++) {
+			this.serializers[i] = duplicateSerializer(toClone.serializers[i]);
+		}
+		
+		this.fieldKeys = toClone.fieldKeys;
+		this.fixedLengthRuns = toClone.fixedLengthRuns;
+		this.fixedLengthRunEnds = toClone.fixedLengthRunEnds;
+		this.initialKeyResults = toClone.initialKeyResults;
 	}
 
 	
@@ -109,9 +213,11 @@ public final class TupleComparator<T extends Tuple> extends TypeComparator<T> im
 	public int hash(T value) {
 		int i = 0;
 		try {
+			final byte[] kinds = this.keyKinds;
 			int code = 0;
 			for (; i < this.keyPositions.length; i++) {
-				code ^= this.comparators[i].hash(value.getField(this.keyPositions[i]));
+				final Object field = value.getField(this.keyPositions[i]);
+				code ^= kinds[i] == KIND_GENERIC ? this.comparators[i].hash(field) : field.hashCode();
 				code *= HASH_SALT[i & 0x1F]; // salt code with (i % HASH_SALT.length)-th salt component
 			}
 			return code;
@@ -183,21 +289,64 @@ public final class TupleComparator<T extends Tuple> extends TypeComparator<T> im
 
 	@Override
 	public int compare(DataInputView firstSource, DataInputView secondSource) throws IOException {
+		if (this.keyResults == null) {
+			this.keyResults = new byte[this.initialKeyResults.length];
+			this.firstHolders = new Object[this.serializers.length];
+			this.secondHolders = new Object[this.serializers.length];
+		}
+		
+		final byte[] results = this.keyResults;
+		final int numKeys = results.length;
+		final int numFields = this.serializers.length;
+		System.arraycopy(this.initialKeyResults, 0, results, 0, numKeys);
+		
+		// the first key in the key order whose result is not yet known
+		int nextKey = 0;
+		
 		int i = 0;
 		try {
-			for (; i < this.keyPositions.length; i++) {
-				int cmp = this.comparators[i].compare(firstSource, secondSource);
-				if (cmp != 0) {
-					return cmp;
+			while (i < numFields) {
+				final int key = this.fieldKeys[i];
+				
+				if (key >= 0) {
+					final int cmp = this.comparators[key].compare(firstSource, secondSource);
+					results[key] = (byte) (cmp < 0 ? -1 : (cmp > 0 ? 1 : 0));
+					
+					// check whether the comparison is decided by the keys known so far
+					while (nextKey < numKeys && results[nextKey] != RESULT_UNKNOWN) {
+						if (results[nextKey] != 0) {
+							return results[nextKey];
+						}
+						nextKey++;
+					}
+					if (nextKey == numKeys) {
+						return 0;
+					}
+					i++;
+				}
+				else if (this.fixedLengthRuns[i] >= 0) {
+					firstSource.skipBytesToRead(this.fixedLengthRuns[i]);
+					secondSource.skipBytesToRead(this.fixedLengthRuns[i]);
+					i = this.fixedLengthRunEnds[i];
+				}
+				else {
+					final Serializer<Object> serializer = this.serializers[i];
+					if (this.firstHolders[i] == null) {
+						this.firstHolders[i] = serializer.createInstance();
+						this.secondHolders[i] = serializer.createInstance();
+					}
+					this.firstHolders[i] = serializer.deserialize(this.firstHolders[i], firstSource);
+					this.secondHolders[i] = serializer.deserialize(this.secondHolders[i], secondSource);
+					i++;
 				}
 			}
 			return 0;
 		}
 		catch (NullPointerException npex) {
-			throw new NullKeyFieldException(this.keyPositions[i]);
+			throw new NullKeyFieldException(i);
 		}
 		catch (IndexOutOfBoundsException iobex) {
-			throw new KeyFieldOutOfBoundsException(this.keyPositions[i]);
+			throw new KeyFieldOutOfBoundsException(i);
 		}
 	}
 
@@ -226,7 +375,15 @@ public final class TupleComparator<T extends Tuple> extends TypeComparator<T> im
 			{
 				int len = this.normalizedKeyLengths[i]; 
 				len = numBytes >= len ? len : numBytes;
-				this.comparators[i].putNormalizedKey(value.getField(this.keyPositions[i]), target, offset, numBytes);
+				
+				final Object field = value.getField(this.keyPositions[i]);
+				if (len == 4 && this.keyKinds[i] == KIND_INT) {
+					target.putIntBigEndian(offset, ((Integer) field).intValue() - Integer.MIN_VALUE);
+				} else if (len == 8 && this.keyKinds[i] == KIND_LONG) {
+					target.putLongBigEndian(offset, ((Long) field).longValue() - Long.MIN_VALUE);
+				} else {
+					this.comparators[i].putNormalizedKey(field, target, offset, len);
+				}
 				numBytes -= len;
 				offset += len;
 			}
@@ -267,6 +424,50 @@ public final class TupleComparator<T extends Tuple> extends TypeComparator<T> im
 	
 	// --------------------------------------------------------------------------------------------
 	
+	/**
+	 * Creates a copy of the given serializer through Java serialization. The classes of the copy are resolved
+	 * through the context class loader, which is the user code class loader inside a task.
+	 */
+	static <X> Serializer<X> duplicateSerializer(Serializer<X> serializer) {
+		try {
+			return InstantiationUtil.clone(serializer, Thread.currentThread().getContextClassLoader());
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Could not duplicate the serializer " + serializer.getClass().getName() + ": " 
+				+ e.getMessage(), e);
+		}
+	}
+	
+	private static final byte RESULT_UNKNOWN = 2;
+	
+	private static final byte KIND_GENERIC = 0;
+	
+	private static final byte KIND_BASIC = 1;
+	
+	private static final byte KIND_INT = 2;
+	
+	private static final byte KIND_LONG = 3;
+	
+	/**
+	 * Determines whether the key field compared by the given comparator can be handled directly. That is the case
+	 * for the basic type comparators, which hash a field by its hash code and normalize int and long keys as
+	 * their offset binary big endian representation.
+	 */
+	private static byte getKeyKind(TypeComparator<?> comparator) {
+		final Class<?> clazz = comparator.getClass();
+		if (clazz == IntComparator.class) {
+			return KIND_INT;
+		} else if (clazz == LongComparator.class) {
+			return KIND_LONG;
+		} else if (clazz == DoubleComparator.class || clazz == StringComparator.class) {
+			return KIND_BASIC;
+		} else {
+			return KIND_GENERIC;
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
 	/**
 	 * A sequence of prime numbers to be used for salting the computed hash values.
 	 * Based on some empirical evidence, we are using a 32-element subsequence of the  
@@ -275,7 +476,7 @@ public final class TupleComparator<T extends Tuple> extends TypeComparator<T> im
 	 * @see: http://en.wikipedia.org/wiki/List_of_prime_numbers
 	 * @see: http://oeis.org/A068652
 	 */
-	private static final int[] HASH_SALT = new int[] { 
+	static final int[] HASH_SALT = new int[] { 
 		73   , 79   , 97   , 113  , 131  , 197  , 199  , 311   , 
 		337  , 373  , 719  , 733  , 919  , 971  , 991  , 1193  , 
 		1931 , 3119 , 3779 , 7793 , 7937 , 9311 , 9377 , 11939 , 
@@ -17,11 +17,21 @@ package eu.stratosphere.api.java.typeutils.runtime;
 import java.io.IOException;
 
 import eu.stratosphere.api.common.typeutils.Serializer;
+import eu.stratosphere.api.common.typeutils.base.DoubleSerializer;
+import eu.stratosphere.api.common.typeutils.base.IntSerializer;
+import eu.stratosphere.api.common.typeutils.base.LongSerializer;
+import eu.stratosphere.api.common.typeutils.base.StringSerializer;
 import eu.stratosphere.api.java.tuple.Tuple;
 import eu.stratosphere.core.memory.DataInputView;
 import eu.stratosphere.core.memory.DataOutputView;
+import eu.stratosphere.types.StringValue;
 
-
+/**
+ * Serializer for the tuples of the Java API. Fields of the basic types int, long, double and String are
+ * written and read directly, rather than through the field's serializer, which keeps the per-field calls
+ * out of the serialization loop for the most common tuple layouts. If all fields have a fixed length, the
+ * tuple has a fixed length as well and is copied in binary form.
+ */
 public final class TupleSerializer<T extends Tuple> extends Serializer<T> {
 
 	private static final long serialVersionUID = 1L;
@@ -33,12 +43,26 @@ public final class TupleSerializer<T extends Tuple> extends Serializer<T> {
 	
 	private final int arity;
 	
+	private final byte[] fieldKinds;
+	
+	private final int length;
+	
 	
 	@SuppressWarnings("unchecked")
 	public TupleSerializer(Class<T> tupleClass, Serializer<?>[] fieldSerializers) {
 		this.tupleClass = tupleClass;
 		this.fieldSerializers = (Serializer<Object>[]) fieldSerializers;
 		this.arity = fieldSerializers.length;
+		
+		this.fieldKinds = new byte[this.arity];
+		int len = 0;
+		for (int i = 0; i < this.arity; i++) {
+			this.fieldKinds[i] = getFieldKind(fieldSerializers[i]);
+			
+			final int fieldLen = fieldSerializers[i].getLength();
+			len = (len < 0 || fieldLen <= 0) ? -1 : len + fieldLen;
+		}
+		this.length = len;
 	}
 	
 	
@@ -71,31 +95,99 @@ public final class TupleSerializer<T extends Tuple> extends Serializer<T> {
 
 	@Override
 	public int getLength() {
-		return -1;
+		return length;
 	}
 
 
 	@Override
 	public void serialize(T value, DataOutputView target) throws IOException {
+		final byte[] kinds = this.fieldKinds;
+		
 		for (int i = 0; i < arity; i++) {
-			Object o = value.getField(i);
-			fieldSerializers[i].serialize(o, target);
+			switch (kinds[i]) {
+			case KIND_INT:
+				target.writeInt((Integer) value.getField(i));
+				break;
+			case KIND_LONG:
+				target.writeLong((Long) value.getField(i));
+				break;
+			case KIND_DOUBLE:
+				target.writeDouble((Double) value.getField(i));
+				break;
+			case KIND_STRING:
+				StringValue.writeString((String) value.getField(i), target);
+				break;
+			default:
+				fieldSerializers[i].serialize(value.getField(i), target);
+			}
 		}
 	}
 
 	@Override
 	public T deserialize(T reuse, DataInputView source) throws IOException {
+		final byte[] kinds = this.fieldKinds;
+		
 		for (int i = 0; i < arity; i++) {
-			Object field = fieldSerializers[i].deserialize(reuse.getField(i), source);
-			reuse.setField(field, i);
+			switch (kinds[i]) {
+			case KIND_INT:
+				reuse.setField(source.readInt(), i);
+				break;
+			case KIND_LONG:
+				reuse.setField(source.readLong(), i);
+				break;
+			case KIND_DOUBLE:
+				reuse.setField(source.readDouble(), i);
+				break;
+			case KIND_STRING:
+				reuse.setField(StringValue.readString(source), i);
+				break;
+			default:
+				reuse.setField(fieldSerializers[i].deserialize(reuse.getField(i), source), i);
+			}
 		}
 		return reuse;
 	}
 
 	@Override
 	public void copy(DataInputView source, DataOutputView target) throws IOException {
+		if (length > 0) {
+			target.write(source, length);
+			return;
+		}
+		
 		for (int i = 0; i < arity; i++) {
 			fieldSerializers[i].copy(source, target);
 		}
 	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private static final byte KIND_GENERIC = 0;
+	
+	private static final byte KIND_INT = 1;
+	
+	private static final byte KIND_LONG = 2;
+	
+	private static final byte KIND_DOUBLE = 3;
+	
+	private static final byte KIND_STRING = 4;
+	
+	/**
+	 * Determines whether the field serialized by the given serializer can be handled directly. Only the exact
+	 * basic serializer classes qualify, since subclasses may change the serialization format.
+	 */
+	private static byte getFieldKind(Serializer<?> serializer) {
+		final Class<?> clazz = serializer.getClass();
+		if (clazz == IntSerializer.class) {
+			return KIND_INT;
+		} else if (clazz == LongSerializer.class) {
+			return KIND_LONG;
+		} else if (clazz == DoubleSerializer.class) {
+			return KIND_DOUBLE;
+		} else if (clazz == StringSerializer.class) {
+			return KIND_STRING;
+		} else {
+			return KIND_GENERIC;
+		}
+	}
 }
@@ -16,6 +16,7 @@ package eu.stratosphere.api.java.typeutils.runtime;
 
 import java.io.IOException;
 
+import eu.stratosphere.api.common.typeutils.Serializer;
 import eu.stratosphere.api.common.typeutils.TypeComparator;
 import eu.stratosphere.api.java.tuple.Tuple;
 import eu.stratosphere.core.memory.DataInputView;
@@ -23,6 +24,10 @@ import eu.stratosphere.core.memory.DataOutputView;
 import eu.stratosphere.core.memory.MemorySegment;
 
 
+/**
+ * Comparator for the tuples of the Java API on a single key field. Serialized tuples are compared by skipping
+ * the fields before the key field and comparing the key field directly on the binary data.
+ */
 public final class TupleSingleFieldComparator<T extends Tuple, K extends Comparable<K>> extends TypeComparator<T> 
 	implements java.io.Serializable
 {
@@ -34,11 +39,52 @@ public final class TupleSingleFieldComparator<T extends Tuple, K extends Compara
 	
 	private final TypeComparator<K> comparator;
 	
+	private final Serializer<Object>[] precedingSerializers;	// the serializers for the fields before the key
 	
+	private final int precedingFixedLength;					// the length of the fields before the key, or -1
+	
+	private transient Object[] firstHolders;
+	
+	private transient Object[] secondHolders;
+	
+	
+	/**
+	 * Creates a new comparator for the given key field.
+	 * 
+	 * @param keyPosition The position of the key field.
+	 * @param comparator The comparator for the key field.
+	 * @param serializers The serializers for the fields of the tuple, at least up to the key field.
+	 */
+	@SuppressWarnings("unchecked")
+	public TupleSingleFieldComparator(int keyPosition, TypeComparator<K> comparator, Serializer<?>[] serializers) {
+		if (serializers.length < keyPosition) {
+			throw new IllegalArgumentException("No serializers are given for all fields before the key field.");
+		}
 		
-	public TupleSingleFieldComparator(int keyPosition, TypeComparator<K> comparator) {
 		this.keyPosition = keyPosition;
 		this.comparator = comparator;
+		this.precedingSerializers = new Serializer[keyPosition];
+		System.arraycopy(serializers, 0, this.precedingSerializers, 0, keyPosition);
+		
+		int len = 0;
+		for (int i = 0; i < keyPosition && len >= 0; i++) {
+			final int fieldLen = this.precedingSerializers[i].getLength();
+			len = fieldLen >= 0 ? len + fieldLen : -1;
+		}
+		this.precedingFixedLength = len;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private TupleSingleFieldComparator(TupleSingleFieldComparator<T, K> toClone) {
+		this.keyPosition = toClone.keyPosition;
+		this.comparator = toClone.comparator.duplicate();
+		
+		// serializers may hold state, so every duplicate gets its own instances
+		this.precedingSerializers = new Serializer[toClone.precedingSerializers.length];
+		for (int i = 0; i < toClone.precedingSerializers.length; i++) {
+			this.precedingSerializers[i] = TupleComparator.duplicateSerializer(toClone.precedingSerializers[i]);
+		}
+		this.precedingFixedLength = toClone.precedingFixedLength;
 	}
 
 	
@@ -66,8 +112,39 @@ public final class TupleSingleFieldComparator<T extends Tuple, K extends Compara
 
 	@Override
 	public int compare(DataInputView firstSource, DataInputView secondSource) throws IOException {
+		if (this.precedingFixedLength > 0) {
+			firstSource.skipBytesToRead(this.precedingFixedLength);
+			secondSource.skipBytesToRead(this.precedingFixedLength);
+		}
+		else if (this.precedingFixedLength < 0) {
+			skipPrecedingFields(firstSource, secondSource);
+		}
 		return this.comparator.compare(firstSource, secondSource);
 	}
+	
+	private void skipPrecedingFields(DataInputView firstSource, DataInputView secondSource) throws IOException {
+		if (this.firstHolders == null) {
+			this.firstHolders = new Object[this.keyPosition];
+			this.secondHolders = new Object[this.keyPosition];
+		}
+		
+		for (int i = 0; i < this.keyPosition; i++) {
+			final Serializer<Object> serializer = this.precedingSerializers[i];
+			final int len = serializer.getLength();
+			
+			if (len >= 0) {
+				firstSource.skipBytesToRead(len);
+				secondSource.skipBytesToRead(len);
+			} else {
+				if (this.firstHolders[i] == null) {
+					this.firstHolders[i] = serializer.createInstance();
+					this.secondHolders[i] = serializer.createInstance();
+				}
+				this.firstHolders[i] = serializer.deserialize(this.firstHolders[i], firstSource);
+				this.secondHolders[i] = serializer.deserialize(this.secondHolders[i], secondSource);
+			}
+		}
+	}
 
 	@Override
 	public boolean supportsNormalizedKey() {
@@ -112,6 +189,6 @@ public final class TupleSingleFieldComparator<T extends Tuple, K extends Compara
 
 	@Override
 	public TypeComparator<T> duplicate() {
-		return new TupleSingleFieldComparator<T, K>(keyPosition, comparator);
+		return new TupleSingleFieldComparator<T, K>(this);
 	}
 }
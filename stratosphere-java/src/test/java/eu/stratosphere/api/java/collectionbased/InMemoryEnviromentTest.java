@@ -0,0 +1,619 @@
+/***********************************************************************************************************************
+ *
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.collectionbased;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import eu.stratosphere.api.common.InvalidProgramException;
+import eu.stratosphere.api.common.JobExecutionResult;
+import eu.stratosphere.api.common.io.OutputFormat;
+import eu.stratosphere.api.java.DataSet;
+import eu.stratosphere.api.java.ExecutionEnvironment;
+import eu.stratosphere.api.java.aggregation.Aggregations;
+import eu.stratosphere.api.java.functions.CoGroupFunction;
+import eu.stratosphere.api.java.functions.CrossFunction;
+import eu.stratosphere.api.java.functions.FilterFunction;
+import eu.stratosphere.api.java.functions.FlatMapFunction;
+import eu.stratosphere.api.java.functions.GroupReduceFunction;
+import eu.stratosphere.api.java.functions.JoinFunction;
+import eu.stratosphere.api.java.functions.KeySelector;
+import eu.stratosphere.api.java.functions.MapFunction;
+import eu.stratosphere.api.java.functions.ReduceFunction;
+import eu.stratosphere.api.java.tuple.Tuple2;
+import eu.stratosphere.api.java.typeutils.BasicTypeInfo;
+import eu.stratosphere.api.java.typeutils.TupleTypeInfo;
+import eu.stratosphere.configuration.Configuration;
+import eu.stratosphere.util.Collector;
+
+@SuppressWarnings("serial")
+public class InMemoryEnviromentTest {
+	
+	@Test
+	public void testMapFilterFlatMap() {
+		try {
+			ExecutionEnvironment env = new InMemoryEnviroment();
+			
+			DataSet<String> text = env.fromElements("to be", "or not to be");
+			
+			List<String> result = new ArrayList<String>();
+			text.flatMap(new Tokenizer())
+				.filter(new NotOr())
+				.map(new ToUpperCase())
+				.output(new ListOutputFormat<String>(result));
+			
+			env.execute();
+			
+			assertEquals(5, result.size());
+			assertEquals("TO", result.get(0));
+			assertEquals("BE", result.get(4));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testGroupedReduceAndReduceGroup() {
+		try {
+			ExecutionEnvironment env = new InMemoryEnviroment();
+			
+			DataSet<Tuple2<String, Integer>> words = env.fromElements("to be", "or not to be").flatMap(new Tokenizer()).map(new One());
+			
+			List<Tuple2<String, Integer>> counts = new ArrayList<Tuple2<String, Integer>>();
+			words.groupBy(0).reduce(new Sum()).output(new ListOutputFormat<Tuple2<String, Integer>>(counts));
+			
+			List<Integer> groupSizes = new ArrayList<Integer>();
+			words.groupBy(new WordSelector())
+				.reduceGroup(new CountGroup())
+				.output(new ListOutputFormat<Integer>(groupSizes));
+			
+			env.execute();
+			
+			assertEquals(4, counts.size());
+			for (Tuple2<String, Integer> count : counts) {
+				int expected = count.T1().equals("to") || count.T1().equals("be") ? 2 : 1;
+				assertEquals(expected, count.T2().intValue());
+			}
+			
+			Collections.sort(groupSizes);
+			assertEquals(4, groupSizes.size());
+			assertEquals(Integer.valueOf(1), groupSizes.get(0));
+			assertEquals(Integer.valueOf(2), groupSizes.get(3));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testJoinCoGroupCrossUnion() {
+		try {
+			ExecutionEnvironment env = new InMemoryEnviroment();
+			
+			TupleTypeInfo<Tuple2<Integer, String>> type = new TupleTypeInfo<Tuple2<Integer, String>>(
+					BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.STRING_TYPE_INFO);
+			
+			DataSet<Tuple2<Integer, String>> left = env.fromCollection(Arrays.asList(
+					new Tuple2<Integer, String>(1, "a"), new Tuple2<Integer, String>(2, "b"), new Tuple2<Integer, String>(2, "c")), type);
+			DataSet<Tuple2<Integer, String>> right = env.fromCollection(Arrays.asList(
+					new Tuple2<Integer, String>(2, "x"), new Tuple2<Integer, String>(3, "y")), type);
+			
+			List<String> joined = new ArrayList<String>();
+			left.join(right).where(0).equalTo(0).with(new Concat()).output(new ListOutputFormat<String>(joined));
+			
+			List<String> coGrouped = new ArrayList<String>();
+			left.coGroup(right).where(0).equalTo(0).with(new CountBoth()).output(new ListOutputFormat<String>(coGrouped));
+			
+			List<String> crossed = new ArrayList<String>();
+			left.cross(right).with(new CrossConcat()).output(new ListOutputFormat<String>(crossed));
+			
+			List<Tuple2<Integer, String>> unioned = new ArrayList<Tuple2<Integer, String>>();
+			left.union(right).output(new ListOutputFormat<Tuple2<Integer, String>>(unioned));
+			
+			env.execute();
+			
+			Collections.sort(joined);
+			assertEquals(2, joined.size());
+			assertEquals("bx", joined.get(0));
+			assertEquals("cx", joined.get(1));
+			
+			Collections.sort(coGrouped);
+			assertEquals(3, coGrouped.size());
+			assertEquals("1:1:0", coGrouped.get(0));
+			assertEquals("2:2:1", coGrouped.get(1));
+			assertEquals("3:0:1", coGrouped.get(2));
+			
+			assertEquals(6, crossed.size());
+			assertEquals(5, unioned.size());
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testJoinOnPermutedKeyFields() {
+		try {
+			ExecutionEnvironment env = new InMemoryEnviroment();
+			
+			TupleTypeInfo<Tuple2<Integer, Integer>> type = new TupleTypeInfo<Tuple2<Integer, Integer>>(
+					BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO);
+			
+			List<Tuple2<Integer, Integer>> leftInput = new ArrayList<Tuple2<Integer, Integer>>();
+			leftInput.add(new Tuple2<Integer, Integer>(1, 2));
+			leftInput.add(new Tuple2<Integer, Integer>(3, 4));
+			List<Tuple2<Integer, Integer>> rightInput = new ArrayList<Tuple2<Integer, Integer>>();
+			rightInput.add(new Tuple2<Integer, Integer>(2, 1));
+			rightInput.add(new Tuple2<Integer, Integer>(1, 2));
+			rightInput.add(new Tuple2<Integer, Integer>(4, 3));
+			
+			DataSet<Tuple2<Integer, Integer>> left = env.fromCollection(leftInput, type);
+			DataSet<Tuple2<Integer, Integer>> right = env.fromCollection(rightInput, type);
+			
+			// the first field of the left side is paired with the second field of the right side
+			int[] rightKeys = {1, 0};
+			List<String> joined = new ArrayList<String>();
+			left.join(right).where(0, 1).equalTo(rightKeys).with(new JoinPairs())
+				.output(new ListOutputFormat<String>(joined));
+			
+			env.execute();
+			
+			Collections.sort(joined);
+			assertEquals(2, joined.size());
+			assertEquals("1,2|2,1", joined.get(0));
+			assertEquals("3,4|4,3", joined.get(1));
+			
+			// the declared key fields are not reordered
+			assertEquals(1, rightKeys[0]);
+			assertEquals(0, rightKeys[1]);
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testJoinOnRepeatedKeyField() {
+		ExecutionEnvironment env = new InMemoryEnviroment();
+		TupleTypeInfo<Tuple2<Integer, Integer>> type = new TupleTypeInfo<Tuple2<Integer, Integer>>(
+				BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO);
+		DataSet<Tuple2<Integer, Integer>> data = env.fromCollection(
+				Collections.singletonList(new Tuple2<Integer, Integer>(1, 2)), type);
+		
+		try {
+			data.join(data).where(0, 0).equalTo(0, 1);
+			fail("A key field that is used twice was accepted.");
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testBroadcastVariablesAndAccumulators() {
+		try {
+			ExecutionEnvironment env = new InMemoryEnviroment();
+			
+			DataSet<Integer> offsets = env.fromElements(10, 20);
+			
+			List<Integer> result = new ArrayList<Integer>();
+			env.fromElements(1, 2, 3)
+				.map(new AddBroadcastSum()).withBroadcastSet(offsets, "offsets")
+				.reduce(new IntSum())
+				.output(new ListOutputFormat<Integer>(result));
+			
+			JobExecutionResult jobResult = env.execute();
+			
+			assertEquals(1, result.size());
+			assertEquals(96, result.get(0).intValue());
+			assertEquals(Integer.valueOf(3), jobResult.getIntCounterResult("records"));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testParallelExecution() {
+		try {
+			ExecutionEnvironment env = new InMemoryEnviroment();
+			env.setDegreeOfParallelism(4);
+			
+			List<Integer> numbers = new ArrayList<Integer>();
+			for (int i = 1; i <= 100; i++) {
+				numbers.add(i);
+			}
+			
+			DataSet<Tuple2<Integer, Integer>> keyed = env.fromCollection(numbers, BasicTypeInfo.INT_TYPE_INFO)
+					.map(new ModuloKey());
+			
+			// every group must be seen completely by a single instance
+			List<Tuple2<Integer, Integer>> groupSums = new ArrayList<Tuple2<Integer, Integer>>();
+			keyed.groupBy(0).reduceGroup(new SumGroup()).output(new ListOutputFormat<Tuple2<Integer, Integer>>(groupSums));
+			
+			// a non-grouped reduce must see all records
+			List<Integer> total = new ArrayList<Integer>();
+			env.fromCollection(numbers, BasicTypeInfo.INT_TYPE_INFO).reduce(new IntSum()).output(new ListOutputFormat<Integer>(total));
+			
+			// joined records must meet, no matter in which partition they were created
+			List<String> joined = new ArrayList<String>();
+			keyed.join(keyed).where(1).equalTo(1).with(new JoinValues()).output(new ListOutputFormat<String>(joined));
+			
+			JobExecutionResult jobResult = env.execute();
+			
+			assertEquals(7, groupSums.size());
+			for (Tuple2<Integer, Integer> groupSum : groupSums) {
+				int expected = 0;
+				for (int i = 1; i <= 100; i++) {
+					if (i % 7 == groupSum.T1()) {
+						expected += i;
+					}
+				}
+				assertEquals(expected, groupSum.T2().intValue());
+			}
+			
+			assertEquals(1, total.size());
+			assertEquals(5050, total.get(0).intValue());
+			
+			assertEquals(100, joined.size());
+			for (String pair : joined) {
+				String[] values = pair.split(":");
+				assertEquals(values[0], values[1]);
+			}
+			
+			// the mapper ran in four instances, and the counter is accumulated over all of them
+			assertEquals(Integer.valueOf(100), jobResult.getIntCounterResult("mapped"));
+			assertEquals(Integer.valueOf(4), jobResult.getIntCounterResult("instances"));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testAggregations() {
+		try {
+			ExecutionEnvironment env = new InMemoryEnviroment();
+			env.setDegreeOfParallelism(3);
+			
+			TupleTypeInfo<Tuple2<Integer, Double>> type = new TupleTypeInfo<Tuple2<Integer, Double>>(
+					BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.DOUBLE_TYPE_INFO);
+			
+			List<Tuple2<Integer, Double>> input = new ArrayList<Tuple2<Integer, Double>>();
+			for (int i = 1; i <= 9; i++) {
+				input.add(new Tuple2<Integer, Double>(i % 2, (double) i));
+			}
+			DataSet<Tuple2<Integer, Double>> data = env.fromCollection(input, type);
+			
+			List<Tuple2<Integer, Double>> sums = new ArrayList<Tuple2<Integer, Double>>();
+			data.groupBy(0).aggregate(Aggregations.SUM, 1).output(new ListOutputFormat<Tuple2<Integer, Double>>(sums));
+			
+			List<Tuple2<Integer, Double>> minMax = new ArrayList<Tuple2<Integer, Double>>();
+			data.aggregate(Aggregations.MIN, 0).aggregate(Aggregations.MAX, 1)
+				.output(new ListOutputFormat<Tuple2<Integer, Double>>(minMax));
+			
+			List<Tuple2<Integer, Double>> avg = new ArrayList<Tuple2<Integer, Double>>();
+			data.aggregate(Aggregations.AVG, 1).output(new ListOutputFormat<Tuple2<Integer, Double>>(avg));
+			
+			List<Tuple2<Integer, Double>> stdDev = new ArrayList<Tuple2<Integer, Double>>();
+			data.aggregate(Aggregations.STD_DEV, 1).output(new ListOutputFormat<Tuple2<Integer, Double>>(stdDev));
+			
+			env.execute();
+			
+			assertEquals(2, sums.size());
+			for (Tuple2<Integer, Double> sum : sums) {
+				assertEquals(sum.T1() == 0 ? 20.0 : 25.0, sum.T2().doubleValue(), 0.0);
+			}
+			
+			assertEquals(1, minMax.size());
+			assertEquals(0, minMax.get(0).T1().intValue());
+			assertEquals(9.0, minMax.get(0).T2().doubleValue(), 0.0);
+			
+			assertEquals(1, avg.size());
+			assertEquals(5.0, avg.get(0).T2().doubleValue(), 0.0000001);
+			
+			assertEquals(1, stdDev.size());
+			assertEquals(Math.sqrt(60.0 / 9.0), stdDev.get(0).T2().doubleValue(), 0.0000001);
+			
+			// the input tuples are not modified by the aggregations
+			assertEquals(1.0, input.get(0).T2().doubleValue(), 0.0);
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testAggregationOnUnsupportedType() {
+		ExecutionEnvironment env = new InMemoryEnviroment();
+		
+		DataSet<Tuple2<Integer, String>> data = env.fromCollection(
+				Collections.singletonList(new Tuple2<Integer, String>(1, "a")),
+				new TupleTypeInfo<Tuple2<Integer, String>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.STRING_TYPE_INFO));
+		
+		// strings can be compared, but not summed up
+		data.aggregate(Aggregations.MAX, 1);
+		try {
+			data.aggregate(Aggregations.SUM, 1);
+			fail("Summing up strings should not be possible.");
+		}
+		catch (InvalidProgramException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testAggregateFieldTwice() {
+		ExecutionEnvironment env = new InMemoryEnviroment();
+		
+		DataSet<Tuple2<Integer, Double>> data = env.fromCollection(
+				Collections.singletonList(new Tuple2<Integer, Double>(1, 1.0)),
+				new TupleTypeInfo<Tuple2<Integer, Double>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.DOUBLE_TYPE_INFO));
+		
+		// both aggregations would write their result into the same field
+		try {
+			data.aggregate(Aggregations.MIN, 1).aggregate(Aggregations.MAX, 1);
+			fail("Aggregating a field twice should not be possible.");
+		}
+		catch (InvalidProgramException e) {
+			// expected
+		}
+		
+		try {
+			data.groupBy(0).aggregate(Aggregations.SUM, 1).aggregate(Aggregations.MIN, 0).aggregate(Aggregations.MAX, 1);
+			fail("Aggregating a field twice should not be possible.");
+		}
+		catch (InvalidProgramException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testDistinct() {
+		try {
+			ExecutionEnvironment env = new InMemoryEnviroment();
+			env.setDegreeOfParallelism(2);
+			
+			DataSet<Tuple2<String, Integer>> words = env.fromElements("to be", "or not to be").flatMap(new Tokenizer()).map(new One());
+			
+			List<Tuple2<String, Integer>> allFields = new ArrayList<Tuple2<String, Integer>>();
+			words.distinct().output(new ListOutputFormat<Tuple2<String, Integer>>(allFields));
+			
+			List<Tuple2<String, Integer>> byPosition = new ArrayList<Tuple2<String, Integer>>();
+			words.distinct(1).output(new ListOutputFormat<Tuple2<String, Integer>>(byPosition));
+			
+			List<Tuple2<String, Integer>> bySelector = new ArrayList<Tuple2<String, Integer>>();
+			words.distinct(new WordSelector()).output(new ListOutputFormat<Tuple2<String, Integer>>(bySelector));
+			
+			env.execute();
+			
+			assertEquals(4, allFields.size());
+			assertEquals(1, byPosition.size());
+			assertEquals(4, bySelector.size());
+			
+			List<String> distinctWords = new ArrayList<String>();
+			for (Tuple2<String, Integer> word : bySelector) {
+				distinctWords.add(word.T1());
+			}
+			Collections.sort(distinctWords);
+			assertEquals(Arrays.asList("be", "not", "or", "to"), distinctWords);
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static final class Tokenizer extends FlatMapFunction<String, String> {
+		@Override
+		public void flatMap(String value, Collector<String> out) {
+			for (String token : value.split(" ")) {
+				out.collect(token);
+			}
+		}
+	}
+	
+	public static final class NotOr extends FilterFunction<String> {
+		@Override
+		public boolean filter(String value) {
+			return !value.equals("or");
+		}
+	}
+	
+	public static final class ToUpperCase extends MapFunction<String, String> {
+		@Override
+		public String map(String value) {
+			return value.toUpperCase();
+		}
+	}
+	
+	public static final class One extends MapFunction<String, Tuple2<String, Integer>> {
+		@Override
+		public Tuple2<String, Integer> map(String value) {
+			return new Tuple2<String, Integer>(value, 1);
+		}
+	}
+	
+	public static final class Sum extends ReduceFunction<Tuple2<String, Integer>> {
+		@Override
+		public Tuple2<String, Integer> reduce(Tuple2<String, Integer> value1, Tuple2<String, Integer> value2) {
+			return new Tuple2<String, Integer>(value1.T1(), value1.T2() + value2.T2());
+		}
+	}
+	
+	public static final class WordSelector extends KeySelector<Tuple2<String, Integer>, String> {
+		@Override
+		public String getKey(Tuple2<String, Integer> value) {
+			return value.T1();
+		}
+	}
+	
+	public static final class CountGroup extends GroupReduceFunction<Tuple2<String, Integer>, Integer> {
+		@Override
+		public void reduce(Iterator<Tuple2<String, Integer>> values, Collector<Integer> out) {
+			int num = 0;
+			while (values.hasNext()) {
+				values.next();
+				num++;
+			}
+			out.collect(num);
+		}
+	}
+	
+	public static final class IntSum extends ReduceFunction<Integer> {
+		@Override
+		public Integer reduce(Integer value1, Integer value2) {
+			return value1 + value2;
+		}
+	}
+	
+	public static final class CrossConcat extends CrossFunction<Tuple2<Integer, String>, Tuple2<Integer, String>, String> {
+		@Override
+		public String cross(Tuple2<Integer, String> first, Tuple2<Integer, String> second) {
+			return first.T2() + second.T2();
+		}
+	}
+	
+	public static final class Concat extends JoinFunction<Tuple2<Integer, String>, Tuple2<Integer, String>, String> {
+		@Override
+		public String join(Tuple2<Integer, String> first, Tuple2<Integer, String> second) {
+			return first.T2() + second.T2();
+		}
+	}
+	
+	public static final class CountBoth extends CoGroupFunction<Tuple2<Integer, String>, Tuple2<Integer, String>, String> {
+		@Override
+		public void coGroup(Iterator<Tuple2<Integer, String>> first, Iterator<Tuple2<Integer, String>> second, Collector<String> out) {
+			Integer key = null;
+			int num1 = 0, num2 = 0;
+			while (first.hasNext()) {
+				key = first.next().T1();
+				num1++;
+			}
+			while (second.hasNext()) {
+				key = second.next().T1();
+				num2++;
+			}
+			out.collect(key + ":" + num1 + ":" + num2);
+		}
+	}
+	
+	public static final class ModuloKey extends MapFunction<Integer, Tuple2<Integer, Integer>> {
+		
+		@Override
+		public void open(Configuration parameters) {
+			assertEquals(4, getRuntimeContext().getNumberOfParallelSubtasks());
+			getRuntimeContext().getIntCounter("instances").add(1);
+		}
+		
+		@Override
+		public Tuple2<Integer, Integer> map(Integer value) {
+			getRuntimeContext().getIntCounter("mapped").add(1);
+			return new Tuple2<Integer, Integer>(value % 7, value);
+		}
+	}
+	
+	public static final class SumGroup extends GroupReduceFunction<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>> {
+		@Override
+		public void reduce(Iterator<Tuple2<Integer, Integer>> values, Collector<Tuple2<Integer, Integer>> out) {
+			Tuple2<Integer, Integer> first = values.next();
+			int sum = first.T2();
+			while (values.hasNext()) {
+				sum += values.next().T2();
+			}
+			out.collect(new Tuple2<Integer, Integer>(first.T1(), sum));
+		}
+	}
+	
+	public static final class JoinValues extends JoinFunction<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>, String> {
+		@Override
+		public String join(Tuple2<Integer, Integer> first, Tuple2<Integer, Integer> second) {
+			return first.T2() + ":" + second.T2();
+		}
+	}
+	
+	public static final class JoinPairs extends JoinFunction<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>, String> {
+		@Override
+		public String join(Tuple2<Integer, Integer> first, Tuple2<Integer, Integer> second) {
+			return first.T1() + "," + first.T2() + "|" + second.T1() + "," + second.T2();
+		}
+	}
+	
+	public static final class AddBroadcastSum extends MapFunction<Integer, Integer> {
+		
+		private int offset;
+		
+		@Override
+		public void open(Configuration parameters) {
+			Collection<Integer> offsets = getRuntimeContext().getBroadcastVariable("offsets");
+			for (Integer o : offsets) {
+				this.offset += o;
+			}
+		}
+		
+		@Override
+		public Integer map(Integer value) {
+			getRuntimeContext().getIntCounter("records").add(1);
+			return value + this.offset;
+		}
+	}
+	
+	/**
+	 * Adds all records to a list that is shared with the test. This works only because the
+	 * collection-based execution does not serialize the output format.
+	 */
+	public static final class ListOutputFormat<T> implements OutputFormat<T> {
+		
+		private final List<T> target;
+		
+		public ListOutputFormat(List<T> target) {
+			this.target = target;
+		}
+
+		@Override
+		public void configure(Configuration parameters) {}
+
+		@Override
+		public void open(int taskNumber, int numTasks) {}
+
+		@Override
+		public void writeRecord(T record) {
+			this.target.add(record);
+		}
+
+		@Override
+		public void close() throws IOException {}
+	}
+}
@@ -0,0 +1,107 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.api.java.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import eu.stratosphere.api.common.InvalidProgramException;
+import eu.stratosphere.api.common.operators.GenericDataSink;
+import eu.stratosphere.api.common.operators.GenericDataSource;
+import eu.stratosphere.api.common.operators.Operator;
+import eu.stratosphere.api.common.operators.SingleInputOperator;
+import eu.stratosphere.api.java.DataSet;
+import eu.stratosphere.api.java.ExecutionEnvironment;
+import eu.stratosphere.api.java.collectionbased.InMemoryEnviroment;
+import eu.stratosphere.api.java.functions.MapFunction;
+import eu.stratosphere.api.java.io.PrintingOutputFormat;
+import eu.stratosphere.api.java.operators.translation.JavaPlan;
+
+@SuppressWarnings("serial")
+public class OperatorTranslationTest {
+	
+	@Test
+	public void testUnionAsInputOfOperation() {
+		ExecutionEnvironment env = new InMemoryEnviroment();
+		DataSet<Long> first = env.generateSequence(1, 10);
+		DataSet<Long> second = env.generateSequence(11, 20);
+		DataSet<Long> third = env.generateSequence(21, 30);
+		
+		DataSink<Long> sink = first.union(second).union(third).map(new Identity()).output(new PrintingOutputFormat<Long>());
+		
+		GenericDataSink planSink = translate(sink);
+		assertEquals(1, planSink.getInputs().size());
+		
+		Operator mapper = planSink.getInputs().get(0);
+		assertTrue(mapper instanceof SingleInputOperator);
+		List<Operator> mapperInputs = ((SingleInputOperator<?>) mapper).getInputs();
+		assertEquals(3, mapperInputs.size());
+		for (Operator input : mapperInputs) {
+			assertTrue(input instanceof GenericDataSource);
+		}
+	}
+	
+	@Test
+	public void testUnionAsInputOfSink() {
+		ExecutionEnvironment env = new InMemoryEnviroment();
+		DataSet<Long> first = env.generateSequence(1, 10);
+		DataSet<Long> second = env.generateSequence(11, 20);
+		
+		DataSink<Long> sink = first.union(second).output(new PrintingOutputFormat<Long>());
+		
+		GenericDataSink planSink = translate(sink);
+		assertEquals(2, planSink.getInputs().size());
+		assertTrue(planSink.getInputs().get(0) instanceof GenericDataSource);
+		assertTrue(planSink.getInputs().get(1) instanceof GenericDataSource);
+	}
+	
+	@Test
+	public void testUnionAsBroadcastSet() {
+		ExecutionEnvironment env = new InMemoryEnviroment();
+		DataSet<Long> first = env.generateSequence(1, 10);
+		DataSet<Long> second = env.generateSequence(11, 20);
+		
+		DataSink<Long> sink = first.map(new Identity()).withBroadcastSet(first.union(second), "set")
+				.output(new PrintingOutputFormat<Long>());
+		
+		try {
+			translate(sink);
+			fail("A union as broadcast set was translated.");
+		}
+		catch (InvalidProgramException e) {
+			// expected
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private static GenericDataSink translate(DataSink<?> sink) {
+		List<DataSink<?>> sinks = Collections.<DataSink<?>>singletonList(sink);
+		JavaPlan plan = new OperatorTranslation().translateToPlan(sinks, "Union Translation Test");
+		assertEquals(1, plan.getDataSinks().size());
+		return plan.getDataSinks().iterator().next();
+	}
+	
+	public static final class Identity extends MapFunction<Long, Long> {
+		@Override
+		public Long map(Long value) {
+			return value;
+		}
+	}
+}
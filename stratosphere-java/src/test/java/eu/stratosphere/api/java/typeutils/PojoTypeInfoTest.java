@@ -0,0 +1,240 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.api.java.typeutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import eu.stratosphere.api.common.InvalidProgramException;
+import eu.stratosphere.api.java.ExecutionEnvironment;
+import eu.stratosphere.api.java.collectionbased.InMemoryEnviroment;
+import eu.stratosphere.api.java.collectionbased.InMemoryEnviromentTest.ListOutputFormat;
+import eu.stratosphere.api.java.functions.GroupReduceFunction;
+import eu.stratosphere.api.java.functions.JoinFunction;
+import eu.stratosphere.api.java.functions.KeySelector;
+import eu.stratosphere.api.java.typeutils.runtime.PojoSerializer;
+import eu.stratosphere.util.Collector;
+import eu.stratosphere.util.InstantiationUtil;
+
+/**
+ * Tests the analysis of POJO types and the grouping of POJOs on field expressions.
+ */
+@SuppressWarnings("serial")
+public class PojoTypeInfoTest {
+
+	@Test
+	public void testPojoAnalysis() {
+		TypeInformation<Person> type = TypeInformation.getForClass(Person.class);
+		assertTrue(type instanceof PojoTypeInfo);
+		
+		PojoTypeInfo<Person> pojoType = (PojoTypeInfo<Person>) type;
+		assertEquals(3, pojoType.getArity());
+		
+		// fields are ordered by name
+		assertEquals(0, pojoType.getFieldIndex("age"));
+		assertEquals(1, pojoType.getFieldIndex("city"));
+		assertEquals(2, pojoType.getFieldIndex("name"));
+		assertEquals(-1, pojoType.getFieldIndex("secret"));
+		assertEquals(BasicTypeInfo.INT_TYPE_INFO, pojoType.getPojoFieldAt(0).getType());
+		assertTrue(pojoType.getPojoFieldAt(1).getType() instanceof PojoTypeInfo);
+		
+		// classes with inaccessible fields or recursive types are no POJOs
+		assertTrue(TypeInformation.getForClass(NoPojo.class) instanceof GenericTypeInfo);
+		assertTrue(TypeInformation.getForClass(Recursive.class) instanceof GenericTypeInfo);
+	}
+	
+	@Test
+	public void testSerializerAndComparatorAreSerializable() {
+		try {
+			PojoTypeInfo<Person> type = TypeExtractor.analyzePojo(Person.class);
+			
+			PojoSerializer<Person> serializer = (PojoSerializer<Person>) type.createSerializer();
+			Person copy = InstantiationUtil.clone(serializer).copy(new Person("Ann", 42, "Berlin"), null);
+			assertEquals("Ann", copy.name);
+			assertEquals(42, copy.getAge());
+			assertEquals("Berlin", copy.city.name);
+			
+			assertNotNull(InstantiationUtil.clone((java.io.Serializable) type.createComparator(new int[] {0, 2}, new boolean[] {true, true})));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testGroupByFieldExpression() {
+		try {
+			ExecutionEnvironment env = new InMemoryEnviroment();
+			
+			List<String> groups = new ArrayList<String>();
+			env.fromElements(new Person("Ann", 42, "Berlin"), new Person("Bob", 42, "Paris"), new Person("Carl", 23, "Rome"))
+				.groupBy("age")
+				.reduceGroup(new Names())
+				.output(new ListOutputFormat<String>(groups));
+			
+			env.execute();
+			
+			assertEquals(2, groups.size());
+			assertTrue(groups.contains("Ann,Bob") || groups.contains("Bob,Ann"));
+			assertTrue(groups.contains("Carl"));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testJoinOnPermutedFieldExpression() {
+		try {
+			ExecutionEnvironment env = new InMemoryEnviroment();
+			
+			// the key fields of both sides are declared in an order that differs from the order of the POJO fields
+			List<String> joined = new ArrayList<String>();
+			env.fromElements(new Person("Ann", 42, "Berlin"), new Person("Bob", 23, "Paris"))
+				.join(env.fromElements(new Visit("Ann", 42), new Visit("Bob", 42)))
+				.where("age, name").equalTo("years, guest")
+				.with(new VisitedCity())
+				.output(new ListOutputFormat<String>(joined));
+			
+			env.execute();
+			
+			assertEquals(1, joined.size());
+			assertEquals("Ann:Berlin", joined.get(0));
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testKeyExtractorForFieldExpression() {
+		KeySelector<Person, String> selector = ReflectKeyExtractorGenerator.generateKeyExtractor(
+				TypeInformation.getForClass(Person.class), "name");
+		assertEquals("Ann", selector.getKey(new Person("Ann", 42, "Berlin")));
+	}
+	
+	@Test
+	public void testInvalidFieldExpressions() {
+		ExecutionEnvironment env = new InMemoryEnviroment();
+		
+		try {
+			env.fromElements(new Person("Ann", 42, "Berlin")).groupBy("salary");
+			fail("Grouping on a non existing field should fail.");
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+		
+		try {
+			env.fromElements("a", "b").groupBy("length");
+			fail("Grouping a non POJO type on a field expression should fail.");
+		}
+		catch (InvalidProgramException e) {
+			// expected
+		}
+		
+		assertNull(TypeExtractor.analyzePojo(String.class));
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static class Visit {
+		public String guest;
+		
+		public int years;
+		
+		public Visit() {}
+		
+		public Visit(String guest, int years) {
+			this.guest = guest;
+			this.years = years;
+		}
+	}
+	
+	public static final class VisitedCity extends JoinFunction<Person, Visit, String> {
+		@Override
+		public String join(Person person, Visit visit) {
+			return visit.guest + ":" + person.city.name;
+		}
+	}
+	
+	public static class City {
+		public String name;
+	}
+	
+	public static class Person {
+		public String name;
+		
+		private int age;
+		
+		public City city;
+		
+		public transient String secret;
+		
+		public Person() {}
+		
+		public Person(String name, int age, String city) {
+			this.name = name;
+			this.age = age;
+			this.city = new City();
+			this.city.name = city;
+		}
+		
+		public int getAge() {
+			return age;
+		}
+		
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+	
+	public static class NoPojo {
+		private int value;
+		
+		public int value() {
+			return value;
+		}
+	}
+	
+	public static class Recursive {
+		public int value;
+		
+		public Recursive next;
+	}
+	
+	public static final class Names extends GroupReduceFunction<Person, String> {
+		@Override
+		public void reduce(Iterator<Person> values, Collector<String> out) {
+			StringBuilder bld = new StringBuilder(values.next().name);
+			while (values.hasNext()) {
+				bld.append(',').append(values.next().name);
+			}
+			out.collect(bld.toString());
+		}
+	}
+}
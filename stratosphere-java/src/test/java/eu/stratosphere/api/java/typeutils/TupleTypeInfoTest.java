@@ -0,0 +1,63 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.typeutils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.java.tuple.Tuple3;
+
+/**
+ * Tests the creation of comparators from the tuple type information.
+ */
+public class TupleTypeInfoTest {
+	
+	private final TupleTypeInfo<Tuple3<Integer, String, Long>> type = 
+			TupleTypeInfo.getBasicTupleTypeInfo(Integer.class, String.class, Long.class);
+
+	@Test
+	public void testKeyPositionsUpToArity() {
+		// key positions are bounded by the arity of the tuple, not by the number of keys
+		TypeComparator<Tuple3<Integer, String, Long>> comparator = type.createComparator(new int[] {2, 0}, new boolean[] {true, true});
+		assertNotNull(comparator);
+		
+		comparator = type.createComparator(new int[] {2}, new boolean[] {true});
+		comparator.setReference(new Tuple3<Integer, String, Long>(5, "a", 1L));
+		TypeComparator<Tuple3<Integer, String, Long>> other = comparator.duplicate();
+		other.setReference(new Tuple3<Integer, String, Long>(0, "a", 2L));
+		assertEquals(1, Integer.signum(comparator.compareToReference(other)));
+	}
+	
+	@Test
+	public void testKeyPositionsOutOfRange() {
+		try {
+			type.createComparator(new int[] {0, 3}, new boolean[] {true, true});
+			fail("A key position beyond the arity was accepted.");
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+		
+		try {
+			type.createComparator(new int[] {-1}, new boolean[] {true});
+			fail("A negative key position was accepted.");
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
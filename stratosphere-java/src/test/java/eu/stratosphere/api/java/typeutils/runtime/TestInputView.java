@@ -0,0 +1,55 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.typeutils.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import eu.stratosphere.core.memory.DataInputView;
+
+/**
+ * A {@link DataInputView} that reads from a byte array, for testing serializers and comparators.
+ */
+public class TestInputView extends DataInputStream implements DataInputView {
+
+	public TestInputView(byte[] data) {
+		super(new ByteArrayInputStream(data));
+	}
+	
+	/**
+	 * Gets the number of bytes that have not been read yet.
+	 * 
+	 * @return The number of remaining bytes.
+	 */
+	public int getNumRemainingBytes() {
+		try {
+			return available();
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void skipBytesToRead(int numBytes) throws IOException {
+		while (numBytes > 0) {
+			int skipped = skipBytes(numBytes);
+			if (skipped <= 0) {
+				throw new EOFException();
+			}
+			numBytes -= skipped;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.typeutils.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import eu.stratosphere.core.memory.DataInputView;
+import eu.stratosphere.core.memory.DataOutputView;
+
+/**
+ * A {@link DataOutputView} that writes into a growing byte array, for testing serializers and comparators.
+ */
+public class TestOutputView extends DataOutputStream implements DataOutputView {
+
+	public TestOutputView() {
+		super(new ByteArrayOutputStream(4096));
+	}
+	
+	/**
+	 * Gets a view to read the bytes written so far.
+	 * 
+	 * @return A view on the written bytes.
+	 */
+	public TestInputView getInputView() {
+		return new TestInputView(getWrittenBytes());
+	}
+	
+	/**
+	 * Gets a copy of the bytes written so far.
+	 * 
+	 * @return The written bytes.
+	 */
+	public byte[] getWrittenBytes() {
+		return ((ByteArrayOutputStream) this.out).toByteArray();
+	}
+	
+	/**
+	 * Discards the bytes written so far.
+	 */
+	public void clear() {
+		((ByteArrayOutputStream) this.out).reset();
+	}
+
+	@Override
+	public void skipBytesToWrite(int numBytes) throws IOException {
+		for (int i = 0; i < numBytes; i++) {
+			write(0);
+		}
+	}
+
+	@Override
+	public void write(DataInputView source, int numBytes) throws IOException {
+		byte[] buffer = new byte[numBytes];
+		source.readFully(buffer);
+		write(buffer);
+	}
+}
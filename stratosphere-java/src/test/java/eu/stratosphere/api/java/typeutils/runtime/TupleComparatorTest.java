@@ -0,0 +1,223 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.typeutils.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import eu.stratosphere.api.common.typeutils.Serializer;
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.java.tuple.Tuple6;
+import eu.stratosphere.api.java.typeutils.TupleTypeInfo;
+import eu.stratosphere.core.memory.MemorySegment;
+
+/**
+ * Checks that the comparison of serialized tuples is consistent with the comparison of the tuple objects, for
+ * keys in and out of field order, runs of skipped fixed-length fields, variable-length fields between keys and
+ * fields that are used in more than one key.
+ */
+public class TupleComparatorTest {
+	
+	private static final long SEED = 0x3f1c62a5d4b07e19L;
+	
+	private static final int NUM_TUPLES = 150;
+	
+	private static final String[] STRINGS = { "", "a", "ab", "b", "ä", "世界", "long string value" };
+	
+	private final TupleTypeInfo<Tuple6<Integer, Long, Double, String, String, Integer>> type = 
+			TupleTypeInfo.getBasicTupleTypeInfo(Integer.class, Long.class, Double.class, String.class, String.class, Integer.class);
+
+	
+	@Test
+	public void testKeysInFieldOrder() {
+		check(new int[] {0, 3}, new boolean[] {true, true});
+	}
+	
+	@Test
+	public void testKeysOutOfFieldOrder() {
+		check(new int[] {5, 0}, new boolean[] {true, true});
+		check(new int[] {3, 1, 0}, new boolean[] {true, true, true});
+	}
+	
+	@Test
+	public void testFixedLengthRuns() {
+		// fields 1 and 2 are skipped as one run of 16 bytes
+		check(new int[] {0, 3}, new boolean[] {true, true});
+		check(new int[] {3, 0}, new boolean[] {true, true});
+		check(new int[] {2, 5}, new boolean[] {true, true});
+	}
+	
+	@Test
+	public void testVariableLengthFieldsBetweenKeys() {
+		// fields 3 and 4 are deserialized to get to field 5
+		check(new int[] {0, 5}, new boolean[] {true, true});
+		check(new int[] {5, 1}, new boolean[] {true, true});
+	}
+	
+	@Test
+	public void testFieldUsedInMultipleKeys() {
+		check(new int[] {3, 0, 3}, new boolean[] {true, true, true});
+		check(new int[] {0, 0}, new boolean[] {true, true});
+		check(new int[] {5, 3, 5}, new boolean[] {true, true, false});
+	}
+	
+	@Test
+	public void testMixedOrders() {
+		check(new int[] {5, 3}, new boolean[] {false, true});
+		check(new int[] {0, 4, 1}, new boolean[] {true, false, false});
+	}
+	
+	@Test
+	public void testSingleKeyField() {
+		// no preceding fields, fixed-length preceding fields, and variable-length preceding fields
+		check(new int[] {0}, new boolean[] {true});
+		check(new int[] {2}, new boolean[] {true});
+		check(new int[] {4}, new boolean[] {false});
+		check(new int[] {5}, new boolean[] {true});
+	}
+	
+	@Test
+	public void testNormalizedKeys() {
+		// every key gets only its share of the normalized key bytes
+		checkNormalizedKeys(new int[] {0, 1});
+		checkNormalizedKeys(new int[] {1, 0});
+		checkNormalizedKeys(new int[] {3, 0});
+		checkNormalizedKeys(new int[] {0, 3, 5});
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private void checkNormalizedKeys(int[] keys) {
+		final boolean[] orders = new boolean[keys.length];
+		Arrays.fill(orders, true);
+		
+		final TypeComparator<Tuple6<Integer, Long, Double, String, String, Integer>> comp1 = type.createComparator(keys, orders);
+		final TypeComparator<Tuple6<Integer, Long, Double, String, String, Integer>> comp2 = comp1.duplicate();
+		final Tuple6<Integer, Long, Double, String, String, Integer>[] tuples = createTuples();
+		
+		final int maxBytes = Math.min(comp1.getNormalizeKeyLen(), 24) + 2;
+		for (int numBytes = 1; numBytes <= maxBytes; numBytes++) {
+			final byte[][] normalizedKeys = new byte[NUM_TUPLES][];
+			for (int i = 0; i < NUM_TUPLES; i++) {
+				// the bytes behind the normalized key must not be touched
+				final byte[] bytes = new byte[numBytes + 8];
+				Arrays.fill(bytes, (byte) 0x5a);
+				comp1.putNormalizedKey(tuples[i], new MemorySegment(bytes), 4, numBytes);
+				
+				for (int k = 0; k < bytes.length; k++) {
+					if ((k < 4 || k >= numBytes + 4) && bytes[k] != 0x5a) {
+						fail("The normalized key of " + numBytes + " bytes was written outside its range.");
+					}
+				}
+				normalizedKeys[i] = Arrays.copyOfRange(bytes, 4, numBytes + 4);
+			}
+			
+			for (int i = 0; i < NUM_TUPLES; i++) {
+				for (int k = 0; k < NUM_TUPLES; k++) {
+					comp1.setReference(tuples[i]);
+					comp2.setReference(tuples[k]);
+					final int expected = -Integer.signum(comp1.compareToReference(comp2));
+					final int normComp = compareBytes(normalizedKeys[i], normalizedKeys[k]);
+					
+					if (comp1.isNormalizedKeyPrefixOnly(numBytes)) {
+						assertTrue("Normalized key contradicts the order.", normComp == 0 || normComp == expected);
+					} else {
+						assertEquals(expected, normComp);
+					}
+				}
+			}
+		}
+	}
+	
+	private static int compareBytes(byte[] first, byte[] second) {
+		for (int i = 0; i < first.length; i++) {
+			final int b1 = first[i] & 0xff;
+			final int b2 = second[i] & 0xff;
+			if (b1 != b2) {
+				return b1 < b2 ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+	
+	private static Tuple6<Integer, Long, Double, String, String, Integer>[] createTuples() {
+		final Random rnd = new Random(SEED);
+		@SuppressWarnings("unchecked")
+		final Tuple6<Integer, Long, Double, String, String, Integer>[] tuples = new Tuple6[NUM_TUPLES];
+		
+		for (int i = 0; i < NUM_TUPLES; i++) {
+			// small domains, such that many tuples agree on some of their keys
+			tuples[i] = new Tuple6<Integer, Long, Double, String, String, Integer>(rnd.nextInt(3) - 1, 
+				(long) rnd.nextInt(3) - 1, rnd.nextInt(3) * 0.5, STRINGS[rnd.nextInt(STRINGS.length)],
+				STRINGS[rnd.nextInt(STRINGS.length)], rnd.nextInt(3) - 1);
+		}
+		return tuples;
+	}
+	
+	private void check(int[] keys, boolean[] orders) {
+		try {
+			final Serializer<Tuple6<Integer, Long, Double, String, String, Integer>> serializer = type.createSerializer();
+			final TypeComparator<Tuple6<Integer, Long, Double, String, String, Integer>> comp1 = type.createComparator(keys, orders);
+			final TypeComparator<Tuple6<Integer, Long, Double, String, String, Integer>> comp2 = comp1.duplicate();
+			
+			// the comparison of serialized tuples is checked on a duplicate as well
+			final TypeComparator<Tuple6<Integer, Long, Double, String, String, Integer>> binaryComp = comp1.duplicate();
+			
+			final Tuple6<Integer, Long, Double, String, String, Integer>[] tuples = createTuples();
+			final byte[][] serialized = new byte[NUM_TUPLES][];
+			
+			final TestOutputView out = new TestOutputView();
+			for (int i = 0; i < NUM_TUPLES; i++) {
+				out.clear();
+				serializer.serialize(tuples[i], out);
+				serialized[i] = out.getWrittenBytes();
+			}
+			
+			int numEqual = 0;
+			for (int i = 0; i < NUM_TUPLES; i++) {
+				for (int k = 0; k < NUM_TUPLES; k++) {
+					comp1.setReference(tuples[i]);
+					comp2.setReference(tuples[k]);
+					
+					// compareToReference returns the order of the argument's reference relative to the own reference
+					final int expected = -Integer.signum(comp1.compareToReference(comp2));
+					final int actual = Integer.signum(binaryComp.compare(new TestInputView(serialized[i]), 
+						new TestInputView(serialized[k])));
+					
+					if (expected != actual) {
+						fail("Serialized comparison of " + tuples[i] + " and " + tuples[k] + " returned " + actual + 
+							" instead of " + expected + ".");
+					}
+					assertEquals(expected == 0, comp1.equalToReference(tuples[k]));
+					
+					if (expected == 0) {
+						numEqual++;
+					}
+				}
+			}
+			
+			// the data must exercise equal keys beyond the reflexive pairs
+			assertTrue(numEqual > NUM_TUPLES);
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+}
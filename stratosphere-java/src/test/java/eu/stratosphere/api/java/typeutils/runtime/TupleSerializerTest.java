@@ -0,0 +1,208 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+package eu.stratosphere.api.java.typeutils.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import eu.stratosphere.api.common.typeutils.Serializer;
+import eu.stratosphere.api.common.typeutils.base.StringSerializer;
+import eu.stratosphere.api.java.tuple.Tuple;
+import eu.stratosphere.api.java.tuple.Tuple2;
+import eu.stratosphere.api.java.tuple.Tuple3;
+import eu.stratosphere.api.java.typeutils.TupleTypeInfo;
+
+/**
+ * Checks the round trip of tuples through the serializer, for the fields that are serialized directly (int, long,
+ * double and String) as well as for fields that go through their serializer.
+ */
+public class TupleSerializerTest {
+
+	@Test
+	public void testIntFields() {
+		Serializer<Tuple2<Integer, Integer>> serializer = 
+			TupleTypeInfo.<Tuple2<Integer, Integer>>getBasicTupleTypeInfo(Integer.class, Integer.class).createSerializer();
+		
+		assertEquals(8, serializer.getLength());
+		check(serializer, 
+			new Tuple2<Integer, Integer>(0, 1), 
+			new Tuple2<Integer, Integer>(Integer.MIN_VALUE, Integer.MAX_VALUE),
+			new Tuple2<Integer, Integer>(-1, -65536));
+	}
+	
+	@Test
+	public void testLongFields() {
+		Serializer<Tuple2<Long, Integer>> serializer = 
+			TupleTypeInfo.<Tuple2<Long, Integer>>getBasicTupleTypeInfo(Long.class, Integer.class).createSerializer();
+		
+		assertEquals(12, serializer.getLength());
+		check(serializer, 
+			new Tuple2<Long, Integer>(0L, 1), 
+			new Tuple2<Long, Integer>(Long.MIN_VALUE, Integer.MIN_VALUE),
+			new Tuple2<Long, Integer>(Long.MAX_VALUE, -1));
+	}
+	
+	@Test
+	public void testDoubleFields() {
+		Serializer<Tuple2<Double, Double>> serializer = 
+			TupleTypeInfo.<Tuple2<Double, Double>>getBasicTupleTypeInfo(Double.class, Double.class).createSerializer();
+		
+		assertEquals(16, serializer.getLength());
+		check(serializer, 
+			new Tuple2<Double, Double>(0.0, -0.0), 
+			new Tuple2<Double, Double>(Double.NaN, Double.MIN_VALUE),
+			new Tuple2<Double, Double>(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY),
+			new Tuple2<Double, Double>(-1.5, Double.MAX_VALUE));
+	}
+	
+	@Test
+	public void testStringFields() {
+		Serializer<Tuple3<String, Integer, String>> serializer = TupleTypeInfo.<Tuple3<String, Integer, String>>
+			getBasicTupleTypeInfo(String.class, Integer.class, String.class).createSerializer();
+		
+		// a long string needs more than one byte to encode its length, and non-ascii chars more than one per char
+		char[] chars = new char[300];
+		Arrays.fill(chars, 'ä');
+		String longString = new String(chars);
+		
+		assertEquals(-1, serializer.getLength());
+		check(serializer, 
+			new Tuple3<String, Integer, String>("", 0, ""), 
+			new Tuple3<String, Integer, String>("a", -1, "世界"),
+			new Tuple3<String, Integer, String>(longString, Integer.MAX_VALUE, "abc"));
+	}
+	
+	@Test
+	public void testNullStringField() {
+		Serializer<Tuple2<String, Integer>> serializer = 
+			TupleTypeInfo.<Tuple2<String, Integer>>getBasicTupleTypeInfo(String.class, Integer.class).createSerializer();
+		
+		// null strings are rejected just like by the string serializer itself
+		try {
+			StringSerializer.INSTANCE.serialize(null, new TestOutputView());
+			fail("The string serializer accepted a null string.");
+		}
+		catch (NullPointerException e) {
+			// expected
+		}
+		catch (IOException e) {
+			fail(e.getMessage());
+		}
+		
+		try {
+			serializer.serialize(new Tuple2<String, Integer>(null, 1), new TestOutputView());
+			fail("The tuple serializer accepted a null string.");
+		}
+		catch (NullPointerException e) {
+			// expected
+		}
+		catch (IOException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testGenericFields() {
+		// char and boolean fields are serialized through their serializers
+		Serializer<Tuple3<Character, Integer, Boolean>> fixedSerializer = TupleTypeInfo.<Tuple3<Character, Integer, Boolean>>
+			getBasicTupleTypeInfo(Character.class, Integer.class, Boolean.class).createSerializer();
+		
+		assertEquals(2 + 4 + 1, fixedSerializer.getLength());
+		check(fixedSerializer,
+			new Tuple3<Character, Integer, Boolean>('a', 1, true),
+			new Tuple3<Character, Integer, Boolean>('世', Integer.MIN_VALUE, false));
+		
+		Serializer<Tuple2<Character, String>> variableSerializer = TupleTypeInfo.<Tuple2<Character, String>>
+			getBasicTupleTypeInfo(Character.class, String.class).createSerializer();
+		
+		assertEquals(-1, variableSerializer.getLength());
+		check(variableSerializer,
+			new Tuple2<Character, String>('a', ""),
+			new Tuple2<Character, String>('b', "some string"));
+	}
+	
+	@Test
+	public void testObjectCopy() {
+		Serializer<Tuple3<String, Integer, String>> serializer = TupleTypeInfo.<Tuple3<String, Integer, String>>
+			getBasicTupleTypeInfo(String.class, Integer.class, String.class).createSerializer();
+		
+		Tuple3<String, Integer, String> original = new Tuple3<String, Integer, String>("a", 42, "");
+		Tuple3<String, Integer, String> reuse = serializer.createInstance();
+		
+		assertSame(reuse, serializer.copy(original, reuse));
+		assertFieldsEqual(original, reuse);
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Serializes the given tuples into one stream and checks that they are deserialized and copied in binary form
+	 * correctly. For fixed-length tuples, the length of each serialized tuple is checked as well.
+	 */
+	private static <T extends Tuple> void check(Serializer<T> serializer, T... tuples) {
+		try {
+			final TestOutputView out = new TestOutputView();
+			for (T tuple : tuples) {
+				final int before = out.size();
+				serializer.serialize(tuple, out);
+				if (serializer.getLength() > 0) {
+					assertEquals(serializer.getLength(), out.size() - before);
+				}
+			}
+			
+			// deserialize into the same reuse object, which must not leak previous values
+			TestInputView in = out.getInputView();
+			T reuse = serializer.createInstance();
+			for (T tuple : tuples) {
+				reuse = serializer.deserialize(reuse, in);
+				assertFieldsEqual(tuple, reuse);
+			}
+			assertEquals(0, in.getNumRemainingBytes());
+			
+			// the binary copy must reproduce the serialized data exactly
+			in = out.getInputView();
+			final TestOutputView copy = new TestOutputView();
+			for (int i = 0; i < tuples.length; i++) {
+				serializer.copy(in, copy);
+			}
+			assertEquals(0, in.getNumRemainingBytes());
+			assertArrayEquals(out.getWrittenBytes(), copy.getWrittenBytes());
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+	
+	private static void assertFieldsEqual(Tuple expected, Tuple actual) {
+		assertEquals(expected.getClass(), actual.getClass());
+		for (int i = 0; i < Tuple.MAX_ARITY; i++) {
+			final Object expectedField;
+			try {
+				expectedField = expected.getField(i);
+			}
+			catch (IndexOutOfBoundsException e) {
+				// all fields of the tuple have been checked
+				return;
+			}
+			assertEquals(expectedField, actual.getField(i));
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.nephele.event.job;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import eu.stratosphere.core.io.StringRecord;
+import eu.stratosphere.nephele.jobgraph.JobVertexID;
+
+/**
+ * Recovery events are transmitted from the job manager to the job client in order to inform the user about the
+ * recovery of a failed subtask. The recovery time is the time between the failure of the subtask and the moment its
+ * restarted instance is running again.
+ * 
+ */
+public class RecoveryEvent extends AbstractEvent {
+
+	/**
+	 * The ID of the job vertex this event belongs to.
+	 */
+	private JobVertexID jobVertexID;
+
+	/**
+	 * The name of the job vertex this event belongs to.
+	 */
+	private String jobVertexName;
+
+	/**
+	 * The number of subtasks the corresponding vertex has been split into at runtime.
+	 */
+	private int totalNumberOfSubtasks;
+
+	/**
+	 * The index of the subtask that this event belongs to.
+	 */
+	private int indexOfSubtask;
+
+	/**
+	 * The time it took to recover the subtask in milliseconds.
+	 */
+	private long recoveryTime;
+
+	/**
+	 * Constructs a new recovery event object.
+	 * 
+	 * @param timestamp
+	 *        the timestamp of the event
+	 * @param jobVertexID
+	 *        the ID of the job vertex this event belongs to
+	 * @param jobVertexName
+	 *        the name of the job vertex this event belongs to
+	 * @param totalNumberOfSubtasks
+	 *        the number of subtasks the corresponding vertex has been split into at runtime
+	 * @param indexOfSubtask
+	 *        the index of the subtask that this event belongs to
+	 * @param recoveryTime
+	 *        the time it took to recover the subtask in milliseconds
+	 */
+	public RecoveryEvent(final long timestamp, final JobVertexID jobVertexID, final String jobVertexName,
+			final int totalNumberOfSubtasks, final int indexOfSubtask, final long recoveryTime) {
+		super(timestamp);
+		this.jobVertexID = jobVertexID;
+		this.jobVertexName = jobVertexName;
+		this.totalNumberOfSubtasks = totalNumberOfSubtasks;
+		this.indexOfSubtask = indexOfSubtask;
+		this.recoveryTime = recoveryTime;
+	}
+
+	/**
+	 * Constructs a new recovery event object. This constructor is
+	 * required for the deserialization process and is not supposed
+	 * to be called directly.
+	 */
+	public RecoveryEvent() {
+		super();
+
+		this.jobVertexID = new JobVertexID();
+		this.jobVertexName = null;
+		this.totalNumberOfSubtasks = -1;
+		this.indexOfSubtask = -1;
+		this.recoveryTime = -1L;
+	}
+
+
+	@Override
+	public void read(final DataInput in) throws IOException {
+
+		super.read(in);
+
+		this.jobVertexID.read(in);
+		this.jobVertexName = StringRecord.readString(in);
+		this.totalNumberOfSubtasks = in.readInt();
+		this.indexOfSubtask = in.readInt();
+		this.recoveryTime = in.readLong();
+	}
+
+
+	@Override
+	public void write(final DataOutput out) throws IOException {
+
+		super.write(out);
+
+		this.jobVertexID.write(out);
+		StringRecord.writeString(out, this.jobVertexName);
+		out.writeInt(this.totalNumberOfSubtasks);
+		out.writeInt(this.indexOfSubtask);
+		out.writeLong(this.recoveryTime);
+	}
+
+	/**
+	 * Returns the ID of the job vertex this event belongs to.
+	 * 
+	 * @return the ID of the job vertex this event belongs to
+	 */
+	public JobVertexID getJobVertexID() {
+		return jobVertexID;
+	}
+
+	/**
+	 * Returns the name of the job vertex this event belongs to.
+	 * 
+	 * @return the name of the job vertex, possibly <code>null</code>
+	 */
+	public String getJobVertexName() {
+		return jobVertexName;
+	}
+
+	/**
+	 * Returns the number of subtasks the corresponding vertex has been
+	 * split into at runtime.
+	 * 
+	 * @return the number of subtasks
+	 */
+	public int getTotalNumberOfSubtasks() {
+		return totalNumberOfSubtasks;
+	}
+
+	/**
+	 * Returns the index of the subtask that this event belongs to.
+	 * 
+	 * @return the index of the subtask
+	 */
+	public int getIndexOfSubtask() {
+		return indexOfSubtask;
+	}
+
+	/**
+	 * Returns the time it took to recover the subtask.
+	 * 
+	 * @return the recovery time in milliseconds
+	 */
+	public long getRecoveryTime() {
+		return recoveryTime;
+	}
+
+
+	public String toString() {
+
+		return timestampToString(getTimestamp()) + ":\t" + this.jobVertexName + " (" + (this.indexOfSubtask + 1) + "/"
+			+ this.totalNumberOfSubtasks + ") recovered after " + this.recoveryTime + " ms";
+	}
+
+
+	@Override
+	public boolean equals(final Object obj) {
+
+		if (!super.equals(obj)) {
+			return false;
+		}
+
+		if (!(obj instanceof RecoveryEvent)) {
+			return false;
+		}
+
+		final RecoveryEvent recoveryEvent = (RecoveryEvent) obj;
+
+		if (!this.jobVertexID.equals(recoveryEvent.getJobVertexID())) {
+			return false;
+		}
+
+		if (this.jobVertexName != null && recoveryEvent.getJobVertexName() != null) {
+			if (!this.jobVertexName.equals(recoveryEvent.getJobVertexName())) {
+				return false;
+			}
+		} else {
+			if (this.jobVertexName != recoveryEvent.getJobVertexName()) {
+				return false;
+			}
+		}
+
+		if (this.totalNumberOfSubtasks != recoveryEvent.getTotalNumberOfSubtasks()) {
+			return false;
+		}
+
+		if (this.indexOfSubtask != recoveryEvent.getIndexOfSubtask()) {
+			return false;
+		}
+
+		if (this.recoveryTime != recoveryEvent.getRecoveryTime()) {
+			return false;
+		}
+
+		return true;
+	}
+
+
+	@Override
+	public int hashCode() {
+
+		return super.hashCode();
+	}
+}
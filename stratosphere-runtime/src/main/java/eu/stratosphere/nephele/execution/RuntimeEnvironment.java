@@ -260,6 +260,9 @@ public class RuntimeEnvironment implements Environment, Runnable {
 				case INMEMORY:
 					og.createInMemoryOutputChannel(og, cdd.getOutputChannelID(), cdd.getInputChannelID());
 					break;
+				case FILE:
+					og.createFileOutputChannel(og, cdd.getOutputChannelID(), cdd.getInputChannelID());
+					break;
 				default:
 					throw new IllegalStateException("Unknown channel type");
 				}
@@ -284,6 +287,9 @@ public class RuntimeEnvironment implements Environment, Runnable {
 				case INMEMORY:
 					ig.createInMemoryInputChannel(ig, cdd.getInputChannelID(), cdd.getOutputChannelID());
 					break;
+				case FILE:
+					ig.createFileInputChannel(ig, cdd.getInputChannelID(), cdd.getOutputChannelID());
+					break;
 				default:
 					throw new IllegalStateException("Unknown channel type");
 				}
@@ -21,6 +21,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -869,76 +870,76 @@ public class ExecutionGraph implements ExecutionListener {
 		}
 	}
 
+	/**
+	 * Assigns the group vertices to execution stages. Group vertices connected by network or in-memory channels must
+	 * run at the same time and therefore belong to the same stage. A file channel persists its data, so the consumer
+	 * of a file channel is placed in a later stage than its producer and is only scheduled once the producer's stage
+	 * is complete.
+	 */
 	public void repairStages() {
 
 		final Map<ExecutionGroupVertex, Integer> stageNumbers = new HashMap<ExecutionGroupVertex, Integer>();
-		ExecutionGroupVertexIterator it = new ExecutionGroupVertexIterator(this, true, -1);
-
+		final List<ExecutionGroupVertex> groupVertices = new ArrayList<ExecutionGroupVertex>();
+		final ExecutionGroupVertexIterator it = new ExecutionGroupVertexIterator(this, true, -1);
 		while (it.hasNext()) {
-
 			final ExecutionGroupVertex groupVertex = it.next();
-			int precedingNumber = 0;
-			if (stageNumbers.containsKey(groupVertex)) {
-				precedingNumber = stageNumbers.get(groupVertex).intValue();
-			} else {
-				stageNumbers.put(groupVertex, Integer.valueOf(precedingNumber));
-			}
+			stageNumbers.put(groupVertex, Integer.valueOf(0));
+			groupVertices.add(groupVertex);
+		}
 
-			for (int i = 0; i < groupVertex.getNumberOfForwardLinks(); i++) {
+		// Raise the stage numbers until all edges are satisfied. Stage numbers only grow, so a graph which cannot be
+		// split into consistent stages eventually exceeds the number of group vertices.
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+
+			for (final ExecutionGroupVertex groupVertex : groupVertices) {
+				for (int i = 0; i < groupVertex.getNumberOfForwardLinks(); i++) {
+
+					final ExecutionGroupEdge edge = groupVertex.getForwardEdge(i);
+					final ExecutionGroupVertex source = edge.getSourceVertex();
+					final ExecutionGroupVertex target = edge.getTargetVertex();
+					final int sourceStage = stageNumbers.get(source).intValue();
+					final int targetStage = stageNumbers.get(target).intValue();
+
+					if (edge.getChannelType() == ChannelType.FILE) {
+						if (targetStage <= sourceStage) {
+							stageNumbers.put(target, Integer.valueOf(sourceStage + 1));
+							changed = true;
+						}
+					} else if (sourceStage != targetStage) {
+						// Move pipelined vertices to the higher stage
+						final int stage = Math.max(sourceStage, targetStage);
+						stageNumbers.put(source, Integer.valueOf(stage));
+						stageNumbers.put(target, Integer.valueOf(stage));
+						changed = true;
+					}
 
-				final ExecutionGroupEdge edge = groupVertex.getForwardEdge(i);
-				if (!stageNumbers.containsKey(edge.getTargetVertex())) {
-					// Target vertex has not yet been discovered
-					// Same stage as preceding vertex
-					stageNumbers.put(edge.getTargetVertex(), Integer.valueOf(precedingNumber));
-				} else {
-					final int stageNumber = stageNumbers.get(edge.getTargetVertex()).intValue();
-					if (stageNumber != precedingNumber) {
-						stageNumbers.put(edge.getTargetVertex(), (int) Math.max(precedingNumber, stageNumber));
+					if (stageNumbers.get(target).intValue() >= groupVertices.size()) {
+						throw new IllegalStateException(source + " and " + target
+							+ " cannot be assigned to consistent stages, check the file channels of the job");
 					}
 				}
 			}
 		}
 
-		// Traverse the graph backwards (starting from the output vertices) to make sure vertices are allocated in a
-		// stage as high as possible
-		it = new ExecutionGroupVertexIterator(this, false, -1);
-
-		while (it.hasNext()) {
-
-			final ExecutionGroupVertex groupVertex = it.next();
-			final int succeedingNumber = stageNumbers.get(groupVertex);
-
-			for (int i = 0; i < groupVertex.getNumberOfBackwardLinks(); i++) {
-
-				final ExecutionGroupEdge edge = groupVertex.getBackwardEdge(i);
-				final int stageNumber = stageNumbers.get(edge.getSourceVertex());
-				if (stageNumber != succeedingNumber) {
-					throw new IllegalStateException(edge.getSourceVertex() + " and " + edge.getTargetVertex()
-						+ " are assigned to different stages");
-				}
-			}
+		// Stages may have been emptied by raising their members, so number the remaining stages consecutively
+		final Set<Integer> usedStageNumbers = new TreeSet<Integer>(stageNumbers.values());
+		final Map<Integer, Integer> consecutiveStageNumbers = new HashMap<Integer, Integer>();
+		for (final Integer stageNumber : usedStageNumbers) {
+			consecutiveStageNumbers.put(stageNumber, Integer.valueOf(consecutiveStageNumbers.size()));
 		}
 
 		// Finally, assign the new stage numbers
 		this.stages.clear();
-		final Iterator<Map.Entry<ExecutionGroupVertex, Integer>> it2 = stageNumbers.entrySet().iterator();
-		while (it2.hasNext()) {
+		for (int i = 0; i < consecutiveStageNumbers.size(); ++i) {
+			this.stages.add(new ExecutionStage(this, i));
+		}
 
-			final Map.Entry<ExecutionGroupVertex, Integer> entry = it2.next();
-			final ExecutionGroupVertex groupVertex = entry.getKey();
-			final int stageNumber = entry.getValue().intValue();
-			// Prevent out of bounds exceptions
-			while (this.stages.size() <= stageNumber) {
-				this.stages.add(null);
-			}
-			ExecutionStage executionStage = this.stages.get(stageNumber);
-			// If the stage not yet exists,
-			if (executionStage == null) {
-				executionStage = new ExecutionStage(this, stageNumber);
-				this.stages.set(stageNumber, executionStage);
-			}
+		for (final ExecutionGroupVertex groupVertex : groupVertices) {
 
+			final int stageNumber = consecutiveStageNumbers.get(stageNumbers.get(groupVertex)).intValue();
+			final ExecutionStage executionStage = this.stages.get(stageNumber);
 			executionStage.addStageMember(groupVertex);
 			groupVertex.setExecutionStage(executionStage);
 		}
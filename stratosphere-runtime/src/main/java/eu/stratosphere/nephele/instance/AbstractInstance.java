@@ -286,6 +286,20 @@ public abstract class AbstractInstance extends NetworkNode {
 		getTaskManagerProxy().invalidateLookupCacheEntries(channelIDs);
 	}
 
+	/**
+	 * Discards the data the output channels of file channels belonging to the given job have stored at the remote
+	 * task manager.
+	 * 
+	 * @param jobID
+	 *        the ID of the job whose file channel data shall be discarded
+	 * @throws IOException
+	 *         thrown if an error occurs during this remote procedure call
+	 */
+	public synchronized void discardFileChannels(final JobID jobID) throws IOException {
+
+		getTaskManagerProxy().discardFileChannels(jobID);
+	}
+
 	/**
 	 * Destroys all RPC stub objects attached to this instance.
 	 */
@@ -130,6 +130,15 @@ public abstract class AbstractRecordWriter<T extends IOReadableWritable> impleme
 		this.outputGate.publishEvent(event);
 	}
 
+	/**
+	 * Gets the channel selector that distributes the records of this writer among the output channels.
+	 * 
+	 * @return The channel selector of this writer.
+	 */
+	public ChannelSelector<T> getChannelSelector() {
+		return this.outputGate.getChannelSelector();
+	}
+
 	public void flush() throws IOException, InterruptedException {
 		this.outputGate.flush();
 	}
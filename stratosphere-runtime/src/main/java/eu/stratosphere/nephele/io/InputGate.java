@@ -19,6 +19,7 @@ import eu.stratosphere.core.io.IOReadableWritable;
 import eu.stratosphere.nephele.event.task.AbstractTaskEvent;
 import eu.stratosphere.nephele.io.channels.AbstractInputChannel;
 import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.io.channels.bytebuffered.FileInputChannel;
 import eu.stratosphere.nephele.io.channels.bytebuffered.InMemoryInputChannel;
 import eu.stratosphere.nephele.io.channels.bytebuffered.NetworkInputChannel;
 
@@ -123,6 +124,20 @@ public interface InputGate<T extends IOReadableWritable> extends Gate<T> {
 	InMemoryInputChannel<T> createInMemoryInputChannel(InputGate<T> inputGate, ChannelID channelID,
 			ChannelID connectedChannelID);
 
+	/**
+	 * Creates a new file input channel and assigns it to the given input gate.
+	 * 
+	 * @param inputGate
+	 *        the input gate the channel shall be assigned to
+	 * @param channelID
+	 *        the ID of the channel
+	 * @param connectedChannelID
+	 *        the ID of the channel this channel is connected to
+	 * @return the new file input channel
+	 */
+	FileInputChannel<T> createFileInputChannel(InputGate<T> inputGate, ChannelID channelID,
+			ChannelID connectedChannelID);
+
 	/**
 	 * Registers a {@link RecordAvailabilityListener} with this input gate.
 	 * 
@@ -19,6 +19,7 @@ import java.util.List;
 import eu.stratosphere.core.io.IOReadableWritable;
 import eu.stratosphere.nephele.io.channels.AbstractOutputChannel;
 import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.io.channels.bytebuffered.FileOutputChannel;
 import eu.stratosphere.nephele.io.channels.bytebuffered.InMemoryOutputChannel;
 import eu.stratosphere.nephele.io.channels.bytebuffered.NetworkOutputChannel;
 
@@ -146,4 +147,18 @@ public interface OutputGate<T extends IOReadableWritable> extends Gate<T> {
 	 */
 	InMemoryOutputChannel<T> createInMemoryOutputChannel(OutputGate<T> outputGate, ChannelID channelID,
 			ChannelID connectedChannelID);
+
+	/**
+	 * Creates a new file output channel and assigns it to the given output gate.
+	 * 
+	 * @param outputGate
+	 *        the output gate the channel shall be assigned to
+	 * @param channelID
+	 *        the ID of the channel
+	 * @param connectedChannelID
+	 *        the ID of the channel this channel is connected to
+	 * @return the new file output channel
+	 */
+	FileOutputChannel<T> createFileOutputChannel(OutputGate<T> outputGate, ChannelID channelID,
+			ChannelID connectedChannelID);
 }
@@ -29,6 +29,7 @@ import eu.stratosphere.nephele.event.task.AbstractTaskEvent;
 import eu.stratosphere.nephele.execution.Environment;
 import eu.stratosphere.nephele.io.channels.AbstractInputChannel;
 import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.io.channels.bytebuffered.FileInputChannel;
 import eu.stratosphere.nephele.io.channels.bytebuffered.NetworkInputChannel;
 import eu.stratosphere.nephele.io.channels.bytebuffered.InMemoryInputChannel;
 import eu.stratosphere.nephele.jobgraph.JobID;
@@ -174,6 +175,18 @@ public class RuntimeInputGate<T extends IOReadableWritable> extends AbstractGate
 	}
 
 
+	@Override
+	public FileInputChannel<T> createFileInputChannel(final InputGate<T> inputGate, final ChannelID channelID,
+			final ChannelID connectedChannelID) {
+
+		final FileInputChannel<T> efic = new FileInputChannel<T>(inputGate, this.inputChannels.size(),
+			this.deserializerFactory.createDeserializer(), channelID, connectedChannelID);
+		addInputChannel(efic);
+
+		return efic;
+	}
+
+
 	@Override
 	public InputChannelResult readRecord(T target) throws IOException, InterruptedException {
 
@@ -27,6 +27,7 @@ import eu.stratosphere.nephele.execution.Environment;
 import eu.stratosphere.nephele.io.channels.AbstractOutputChannel;
 import eu.stratosphere.nephele.io.channels.ChannelID;
 import eu.stratosphere.nephele.io.channels.ChannelType;
+import eu.stratosphere.nephele.io.channels.bytebuffered.FileOutputChannel;
 import eu.stratosphere.nephele.io.channels.bytebuffered.NetworkOutputChannel;
 import eu.stratosphere.nephele.io.channels.bytebuffered.InMemoryOutputChannel;
 import eu.stratosphere.nephele.jobgraph.JobID;
@@ -208,6 +209,18 @@ public class RuntimeOutputGate<T extends IOReadableWritable> extends AbstractGat
 	}
 
 
+	@Override
+	public FileOutputChannel<T> createFileOutputChannel(final OutputGate<T> outputGate,
+			final ChannelID channelID, final ChannelID connectedChannelID) {
+
+		final FileOutputChannel<T> efoc = new FileOutputChannel<T>(outputGate, this.outputChannels.size(),
+			channelID, connectedChannelID);
+		addOutputChannel(efoc);
+
+		return efoc;
+	}
+
+
 	@Override
 	public void requestClose() throws IOException, InterruptedException {
 		// Close all output channels
@@ -239,8 +252,9 @@ public class RuntimeOutputGate<T extends IOReadableWritable> extends AbstractGat
 
 		if (this.isBroadcast) {
 
-			if (getChannelType() == ChannelType.INMEMORY) {
+			if (getChannelType() != ChannelType.NETWORK) {
 
+				// In-memory and file channels have no multicast support, so every channel gets its own copy
 				final int numberOfOutputChannels = this.outputChannels.size();
 				for (int i = 0; i < numberOfOutputChannels; ++i) {
 					this.outputChannels.get(i).writeRecord(record);
@@ -27,5 +27,11 @@ public enum ChannelType {
 	/**
 	 * Enumeration type for in-memory channels.
 	 */
-	INMEMORY
+	INMEMORY,
+
+	/**
+	 * Enumeration type for file channels. The producer writes the channel's data to its local disk, from where the
+	 * consumer fetches it over the network once it has been scheduled. File channels separate execution stages.
+	 */
+	FILE
 }
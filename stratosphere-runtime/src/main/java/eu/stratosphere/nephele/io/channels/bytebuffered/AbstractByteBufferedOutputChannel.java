@@ -101,7 +101,7 @@ public abstract class AbstractByteBufferedOutputChannel<T extends IOReadableWrit
 				flush();
 			}
 
-			if (getType() == ChannelType.INMEMORY || !isBroadcastChannel() || getChannelIndex() == 0) {
+			if (getType() != ChannelType.NETWORK || !isBroadcastChannel() || getChannelIndex() == 0) {
 				transferEvent(new ByteBufferedChannelCloseEvent());
 				flush();
 			}
@@ -0,0 +1,34 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.nephele.io.channels.bytebuffered;
+
+import eu.stratosphere.core.io.IOReadableWritable;
+import eu.stratosphere.nephele.io.InputGate;
+import eu.stratosphere.nephele.io.RecordDeserializer;
+import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.io.channels.ChannelType;
+
+public final class FileInputChannel<T extends IOReadableWritable> extends AbstractByteBufferedInputChannel<T> {
+
+	public FileInputChannel(InputGate<T> inputGate, int channelIndex, RecordDeserializer<T> deserializer,
+			ChannelID channelID, ChannelID connectedChannelID) {
+		super(inputGate, channelIndex, deserializer, channelID, connectedChannelID);
+	}
+
+	@Override
+	public ChannelType getType() {
+
+		return ChannelType.FILE;
+	}
+}
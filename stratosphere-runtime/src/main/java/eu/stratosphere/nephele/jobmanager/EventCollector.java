@@ -26,6 +26,7 @@ import eu.stratosphere.nephele.event.job.ExecutionStateChangeEvent;
 import eu.stratosphere.nephele.event.job.JobEvent;
 import eu.stratosphere.nephele.event.job.ManagementEvent;
 import eu.stratosphere.nephele.event.job.RecentJobEvent;
+import eu.stratosphere.nephele.event.job.RecoveryEvent;
 import eu.stratosphere.nephele.event.job.VertexAssignmentEvent;
 import eu.stratosphere.nephele.event.job.VertexEvent;
 import eu.stratosphere.nephele.execution.ExecutionListener;
@@ -81,6 +82,11 @@ public final class EventCollector extends TimerTask implements ProfilingListener
 		 */
 		private final ExecutionVertex vertex;
 
+		/**
+		 * The time the vertex has failed or <code>-1</code> if it is not being recovered.
+		 */
+		private long failureTimestamp = -1L;
+
 		/**
 		 * Constructs a new execution listener object.
 		 * 
@@ -119,6 +125,15 @@ public final class EventCollector extends TimerTask implements ProfilingListener
 
 			this.eventCollector.updateManagementGraph(jobID, executionStateChangeEvent);
 			this.eventCollector.addEvent(jobID, executionStateChangeEvent);
+
+			// Report the recovery time once a failed vertex is running again
+			if (newExecutionState == ExecutionState.FAILED) {
+				this.failureTimestamp = timestamp;
+			} else if (newExecutionState == ExecutionState.RUNNING && this.failureTimestamp >= 0L) {
+				this.eventCollector.addEvent(jobID, new RecoveryEvent(timestamp, jobVertexID, taskName,
+					totalNumberOfSubtasks, indexInSubtaskGroup, timestamp - this.failureTimestamp));
+				this.failureTimestamp = -1L;
+			}
 		}
 
 		/**
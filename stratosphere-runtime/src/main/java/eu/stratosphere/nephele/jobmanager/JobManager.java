@@ -94,6 +94,7 @@ import eu.stratosphere.nephele.instance.InstanceType;
 import eu.stratosphere.nephele.instance.InstanceTypeDescription;
 import eu.stratosphere.nephele.instance.local.LocalInstanceManager;
 import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.io.channels.ChannelType;
 import eu.stratosphere.nephele.ipc.RPC;
 import eu.stratosphere.nephele.ipc.Server;
 import eu.stratosphere.nephele.jobgraph.AbstractJobVertex;
@@ -796,11 +797,14 @@ public class JobManager implements DeploymentManager, ExtendedManagementProtocol
 
 			// Check execution state
 			final ExecutionState executionState = connectedVertex.getExecutionState();
-			if (executionState == ExecutionState.FINISHED) {
+			final boolean isFileChannel = (edge.getOutputGate().getChannelType() == ChannelType.FILE);
+			if (executionState == ExecutionState.FINISHED && !isFileChannel) {
 				return ConnectionInfoLookupResponse.createReceiverFoundAndReady();
 			}
 
-			if (executionState != ExecutionState.RUNNING && executionState != ExecutionState.FINISHING) {
+			// The task manager of a finished producer still serves the data of its file channels
+			if (executionState != ExecutionState.RUNNING && executionState != ExecutionState.FINISHING
+				&& !(executionState == ExecutionState.FINISHED && isFileChannel)) {
 				// LOG.info("Created receiverNotReady for " + connectedVertex + " in state " + executionState + " 2");
 				return ConnectionInfoLookupResponse.createReceiverNotReady();
 			}
@@ -819,7 +823,7 @@ public class JobManager implements DeploymentManager, ExtendedManagementProtocol
 			}
 		}
 
-		if (edge.isBroadcast()) {
+		if (edge.isBroadcast() && edge.getOutputGate().getChannelType() != ChannelType.FILE) {
 
 			return multicastManager.lookupConnectionInfo(caller, jobID, sourceChannelID);
 
@@ -1049,7 +1053,66 @@ public class JobManager implements DeploymentManager, ExtendedManagementProtocol
 			|| newJobStatus == InternalJobStatus.FINISHED) {
 			// Unregister job for Nephele's monitoring, optimization components, and dynamic input split assignment
 			unregisterJob(executionGraph);
+
+			// The intermediate results stored by the file channels are no longer needed
+			discardFileChannels(executionGraph);
+		}
+	}
+
+	/**
+	 * Asks the task managers which have run the producers of file channels to discard the data they have stored for
+	 * the given job.
+	 * 
+	 * @param executionGraph
+	 *        the execution graph of the job whose file channel data shall be discarded
+	 */
+	private void discardFileChannels(final ExecutionGraph executionGraph) {
+
+		final Set<AbstractInstance> instances = new HashSet<AbstractInstance>();
+
+		final Iterator<ExecutionVertex> it = new ExecutionGraphIterator(executionGraph, true);
+		while (it.hasNext()) {
+
+			final ExecutionVertex vertex = it.next();
+			for (int i = 0; i < vertex.getNumberOfOutputGates(); ++i) {
+
+				if (vertex.getOutputGate(i).getChannelType() != ChannelType.FILE) {
+					continue;
+				}
+
+				final AbstractInstance instance = vertex.getAllocatedResource().getInstance();
+				if (!(instance instanceof DummyInstance)) {
+					instances.add(instance);
+				}
+				break;
+			}
+		}
+
+		if (instances.isEmpty()) {
+			return;
 		}
+
+		final JobID jobID = executionGraph.getJobID();
+
+		// Send requests to task managers from separate thread
+		final Runnable requestRunnable = new Runnable() {
+
+			@Override
+			public void run() {
+
+				final Iterator<AbstractInstance> it2 = instances.iterator();
+				while (it2.hasNext()) {
+					try {
+						it2.next().discardFileChannels(jobID);
+					} catch (IOException ioe) {
+						LOG.error(StringUtils.stringifyException(ioe));
+					}
+				}
+			}
+		};
+
+		// Hand over to the executor service
+		this.executorService.execute(requestRunnable);
 	}
 
 
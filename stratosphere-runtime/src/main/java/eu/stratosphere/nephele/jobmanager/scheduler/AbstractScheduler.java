@@ -213,6 +213,10 @@ public abstract class AbstractScheduler implements InstanceListener {
 			case INMEMORY:
 				deployTarget = true;
 				break;
+			case FILE:
+				// The target belongs to a later stage and is deployed once this stage is complete
+				deployTarget = false;
+				break;
 			default:
 				throw new IllegalStateException("Unknown channel type");
 			}
@@ -531,23 +535,6 @@ public abstract class AbstractScheduler implements InstanceListener {
 		return this.deploymentManager;
 	}
 
-	protected void replayCheckpointsFromPreviousStage(final ExecutionGraph executionGraph) {
-
-		final int currentStageIndex = executionGraph.getIndexOfCurrentExecutionStage();
-		final ExecutionStage previousStage = executionGraph.getStage(currentStageIndex - 1);
-
-		final List<ExecutionVertex> verticesToBeReplayed = new ArrayList<ExecutionVertex>();
-
-		for (int i = 0; i < previousStage.getNumberOfOutputExecutionVertices(); ++i) {
-
-			final ExecutionVertex vertex = previousStage.getOutputExecutionVertex(i);
-			vertex.updateExecutionState(ExecutionState.ASSIGNED);
-			verticesToBeReplayed.add(vertex);
-		}
-
-		deployAssignedVertices(verticesToBeReplayed);
-	}
-
 	/**
 	 * Returns a map of vertices to be restarted once they have switched to their <code>CANCELED</code> state.
 	 * 
@@ -33,6 +33,7 @@ import eu.stratosphere.nephele.executiongraph.ExecutionVertexID;
 import eu.stratosphere.nephele.instance.AbstractInstance;
 import eu.stratosphere.nephele.instance.DummyInstance;
 import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.io.channels.ChannelType;
 import eu.stratosphere.nephele.taskmanager.TaskCancelResult;
 import eu.stratosphere.nephele.taskmanager.AbstractTaskResult.ReturnCode;
 import eu.stratosphere.nephele.util.SerializableHashSet;
@@ -68,7 +69,12 @@ public final class RecoveryLogic {
 
 			final Set<ExecutionVertex> verticesToBeCanceled = new HashSet<ExecutionVertex>();
 
-			findVerticesToRestart(failedVertex, verticesToBeCanceled);
+			if (!findVerticesToRestart(failedVertex, verticesToBeCanceled)) {
+				return false;
+			}
+
+			LOG.info("Recovery of " + failedVertex + " restarts " + verticesToBeCanceled.size()
+				+ " additional vertices");
 
 			// Restart all predecessors without checkpoint
 			final Iterator<ExecutionVertex> cancelIterator = verticesToBeCanceled.iterator();
@@ -130,31 +136,75 @@ public final class RecoveryLogic {
 		return ExecutionState.CREATED;
 	}
 
-	private static void findVerticesToRestart(final ExecutionVertex failedVertex,
+	/**
+	 * Collects the vertices which must be restarted together with the failed vertex. Starting from the failed vertex,
+	 * the search follows the input channels upstream. It stops at producers whose output is persisted, i.e. finished
+	 * producers of file channels whose task manager still holds the data. These producers are not restarted, their
+	 * data is replayed to the restarted consumers instead.
+	 * 
+	 * @param failedVertex
+	 *        the vertex which has failed
+	 * @param verticesToBeCanceled
+	 *        set to collect the vertices which must be canceled and restarted
+	 * @return <code>true</code> if all vertices whose output is required can be restarted, <code>false</code> if the
+	 *         output of a finished vertex has been lost together with its instance
+	 */
+	static boolean findVerticesToRestart(final ExecutionVertex failedVertex,
 			final Set<ExecutionVertex> verticesToBeCanceled) {
 
 		final Queue<ExecutionVertex> verticesToTest = new ArrayDeque<ExecutionVertex>();
 		final Set<ExecutionVertex> visited = new HashSet<ExecutionVertex>();
 		verticesToTest.add(failedVertex);
+		visited.add(failedVertex);
 
 		while (!verticesToTest.isEmpty()) {
 
 			final ExecutionVertex vertex = verticesToTest.poll();
 
-			// Predecessors must be either checkpoints or need to be restarted, too
-			for (int j = 0; j < vertex.getNumberOfPredecessors(); j++) {
-				final ExecutionVertex predecessor = vertex.getPredecessor(j);
+			// Predecessors must either have persisted their output or need to be restarted, too
+			for (int i = 0; i < vertex.getNumberOfInputGates(); ++i) {
 
-				if (hasInstanceAssigned(predecessor)) {
-					verticesToBeCanceled.add(predecessor);
-				}
+				final ExecutionGate inputGate = vertex.getInputGate(i);
+				for (int j = 0; j < inputGate.getNumberOfEdges(); ++j) {
+
+					final ExecutionVertex predecessor = inputGate.getEdge(j).getOutputGate().getVertex();
 
-				if (!visited.contains(predecessor)) {
-					verticesToTest.add(predecessor);
+					if (isOutputPersisted(predecessor, inputGate)) {
+						continue;
+					}
+
+					if (hasInstanceAssigned(predecessor)) {
+						verticesToBeCanceled.add(predecessor);
+					} else if (predecessor.getExecutionState() == ExecutionState.FINISHED) {
+						LOG.error("Output of " + predecessor + " is required to recover " + failedVertex
+							+ ", but has been lost together with its instance");
+						return false;
+					}
+
+					if (visited.add(predecessor)) {
+						verticesToTest.add(predecessor);
+					}
 				}
 			}
-			visited.add(vertex);
 		}
+
+		return true;
+	}
+
+	/**
+	 * Checks if the given predecessor has persisted the output it sends through the given input gate, so it can be
+	 * replayed without restarting the predecessor.
+	 * 
+	 * @param predecessor
+	 *        the vertex producing the data
+	 * @param inputGate
+	 *        the input gate of the consuming vertex
+	 * @return <code>true</code> if the output is persisted, <code>false</code> otherwise
+	 */
+	private static boolean isOutputPersisted(final ExecutionVertex predecessor, final ExecutionGate inputGate) {
+
+		return inputGate.getChannelType() == ChannelType.FILE
+			&& predecessor.getExecutionState() == ExecutionState.FINISHED && hasInstanceAssigned(predecessor);
 	}
 
 	private static final boolean invalidateReceiverLookupCaches(final ExecutionVertex failedVertex,
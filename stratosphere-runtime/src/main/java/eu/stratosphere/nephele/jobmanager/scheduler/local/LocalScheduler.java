@@ -204,10 +204,7 @@ public class LocalScheduler extends AbstractScheduler implements JobStatusListen
 			LOG.error(StringUtils.stringifyException(e));
 		}
 
-		// Deploy the assigned vertices
+		// Deploy the assigned vertices, they fetch the results of the previous stage from the file channels
 		deployAssignedInputVertices(executionStage.getExecutionGraph());
-
-		// Initialize the replay of the previous stage's checkpoints
-		replayCheckpointsFromPreviousStage(executionStage.getExecutionGraph());
 	}
 }
\ No newline at end of file
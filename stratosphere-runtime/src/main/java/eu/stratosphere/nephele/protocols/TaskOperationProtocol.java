@@ -24,6 +24,7 @@ import eu.stratosphere.nephele.execution.librarycache.LibraryCacheProfileRespons
 import eu.stratosphere.nephele.execution.librarycache.LibraryCacheUpdate;
 import eu.stratosphere.nephele.executiongraph.ExecutionVertexID;
 import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.jobgraph.JobID;
 import eu.stratosphere.nephele.taskmanager.TaskCancelResult;
 import eu.stratosphere.nephele.taskmanager.TaskKillResult;
 import eu.stratosphere.nephele.taskmanager.TaskSubmissionResult;
@@ -102,6 +103,17 @@ public interface TaskOperationProtocol extends VersionedProtocol {
 	 */
 	void invalidateLookupCacheEntries(Set<ChannelID> channelIDs) throws IOException;
 
+	/**
+	 * Discards the data the output channels of file channels belonging to the given job have stored at the task
+	 * manager.
+	 * 
+	 * @param jobID
+	 *        the ID of the job whose file channel data shall be discarded
+	 * @throws IOException
+	 *         thrown if an error occurs during this remote procedure call
+	 */
+	void discardFileChannels(JobID jobID) throws IOException;
+
 	/**
 	 * Triggers the task manager write the current utilization of its read and write buffers to its logs.
 	 * This method is primarily for debugging purposes.
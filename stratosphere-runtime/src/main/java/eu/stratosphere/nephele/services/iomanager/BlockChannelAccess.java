@@ -59,6 +59,11 @@ public abstract class BlockChannelAccess<R extends IORequest, C extends Collecti
 	 * Flag marking this channel as closed;
 	 */
 	protected volatile boolean closed;
+	
+	/**
+	 * Flag marking that the blocks of this channel are stored compressed.
+	 */
+	protected final boolean compressBlocks;
 
 	// --------------------------------------------------------------------------------------------
 	
@@ -72,10 +77,12 @@ public abstract class BlockChannelAccess<R extends IORequest, C extends Collecti
 	 * @param returnQueue The queue to which the segments are added after their buffer was written.
 	 * @param writeEnabled Flag describing whether the channel should be opened in read/write mode, rather
 	 *                     than in read-only mode.
+	 * @param compressBlocks Flag describing whether the blocks are compressed when written and decompressed
+	 *                       when read.
 	 * @throws IOException Thrown, if the channel could no be opened.
 	 */
 	protected BlockChannelAccess(Channel.ID channelID, RequestQueue<R> requestQueue,
-			C returnQueue, boolean writeEnabled)
+			C returnQueue, boolean writeEnabled, boolean compressBlocks)
 	throws IOException
 	{
 		super(channelID, requestQueue, writeEnabled);
@@ -85,6 +92,7 @@ public abstract class BlockChannelAccess<R extends IORequest, C extends Collecti
 		}
 		
 		this.returnBuffers = returnQueue;
+		this.compressBlocks = compressBlocks;
 	}
 	
 	// --------------------------------------------------------------------------------------------
@@ -99,6 +107,16 @@ public abstract class BlockChannelAccess<R extends IORequest, C extends Collecti
 		return this.returnBuffers;
 	}
 	
+	/**
+	 * Checks whether the blocks of this channel are stored compressed.
+	 * 
+	 * @return True, if the blocks are compressed, false otherwise.
+	 */
+	public boolean isCompressingBlocks()
+	{
+		return this.compressBlocks;
+	}
+	
 
 	@Override
 	public boolean isClosed()
@@ -205,6 +223,16 @@ final class SegmentReadRequest implements ReadRequest
 		this.channel = targetChannel;
 		this.segment = segment;
 	}
+	
+	/**
+	 * Gets the channel that this request reads from.
+	 * 
+	 * @return The channel that this request reads from.
+	 */
+	BlockChannelAccess<ReadRequest, ?> getChannel()
+	{
+		return this.channel;
+	}
 
 
 	@Override
@@ -213,8 +241,12 @@ final class SegmentReadRequest implements ReadRequest
 		final FileChannel c = this.channel.fileChannel;
 		if (c.size() - c.position() > 0) {
 			try {
-				final ByteBuffer wrapper = this.segment.wrap(0, this.segment.size());
-				this.channel.fileChannel.read(wrapper);
+				if (this.channel.compressBlocks) {
+					BlockCompressionCodec.get().readBlock(c, this.segment);
+				} else {
+					final ByteBuffer wrapper = this.segment.wrap(0, this.segment.size());
+					this.channel.fileChannel.read(wrapper);
+				}
 			} catch (NullPointerException npex) {
 				// the memory has been cleared asynchronouosly through task failing or canceling
 				// ignore the request, since the result cannot be read
@@ -252,7 +284,11 @@ final class SegmentWriteRequest implements WriteRequest
 	public void write() throws IOException
 	{
 		try {
-			this.channel.fileChannel.write(this.segment.wrap(0, this.segment.size()));
+			if (this.channel.compressBlocks) {
+				BlockCompressionCodec.get().writeBlock(this.channel.fileChannel, this.segment);
+			} else {
+				this.channel.fileChannel.write(this.segment.wrap(0, this.segment.size()));
+			}
 		} catch (NullPointerException npex) {
 			// the memory has been cleared asynchronouosly through task failing or canceling
 			// ignore the request, since there is nothing to write.
@@ -45,13 +45,14 @@ public class BlockChannelReader extends BlockChannelAccess<ReadRequest, LinkedBl
 	 * @param requestQueue The request queue of the asynchronous reader thread, to which the I/O requests
 	 *                     are added.
 	 * @param returnSegments The return queue, to which the full Memory Segments are added.
+	 * @param compressBlocks Flag describing whether the blocks are compressed on disk.
 	 * @throws IOException Thrown, if the underlying file channel could not be opened.
 	 */
 	protected BlockChannelReader(Channel.ID channelID, RequestQueue<ReadRequest> requestQueue,
-			LinkedBlockingQueue<MemorySegment> returnSegments, int numRequestsToBundle)
+			LinkedBlockingQueue<MemorySegment> returnSegments, int numRequestsToBundle, boolean compressBlocks)
 	throws IOException
 	{
-		super(channelID, requestQueue, returnSegments, false);
+		super(channelID, requestQueue, returnSegments, false, compressBlocks);
 	}	
 
 	/**
@@ -0,0 +1,193 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.nephele.services.iomanager;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import eu.stratosphere.core.memory.MemorySegment;
+
+/**
+ * Writes and reads memory segments as individually compressed blocks. Each block on disk consists of a
+ * four byte header holding the length of the stored block, followed by the stored bytes. A block whose data
+ * does not compress is stored uncompressed, which is marked by a stored length equal to the segment size.
+ * Since every block carries its length, a compressed channel can still be read block by block.
+ * <p>
+ * The compression runs on the I/O threads. Each thread keeps its own compressor, decompressor and
+ * scratch buffers, so no state is shared between threads.
+ */
+final class BlockCompressionCodec
+{
+	/**
+	 * The size of the header preceding every block.
+	 */
+	static final int HEADER_LENGTH = 4;
+	
+	private static final ThreadLocal<BlockCompressionCodec> CODECS = new ThreadLocal<BlockCompressionCodec>() {
+		@Override
+		protected BlockCompressionCodec initialValue() {
+			return new BlockCompressionCodec();
+		}
+	};
+	
+	/**
+	 * Gets the codec of the calling I/O thread.
+	 * 
+	 * @return The codec of the calling thread.
+	 */
+	static BlockCompressionCodec get()
+	{
+		return CODECS.get();
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+	
+	private final Inflater inflater = new Inflater(true);
+	
+	private final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+	
+	private byte[] uncompressed = new byte[0];
+	
+	private byte[] compressed = new byte[0];
+	
+	private BlockCompressionCodec()
+	{}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Compresses the contents of the given segment and writes them as one block to the channel.
+	 * 
+	 * @param channel The channel to write to.
+	 * @param segment The segment to write.
+	 * @throws IOException Thrown, if the block could not be written.
+	 */
+	void writeBlock(FileChannel channel, MemorySegment segment) throws IOException
+	{
+		final int size = segment.size();
+		ensureCapacity(size);
+		segment.get(0, this.uncompressed, 0, size);
+		
+		// compress into the scratch buffer, giving up once the output is not smaller than the input
+		final Deflater deflater = this.deflater;
+		deflater.reset();
+		deflater.setInput(this.uncompressed, 0, size);
+		deflater.finish();
+		
+		int length = 0;
+		while (!deflater.finished() && length < size) {
+			length += deflater.deflate(this.compressed, HEADER_LENGTH + length, size - length);
+		}
+		
+		if (deflater.finished() && length < size) {
+			this.compressed[0] = (byte) (length >>> 24);
+			this.compressed[1] = (byte) (length >>> 16);
+			this.compressed[2] = (byte) (length >>> 8);
+			this.compressed[3] = (byte) length;
+			writeFully(channel, ByteBuffer.wrap(this.compressed, 0, HEADER_LENGTH + length));
+		} else {
+			this.header.clear();
+			this.header.putInt(size);
+			this.header.flip();
+			writeFully(channel, this.header);
+			writeFully(channel, segment.wrap(0, size));
+		}
+	}
+	
+	/**
+	 * Reads the next block from the channel and decompresses it into the given segment.
+	 * 
+	 * @param channel The channel to read from.
+	 * @param segment The segment to read the block into.
+	 * @throws IOException Thrown, if the block could not be read or is corrupt.
+	 */
+	void readBlock(FileChannel channel, MemorySegment segment) throws IOException
+	{
+		final int size = segment.size();
+		
+		this.header.clear();
+		readFully(channel, this.header);
+		final int length = this.header.getInt(0);
+		
+		if (length == size) {
+			readFully(channel, segment.wrap(0, size));
+		}
+		else if (length < 0 || length > size) {
+			throw new IOException("Corrupt compressed block: The stored length of " + length +
+				" bytes does not fit a segment of " + size + " bytes.");
+		}
+		else {
+			ensureCapacity(size);
+			readFully(channel, ByteBuffer.wrap(this.compressed, 0, length));
+			
+			final Inflater inflater = this.inflater;
+			inflater.reset();
+			inflater.setInput(this.compressed, 0, length);
+			
+			int inflated = 0;
+			try {
+				while (inflated < size && !inflater.finished()) {
+					final int num = inflater.inflate(this.uncompressed, inflated, size - inflated);
+					if (num == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+						break;
+					}
+					inflated += num;
+				}
+			}
+			catch (DataFormatException dfex) {
+				throw new IOException("Corrupt compressed block: " + dfex.getMessage(), dfex);
+			}
+			
+			if (inflated != size) {
+				throw new IOException("Corrupt compressed block: Decompressed to " + inflated + 
+					" bytes instead of " + size + " bytes.");
+			}
+			segment.put(0, this.uncompressed, 0, size);
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private void ensureCapacity(int segmentSize)
+	{
+		if (this.uncompressed.length < segmentSize) {
+			this.uncompressed = new byte[segmentSize];
+			this.compressed = new byte[HEADER_LENGTH + segmentSize];
+		}
+	}
+	
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException
+	{
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+	
+	private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException
+	{
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("Reached the end of the channel in the middle of a block.");
+			}
+		}
+	}
+}
@@ -29,10 +29,10 @@ public class BulkBlockChannelReader extends BlockChannelAccess<ReadRequest, Arra
 	
 	
 	protected BulkBlockChannelReader(Channel.ID channelID, RequestQueue<ReadRequest> requestQueue, 
-			List<MemorySegment> sourceSegments, int numBlocks)
+			List<MemorySegment> sourceSegments, int numBlocks, boolean compressBlocks)
 	throws IOException
 	{
-		super(channelID, requestQueue, new ArrayList<MemorySegment>(numBlocks), false);
+		super(channelID, requestQueue, new ArrayList<MemorySegment>(numBlocks), false, compressBlocks);
 		
 		// sanity check
 		if (sourceSegments.size() < numBlocks) {
@@ -34,7 +34,7 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 	
 	protected int numRequestsRemaining;				// the number of block requests remaining
 	
-	private final int numSegments;					// the number of memory segment the view works with
+	private int numSegments;						// the number of memory segment the view works with
 	
 	private final ArrayList<MemorySegment> freeMem;	// memory gathered once the work is done
 	
@@ -42,6 +42,12 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 	
 	private boolean closed;							// flag indicating whether the reader is closed
 	
+	private final ReadAheadPool readAhead;			// the pool of read-ahead buffers shared with other views, or null
+	
+	final int minSegments;							// the number of segments kept regardless of the read-ahead budget
+	
+	long consumedBlocks;							// the decayed number of consumed blocks, maintained by the pool
+	
 	// --------------------------------------------------------------------------------------------
 
 	/**
@@ -88,7 +94,35 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 														int numBlocks, boolean waitForFirstBlock)
 	throws IOException
 	{
-		this(reader, memory, numBlocks, ChannelWriterOutputView.HEADER_LENGTH, waitForFirstBlock);
+		this(reader, memory, numBlocks, ChannelWriterOutputView.HEADER_LENGTH, null, waitForFirstBlock);
+	}
+	
+	/**
+	 * Creates a new channel reader that reads from the given channel, expecting a specified
+	 * number of blocks in the channel, and that shares its read-ahead buffers with other views through
+	 * the given pool. The view starts out pre-fetching into the given memory segments. As it gets consumed,
+	 * it adjusts the number of blocks it reads ahead to the budget assigned by the pool, taking
+	 * spare segments from the pool or returning segments to it. Once all blocks have been requested, the
+	 * view returns its segments to the pool.
+	 * <p>
+	 * WARNING: The reader will lock if the number of blocks given here is actually lower than
+	 * the actual number of blocks in the channel.
+	 * 
+	 * @param reader The reader that reads the data from disk back into memory.
+	 * @param memory A list of memory segments that the reader initially uses for reading the data in.
+	 * @param numBlocks The number of blocks this channel will read.
+	 * @param readAhead The pool of read-ahead buffers shared by all views that are consumed together.
+	 * @param waitForFirstBlock A flag indicating weather this constructor call should block
+	 *                          until the first block has returned from the asynchronous I/O reader.
+	 * 
+	 * @throws IOException Thrown, if the read requests for the first blocks fail to be
+	 *                     served by the reader.
+	 */
+	public ChannelReaderInputView(BlockChannelReader reader, List<MemorySegment> memory, 
+			int numBlocks, ReadAheadPool readAhead, boolean waitForFirstBlock)
+	throws IOException
+	{
+		this(reader, memory, numBlocks, ChannelWriterOutputView.HEADER_LENGTH, readAhead, waitForFirstBlock);
 	}
 		
 	/**
@@ -107,13 +141,15 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 	 * @param headerLen The length of the header assumed at the beginning of the block. Note that the
 	 *                  {@link #nextSegment(MemorySegment)} method assumes the default header length,
 	 *                  so any subclass changing the header length should override that methods as well.
+	 * @param readAhead The pool of read-ahead buffers shared with other views, or null, if the view
+	 *                  works only with the given memory.
 	 * @param waitForFirstBlock A flag indicating weather this constructor call should block
 	 *                          until the first block has returned from the asynchronous I/O reader.
 	 * 
 	 * @throws IOException
 	 */
 	ChannelReaderInputView(BlockChannelReader reader, List<MemorySegment> memory, 
-				int numBlocks, int headerLen, boolean waitForFirstBlock)
+				int numBlocks, int headerLen, ReadAheadPool readAhead, boolean waitForFirstBlock)
 	throws IOException
 	{
 		super(headerLen);
@@ -130,6 +166,8 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 		this.numRequestsRemaining = numBlocks;
 		this.numSegments = memory.size();
 		this.freeMem = new ArrayList<MemorySegment>(this.numSegments);
+		this.readAhead = readAhead;
+		this.minSegments = readAhead == null ? this.numSegments : readAhead.register(this, this.numSegments);
 		
 		for (int i = 0; i < memory.size(); i++) {
 			sendReadRequest(memory.get(i));
@@ -216,7 +254,11 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 		// send a request first. if we have only a single segment, this same segment will be the one obtained in
 		// the next lines
 		if (current != null) {
-			sendReadRequest(current);
+			if (this.readAhead == null) {
+				sendReadRequest(current);
+			} else {
+				adjustReadAhead(current);
+			}
 		}
 		
 		// get the next segment
@@ -243,9 +285,37 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 		return segment.getInt(ChannelWriterOutputView.HEAD_BLOCK_LENGTH_OFFSET);
 	}
 	
+	/**
+	 * Re-issues the read request for the consumed segment and issues further requests with spare segments
+	 * from the read-ahead pool, as far as the view's budget permits. If the view holds more segments than
+	 * its budget, the consumed segment is returned to the pool instead.
+	 * 
+	 * @param current The segment that has been consumed.
+	 * @throws IOException Thrown, if the reader is in error.
+	 */
+	private void adjustReadAhead(MemorySegment current) throws IOException
+	{
+		final ReadAheadPool readAhead = this.readAhead;
+		final int budget = readAhead.recordConsumedBlock(this);
+		
+		if (this.numSegments > budget && this.numSegments > this.minSegments) {
+			this.numSegments--;
+			readAhead.returnSegment(current);
+			return;
+		}
+		
+		sendReadRequest(current);
+		
+		MemorySegment spare;
+		while (this.numRequestsRemaining != 0 && this.numSegments < budget && (spare = readAhead.takeSegment()) != null) {
+			this.numSegments++;
+			sendReadRequest(spare);
+		}
+	}
+	
 	/**
 	 * Sends a new read requests, if further requests remain. Otherwise, this method adds the segment
-	 * directly to the readers return queue.
+	 * directly to the readers return queue, or returns it to the read-ahead pool, if the view has one.
 	 * 
 	 * @param seg The segment to use for the read request.
 	 * @throws IOException Thrown, if the reader is in error.
@@ -257,6 +327,10 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 			if (this.numRequestsRemaining != -1) {
 				this.numRequestsRemaining--;
 			}
+		} else if (this.readAhead != null) {
+			// the segment is not needed any more, let other views read ahead with it
+			this.numSegments--;
+			this.readAhead.returnSegment(seg);
 		} else {
 			// directly add it to the end of the return queue
 			this.freeMem.add(seg);
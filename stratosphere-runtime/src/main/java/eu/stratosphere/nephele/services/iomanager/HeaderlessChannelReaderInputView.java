@@ -59,7 +59,7 @@ public class HeaderlessChannelReaderInputView extends ChannelReaderInputView
 			int numBytesInLastBlock, boolean waitForFirstBlock)
 	throws IOException
 	{
-		super(reader, memory, numBlocks, 0, waitForFirstBlock);
+		super(reader, memory, numBlocks, 0, null, waitForFirstBlock);
 		
 		this.numBlocksRemaining = numBlocks;
 		this.lastBlockBytes = numBytesInLastBlock;
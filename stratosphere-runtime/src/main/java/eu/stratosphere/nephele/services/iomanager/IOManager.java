@@ -15,6 +15,7 @@ package eu.stratosphere.nephele.services.iomanager;
 
 import java.io.IOException;
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -55,6 +56,11 @@ public final class IOManager implements UncaughtExceptionHandler
 	 */
 	private final ReaderThread[] readers;
 	
+	/**
+	 * Flag indicating whether the blocks written and read by the channels of this I/O manager are compressed.
+	 */
+	private final boolean compressBlocks;
+	
 	/**
 	 * The number of the next path to use.
 	 */
@@ -94,8 +100,24 @@ public final class IOManager implements UncaughtExceptionHandler
 	 *        channels.
 	 */
 	public IOManager(String[] paths)
+	{
+		this(paths, false);
+	}
+	
+	/**
+	 * Constructs a new IOManager.
+	 * 
+	 * @param paths
+	 *        the basic directory path for files underlying anonymous
+	 *        channels.
+	 * @param compressBlocks
+	 *        flag indicating whether the blocks of all block channels are compressed on disk. The
+	 *        compression and decompression is done by the I/O threads.
+	 */
+	public IOManager(String[] paths, boolean compressBlocks)
 	{
 		this.paths = paths;
+		this.compressBlocks = compressBlocks;
 		this.random = new Random();
 		this.nextPath = 0;
 		
@@ -198,6 +220,16 @@ public final class IOManager implements UncaughtExceptionHandler
 		shutdown();	
 	}
 
+	/**
+	 * Checks whether the block channels created by this I/O manager compress their blocks.
+	 * 
+	 * @return True, if the blocks are compressed, false otherwise.
+	 */
+	public boolean isCompressingBlocks()
+	{
+		return this.compressBlocks;
+	}
+
 	// ------------------------------------------------------------------------
 	//                          Channel Instantiations
 	// ------------------------------------------------------------------------
@@ -248,7 +280,7 @@ public final class IOManager implements UncaughtExceptionHandler
 			throw new IllegalStateException("I/O-Manger is closed.");
 		}
 		
-		return new BlockChannelWriter(channelID, this.writers[channelID.getThreadNum()].requestQueue, returnQueue, 1);
+		return new BlockChannelWriter(channelID, this.writers[channelID.getThreadNum()].requestQueue, returnQueue, 1, this.compressBlocks);
 	}
 	
 	/**
@@ -278,7 +310,7 @@ public final class IOManager implements UncaughtExceptionHandler
 			throw new IllegalStateException("I/O-Manger is closed.");
 		}
 		
-		return new BlockChannelWriter(channelID, this.writers[channelID.getThreadNum()].requestQueue, returnQueue, numRequestsToCombine);
+		return new BlockChannelWriter(channelID, this.writers[channelID.getThreadNum()].requestQueue, returnQueue, numRequestsToCombine, this.compressBlocks);
 	}
 	
 	/**
@@ -296,7 +328,7 @@ public final class IOManager implements UncaughtExceptionHandler
 			throw new IllegalStateException("I/O-Manger is closed.");
 		}
 		
-		return new BlockChannelWriter(channelID, this.writers[channelID.getThreadNum()].requestQueue, new LinkedBlockingQueue<MemorySegment>(), 1);
+		return new BlockChannelWriter(channelID, this.writers[channelID.getThreadNum()].requestQueue, new LinkedBlockingQueue<MemorySegment>(), 1, this.compressBlocks);
 	}
 	
 	/**
@@ -323,7 +355,7 @@ public final class IOManager implements UncaughtExceptionHandler
 			throw new IllegalStateException("I/O-Manger is closed.");
 		}
 		
-		return new BlockChannelWriter(channelID, this.writers[channelID.getThreadNum()].requestQueue, new LinkedBlockingQueue<MemorySegment>(), numRequestsToCombine);
+		return new BlockChannelWriter(channelID, this.writers[channelID.getThreadNum()].requestQueue, new LinkedBlockingQueue<MemorySegment>(), numRequestsToCombine, this.compressBlocks);
 	}
 	
 	/**
@@ -344,7 +376,7 @@ public final class IOManager implements UncaughtExceptionHandler
 			throw new IllegalStateException("I/O-Manger is closed.");
 		}
 		
-		return new BlockChannelReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, returnQueue, 1);
+		return new BlockChannelReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, returnQueue, 1, this.compressBlocks);
 	}
 	
 	/**
@@ -374,7 +406,7 @@ public final class IOManager implements UncaughtExceptionHandler
 			throw new IllegalStateException("I/O-Manger is closed.");
 		}
 		
-		return new BlockChannelReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, returnQueue, numRequestsToCombine);
+		return new BlockChannelReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, returnQueue, numRequestsToCombine, this.compressBlocks);
 	}
 	
 	/**
@@ -393,7 +425,7 @@ public final class IOManager implements UncaughtExceptionHandler
 			throw new IllegalStateException("I/O-Manger is closed.");
 		}
 		
-		return new BlockChannelReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, new LinkedBlockingQueue<MemorySegment>(), 1);
+		return new BlockChannelReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, new LinkedBlockingQueue<MemorySegment>(), 1, this.compressBlocks);
 	}
 	
 	/**
@@ -422,7 +454,7 @@ public final class IOManager implements UncaughtExceptionHandler
 		}
 		
 		return new BlockChannelReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, 
-			new LinkedBlockingQueue<MemorySegment>(), numRequestsToCombine);
+			new LinkedBlockingQueue<MemorySegment>(), numRequestsToCombine, this.compressBlocks);
 	}
 	
 	/**
@@ -448,7 +480,7 @@ public final class IOManager implements UncaughtExceptionHandler
 			throw new IllegalStateException("I/O-Manger is closed.");
 		}
 		
-		return new BulkBlockChannelReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, targetSegments, numBlocks);
+		return new BulkBlockChannelReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, targetSegments, numBlocks, this.compressBlocks);
 	}
 	
 	// ========================================================================
@@ -469,12 +501,22 @@ public final class IOManager implements UncaughtExceptionHandler
 	// ========================================================================
 
 	/**
-	 * A worker thread for asynchronous read.
-	 * 
+	 * A worker thread for asynchronous read. The thread serves all channels whose files reside in one
+	 * temp directory. Whenever it picks up work, it drains up to {@link #MAX_REQUESTS_PER_BATCH} pending
+	 * requests from its queue and serves them grouped by channel, such that consecutive blocks of the
+	 * same file are read back to back rather than interleaved with the blocks of other files on the same disk.
+	 * The order of the requests for any individual channel is preserved.
 	 */
 	private static final class ReaderThread extends Thread
 	{
+		/**
+		 * The maximal number of requests that are drained from the queue and served as one batch.
+		 */
+		private static final int MAX_REQUESTS_PER_BATCH = 64;
+		
 		protected final RequestQueue<ReadRequest> requestQueue;
+		
+		private final ArrayList<ReadRequest> batch;
 
 		private volatile boolean alive;
 
@@ -485,6 +527,7 @@ public final class IOManager implements UncaughtExceptionHandler
 		protected ReaderThread()
 		{
 			this.requestQueue = new RequestQueue<ReadRequest>();
+			this.batch = new ArrayList<ReadRequest>(MAX_REQUESTS_PER_BATCH);
 			this.alive = true;
 		}
 		
@@ -521,6 +564,8 @@ public final class IOManager implements UncaughtExceptionHandler
 		@Override
 		public void run()
 		{
+			final ArrayList<ReadRequest> batch = this.batch;
+			
 			while (this.alive)
 			{
 				
@@ -538,27 +583,61 @@ public final class IOManager implements UncaughtExceptionHandler
 					}
 				}
 				
-				// remember any IO exception that occurs, so it can be reported to the writer
-				IOException ioex = null;
-
-				try {
-					// read buffer from the specified channel
-					request.read();
-				}
-				catch (IOException e) {
-					ioex = e;
-				}
-				catch (Throwable t) {
-					ioex = new IOException("The buffer could not be read: " + t.getMessage(), t);
-					IOManager.LOG.error("I/O reading thread encountered an error" + 
-						t.getMessage() == null ? "." : ": ", t);
+				// collect the requests that queued up in the meantime
+				batch.add(request);
+				this.requestQueue.drainTo(batch, MAX_REQUESTS_PER_BATCH - 1);
+				
+				// serve the requests channel by channel, in the order in which the channels first appear
+				final int num = batch.size();
+				for (int i = 0; i < num; i++) {
+					final ReadRequest first = batch.get(i);
+					if (first == null) {
+						continue;
+					}
+					final Object channel = getChannel(first);
+					for (int k = i; k < num; k++) {
+						final ReadRequest next = batch.get(k);
+						if (next != null && (k == i || getChannel(next) == channel)) {
+							batch.set(k, null);
+							if (this.alive) {
+								process(next);
+							} else {
+								next.requestDone(new IOException("IO-Manager has been closed."));
+							}
+						}
+					}
 				}
-
-				// invoke the processed buffer handler of the request issuing reader object
-				request.requestDone(ioex);
+				batch.clear();
 			} // end while alive
 		}
 		
+		private static void process(ReadRequest request)
+		{
+			// remember any IO exception that occurs, so it can be reported to the writer
+			IOException ioex = null;
+
+			try {
+				// read buffer from the specified channel
+				request.read();
+			}
+			catch (IOException e) {
+				ioex = e;
+			}
+			catch (Throwable t) {
+				ioex = new IOException("The buffer could not be read: " + t.getMessage(), t);
+				IOManager.LOG.error("I/O reading thread encountered an error" + 
+					t.getMessage() == null ? "." : ": ", t);
+			}
+
+			// invoke the processed buffer handler of the request issuing reader object
+			request.requestDone(ioex);
+		}
+		
+		private static Object getChannel(ReadRequest request)
+		{
+			return request instanceof SegmentReadRequest ? ((SegmentReadRequest) request).getChannel() : request;
+		}
+		
 	} // end reading thread
 	
 	/**
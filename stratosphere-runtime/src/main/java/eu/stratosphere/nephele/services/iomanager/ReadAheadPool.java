@@ -0,0 +1,131 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.nephele.services.iomanager;
+
+import java.util.ArrayList;
+
+import eu.stratosphere.core.memory.MemorySegment;
+
+
+/**
+ * A pool of read buffers that is shared among the {@link ChannelReaderInputView}s that are consumed together,
+ * as for example the views over the runs of a merge. Every view keeps a small number of buffers for itself
+ * and obtains its read-ahead budget from the pool, in proportion to the rate at which it is consumed
+ * relative to the other views. Views that are consumed fast thereby issue more read requests ahead of time,
+ * while views that are consumed slowly, or that have reached the end of their channel, return their buffers
+ * to the pool.
+ * <p>
+ * The consumption rate is tracked as a decaying count of the blocks that each view consumed, such that the
+ * budgets follow changes in the distribution of the data.
+ * <p>
+ * The pool is not thread-safe. All views sharing a pool must be consumed by the same thread.
+ */
+public final class ReadAheadPool {
+	
+	/**
+	 * The number of buffers that every view keeps, regardless of its consumption rate.
+	 */
+	static final int MIN_SEGMENTS_PER_VIEW = 2;
+	
+	private final ArrayList<MemorySegment> spareSegments;	// the buffers currently not used by any view
+	
+	private final ArrayList<ChannelReaderInputView> views;	// the views sharing the buffers
+	
+	private int totalSegments;								// the number of buffers of all views
+	
+	private int reservedSegments;							// the number of buffers reserved as view minimums
+	
+	private long totalConsumed;								// the decayed number of blocks consumed by all views
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Creates a new, empty pool. The pool is populated by the views that are registered with it.
+	 */
+	public ReadAheadPool() {
+		this.spareSegments = new ArrayList<MemorySegment>();
+		this.views = new ArrayList<ChannelReaderInputView>();
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Registers a view that contributes the given number of buffers to the pool's total.
+	 * 
+	 * @param view The view to register.
+	 * @param numSegments The number of buffers the view starts with.
+	 * @return The number of buffers the view always keeps.
+	 */
+	int register(ChannelReaderInputView view, int numSegments) {
+		final int min = Math.min(numSegments, MIN_SEGMENTS_PER_VIEW);
+		this.views.add(view);
+		this.totalSegments += numSegments;
+		this.reservedSegments += min;
+		return min;
+	}
+	
+	/**
+	 * Records that the given view consumed a block and returns the number of buffers that the view may use.
+	 * 
+	 * @param view The view that consumed a block.
+	 * @return The number of buffers that the view may use, including the buffers it always keeps.
+	 */
+	int recordConsumedBlock(ChannelReaderInputView view) {
+		view.consumedBlocks++;
+		this.totalConsumed++;
+		
+		// decay the counts, such that the budgets follow the recent consumption rates
+		if (this.totalConsumed > 2 * (long) Math.max(this.totalSegments, this.views.size())) {
+			long total = 0;
+			for (int i = 0; i < this.views.size(); i++) {
+				final ChannelReaderInputView v = this.views.get(i);
+				v.consumedBlocks >>>= 1;
+				total += v.consumedBlocks;
+			}
+			this.totalConsumed = total;
+		}
+		
+		// the view's share of the spare buffers, starting out with even shares for all views
+		final long spare = this.totalSegments - this.reservedSegments;
+		return view.minSegments + (int) (spare * (view.consumedBlocks + 1) / (this.totalConsumed + this.views.size()));
+	}
+	
+	/**
+	 * Takes a spare buffer from the pool.
+	 * 
+	 * @return A spare buffer, or null, if the pool has currently no spare buffers.
+	 */
+	MemorySegment takeSegment() {
+		final int num = this.spareSegments.size();
+		return num == 0 ? null : this.spareSegments.remove(num - 1);
+	}
+	
+	/**
+	 * Returns a buffer that a view no longer needs to the pool.
+	 * 
+	 * @param segment The buffer to return.
+	 */
+	void returnSegment(MemorySegment segment) {
+		this.spareSegments.add(segment);
+	}
+	
+	/**
+	 * Gets the number of buffers that are currently not used by any view.
+	 * 
+	 * @return The number of spare buffers.
+	 */
+	public int getNumSpareSegments() {
+		return this.spareSegments.size();
+	}
+}
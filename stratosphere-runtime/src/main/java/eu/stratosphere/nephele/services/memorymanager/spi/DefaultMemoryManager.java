@@ -14,6 +14,7 @@
 package eu.stratosphere.nephele.services.memorymanager.spi;
 
 
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -46,7 +47,17 @@ import eu.stratosphere.nephele.template.AbstractInvokable;
  * the manager works 2 dimensional byte array (i.e. with memory chunks). Please be aware that in order to keep the array
  * access methods in the {@link DefaultMemorySegment} fast and simple, the actual allocated memory segments must not
  * exceed 2GB and must be contained in a single memory chunk.
- * 
+ * <p>
+ * Optionally, the memory is allocated off-heap, from direct byte buffers. The pages are then sliced from
+ * larger chunks, which keeps the large amounts of managed memory out of the heap and the garbage collector's
+ * reach. The segments handed out are the same in both cases, so their users need not distinguish them.
+ * <p>
+ * The memory is either allocated completely when the memory manager is created, or lazily, when pages are
+ * requested. In the lazy mode, released pages are pooled for reuse while memory is in use. When the last owner
+ * releases all of its memory, pooled heap pages are dropped, so that an idle memory manager holds no heap memory.
+ * Pooled off-heap pages are kept, because direct memory is only freed once the garbage collector reclaims the
+ * buffers. If the JVM runs out of memory while pages are allocated lazily, the request fails with a
+ * {@link MemoryAllocationException} and the pages taken for it are returned.
  */
 public class DefaultMemoryManager implements MemoryManager
 {
@@ -60,6 +71,11 @@ public class DefaultMemoryManager implements MemoryManager
 	 */
 	public static final int MIN_PAGE_SIZE = 4 * 1024;
 	
+	/**
+	 * The maximal size of the chunks from which off-heap pages are sliced. Currently set to 1 GiByte.
+	 */
+	private static final int MAX_OFF_HEAP_CHUNK_SIZE = 1024 * 1024 * 1024;
+	
 	/**
 	 * The Log.
 	 */
@@ -69,7 +85,7 @@ public class DefaultMemoryManager implements MemoryManager
 	
 	private final Object lock = new Object();	 	// The lock used on the shared structures.
 	
-	private final ArrayDeque<byte[]> freeSegments;	// the free memory segments
+	private final ArrayDeque<ByteBuffer> freeSegments;	// the free memory segments, which have been allocated
 	
 	private final HashMap<AbstractInvokable, Set<DefaultMemorySegment>> allocatedSegments;
 	
@@ -81,6 +97,14 @@ public class DefaultMemoryManager implements MemoryManager
 	
 	private final int totalNumPages;		// The initial total size, for verification.
 	
+	private final boolean offHeap;			// flag whether the memory is allocated off-heap
+	
+	private final boolean preAllocate;		// flag whether the memory is allocated up front, or lazily
+	
+	private int numNonAllocatedPages;		// the number of pages of the budget that are not allocated
+	
+	private int peakNumPagesInUse;			// the highest number of pages that have been in use at the same time
+	
 	private boolean isShutDown;				// flag whether the close() has already been invoked.
 
 	// ------------------------------------------------------------------------
@@ -102,7 +126,33 @@ public class DefaultMemoryManager implements MemoryManager
 	 * @param memorySize The total size of the memory to be managed by this memory manager.
 	 * @param pageSize The size of the pages handed out by the memory manager.
 	 */
-	public DefaultMemoryManager(long memorySize, int pageSize)
+	public DefaultMemoryManager(long memorySize, int pageSize) {
+		this(memorySize, pageSize, false);
+	}
+	
+	/**
+	 * Creates a memory manager with the given capacity and given page size, allocating the memory either
+	 * on the heap or off-heap.
+	 * 
+	 * @param memorySize The total size of the memory to be managed by this memory manager.
+	 * @param pageSize The size of the pages handed out by the memory manager.
+	 * @param offHeap True, if the memory is allocated off-heap, false if it is allocated on the heap.
+	 */
+	public DefaultMemoryManager(long memorySize, int pageSize, boolean offHeap) {
+		this(memorySize, pageSize, offHeap, true);
+	}
+	
+	/**
+	 * Creates a memory manager with the given capacity and given page size, allocating the memory either
+	 * on the heap or off-heap, and either up front or lazily, when it is requested.
+	 * 
+	 * @param memorySize The total size of the memory to be managed by this memory manager.
+	 * @param pageSize The size of the pages handed out by the memory manager.
+	 * @param offHeap True, if the memory is allocated off-heap, false if it is allocated on the heap.
+	 * @param preAllocate True, if all memory is allocated when the memory manager is created, false if the
+	 *                    pages are allocated when they are requested.
+	 */
+	public DefaultMemoryManager(long memorySize, int pageSize, boolean offHeap, boolean preAllocate)
 	{
 		// sanity checks
 		if (memorySize <= 0) {
@@ -130,14 +180,34 @@ public class DefaultMemoryManager implements MemoryManager
 		}
 		
 		// initialize the free segments and allocated segments tracking structures
-		this.freeSegments = new ArrayDeque<byte[]>();
+		this.freeSegments = new ArrayDeque<ByteBuffer>();
 		this.allocatedSegments = new HashMap<AbstractInvokable, Set<DefaultMemorySegment>>();
-
+		this.offHeap = offHeap;
+		this.preAllocate = preAllocate;
 		
-		// add the full chunks
-		for (int i = 0; i < this.totalNumPages; i++) {
-			// allocate memory of the specified size
-			this.freeSegments.add(new byte[this.pageSize]);
+		if (!preAllocate) {
+			// the pages are allocated on demand
+			this.numNonAllocatedPages = this.totalNumPages;
+		}
+		else if (offHeap) {
+			// slice the pages from chunks of direct memory
+			final int pagesPerChunk = MAX_OFF_HEAP_CHUNK_SIZE / this.pageSize;
+			for (int pagesRemaining = this.totalNumPages; pagesRemaining > 0; pagesRemaining -= pagesPerChunk) {
+				final int numPages = Math.min(pagesRemaining, pagesPerChunk);
+				final ByteBuffer chunk = ByteBuffer.allocateDirect(numPages * this.pageSize);
+				
+				for (int i = 0; i < numPages; i++) {
+					chunk.limit((i + 1) * this.pageSize);
+					chunk.position(i * this.pageSize);
+					this.freeSegments.add(chunk.slice());
+				}
+			}
+		} else {
+			// add the full chunks
+			for (int i = 0; i < this.totalNumPages; i++) {
+				// allocate memory of the specified size
+				this.freeSegments.add(allocatePage());
+			}
 		}
 	}
 
@@ -171,7 +241,7 @@ public class DefaultMemoryManager implements MemoryManager
 	public boolean verifyEmpty()
 	{
 		synchronized (this.lock) {
-			return this.freeSegments.size() == this.totalNumPages;
+			return this.freeSegments.size() + this.numNonAllocatedPages == this.totalNumPages;
 		}
 	}
 
@@ -213,9 +283,30 @@ public class DefaultMemoryManager implements MemoryManager
 				throw new IllegalStateException("Memory manager has been shut down.");
 			}
 			
-			if (numPages > this.freeSegments.size()) {
+			final int numAvailablePages = this.freeSegments.size() + this.numNonAllocatedPages;
+			if (numPages > numAvailablePages) {
 				throw new MemoryAllocationException("Could not allocate " + numPages + " pages. Only " + 
-					this.freeSegments.size() + " pages are remaining.");
+					numAvailablePages + " pages are remaining.");
+			}
+			
+			final ArrayList<DefaultMemorySegment> segments = new ArrayList<DefaultMemorySegment>(numPages);
+			try {
+				for (int i = numPages; i > 0; i--) {
+					ByteBuffer buffer = this.freeSegments.poll();
+					if (buffer == null) {
+						buffer = allocatePage();
+						this.numNonAllocatedPages--;
+					}
+					segments.add(new DefaultMemorySegment(owner, buffer));
+				}
+			}
+			catch (OutOfMemoryError oom) {
+				// return the pages taken so far. the ones allocated for this request stay pooled
+				for (DefaultMemorySegment segment : segments) {
+					this.freeSegments.add(segment.destroy());
+				}
+				throw new MemoryAllocationException("Could not allocate " + numPages + " pages. The JVM ran out of " +
+					"memory after " + segments.size() + " pages.", oom);
 			}
 			
 			Set<DefaultMemorySegment> segmentsForOwner = this.allocatedSegments.get(owner);
@@ -223,12 +314,12 @@ public class DefaultMemoryManager implements MemoryManager
 				segmentsForOwner = new HashSet<DefaultMemorySegment>(4 * numPages / 3 + 1);
 				this.allocatedSegments.put(owner, segmentsForOwner);
 			}
+			target.addAll(segments);
+			segmentsForOwner.addAll(segments);
 			
-			for (int i = numPages; i > 0; i--) {
-				byte[] buffer = this.freeSegments.poll();
-				final DefaultMemorySegment segment = new DefaultMemorySegment(owner, buffer);
-				target.add(segment);
-				segmentsForOwner.add(segment);
+			final int numPagesInUse = this.totalNumPages - numAvailablePages + numPages;
+			if (numPagesInUse > this.peakNumPagesInUse) {
+				this.peakNumPagesInUse = numPagesInUse;
 			}
 		}
 		// -------------------- END CRITICAL SECTION -------------------
@@ -271,7 +362,7 @@ public class DefaultMemoryManager implements MemoryManager
 			}
 			finally {
 				// release the memory in any case
-				byte[] buffer = defSeg.destroy();
+				ByteBuffer buffer = defSeg.destroy();
 				this.freeSegments.add(buffer);
 			}
 		}
@@ -331,7 +422,7 @@ public class DefaultMemoryManager implements MemoryManager
 				}
 				finally {
 					// release the memory in any case
-					byte[] buffer = defSeg.destroy();
+					ByteBuffer buffer = defSeg.destroy();
 					this.freeSegments.add(buffer);
 				}
 			}
@@ -356,17 +447,24 @@ public class DefaultMemoryManager implements MemoryManager
 			final Set<DefaultMemorySegment> segments = this.allocatedSegments.remove(owner);
 			
 			// all segments may have been freed previously individually
-			if (segments == null || segments.isEmpty()) {
-				return;
+			if (segments != null) {
+				// free each segment
+				for (DefaultMemorySegment seg : segments) {
+					final ByteBuffer buffer = seg.destroy();
+					this.freeSegments.add(buffer);
+				}
+				segments.clear();
 			}
 			
-			// free each segment
-			for (DefaultMemorySegment seg : segments) {
-				final byte[] buffer = seg.destroy();
-				this.freeSegments.add(buffer);
+			// when heap memory is allocated lazily and nobody holds memory any more, drop the pooled pages
+			if (!this.preAllocate && !this.offHeap && this.allocatedSegments.isEmpty() && !this.freeSegments.isEmpty()) {
+				if (LOG.isDebugEnabled()) {
+					LOG.debug("Releasing " + this.freeSegments.size() + " pooled pages of the idle memory manager. " +
+						"At most " + this.peakNumPagesInUse + " of " + this.totalNumPages + " pages have been in use.");
+				}
+				this.numNonAllocatedPages += this.freeSegments.size();
+				this.freeSegments.clear();
 			}
-			
-			segments.clear();
 		}
 		// -------------------- END CRITICAL SECTION -------------------
 	}
@@ -374,6 +472,67 @@ public class DefaultMemoryManager implements MemoryManager
 	// ------------------------------------------------------------------------
 	
 
+	/**
+	 * Checks whether this memory manager allocates all its memory up front, rather than lazily.
+	 * 
+	 * @return True, if the memory is allocated up front, false if it is allocated when it is requested.
+	 */
+	public boolean isPreAllocated() {
+		return this.preAllocate;
+	}
+	
+	/**
+	 * Gets the total number of pages managed by this memory manager.
+	 * 
+	 * @return The total number of pages.
+	 */
+	public int getTotalNumPages() {
+		return this.totalNumPages;
+	}
+	
+	/**
+	 * Gets the number of pages that are currently allocated, both the ones that are in use and
+	 * the pooled ones.
+	 * 
+	 * @return The number of allocated pages.
+	 */
+	public int getNumAllocatedPages() {
+		synchronized (this.lock) {
+			return this.totalNumPages - this.numNonAllocatedPages;
+		}
+	}
+	
+	/**
+	 * Gets the number of pages that are currently in use by memory owners.
+	 * 
+	 * @return The number of pages in use.
+	 */
+	public int getNumPagesInUse() {
+		synchronized (this.lock) {
+			return this.totalNumPages - this.numNonAllocatedPages - this.freeSegments.size();
+		}
+	}
+	
+	/**
+	 * Gets the highest number of pages that have been in use at the same time.
+	 * 
+	 * @return The peak number of pages in use.
+	 */
+	public int getPeakNumPagesInUse() {
+		synchronized (this.lock) {
+			return this.peakNumPagesInUse;
+		}
+	}
+	
+	/**
+	 * Checks whether this memory manager allocates its memory off-heap.
+	 * 
+	 * @return True, if the memory is allocated off-heap, false if it is allocated on the heap.
+	 */
+	public boolean isOffHeap() {
+		return this.offHeap;
+	}
+
 	@Override
 	public int getPageSize() {
 		return this.pageSize;
@@ -393,6 +552,15 @@ public class DefaultMemoryManager implements MemoryManager
 	
 	// ------------------------------------------------------------------------
 	
+	/**
+	 * Allocates a new page. Overridden by tests that simulate running out of memory.
+	 * 
+	 * @return The new page.
+	 */
+	protected ByteBuffer allocatePage() {
+		return this.offHeap ? ByteBuffer.allocateDirect(this.pageSize) : ByteBuffer.wrap(new byte[this.pageSize]);
+	}
+	
 	private final int getNumPages(long numBytes)
 	{
 		if (numBytes < 0)
@@ -411,15 +579,18 @@ public class DefaultMemoryManager implements MemoryManager
 		
 		private AbstractInvokable owner;
 		
-		DefaultMemorySegment(AbstractInvokable owner, byte[] memory) {
-			super(memory);
+		private ByteBuffer page;
+		
+		DefaultMemorySegment(AbstractInvokable owner, ByteBuffer page) {
+			super(page);
 			this.owner = owner;
+			this.page = page;
 		}
 		
-		byte[] destroy() {
-			final byte[] buffer = this.memory;
-			this.memory = null;
-			this.wrapper = null;
+		ByteBuffer destroy() {
+			final ByteBuffer buffer = this.page;
+			this.page = null;
+			free();
 			return buffer;
 		}
 	}
@@ -21,6 +21,7 @@ import eu.stratosphere.nephele.jobgraph.JobID;
 import eu.stratosphere.nephele.profiling.TaskManagerProfiler;
 import eu.stratosphere.nephele.services.memorymanager.MemoryManager;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.LocalBufferPoolOwner;
+import eu.stratosphere.nephele.taskmanager.bytebuffered.FileChannelManager;
 import eu.stratosphere.nephele.taskmanager.bytebuffered.TaskContext;
 import eu.stratosphere.nephele.taskmanager.transferenvelope.TransferEnvelopeDispatcher;
 
@@ -109,5 +110,5 @@ public interface Task {
 	ExecutionState getExecutionState();
 
 	TaskContext createTaskContext(TransferEnvelopeDispatcher transferEnvelopeDispatcher,
-			LocalBufferPoolOwner previousBufferPoolOwner);
+			FileChannelManager fileChannelManager, LocalBufferPoolOwner previousBufferPoolOwner);
 }
@@ -260,11 +260,20 @@ public class TaskManager implements TaskOperationProtocol {
 
 		checkTempDirs(tmpDirPaths);
 
+		// Initialize the I/O manager, the byte buffered channel manager places the data of file channels in its
+		// temporary directories
+		final boolean compressSpilling = GlobalConfiguration.getBoolean(ConfigConstants.SPILL_COMPRESSION_KEY,
+			ConfigConstants.DEFAULT_SPILL_COMPRESSION);
+		if (compressSpilling) {
+			LOG.info("Compressing blocks spilled to the temp directories.");
+		}
+		this.ioManager = new IOManager(tmpDirPaths, compressSpilling);
+
 		// Initialize the byte buffered channel manager
 		ByteBufferedChannelManager byteBufferedChannelManager = null;
 		try {
 			byteBufferedChannelManager = new ByteBufferedChannelManager(this.lookupService,
-				this.localInstanceConnectionInfo);
+				this.localInstanceConnectionInfo, this.ioManager);
 		} catch (IOException ioe) {
 			LOG.error(StringUtils.stringifyException(ioe));
 			throw new Exception("Failed to instantiate Byte-buffered channel manager. " + ioe.getMessage(), ioe);
@@ -289,17 +298,25 @@ public class TaskManager implements TaskOperationProtocol {
 		this.hardwareDescription = hardware;
 
 		// Initialize the memory manager
-		LOG.info("Initializing memory manager with " + (hardware.getSizeOfFreeMemory() >>> 20) + " megabytes of memory");
+		final boolean offHeap = GlobalConfiguration.getBoolean(ConfigConstants.TASK_MANAGER_MEMORY_OFF_HEAP_KEY,
+			ConfigConstants.DEFAULT_TASK_MANAGER_MEMORY_OFF_HEAP);
+		if (offHeap && memorySize <= 0) {
+			LOG.warn("Off-heap memory is enabled, but no memory size is configured. The memory size is derived " +
+				"from the free heap memory instead.");
+		}
+		final boolean preAllocate = GlobalConfiguration.getBoolean(ConfigConstants.TASK_MANAGER_MEMORY_PRE_ALLOCATE_KEY,
+			ConfigConstants.DEFAULT_TASK_MANAGER_MEMORY_PRE_ALLOCATE);
+		LOG.info("Initializing memory manager with " + (hardware.getSizeOfFreeMemory() >>> 20) + " megabytes of " +
+			(offHeap ? "off-heap " : "") + "memory" + (preAllocate ? "" : ", allocated on demand"));
 		try {
-			this.memoryManager = new DefaultMemoryManager(hardware.getSizeOfFreeMemory());
+			this.memoryManager = new DefaultMemoryManager(hardware.getSizeOfFreeMemory(),
+				DefaultMemoryManager.DEFAULT_PAGE_SIZE, offHeap, preAllocate);
 		} catch (RuntimeException rte) {
 			LOG.fatal("Unable to initialize memory manager with " + (hardware.getSizeOfFreeMemory() >>> 20)
 				+ " megabytes of memory", rte);
 			throw rte;
 		}
 
-		this.ioManager = new IOManager(tmpDirPaths);
-
 		// Add shutdown hook for clean up tasks
 		Runtime.getRuntime().addShutdownHook(new TaskManagerCleanUp(this));
 	}
@@ -885,6 +902,13 @@ public class TaskManager implements TaskOperationProtocol {
 		this.byteBufferedChannelManager.invalidateLookupCacheEntries(channelIDs);
 	}
 
+
+	@Override
+	public void discardFileChannels(final JobID jobID) throws IOException {
+
+		this.byteBufferedChannelManager.discardFileChannels(jobID);
+	}
+
 	/**
 	 * Checks, whether the given strings describe existing directories that are writable. If that is not
 	 * the case, an exception is raised.
@@ -13,6 +13,7 @@
 
 package eu.stratosphere.nephele.taskmanager.bufferprovider;
 
+import java.nio.ByteBuffer;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 
@@ -69,18 +70,25 @@ public final class GlobalBufferPool {
 		this.bufferSizeInBytes = GlobalConfiguration.getInteger(ConfigConstants.TASK_MANAGER_NETWORK_BUFFER_SIZE_KEY,
 			ConfigConstants.DEFAULT_TASK_MANAGER_NETWORK_BUFFER_SIZE);
 
+		final boolean offHeap = GlobalConfiguration.getBoolean(ConfigConstants.TASK_MANAGER_MEMORY_OFF_HEAP_KEY,
+			ConfigConstants.DEFAULT_TASK_MANAGER_MEMORY_OFF_HEAP);
+
 		this.buffers = new ArrayBlockingQueue<MemorySegment>(this.numberOfBuffers);
 
 		// Initialize buffers
 		for (int i = 0; i < this.numberOfBuffers; i++) {
 			// allocate byteBuffer
-			final byte[] segMemory = new byte[this.bufferSizeInBytes];
-			final MemorySegment readBuffer = new MemorySegment(segMemory);
+			final MemorySegment readBuffer;
+			if (offHeap) {
+				readBuffer = new MemorySegment(ByteBuffer.allocateDirect(this.bufferSizeInBytes));
+			} else {
+				readBuffer = new MemorySegment(new byte[this.bufferSizeInBytes]);
+			}
 			this.buffers.add(readBuffer);
 		}
 
-		LOG.info("Initialized global buffer pool with " + this.numberOfBuffers + " buffers with a size "
-			+ this.bufferSizeInBytes + " bytes each");
+		LOG.info("Initialized global buffer pool with " + this.numberOfBuffers + " " + (offHeap ? "off-heap " : "")
+			+ "buffers with a size " + this.bufferSizeInBytes + " bytes each");
 	}
 
 	/**
@@ -15,6 +15,7 @@ package eu.stratosphere.nephele.taskmanager.bytebuffered;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import eu.stratosphere.configuration.ConfigConstants;
 import eu.stratosphere.configuration.GlobalConfiguration;
 import eu.stratosphere.nephele.execution.Environment;
 import eu.stratosphere.nephele.executiongraph.ExecutionVertexID;
@@ -35,17 +37,21 @@ import eu.stratosphere.nephele.io.channels.ChannelID;
 import eu.stratosphere.nephele.io.channels.ChannelType;
 import eu.stratosphere.nephele.jobgraph.JobID;
 import eu.stratosphere.nephele.protocols.ChannelLookupProtocol;
+import eu.stratosphere.nephele.services.iomanager.IOManager;
 import eu.stratosphere.nephele.taskmanager.Task;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.BufferProvider;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.BufferProviderBroker;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.GlobalBufferPool;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.LocalBufferPool;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.LocalBufferPoolOwner;
+import eu.stratosphere.nephele.taskmanager.transferenvelope.CompressionStatistics;
+import eu.stratosphere.nephele.taskmanager.transferenvelope.CompressionStatisticsLookup;
 import eu.stratosphere.nephele.taskmanager.transferenvelope.TransferEnvelope;
 import eu.stratosphere.nephele.taskmanager.transferenvelope.TransferEnvelopeDispatcher;
 import eu.stratosphere.nephele.taskmanager.transferenvelope.TransferEnvelopeReceiverList;
 
-public final class ByteBufferedChannelManager implements TransferEnvelopeDispatcher, BufferProviderBroker {
+public final class ByteBufferedChannelManager implements TransferEnvelopeDispatcher, BufferProviderBroker,
+		CompressionStatisticsLookup {
 
 	/**
 	 * The log object used to report problems and errors.
@@ -82,8 +88,28 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 	 */
 	private final Map<ChannelID, TransferEnvelopeReceiverList> receiverCache = new ConcurrentHashMap<ChannelID, TransferEnvelopeReceiverList>();
 
+	/**
+	 * Flag indicating whether the buffers of network channels are compressed, unless the job configures otherwise.
+	 */
+	private final boolean compressNetworkBuffers;
+
+	/**
+	 * The compression statistics of the output channels whose buffers are compressed before being sent.
+	 */
+	private final ConcurrentHashMap<ChannelID, CompressionStatistics> compressionStatistics = new ConcurrentHashMap<ChannelID, CompressionStatistics>();
+
+	/**
+	 * The decompression statistics of the buffers received, by the ID of the output channel that sent them.
+	 */
+	private final ConcurrentHashMap<ChannelID, CompressionStatistics> decompressionStatistics = new ConcurrentHashMap<ChannelID, CompressionStatistics>();
+
+	/**
+	 * The file channel manager holding the data written by the output channels of file channels.
+	 */
+	private final FileChannelManager fileChannelManager;
+
 	public ByteBufferedChannelManager(final ChannelLookupProtocol channelLookupService,
-			final InstanceConnectionInfo localInstanceConnectionInfo) throws IOException {
+			final InstanceConnectionInfo localInstanceConnectionInfo, final IOManager ioManager) throws IOException {
 
 		this.channelLookupService = channelLookupService;
 
@@ -104,9 +130,15 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 		this.mergeSpilledBuffers = GlobalConfiguration.getBoolean("channel.network.mergeSpilledBuffers",
 			DEFAULT_MERGE_SPILLED_BUFFERS);
 
+		this.fileChannelManager = new FileChannelManager(this, ioManager);
+
+		this.compressNetworkBuffers = GlobalConfiguration.getBoolean(
+			ConfigConstants.TASK_MANAGER_NETWORK_COMPRESSION_KEY, ConfigConstants.DEFAULT_TASK_MANAGER_NETWORK_COMPRESSION);
+
 		LOG.info("Initialized byte buffered channel manager with sender-side spilling "
 			+ (this.allowSenderSideSpilling ? "enabled" : "disabled")
-			+ (this.mergeSpilledBuffers ? " and spilled buffer merging enabled" : ""));
+			+ (this.mergeSpilledBuffers ? " and spilled buffer merging enabled" : "")
+			+ (this.compressNetworkBuffers ? ", network buffer compression enabled" : ""));
 	}
 
 	/**
@@ -118,18 +150,23 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 	 *        set of output channels which are initially active
 	 * @throws InsufficientResourcesException
 	 *         thrown if the channel manager does not have enough memory buffers to safely run this task
+	 * @throws IOException
+	 *         thrown if the data of the task's file channels cannot be requested
 	 */
 	public void register(final Task task, final Set<ChannelID> activeOutputChannels)
-			throws InsufficientResourcesException {
+			throws InsufficientResourcesException, IOException {
 
 		// Check if we can safely run this task with the given resources
 		checkBufferAvailability(task);
 
 		final Environment environment = task.getEnvironment();
 
-		final TaskContext taskContext = task.createTaskContext(this,
+		final TaskContext taskContext = task.createTaskContext(this, this.fileChannelManager,
 			this.localBufferPoolOwner.remove(task.getVertexID()));
 
+		final boolean compress = environment.getJobConfiguration().getBoolean(
+			ConfigConstants.TASK_MANAGER_NETWORK_COMPRESSION_KEY, this.compressNetworkBuffers);
+
 		final Set<GateID> outputGateIDs = environment.getOutputGateIDs();
 		for (final Iterator<GateID> gateIt = outputGateIDs.iterator(); gateIt.hasNext();) {
 
@@ -157,6 +194,10 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 				if (outputChannelContext.getType() == ChannelType.NETWORK) {
 					addReceiverListHint(outputChannelContext.getConnectedChannelID(),
 						outputChannelContext.getChannelID());
+
+					if (compress) {
+						this.compressionStatistics.putIfAbsent(channelID, new CompressionStatistics());
+					}
 				}
 
 				if (LOG.isDebugEnabled())
@@ -167,6 +208,7 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 			}
 		}
 
+		final List<InputChannelContext> fileInputChannels = new ArrayList<InputChannelContext>();
 		final Set<GateID> inputGateIDs = environment.getInputGateIDs();
 		for (final Iterator<GateID> gateIt = inputGateIDs.iterator(); gateIt.hasNext();) {
 
@@ -187,6 +229,10 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 					addReceiverListHint(inputChannelContext.getChannelID(), inputChannelContext.getConnectedChannelID());
 				}
 
+				if (inputChannelContext.getType() == ChannelType.FILE) {
+					fileInputChannels.add(inputChannelContext);
+				}
+
 				this.registeredChannels.put(inputChannelContext.getChannelID(), inputChannelContext);
 			}
 
@@ -201,6 +247,18 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 		this.localBufferPoolOwner.put(task.getVertexID(), taskContext);
 
 		redistributeGlobalBuffers();
+
+		// Ask the task managers which hold the data of the file channels to replay it
+		for (final InputChannelContext inputChannelContext : fileInputChannels) {
+			try {
+				processEnvelopeFromInputChannel(FileChannelRequestEvent.createEnvelopeWithEvent(
+					environment.getJobID(), inputChannelContext.getChannelID(),
+					inputChannelContext.getConnectedChannelID()));
+			} catch (InterruptedException e) {
+				throw new IOException("Interrupted while requesting the data of file channel "
+					+ inputChannelContext.getChannelID());
+			}
+		}
 	}
 
 	/**
@@ -225,6 +283,11 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 				context.destroy();
 			}
 			this.receiverCache.remove(outputChannelID);
+
+			final CompressionStatistics stats = this.compressionStatistics.remove(outputChannelID);
+			if (stats != null && LOG.isInfoEnabled()) {
+				LOG.info("Compression of output channel " + outputChannelID + ": " + stats);
+			}
 		}
 
 		channelIterator = environment.getInputChannelIDs().iterator();
@@ -235,6 +298,11 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 			final ChannelContext context = this.registeredChannels.remove(outputChannelID);
 			if (context != null) {
 				context.destroy();
+
+				final CompressionStatistics stats = this.decompressionStatistics.remove(context.getConnectedChannelID());
+				if (stats != null && LOG.isInfoEnabled()) {
+					LOG.info("Decompression of input channel " + outputChannelID + ": " + stats);
+				}
 			}
 			this.receiverCache.remove(outputChannelID);
 		}
@@ -265,6 +333,7 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 	public void shutdown() {
 
 		this.networkConnectionManager.shutDown();
+		this.fileChannelManager.shutdown();
 	}
 
 	public NetworkConnectionManager getNetworkConnectionManager() {
@@ -305,6 +374,14 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 	private void processEnvelope(final TransferEnvelope transferEnvelope, final boolean freeSourceBuffer)
 			throws IOException, InterruptedException {
 
+		// Requests for the data of a file channel are answered by the task manager which has stored it
+		if (FileChannelRequestEvent.isFileChannelRequestEvent(transferEnvelope)) {
+			final FileChannelRequestEvent fcre = (FileChannelRequestEvent) transferEnvelope.getEventList().get(0);
+			if (this.fileChannelManager.replay(fcre.getOutputChannelID())) {
+				return;
+			}
+		}
+
 		TransferEnvelopeReceiverList receiverList = null;
 		try {
 			receiverList = getReceiverList(transferEnvelope.getJobID(),
@@ -440,7 +517,10 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 
 			final ChannelContext channelContext = this.registeredChannels.get(localReceiver);
 			if (channelContext == null) {
-				sendReceiverNotFoundEvent(transferEnvelope, localReceiver);
+				// Events for the output channel of a file channel are obsolete once its data has been stored
+				if (!this.fileChannelManager.contains(localReceiver)) {
+					sendReceiverNotFoundEvent(transferEnvelope, localReceiver);
+				}
 				continue;
 			}
 			channelContext.queueTransferEnvelope(transferEnvelope);
@@ -487,6 +567,10 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 
 		final ChannelContext channelContext = this.registeredChannels.get(transferEnvelope.getSource());
 		if (channelContext == null) {
+			// Data replayed from a file channel is sent after its output channel has been unregistered
+			if (this.fileChannelManager.contains(transferEnvelope.getSource())) {
+				return;
+			}
 			LOG.error("Cannot find channel context for channel ID " + transferEnvelope.getSource());
 			return;
 		}
@@ -673,6 +757,29 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 	}
 
 
+	@Override
+	public CompressionStatistics getCompressionStatistics(final ChannelID sourceChannelID) {
+
+		return this.compressionStatistics.get(sourceChannelID);
+	}
+
+
+	@Override
+	public CompressionStatistics getDecompressionStatistics(final ChannelID sourceChannelID) {
+
+		CompressionStatistics stats = this.decompressionStatistics.get(sourceChannelID);
+		if (stats == null) {
+			stats = new CompressionStatistics();
+			final CompressionStatistics previous = this.decompressionStatistics.putIfAbsent(sourceChannelID, stats);
+			if (previous != null) {
+				stats = previous;
+			}
+		}
+
+		return stats;
+	}
+
+
 	@Override
 	public BufferProvider getBufferProvider(final JobID jobID, final ChannelID sourceChannelID) throws IOException,
 			InterruptedException {
@@ -802,6 +909,18 @@ public final class ByteBufferedChannelManager implements TransferEnvelopeDispatc
 		}
 	}
 
+	/**
+	 * Discards the data the output channels of file channels belonging to the given job have stored at this task
+	 * manager.
+	 * 
+	 * @param jobID
+	 *        the ID of the job whose file channel data shall be discarded
+	 */
+	public void discardFileChannels(final JobID jobID) {
+
+		this.fileChannelManager.discardFiles(jobID);
+	}
+
 	public void reportAsynchronousEvent(final ExecutionVertexID vertexID) {
 
 		final LocalBufferPoolOwner lbpo = this.localBufferPoolOwner.get(vertexID);
@@ -0,0 +1,367 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.nephele.taskmanager.bytebuffered;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.jobgraph.JobID;
+import eu.stratosphere.nephele.services.iomanager.IOManager;
+import eu.stratosphere.nephele.taskmanager.bufferprovider.BufferAvailabilityListener;
+import eu.stratosphere.nephele.taskmanager.bufferprovider.BufferProvider;
+import eu.stratosphere.nephele.taskmanager.transferenvelope.DefaultDeserializer;
+import eu.stratosphere.nephele.taskmanager.transferenvelope.NoBufferAvailableException;
+import eu.stratosphere.nephele.taskmanager.transferenvelope.TransferEnvelope;
+import eu.stratosphere.util.StringUtils;
+
+/**
+ * The file channel manager keeps track of the files the output channels of file channels have written on this task
+ * manager. Upon request of the connected input channel, it replays the transfer envelopes stored in such a file
+ * through the byte buffered channel manager, just as if they had been received from the network. The files are kept
+ * until the job they belong to has terminated.
+ * 
+ */
+public final class FileChannelManager {
+
+	/**
+	 * The log object used to report problems and errors.
+	 */
+	private static final Log LOG = LogFactory.getLog(FileChannelManager.class);
+
+	/**
+	 * The byte buffered channel manager the replayed envelopes are passed to.
+	 */
+	private final ByteBufferedChannelManager byteBufferedChannelManager;
+
+	/**
+	 * The I/O manager determining the temporary directories the files are placed in.
+	 */
+	private final IOManager ioManager;
+
+	/**
+	 * The completely written files, indexed by the ID of the output channel which has written them.
+	 */
+	private final Map<ChannelID, FileChannelEntry> files = new ConcurrentHashMap<ChannelID, FileChannelEntry>();
+
+	/**
+	 * The currently running replays, indexed by the ID of the output channel whose data they replay.
+	 */
+	private final ConcurrentMap<ChannelID, ReplayThread> replayThreads = new ConcurrentHashMap<ChannelID, ReplayThread>();
+
+	/**
+	 * Constructs a new file channel manager.
+	 * 
+	 * @param byteBufferedChannelManager
+	 *        the byte buffered channel manager the replayed envelopes are passed to
+	 * @param ioManager
+	 *        the I/O manager determining the temporary directories the files are placed in
+	 */
+	FileChannelManager(final ByteBufferedChannelManager byteBufferedChannelManager, final IOManager ioManager) {
+
+		this.byteBufferedChannelManager = byteBufferedChannelManager;
+		this.ioManager = ioManager;
+	}
+
+	/**
+	 * Creates a new file to store the data of a file channel in. The file is placed in one of the temporary
+	 * directories of the I/O manager.
+	 * 
+	 * @return the new file
+	 */
+	public File createFile() {
+
+		return new File(this.ioManager.createChannel().getPath());
+	}
+
+	/**
+	 * Registers a completely written file. From now on, the data of the given output channel can be replayed.
+	 * 
+	 * @param jobID
+	 *        the ID of the job the output channel belongs to
+	 * @param outputChannelID
+	 *        the ID of the output channel which has written the file
+	 * @param file
+	 *        the file containing the serialized transfer envelopes of the output channel
+	 */
+	public void registerFile(final JobID jobID, final ChannelID outputChannelID, final File file) {
+
+		final FileChannelEntry previous = this.files.put(outputChannelID, new FileChannelEntry(jobID, file));
+		if (previous != null && !previous.file.equals(file)) {
+			previous.file.delete();
+		}
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Registered file " + file + " for output channel " + outputChannelID);
+		}
+	}
+
+	/**
+	 * Checks if this file channel manager holds the data of the given output channel.
+	 * 
+	 * @param outputChannelID
+	 *        the ID of the output channel
+	 * @return <code>true</code> if the data of the output channel is stored on this task manager, <code>false</code>
+	 *         otherwise
+	 */
+	public boolean contains(final ChannelID outputChannelID) {
+
+		return this.files.containsKey(outputChannelID);
+	}
+
+	/**
+	 * Starts to replay the data of the given output channel, provided it is stored on this task manager. A replay of
+	 * the same output channel which is still running is stopped first, so the data of the two replays cannot
+	 * interleave.
+	 * 
+	 * @param outputChannelID
+	 *        the ID of the output channel whose data shall be replayed
+	 * @return <code>true</code> if the replay has been started, <code>false</code> if the data of the output channel
+	 *         is not stored on this task manager
+	 */
+	boolean replay(final ChannelID outputChannelID) {
+
+		final FileChannelEntry entry = this.files.get(outputChannelID);
+		if (entry == null) {
+			return false;
+		}
+
+		synchronized (this.replayThreads) {
+
+			final ReplayThread previous = this.replayThreads.remove(outputChannelID);
+			if (previous != null) {
+				stopReplay(previous);
+			}
+
+			final ReplayThread replayThread = new ReplayThread(outputChannelID, entry);
+			this.replayThreads.put(outputChannelID, replayThread);
+			replayThread.start();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Discards the files of all output channels belonging to the given job.
+	 * 
+	 * @param jobID
+	 *        the ID of the job whose files shall be discarded
+	 */
+	public void discardFiles(final JobID jobID) {
+
+		synchronized (this.replayThreads) {
+
+			final Iterator<ReplayThread> it = this.replayThreads.values().iterator();
+			while (it.hasNext()) {
+
+				final ReplayThread replayThread = it.next();
+				if (replayThread.entry.jobID.equals(jobID)) {
+					it.remove();
+					stopReplay(replayThread);
+				}
+			}
+		}
+
+		final Iterator<FileChannelEntry> it = this.files.values().iterator();
+		while (it.hasNext()) {
+
+			final FileChannelEntry entry = it.next();
+			if (entry.jobID.equals(jobID)) {
+				it.remove();
+				entry.file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Stops all running replays and deletes all files which are still known to the file channel manager.
+	 */
+	public void shutdown() {
+
+		synchronized (this.replayThreads) {
+
+			final Iterator<ReplayThread> it = this.replayThreads.values().iterator();
+			while (it.hasNext()) {
+				stopReplay(it.next());
+				it.remove();
+			}
+		}
+
+		final Iterator<FileChannelEntry> it = this.files.values().iterator();
+		while (it.hasNext()) {
+			it.next().file.delete();
+			it.remove();
+		}
+	}
+
+	/**
+	 * Interrupts the given replay thread and waits for it to terminate.
+	 * 
+	 * @param replayThread
+	 *        the replay thread to stop
+	 */
+	private static void stopReplay(final ReplayThread replayThread) {
+
+		replayThread.interrupt();
+
+		try {
+			replayThread.join();
+		} catch (InterruptedException e) {
+			LOG.warn("Interrupted while waiting for the replay of output channel " + replayThread.outputChannelID
+				+ " to stop");
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * A completely written file together with the ID of the job it belongs to.
+	 */
+	private static final class FileChannelEntry {
+
+		private final JobID jobID;
+
+		private final File file;
+
+		private FileChannelEntry(final JobID jobID, final File file) {
+			this.jobID = jobID;
+			this.file = file;
+		}
+	}
+
+	/**
+	 * The replay thread reads the transfer envelopes from a file and passes them on to the byte buffered channel
+	 * manager. If the receiver runs short of buffers, the thread waits until a buffer has become available again.
+	 */
+	private final class ReplayThread extends Thread implements BufferAvailabilityListener {
+
+		private final ChannelID outputChannelID;
+
+		private final FileChannelEntry entry;
+
+		private boolean bufferAvailable = false;
+
+		private ReplayThread(final ChannelID outputChannelID, final FileChannelEntry entry) {
+			super("Replay thread for output channel " + outputChannelID);
+
+			this.outputChannelID = outputChannelID;
+			this.entry = entry;
+		}
+
+
+		@Override
+		public void run() {
+
+			// The receiver of the data may have changed since the last replay
+			byteBufferedChannelManager.invalidateLookupCacheEntries(Collections.singleton(this.outputChannelID));
+
+			final DefaultDeserializer deserializer = new DefaultDeserializer(byteBufferedChannelManager);
+
+			FileInputStream fis = null;
+			try {
+				fis = new FileInputStream(this.entry.file);
+				final FileChannel fileChannel = fis.getChannel();
+
+				while (!isInterrupted()) {
+
+					try {
+						deserializer.read(fileChannel);
+					} catch (NoBufferAvailableException e) {
+						waitForBuffer(e.getBufferProvider());
+						continue;
+					}
+
+					final TransferEnvelope transferEnvelope = deserializer.getFullyDeserializedTransferEnvelope();
+					if (transferEnvelope != null) {
+
+						final BufferProvider bufferProvider = deserializer.getBufferProvider();
+						if (bufferProvider == null) {
+							byteBufferedChannelManager.processEnvelopeFromNetwork(transferEnvelope, false);
+						} else {
+							byteBufferedChannelManager.processEnvelopeFromNetwork(transferEnvelope,
+								bufferProvider.isShared());
+						}
+					}
+				}
+
+			} catch (EOFException e) {
+				// Regular end of the file
+			} catch (InterruptedException e) {
+				// The replay has been stopped
+			} catch (ClosedByInterruptException e) {
+				// The replay has been stopped while reading from the file
+			} catch (IOException e) {
+				LOG.error("Cannot replay data of output channel " + this.outputChannelID + ": "
+					+ StringUtils.stringifyException(e));
+			} finally {
+
+				if (deserializer.getBuffer() != null && deserializer.hasUnfinishedData()) {
+					deserializer.getBuffer().recycleBuffer();
+				}
+
+				if (fis != null) {
+					try {
+						fis.close();
+					} catch (IOException e) {
+					}
+				}
+
+				// Unless a new replay has already taken over. The map is not locked here, because the thread stopping
+				// this replay holds the lock while waiting for it to terminate.
+				replayThreads.remove(this.outputChannelID, this);
+			}
+		}
+
+		/**
+		 * Blocks until the given buffer provider has a buffer available again.
+		 * 
+		 * @param bufferProvider
+		 *        the buffer provider which has run out of buffers
+		 * @throws InterruptedException
+		 *         thrown if the thread is interrupted while waiting
+		 */
+		private synchronized void waitForBuffer(final BufferProvider bufferProvider) throws InterruptedException {
+
+			this.bufferAvailable = false;
+
+			if (!bufferProvider.registerBufferAvailabilityListener(this)) {
+				// In the meantime, a buffer has become available again
+				return;
+			}
+
+			while (!this.bufferAvailable) {
+				wait();
+			}
+		}
+
+
+		@Override
+		public synchronized void bufferAvailable() {
+
+			this.bufferAvailable = true;
+			notify();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.nephele.taskmanager.bytebuffered;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import eu.stratosphere.nephele.event.task.AbstractEvent;
+import eu.stratosphere.nephele.event.task.EventList;
+import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.jobgraph.JobID;
+import eu.stratosphere.nephele.taskmanager.transferenvelope.TransferEnvelope;
+
+/**
+ * A file channel request event is sent by the input channel of a file channel once its task has been registered. It
+ * asks the task manager which has stored the data of the connected output channel to replay that data to the input
+ * channel.
+ * 
+ */
+public final class FileChannelRequestEvent extends AbstractEvent {
+
+	/**
+	 * The sequence number that will be set for transfer envelopes which contain the file channel request event.
+	 */
+	private static final int FILE_CHANNEL_REQUEST_SEQUENCE_NUMBER = 0;
+
+	/**
+	 * The ID of the output channel whose data is requested.
+	 */
+	private ChannelID outputChannelID;
+
+	/**
+	 * Constructs a new file channel request event.
+	 * 
+	 * @param outputChannelID
+	 *        the ID of the output channel whose data is requested
+	 */
+	public FileChannelRequestEvent(final ChannelID outputChannelID) {
+
+		if (outputChannelID == null) {
+			throw new IllegalArgumentException("Argument outputChannelID must not be null");
+		}
+
+		this.outputChannelID = outputChannelID;
+	}
+
+	/**
+	 * Default constructor for serialization/deserialization.
+	 */
+	public FileChannelRequestEvent() {
+
+		this.outputChannelID = new ChannelID();
+	}
+
+	/**
+	 * Returns the ID of the output channel whose data is requested.
+	 * 
+	 * @return the ID of the output channel whose data is requested
+	 */
+	public ChannelID getOutputChannelID() {
+
+		return this.outputChannelID;
+	}
+
+
+	@Override
+	public void write(final DataOutput out) throws IOException {
+
+		this.outputChannelID.write(out);
+	}
+
+
+	@Override
+	public void read(final DataInput in) throws IOException {
+
+		this.outputChannelID.read(in);
+	}
+
+	/**
+	 * Creates a transfer envelope which only contains a FileChannelRequestEvent.
+	 * 
+	 * @param jobID
+	 *        the ID of the job the event relates to
+	 * @param inputChannelID
+	 *        the ID of the input channel requesting the data
+	 * @param outputChannelID
+	 *        the ID of the output channel whose data is requested
+	 * @return a transfer envelope which only contains a FileChannelRequestEvent
+	 */
+	public static TransferEnvelope createEnvelopeWithEvent(final JobID jobID, final ChannelID inputChannelID,
+			final ChannelID outputChannelID) {
+
+		final TransferEnvelope transferEnvelope = new TransferEnvelope(FILE_CHANNEL_REQUEST_SEQUENCE_NUMBER, jobID,
+			inputChannelID);
+
+		transferEnvelope.addEvent(new FileChannelRequestEvent(outputChannelID));
+
+		return transferEnvelope;
+	}
+
+	/**
+	 * Checks if the given envelope only contains a FileChannelRequestEvent.
+	 * 
+	 * @param transferEnvelope
+	 *        the envelope to be checked
+	 * @return <code>true</code> if the envelope only contains a FileChannelRequestEvent, <code>false</code> otherwise
+	 */
+	public static boolean isFileChannelRequestEvent(final TransferEnvelope transferEnvelope) {
+
+		if (transferEnvelope.getSequenceNumber() != FILE_CHANNEL_REQUEST_SEQUENCE_NUMBER) {
+			return false;
+		}
+
+		if (transferEnvelope.getBuffer() != null) {
+			return false;
+		}
+
+		final EventList eventList = transferEnvelope.getEventList();
+		if (eventList == null) {
+			return false;
+		}
+
+		if (eventList.size() != 1) {
+			return false;
+		}
+
+		return (eventList.get(0) instanceof FileChannelRequestEvent);
+	}
+}
@@ -57,7 +57,7 @@ public class IncomingConnection {
 	public IncomingConnection(ByteBufferedChannelManager byteBufferedChannelManager,
 			ReadableByteChannel readableByteChannel) {
 		this.byteBufferedChannelManager = byteBufferedChannelManager;
-		this.deserializer = new DefaultDeserializer(byteBufferedChannelManager);
+		this.deserializer = new DefaultDeserializer(byteBufferedChannelManager, byteBufferedChannelManager);
 		this.readableByteChannel = readableByteChannel;
 	}
 
@@ -132,7 +132,7 @@ public final class NetworkConnectionManager {
 		if (outgoingConnection == null) {
 
 			outgoingConnection = new OutgoingConnection(remoteReceiver, getOutgoingConnectionThread(),
-				this.numberOfConnectionRetries);
+				this.numberOfConnectionRetries, this.byteBufferedChannelManager);
 
 			final OutgoingConnection oldEntry = this.outgoingConnections
 				.putIfAbsent(remoteReceiver, outgoingConnection);
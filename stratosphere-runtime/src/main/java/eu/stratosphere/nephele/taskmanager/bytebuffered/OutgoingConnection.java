@@ -26,6 +26,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.taskmanager.transferenvelope.CompressionStatisticsLookup;
 import eu.stratosphere.nephele.taskmanager.transferenvelope.TransferEnvelope;
 import eu.stratosphere.nephele.taskmanager.transferenvelope.DefaultSerializer;
 
@@ -61,7 +62,7 @@ public class OutgoingConnection {
 	/**
 	 * The {@link DefaultSerializer} object used to transform the envelopes into a byte stream.
 	 */
-	private final DefaultSerializer serializer = new DefaultSerializer();
+	private final DefaultSerializer serializer;
 
 	/**
 	 * The {@link TransferEnvelope} that is currently processed.
@@ -115,13 +116,16 @@ public class OutgoingConnection {
 	 *        the connection thread which actually handles the network transfer
 	 * @param numberOfConnectionRetries
 	 *        the number of connection retries allowed before an I/O error is reported
+	 * @param compressionStatisticsLookup
+	 *        the lookup deciding which channels compress the buffers they send through this connection
 	 */
 	public OutgoingConnection(RemoteReceiver remoteReceiver, OutgoingConnectionThread connectionThread,
-			int numberOfConnectionRetries) {
+			int numberOfConnectionRetries, CompressionStatisticsLookup compressionStatisticsLookup) {
 
 		this.remoteReceiver = remoteReceiver;
 		this.connectionThread = connectionThread;
 		this.numberOfConnectionRetries = numberOfConnectionRetries;
+		this.serializer = new DefaultSerializer(compressionStatisticsLookup);
 	}
 
 	/**
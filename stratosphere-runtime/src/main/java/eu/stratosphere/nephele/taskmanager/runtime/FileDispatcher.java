@@ -0,0 +1,139 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.nephele.taskmanager.runtime;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+
+import eu.stratosphere.nephele.event.task.AbstractEvent;
+import eu.stratosphere.nephele.event.task.EventList;
+import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.io.channels.bytebuffered.ByteBufferedChannelCloseEvent;
+import eu.stratosphere.nephele.jobgraph.JobID;
+import eu.stratosphere.nephele.taskmanager.bytebuffered.AbstractOutputChannelForwarder;
+import eu.stratosphere.nephele.taskmanager.bytebuffered.FileChannelManager;
+import eu.stratosphere.nephele.taskmanager.bytebuffered.OutputChannelForwardingChain;
+import eu.stratosphere.nephele.taskmanager.transferenvelope.DefaultSerializer;
+import eu.stratosphere.nephele.taskmanager.transferenvelope.TransferEnvelope;
+
+/**
+ * The file dispatcher is the last forwarder in the chain of an output channel of a file channel. Instead of passing
+ * the transfer envelopes on to their receiver, it serializes them into a local file. Once the channel has been
+ * closed, the file is handed over to the {@link FileChannelManager} which replays it upon request of the connected
+ * input channel.
+ * 
+ */
+final class FileDispatcher extends AbstractOutputChannelForwarder {
+
+	private final FileChannelManager fileChannelManager;
+
+	private final JobID jobID;
+
+	private final ChannelID outputChannelID;
+
+	private final DefaultSerializer serializer = new DefaultSerializer();
+
+	private OutputChannelForwardingChain forwardingChain;
+
+	private File file = null;
+
+	private FileOutputStream fileOutputStream = null;
+
+	private FileChannel fileChannel = null;
+
+	FileDispatcher(final FileChannelManager fileChannelManager, final JobID jobID, final ChannelID outputChannelID) {
+		super(null);
+
+		this.fileChannelManager = fileChannelManager;
+		this.jobID = jobID;
+		this.outputChannelID = outputChannelID;
+	}
+
+	void setForwardingChain(final OutputChannelForwardingChain forwardingChain) {
+		this.forwardingChain = forwardingChain;
+	}
+
+
+	@Override
+	public void push(final TransferEnvelope transferEnvelope) throws IOException, InterruptedException {
+
+		try {
+			if (this.fileChannel == null) {
+				this.file = this.fileChannelManager.createFile();
+				this.fileOutputStream = new FileOutputStream(this.file);
+				this.fileChannel = this.fileOutputStream.getChannel();
+			}
+
+			this.serializer.setTransferEnvelope(transferEnvelope);
+			while (this.serializer.write(this.fileChannel)) {
+			}
+		} finally {
+			this.serializer.reset();
+			recycleTransferEnvelope(transferEnvelope);
+		}
+
+		if (containsCloseEvent(transferEnvelope)) {
+
+			this.fileChannel = null;
+			this.fileOutputStream.close();
+			this.fileOutputStream = null;
+
+			this.fileChannelManager.registerFile(this.jobID, this.outputChannelID, this.file);
+			this.file = null;
+
+			// The data is persisted, so the file dispatcher acknowledges the close request on behalf of the receiver
+			this.forwardingChain.processEvent(new ByteBufferedChannelCloseEvent());
+		}
+	}
+
+
+	@Override
+	public void destroy() {
+
+		// Delete the file if the channel has not been closed properly
+		if (this.fileOutputStream != null) {
+			try {
+				this.fileOutputStream.close();
+			} catch (IOException e) {
+			}
+			this.fileOutputStream = null;
+			this.fileChannel = null;
+		}
+
+		if (this.file != null) {
+			this.file.delete();
+			this.file = null;
+		}
+	}
+
+	private static boolean containsCloseEvent(final TransferEnvelope transferEnvelope) {
+
+		final EventList eventList = transferEnvelope.getEventList();
+		if (eventList == null) {
+			return false;
+		}
+
+		final Iterator<AbstractEvent> it = eventList.iterator();
+		while (it.hasNext()) {
+			if (it.next() instanceof ByteBufferedChannelCloseEvent) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -22,6 +22,7 @@ import eu.stratosphere.nephele.io.OutputGate;
 import eu.stratosphere.nephele.io.channels.AbstractOutputChannel;
 import eu.stratosphere.nephele.io.channels.Buffer;
 import eu.stratosphere.nephele.io.channels.ChannelID;
+import eu.stratosphere.nephele.io.channels.ChannelType;
 import eu.stratosphere.nephele.io.channels.bytebuffered.AbstractByteBufferedOutputChannel;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.BufferAvailabilityListener;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.BufferProvider;
@@ -130,22 +131,31 @@ final class RuntimeOutputGateContext implements BufferProvider, OutputGateContex
 		// Construct the forwarding chain
 		RuntimeOutputChannelBroker outputChannelBroker;
 		AbstractOutputChannelForwarder last;
-		// Construction for in-memory and network channels
-		final RuntimeDispatcher runtimeDispatcher = new RuntimeDispatcher(
-			this.taskContext.getTransferEnvelopeDispatcher());
+		FileDispatcher fileDispatcher = null;
+		if (outputChannel.getType() == ChannelType.FILE) {
+			// Construction for file channels, the data is written to disk instead of being dispatched
+			fileDispatcher = new FileDispatcher(this.taskContext.getFileChannelManager(), outputChannel.getJobID(),
+				channelID);
+			last = fileDispatcher;
+		} else {
+			// Construction for in-memory and network channels
+			last = new RuntimeDispatcher(this.taskContext.getTransferEnvelopeDispatcher());
+		}
 		/*
 		 * final SpillingBarrier spillingBarrier = new SpillingBarrier(isReceiverRunning, mergeSpillBuffers,
 		 * runtimeDispatcher);
 		 * final ForwardingBarrier forwardingBarrier = new ForwardingBarrier(channelID, spillingBarrier);
 		 */
-		final ForwardingBarrier forwardingBarrier = new ForwardingBarrier(channelID, runtimeDispatcher);
+		final ForwardingBarrier forwardingBarrier = new ForwardingBarrier(channelID, last);
 		outputChannelBroker = new RuntimeOutputChannelBroker(this, outputChannel, forwardingBarrier);
-		last = runtimeDispatcher;
 
 		final OutputChannelForwardingChain forwardingChain = new OutputChannelForwardingChain(outputChannelBroker, last);
 
 		// Set forwarding chain for broker
 		outputChannelBroker.setForwardingChain(forwardingChain);
+		if (fileDispatcher != null) {
+			fileDispatcher.setForwardingChain(forwardingChain);
+		}
 
 		return new RuntimeOutputChannelContext(outputChannel, forwardingChain);
 	}
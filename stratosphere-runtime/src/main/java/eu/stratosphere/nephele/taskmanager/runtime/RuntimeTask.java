@@ -34,6 +34,7 @@ import eu.stratosphere.nephele.services.memorymanager.MemoryManager;
 import eu.stratosphere.nephele.taskmanager.Task;
 import eu.stratosphere.nephele.taskmanager.TaskManager;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.LocalBufferPoolOwner;
+import eu.stratosphere.nephele.taskmanager.bytebuffered.FileChannelManager;
 import eu.stratosphere.nephele.taskmanager.bytebuffered.TaskContext;
 import eu.stratosphere.nephele.taskmanager.transferenvelope.TransferEnvelopeDispatcher;
 import eu.stratosphere.nephele.template.AbstractInvokable;
@@ -326,13 +327,13 @@ public final class RuntimeTask implements Task, ExecutionObserver {
 
 	@Override
 	public TaskContext createTaskContext(final TransferEnvelopeDispatcher transferEnvelopeDispatcher,
-			final LocalBufferPoolOwner previousBufferPoolOwner) {
+			final FileChannelManager fileChannelManager, final LocalBufferPoolOwner previousBufferPoolOwner) {
 
 		if (previousBufferPoolOwner != null) {
 			throw new IllegalStateException("Vertex " + this.vertexID + " has a previous buffer pool owner");
 		}
 
-		return new RuntimeTaskContext(this, transferEnvelopeDispatcher);
+		return new RuntimeTaskContext(this, transferEnvelopeDispatcher, fileChannelManager);
 	}
 
 
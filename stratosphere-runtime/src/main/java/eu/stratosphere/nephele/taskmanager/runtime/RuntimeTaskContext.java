@@ -25,6 +25,7 @@ import eu.stratosphere.nephele.io.channels.Buffer;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.BufferAvailabilityListener;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.BufferProvider;
 import eu.stratosphere.nephele.taskmanager.bufferprovider.LocalBufferPool;
+import eu.stratosphere.nephele.taskmanager.bytebuffered.FileChannelManager;
 import eu.stratosphere.nephele.taskmanager.bytebuffered.InputGateContext;
 import eu.stratosphere.nephele.taskmanager.bytebuffered.OutputGateContext;
 import eu.stratosphere.nephele.taskmanager.bytebuffered.TaskContext;
@@ -40,7 +41,10 @@ public final class RuntimeTaskContext implements BufferProvider, TaskContext {
 
 	private final TransferEnvelopeDispatcher transferEnvelopeDispatcher;
 
-	RuntimeTaskContext(final RuntimeTask task, final TransferEnvelopeDispatcher transferEnvelopeDispatcher) {
+	private final FileChannelManager fileChannelManager;
+
+	RuntimeTaskContext(final RuntimeTask task, final TransferEnvelopeDispatcher transferEnvelopeDispatcher,
+			final FileChannelManager fileChannelManager) {
 
 		this.localBufferPool = new LocalBufferPool(1, false);
 		this.task = task;
@@ -60,6 +64,7 @@ public final class RuntimeTaskContext implements BufferProvider, TaskContext {
 		this.numberOfOutputChannels = nooc;
 
 		this.transferEnvelopeDispatcher = transferEnvelopeDispatcher;
+		this.fileChannelManager = fileChannelManager;
 	}
 
 	TransferEnvelopeDispatcher getTransferEnvelopeDispatcher() {
@@ -67,6 +72,11 @@ public final class RuntimeTaskContext implements BufferProvider, TaskContext {
 		return this.transferEnvelopeDispatcher;
 	}
 
+	FileChannelManager getFileChannelManager() {
+
+		return this.fileChannelManager;
+	}
+
 
 
 	@Override
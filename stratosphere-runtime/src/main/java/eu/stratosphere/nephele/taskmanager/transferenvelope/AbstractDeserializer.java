@@ -17,6 +17,8 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 import eu.stratosphere.nephele.event.task.EventList;
 import eu.stratosphere.nephele.io.channels.Buffer;
@@ -70,6 +72,72 @@ public abstract class AbstractDeserializer {
 
 	private EventList deserializedEventList = null;
 
+	/**
+	 * Keeps the statistics of the decompressed buffers, may be <code>null</code>.
+	 */
+	private final CompressionStatisticsLookup compressionStatisticsLookup;
+
+	private final Inflater inflater = new Inflater(true);
+
+	private boolean compressedBufferFollows = false;
+
+	private int compressedSizeOfBuffer = -1;
+
+	private ByteBuffer compressedData = null;
+
+	private byte[] decompressedBytes = new byte[0];
+
+	private ByteBuffer decompressedData = null;
+
+	/**
+	 * Channel handing the decompressed data of the current buffer to {@link #readBufferData(ReadableByteChannel)}.
+	 */
+	private final ReadableByteChannel decompressedDataChannel = new ReadableByteChannel() {
+
+		@Override
+		public int read(final ByteBuffer dst) {
+
+			final ByteBuffer src = AbstractDeserializer.this.decompressedData;
+			if (!src.hasRemaining()) {
+				return -1;
+			}
+
+			final int numBytes = Math.min(dst.remaining(), src.remaining());
+			final int limit = src.limit();
+			src.limit(src.position() + numBytes);
+			dst.put(src);
+			src.limit(limit);
+			return numBytes;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	};
+
+	/**
+	 * Creates a deserializer that keeps no statistics about decompressed buffers.
+	 */
+	protected AbstractDeserializer() {
+		this(null);
+	}
+
+	/**
+	 * Creates a deserializer that records the decompression of buffers in the statistics provided by the given
+	 * lookup.
+	 * 
+	 * @param compressionStatisticsLookup
+	 *        the lookup providing the statistics, may be <code>null</code>
+	 */
+	protected AbstractDeserializer(final CompressionStatisticsLookup compressionStatisticsLookup) {
+		this.compressionStatisticsLookup = compressionStatisticsLookup;
+	}
+
 	public void read(ReadableByteChannel readableByteChannel) throws IOException, NoBufferAvailableException {
 
 		while (true) {
@@ -161,6 +229,9 @@ public abstract class AbstractDeserializer {
 			this.jobIDDeserializationBuffer.clear();
 			this.channelIDDeserializationBuffer.clear();
 			this.deserializedEventList = null;
+			this.compressedBufferFollows = false;
+			this.compressedSizeOfBuffer = -1;
+			this.decompressedData = null;
 			return false;
 		}
 
@@ -274,6 +345,7 @@ public abstract class AbstractDeserializer {
 					this.deserializationState = DeserializationState.FULLYDESERIALIZED;
 					return false;
 				}
+				this.compressedBufferFollows = (this.tempBuffer.get(0) == (byte) 2);
 			} else {
 				return true;
 			}
@@ -300,7 +372,11 @@ public abstract class AbstractDeserializer {
 			}
 		}
 
-		if (readBufferData(readableByteChannel)) {
+		if (this.compressedBufferFollows) {
+			if (readCompressedBufferData(readableByteChannel)) {
+				return true;
+			}
+		} else if (readBufferData(readableByteChannel)) {
 			return true;
 		}
 
@@ -309,6 +385,109 @@ public abstract class AbstractDeserializer {
 		return false;
 	}
 
+	/**
+	 * Reads the compressed data of a buffer from the stream, decompresses it and hands it to
+	 * {@link #readBufferData(ReadableByteChannel)}.
+	 * 
+	 * @param readableByteChannel
+	 *        the stream to read the compressed buffer data from
+	 * @return <code>true</code> if more buffer data need to be read from the stream, <code>false</code> otherwise
+	 * @throws IOException
+	 *         thrown if an I/O error occurred while reading data from the stream or the data is corrupt
+	 * @throws NoBufferAvailableException
+	 *         thrown if the deserialization process could not be continued due to a lack of buffers
+	 */
+	private boolean readCompressedBufferData(final ReadableByteChannel readableByteChannel) throws IOException,
+			NoBufferAvailableException {
+
+		if (this.compressedSizeOfBuffer < 0) {
+
+			// We need to deserialize the compressed size, which follows the size of the buffer
+			this.tempBuffer.limit(2 * SIZEOFINT);
+			final int bytesRead = readableByteChannel.read(this.tempBuffer);
+			if (bytesRead == -1) {
+				throw new IOException("Deserialization error: Expected at least " + this.tempBuffer.remaining()
+					+ " more bytes to follow");
+			}
+
+			if (this.tempBuffer.hasRemaining()) {
+				return true;
+			}
+
+			this.compressedSizeOfBuffer = byteBufferToInteger(this.tempBuffer, SIZEOFINT);
+			if (this.compressedSizeOfBuffer <= 0 || this.compressedSizeOfBuffer >= this.sizeOfBuffer) {
+				throw new IOException("Invalid compressed buffer size: " + this.compressedSizeOfBuffer);
+			}
+
+			if (this.compressedData == null || this.compressedData.capacity() < this.sizeOfBuffer) {
+				this.compressedData = ByteBuffer.allocate(this.sizeOfBuffer);
+				this.decompressedBytes = new byte[this.sizeOfBuffer];
+			}
+			this.compressedData.clear();
+			this.compressedData.limit(this.compressedSizeOfBuffer);
+		}
+
+		if (this.compressedData.hasRemaining()) {
+
+			if (readableByteChannel.read(this.compressedData) == -1) {
+				throw new IOException("Deserialization error: Expected at least " + this.compressedData.remaining()
+					+ " more bytes to follow");
+			}
+
+			if (this.compressedData.hasRemaining()) {
+				return true;
+			}
+
+			decompress();
+		}
+
+		// The decompressed data is in memory, so the buffer can be filled right away once it is obtained
+		boolean moreDataFollows = readBufferData(this.decompressedDataChannel);
+		if (moreDataFollows && this.buffer != null) {
+			moreDataFollows = readBufferData(this.decompressedDataChannel);
+		}
+
+		return moreDataFollows;
+	}
+
+	private void decompress() throws IOException {
+
+		final long start = System.nanoTime();
+
+		final byte[] target = this.decompressedBytes;
+		final int size = this.sizeOfBuffer;
+		this.inflater.reset();
+		this.inflater.setInput(this.compressedData.array(), 0, this.compressedSizeOfBuffer);
+
+		int inflated = 0;
+		try {
+			while (inflated < size && !this.inflater.finished()) {
+				final int num = this.inflater.inflate(target, inflated, size - inflated);
+				if (num == 0 && (this.inflater.needsInput() || this.inflater.needsDictionary())) {
+					break;
+				}
+				inflated += num;
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Deserialization error: Corrupt compressed buffer: " + e.getMessage(), e);
+		}
+
+		if (inflated != size) {
+			throw new IOException("Deserialization error: Compressed buffer decompressed to " + inflated
+				+ " bytes instead of " + size);
+		}
+
+		this.decompressedData = ByteBuffer.wrap(target, 0, size);
+
+		if (this.compressionStatisticsLookup != null) {
+			final CompressionStatistics statistics = this.compressionStatisticsLookup
+				.getDecompressionStatistics(this.deserializedSourceID);
+			if (statistics != null) {
+				statistics.record(this.sizeOfBuffer, this.compressedSizeOfBuffer, System.nanoTime() - start);
+			}
+		}
+	}
+
 	public TransferEnvelope getFullyDeserializedTransferEnvelope() {
 
 		if (this.deserializationState == DeserializationState.FULLYDESERIALIZED) {
@@ -16,6 +16,7 @@ package eu.stratosphere.nephele.taskmanager.transferenvelope;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.WritableByteChannel;
+import java.util.zip.Deflater;
 
 import eu.stratosphere.core.io.IOReadableWritable;
 import eu.stratosphere.nephele.event.task.EventList;
@@ -50,6 +51,41 @@ public abstract class AbstractSerializer {
 
 	private boolean eventListExistanceSerialized = false;
 
+	/**
+	 * Decides which envelopes have their buffers compressed, <code>null</code> if no buffers are compressed.
+	 */
+	private final CompressionStatisticsLookup compressionStatisticsLookup;
+
+	private final Deflater deflater;
+
+	private byte[] uncompressedData = new byte[0];
+
+	private byte[] compressedData = new byte[0];
+
+	/**
+	 * The data of the current buffer, if it has been copied out of the buffer for compression.
+	 */
+	private ByteBuffer bufferData = null;
+
+	/**
+	 * Creates a serializer that writes all buffers uncompressed.
+	 */
+	protected AbstractSerializer() {
+		this(null);
+	}
+
+	/**
+	 * Creates a serializer that compresses the buffers of the channels for which the given lookup returns
+	 * compression statistics.
+	 * 
+	 * @param compressionStatisticsLookup
+	 *        the lookup deciding which channels compress their buffers, may be <code>null</code>
+	 */
+	protected AbstractSerializer(final CompressionStatisticsLookup compressionStatisticsLookup) {
+		this.compressionStatisticsLookup = compressionStatisticsLookup;
+		this.deflater = compressionStatisticsLookup == null ? null : new Deflater(Deflater.BEST_SPEED, true);
+	}
+
 	public final void setTransferEnvelope(TransferEnvelope transferEnvelope) {
 
 		this.transferEnvelope = transferEnvelope;
@@ -195,6 +231,7 @@ public abstract class AbstractSerializer {
 		this.serializationStarted = false;
 		this.bufferExistanceSerialized = false;
 		this.eventListExistanceSerialized = false;
+		this.bufferData = null;
 	}
 
 	private boolean writeBuffer(WritableByteChannel writableByteChannel, Buffer buffer) throws IOException {
@@ -209,6 +246,10 @@ public abstract class AbstractSerializer {
 					if (buffer == null) {
 						this.tempBuffer.put(0, (byte) 0);
 						this.tempBuffer.limit(1);
+					} else if (compressBuffer(buffer)) {
+						this.tempBuffer.put(0, (byte) 2);
+						integerToByteBuffer(buffer.size(), 1, this.tempBuffer);
+						integerToByteBuffer(this.bufferData.remaining(), 1 + SIZEOFINT, this.tempBuffer);
 					} else {
 						this.tempBuffer.put(0, (byte) 1);
 						// System.out.println("OUTGOING: Buffer size is " + buffer.size());
@@ -231,6 +272,18 @@ public abstract class AbstractSerializer {
 					}
 				}
 
+			} else if (this.bufferData != null) {
+
+				// the data has already been copied out of the buffer for compression
+				writableByteChannel.write(this.bufferData);
+				if (!this.bufferData.hasRemaining()) {
+					this.bufferData = null;
+					this.serializationState = SerializationState.FULLYSERIALIZED;
+					return false;
+				}
+
+				return true;
+
 			} else {
 
 				if (!writeBufferData(writableByteChannel, buffer)) {
@@ -243,6 +296,67 @@ public abstract class AbstractSerializer {
 		}
 	}
 
+	/**
+	 * Compresses the given buffer, if the envelope's source channel compresses its buffers. In that case, the
+	 * buffer's data is consumed and the data to be written is kept in {@link #bufferData}, either compressed or,
+	 * if it does not compress, as is.
+	 * 
+	 * @param buffer
+	 *        the buffer to compress
+	 * @return <code>true</code> if the buffer has been compressed, <code>false</code> otherwise
+	 * @throws IOException
+	 *         thrown if the buffer's data cannot be read
+	 */
+	private boolean compressBuffer(final Buffer buffer) throws IOException {
+
+		this.bufferData = null;
+
+		if (this.compressionStatisticsLookup == null) {
+			return false;
+		}
+
+		final CompressionStatistics statistics = this.compressionStatisticsLookup
+			.getCompressionStatistics(this.transferEnvelope.getSource());
+		if (statistics == null) {
+			return false;
+		}
+
+		final long start = System.nanoTime();
+		final int size = buffer.size();
+		if (this.uncompressedData.length < size) {
+			this.uncompressedData = new byte[size];
+			this.compressedData = new byte[size];
+		}
+
+		final ByteBuffer uncompressed = ByteBuffer.wrap(this.uncompressedData, 0, size);
+		while (uncompressed.hasRemaining()) {
+			if (buffer.read(uncompressed) <= 0) {
+				throw new IOException("Buffer contains less than its size of " + size + " bytes");
+			}
+		}
+
+		// compress, giving up once the output is not smaller than the input
+		this.deflater.reset();
+		this.deflater.setInput(this.uncompressedData, 0, size);
+		this.deflater.finish();
+
+		int length = 0;
+		while (!this.deflater.finished() && length < size) {
+			length += this.deflater.deflate(this.compressedData, length, size - length);
+		}
+
+		final boolean compressed = this.deflater.finished() && length < size;
+		if (compressed) {
+			this.bufferData = ByteBuffer.wrap(this.compressedData, 0, length);
+		} else {
+			this.bufferData = uncompressed;
+			uncompressed.flip();
+		}
+
+		statistics.record(size, this.bufferData.remaining(), System.nanoTime() - start);
+		return compressed;
+	}
+
 	/**
 	 * Writes the buffer's actual data.
 	 * 
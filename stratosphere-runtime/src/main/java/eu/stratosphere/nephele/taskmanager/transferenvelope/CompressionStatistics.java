@@ -0,0 +1,79 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.nephele.taskmanager.transferenvelope;
+
+/**
+ * Collects the compression ratio and the CPU time spent on compressing or decompressing the buffers of
+ * a single channel that are shipped over the network. The statistics are updated by the network threads
+ * and may be read concurrently.
+ */
+public final class CompressionStatistics {
+
+	private long numBuffers;
+
+	private long uncompressedBytes;
+
+	private long compressedBytes;
+
+	private long nanos;
+
+	/**
+	 * Records the (de)compression of a single buffer.
+	 * 
+	 * @param uncompressedLength
+	 *        the length of the buffer's data before compression
+	 * @param compressedLength
+	 *        the length of the buffer's data on the wire
+	 * @param elapsedNanos
+	 *        the CPU time spent on the (de)compression, in nanoseconds
+	 */
+	public synchronized void record(final int uncompressedLength, final int compressedLength, final long elapsedNanos) {
+		this.numBuffers++;
+		this.uncompressedBytes += uncompressedLength;
+		this.compressedBytes += compressedLength;
+		this.nanos += elapsedNanos;
+	}
+
+	public synchronized long getNumberOfBuffers() {
+		return this.numBuffers;
+	}
+
+	public synchronized long getUncompressedBytes() {
+		return this.uncompressedBytes;
+	}
+
+	public synchronized long getCompressedBytes() {
+		return this.compressedBytes;
+	}
+
+	public synchronized long getNanos() {
+		return this.nanos;
+	}
+
+	/**
+	 * Returns the ratio of the uncompressed size to the size on the wire.
+	 * 
+	 * @return the compression ratio, or <code>1.0</code> if no data has been recorded yet
+	 */
+	public synchronized double getCompressionRatio() {
+		return this.compressedBytes == 0 ? 1.0 : this.uncompressedBytes / (double) this.compressedBytes;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%d buffers, %d bytes -> %d bytes (ratio %.2f), %d ms", this.numBuffers,
+			this.uncompressedBytes, this.compressedBytes, getCompressionRatio(), this.nanos / 1000000);
+	}
+}
@@ -0,0 +1,43 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.nephele.taskmanager.transferenvelope;
+
+import eu.stratosphere.nephele.io.channels.ChannelID;
+
+/**
+ * Decides which channels compress the buffers of their transfer envelopes before they are written to the network,
+ * and keeps the compression statistics of these channels.
+ */
+public interface CompressionStatisticsLookup {
+
+	/**
+	 * Returns the statistics of the given output channel, if its buffers are to be compressed before being sent.
+	 * 
+	 * @param sourceChannelID
+	 *        the ID of the output channel the envelope originates from
+	 * @return the statistics to record the compression in, or <code>null</code> if the buffers of this channel
+	 *         are sent uncompressed
+	 */
+	CompressionStatistics getCompressionStatistics(ChannelID sourceChannelID);
+
+	/**
+	 * Returns the statistics to record the decompression of buffers received from the given output channel in.
+	 * 
+	 * @param sourceChannelID
+	 *        the ID of the output channel the envelope originates from
+	 * @return the statistics to record the decompression in, or <code>null</code> if no statistics are kept
+	 */
+	CompressionStatistics getDecompressionStatistics(ChannelID sourceChannelID);
+}
@@ -36,6 +36,12 @@ public final class DefaultDeserializer extends AbstractDeserializer {
 		this.bufferProviderBroker = bufferProviderBroker;
 	}
 
+	public DefaultDeserializer(final BufferProviderBroker bufferProviderBroker,
+			final CompressionStatisticsLookup compressionStatisticsLookup) {
+		super(compressionStatisticsLookup);
+		this.bufferProviderBroker = bufferProviderBroker;
+	}
+
 
 	@Override
 	protected boolean readBufferData(final ReadableByteChannel readableByteChannel) throws IOException,
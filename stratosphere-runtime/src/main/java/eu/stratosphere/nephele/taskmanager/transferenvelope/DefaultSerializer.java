@@ -25,6 +25,22 @@ import eu.stratosphere.nephele.io.channels.Buffer;
  */
 public class DefaultSerializer extends AbstractSerializer {
 
+	/**
+	 * Creates a serializer that writes all buffers uncompressed.
+	 */
+	public DefaultSerializer() {
+	}
+
+	/**
+	 * Creates a serializer that compresses the buffers of the channels for which the given lookup returns
+	 * compression statistics.
+	 * 
+	 * @param compressionStatisticsLookup
+	 *        the lookup deciding which channels compress their buffers
+	 */
+	public DefaultSerializer(final CompressionStatisticsLookup compressionStatisticsLookup) {
+		super(compressionStatisticsLookup);
+	}
 
 	@Override
 	protected boolean writeBufferData(final WritableByteChannel writableByteChannel, final Buffer buffer)
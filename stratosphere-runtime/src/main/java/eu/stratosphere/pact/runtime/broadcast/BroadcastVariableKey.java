@@ -0,0 +1,78 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+package eu.stratosphere.pact.runtime.broadcast;
+
+import eu.stratosphere.nephele.jobgraph.JobID;
+
+
+/**
+ * Identifies a broadcast variable within a TaskManager. All parallel subtasks of the same task that run in the
+ * same TaskManager receive the same data on the same broadcast input, so they identify the variable by the job,
+ * the job-wide unique ID of the broadcast input, and the superstep in which the variable was read.
+ */
+public final class BroadcastVariableKey {
+	
+	private final JobID jobId;
+	
+	private final String variableId;
+	
+	private final int superstep;
+	
+	
+	public BroadcastVariableKey(JobID jobId, String variableId, int superstep) {
+		if (jobId == null || variableId == null) {
+			throw new NullPointerException();
+		}
+		
+		this.jobId = jobId;
+		this.variableId = variableId;
+		this.superstep = superstep;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public JobID getJobId() {
+		return this.jobId;
+	}
+	
+	public String getVariableId() {
+		return this.variableId;
+	}
+	
+	public int getSuperstep() {
+		return this.superstep;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	@Override
+	public int hashCode() {
+		return 31 * (31 * this.jobId.hashCode() + this.variableId.hashCode()) + this.superstep;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (obj != null && obj.getClass() == BroadcastVariableKey.class) {
+			final BroadcastVariableKey other = (BroadcastVariableKey) obj;
+			return this.superstep == other.superstep && this.jobId.equals(other.jobId) &&
+					this.variableId.equals(other.variableId);
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return this.jobId + " - " + this.variableId + " - superstep " + this.superstep;
+	}
+}
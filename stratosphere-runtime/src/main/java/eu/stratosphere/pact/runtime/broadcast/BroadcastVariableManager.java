@@ -0,0 +1,88 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+package eu.stratosphere.pact.runtime.broadcast;
+
+import java.util.HashMap;
+
+
+/**
+ * The registry of the broadcast variables that are shared by the subtasks running in this TaskManager. The
+ * first subtask that acquires a variable creates its {@link BroadcastVariableMaterialization}, the following
+ * subtasks share it. The variables are reference counted: a variable is dropped from the registry once the last
+ * subtask that acquired it has released it.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class BroadcastVariableManager {
+	
+	private static final HashMap<BroadcastVariableKey, BroadcastVariableMaterialization<?>> variables = 
+			new HashMap<BroadcastVariableKey, BroadcastVariableMaterialization<?>>();
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Acquires a reference to the broadcast variable with the given key, registering the variable, if it is not
+	 * yet registered. Every call to this method must be matched by a call to
+	 * {@link #releaseBroadcastVariable(BroadcastVariableMaterialization)}.
+	 * 
+	 * @param key The key identifying the broadcast variable.
+	 * @return The shared materialization of the broadcast variable.
+	 */
+	public static <T> BroadcastVariableMaterialization<T> acquireBroadcastVariable(BroadcastVariableKey key) {
+		synchronized (variables) {
+			@SuppressWarnings("unchecked")
+			BroadcastVariableMaterialization<T> variable = (BroadcastVariableMaterialization<T>) variables.get(key);
+			if (variable == null) {
+				variable = new BroadcastVariableMaterialization<T>(key);
+				variables.put(key, variable);
+			}
+			variable.incrementReferenceCount();
+			return variable;
+		}
+	}
+	
+	/**
+	 * Releases a reference to the given broadcast variable. The variable is removed from the registry,
+	 * once no more references are held.
+	 * 
+	 * @param variable The broadcast variable to release.
+	 */
+	public static void releaseBroadcastVariable(BroadcastVariableMaterialization<?> variable) {
+		synchronized (variables) {
+			if (variable.decrementReferenceCount() == 0) {
+				variables.remove(variable.getKey());
+				variable.dispose();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the number of broadcast variables that are currently registered.
+	 * 
+	 * @return The number of registered broadcast variables.
+	 */
+	public static int getNumberOfVariables() {
+		synchronized (variables) {
+			return variables.size();
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private BroadcastVariableManager() {
+		throw new RuntimeException();
+	}
+}
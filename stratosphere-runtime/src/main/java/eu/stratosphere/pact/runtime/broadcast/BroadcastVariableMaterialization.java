@@ -0,0 +1,266 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+package eu.stratosphere.pact.runtime.broadcast;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.core.memory.MemorySegment;
+import eu.stratosphere.core.memory.MemorySegmentSource;
+import eu.stratosphere.pact.runtime.io.RandomAccessInputView;
+import eu.stratosphere.pact.runtime.io.SimpleCollectingOutputView;
+import eu.stratosphere.util.MutableObjectIterator;
+
+
+/**
+ * A broadcast variable that is materialized once per TaskManager and shared by all subtasks that read it.
+ * The first subtask that reads the variable serializes the records from its broadcast input into memory pages.
+ * All other subtasks only drain their broadcast input and then wait for the first subtask to finish.
+ * Every subtask accesses the shared pages through its own {@link Collection} view, which deserializes the
+ * records directly from the pages whenever the collection is iterated.
+ * <p>
+ * The pages are allocated on the heap rather than taken from the memory manager, because the managed memory
+ * is owned by a single task and reclaimed when that task finishes, while the variable lives as long as any
+ * subtask holds a reference to it. Holding the records in serialized form avoids the per-object overhead of
+ * the deserialized records and is independent of the number of subtasks sharing the variable.
+ */
+public final class BroadcastVariableMaterialization<T> {
+	
+	/**
+	 * The size of the pages that hold the serialized records.
+	 */
+	private static final int PAGE_SIZE = 32 * 1024;
+	
+	private final BroadcastVariableKey key;
+	
+	private final Object lock = new Object();
+	
+	private ArrayList<MemorySegment> pages;		// the pages holding the serialized records
+	
+	private int limitInLastPage;				// the number of bytes in the last page
+	
+	private int numRecords;						// the number of records in the variable
+	
+	private int referenceCount;					// the number of subtasks holding a reference, guarded by the manager
+	
+	private boolean claimed;					// flag indicating that a subtask is materializing the variable
+	
+	private boolean materialized;				// flag indicating that the variable has been materialized
+	
+	private Throwable failure;					// the cause, if the materializing subtask failed
+	
+	
+	BroadcastVariableMaterialization(BroadcastVariableKey key) {
+		this.key = key;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public BroadcastVariableKey getKey() {
+		return this.key;
+	}
+	
+	int incrementReferenceCount() {
+		return ++this.referenceCount;
+	}
+	
+	int decrementReferenceCount() {
+		if (this.referenceCount <= 0) {
+			throw new IllegalStateException("The broadcast variable " + this.key + " has already been released.");
+		}
+		return --this.referenceCount;
+	}
+	
+	void dispose() {
+		synchronized (this.lock) {
+			this.pages = null;
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Reads the variable from the given input. If no other subtask has claimed the materialization of the
+	 * variable, this call materializes it from the input. Otherwise, the input is only drained.
+	 * In either case, the input is fully consumed when this method returns normally.
+	 * 
+	 * @param input The broadcast input of the calling subtask.
+	 * @param serializer The serializer for the records of the input.
+	 * @return True, if the calling subtask materialized the variable, false if it only drained its input.
+	 * @throws IOException Thrown, if the input could not be read, or the records not be serialized.
+	 */
+	public boolean materializeVariable(MutableObjectIterator<T> input, TypeSerializer<T> serializer) throws IOException {
+		final boolean materialize;
+		synchronized (this.lock) {
+			materialize = !this.claimed;
+			this.claimed = true;
+		}
+		
+		final T record = serializer.createInstance();
+		
+		if (!materialize) {
+			while (input.next(record));
+			return false;
+		}
+		
+		try {
+			final ArrayList<MemorySegment> pages = new ArrayList<MemorySegment>();
+			final SimpleCollectingOutputView out = new SimpleCollectingOutputView(pages, new MemorySegmentSource() {
+				@Override
+				public MemorySegment nextSegment() {
+					return new MemorySegment(new byte[PAGE_SIZE]);
+				}
+			}, PAGE_SIZE);
+			
+			int numRecords = 0;
+			while (input.next(record)) {
+				serializer.serialize(record, out);
+				numRecords++;
+			}
+			
+			synchronized (this.lock) {
+				this.pages = pages;
+				this.limitInLastPage = out.getCurrentPositionInSegment();
+				this.numRecords = numRecords;
+				this.materialized = true;
+				this.lock.notifyAll();
+			}
+			return true;
+		}
+		catch (Throwable t) {
+			synchronized (this.lock) {
+				this.failure = t;
+				this.lock.notifyAll();
+			}
+			if (t instanceof IOException) {
+				throw (IOException) t;
+			} else if (t instanceof RuntimeException) {
+				throw (RuntimeException) t;
+			} else if (t instanceof Error) {
+				throw (Error) t;
+			} else {
+				throw new IOException("Materializing the broadcast variable failed: " + t.getMessage(), t);
+			}
+		}
+	}
+	
+	/**
+	 * Gets a view of the variable that deserializes the records with the given serializer. The call blocks
+	 * until the variable has been materialized. The returned collection is read-only and must only be used
+	 * by a single thread, while views of different subtasks may be used concurrently.
+	 * 
+	 * @param serializer The serializer used to deserialize the records.
+	 * @return A read-only collection view of the variable.
+	 * @throws IOException Thrown, if the subtask materializing the variable failed, or the calling thread was
+	 *                     interrupted while waiting for the materialization.
+	 */
+	public Collection<T> getVariable(TypeSerializer<T> serializer) throws IOException {
+		synchronized (this.lock) {
+			while (!this.materialized && this.failure == null) {
+				try {
+					this.lock.wait();
+				}
+				catch (InterruptedException iex) {
+					throw new IOException("Interrupted while waiting for the broadcast variable " + this.key + 
+						" to be materialized.");
+				}
+			}
+			if (this.failure != null) {
+				throw new IOException("The broadcast variable " + this.key + " could not be materialized: " + 
+						this.failure.getMessage(), this.failure);
+			}
+			if (this.pages == null) {
+				throw new IllegalStateException("The broadcast variable " + this.key + " has been disposed.");
+			}
+			return new SerializedCollection<T>(this.pages, this.limitInLastPage, this.numRecords, serializer);
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * A read-only collection over serialized records. Every iterator reads the records from the shared pages
+	 * through its own input view and deserializes them into new objects.
+	 */
+	private static final class SerializedCollection<T> extends AbstractCollection<T> {
+		
+		private final ArrayList<MemorySegment> pages;
+		
+		private final int limitInLastPage;
+		
+		private final int numRecords;
+		
+		private final TypeSerializer<T> serializer;
+		
+		
+		SerializedCollection(ArrayList<MemorySegment> pages, int limitInLastPage, int numRecords, TypeSerializer<T> serializer) {
+			this.pages = pages;
+			this.limitInLastPage = limitInLastPage;
+			this.numRecords = numRecords;
+			this.serializer = serializer;
+		}
+		
+		@Override
+		public int size() {
+			return this.numRecords;
+		}
+		
+		@Override
+		public Iterator<T> iterator() {
+			final RandomAccessInputView in = new RandomAccessInputView(this.pages, PAGE_SIZE, this.limitInLastPage);
+			
+			return new Iterator<T>() {
+				
+				private int numRead;
+				
+				@Override
+				public boolean hasNext() {
+					return this.numRead < SerializedCollection.this.numRecords;
+				}
+				
+				@Override
+				public T next() {
+					if (this.numRead >= SerializedCollection.this.numRecords) {
+						throw new NoSuchElementException();
+					}
+					
+					final TypeSerializer<T> serializer = SerializedCollection.this.serializer;
+					final T record = serializer.createInstance();
+					try {
+						serializer.deserialize(record, in);
+					}
+					catch (EOFException eofex) {
+						throw new RuntimeException("Bug: The serialized broadcast variable ended prematurely.", eofex);
+					}
+					catch (IOException ioex) {
+						throw new RuntimeException("Error deserializing a record of the broadcast variable: " + 
+								ioex.getMessage(), ioex);
+					}
+					this.numRead++;
+					return record;
+				}
+				
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
+}
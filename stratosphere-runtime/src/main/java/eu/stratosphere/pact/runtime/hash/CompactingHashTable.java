@@ -0,0 +1,1311 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.pact.runtime.hash;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.common.typeutils.TypePairComparator;
+import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.core.memory.MemorySegment;
+import eu.stratosphere.nephele.services.iomanager.BlockChannelReader;
+import eu.stratosphere.nephele.services.iomanager.BlockChannelWriter;
+import eu.stratosphere.nephele.services.iomanager.Channel;
+import eu.stratosphere.nephele.services.iomanager.ChannelReaderInputView;
+import eu.stratosphere.nephele.services.iomanager.ChannelWriterOutputView;
+import eu.stratosphere.nephele.services.iomanager.IOManager;
+import eu.stratosphere.nephele.services.memorymanager.AbstractPagedInputView;
+import eu.stratosphere.nephele.services.memorymanager.AbstractPagedOutputView;
+import eu.stratosphere.pact.runtime.util.MathUtils;
+import eu.stratosphere.util.Collector;
+import eu.stratosphere.util.MutableObjectIterator;
+
+/**
+ * An in-memory hash table that holds one record per key and supports replacing records with records of a
+ * different length. It is used to hold the solution set of workset iterations, whose records are updated in
+ * every superstep.
+ * <p>
+ * The memory is split into the bucket area and the record area. Each slot in the bucket area holds the address of
+ * the first record of the slot's chain, or -1. The record area is an append-only log: new and updated records are
+ * always appended at its tail, and an updated record is unlinked from its chain, leaving a stale copy behind.
+ * Each record is preceded by a header:
+ * 
+ * <pre>
+ * | next-record-in-chain-pointer (8 bytes) | hash code (4 bytes) | length (4 bytes) | record (length bytes) |
+ * </pre>
+ * 
+ * The headers never cross segment boundaries, while the records themselves may span several segments.
+ * When the free segments run out, the table compacts the record area incrementally: starting at the head of
+ * the log, it moves the records that are still linked to the tail and drops the stale ones, until enough
+ * segments at the head of the log are free again. A few segments are reserved for the compaction, such that
+ * it can always move the records at the head of the log.
+ * <p>
+ * If the table is given an {@link IOManager} and enough memory, it splits the slots into partitions of consecutive
+ * slots. When the memory is exhausted even after compaction, it spills the partition that was accessed least
+ * since the last partition was loaded, writing its records to disk and unlinking them. Records inserted into a
+ * spilled partition, as well as probes deferred by the caller, are appended to the partition's log file. A spilled
+ * partition is loaded back into memory (spilling others) when its deferred probes are requested through
+ * {@link #getNextDeferredProbes()} or when the table is iterated; the log is replayed after loading. That way, all
+ * accesses to a spilled partition are processed in one batch.
+ * <p>
+ * Updates through {@link #updateRecord(Object)} of a spilled partition go to a separate update log, which receives
+ * all further updates of the partition, even if the partition is loaded for its deferred probes in the meantime.
+ * The update logs are only applied by {@link #applyLoggedUpdates(Collector)}, which waits until all deferred probes
+ * have been consumed. Hence, deferred probes never see the logged updates, and the thread that updates the table
+ * is the only one that learns which logged updates replaced a record.
+ * <p>
+ * The table may be probed and updated by different threads, as done by the solution set join and a separate
+ * iteration tail: all public methods are atomic. A caller that decides between {@link #getMatchFor(Object, Object)}
+ * and {@link #deferProbe(Object)} through {@link #isSpilled(Object)} must hold the table's monitor across both
+ * calls, because other threads may spill and load partitions in between. The current match, as used by
+ * {@link #updateMatch(Object)}, is shared by all threads, so probing and updating the match must happen in the
+ * same thread, without updates by other threads in between.
+ * 
+ * @param <BT> The type of the records in the table.
+ * @param <PT> The type of the records with which the table is probed.
+ */
+public class CompactingHashTable<BT, PT> {
+	
+	/**
+	 * The number of segments that are kept free for the compaction of the record area.
+	 */
+	private static final int NUM_RESERVED_SEGMENTS = 2;
+	
+	/**
+	 * The minimum number of memory segments the table needs: one for the buckets, one for the records, and the
+	 * segments reserved for the compaction.
+	 */
+	public static final int MIN_NUM_MEMORY_SEGMENTS = 2 + NUM_RESERVED_SEGMENTS;
+	
+	/**
+	 * The maximum number of partitions the slots are split into, if the table may spill.
+	 */
+	private static final int MAX_NUM_PARTITIONS = 32;
+	
+	/**
+	 * The number of memory segments per partition, below which the table uses fewer partitions. The table spills
+	 * only if there is memory for at least two partitions.
+	 */
+	private static final int MIN_SEGMENTS_PER_PARTITION = 16;
+	
+	/**
+	 * The number of segments used to write a spilled partition, and, separately, to read it back.
+	 */
+	private static final int NUM_IO_SEGMENTS = 2;
+	
+	private static final byte LOG_INSERT = 0;
+	
+	private static final byte LOG_PROBE = 1;
+	
+	/**
+	 * The record length assumed to split the memory, if the serializer reports variable length records.
+	 */
+	private static final int DEFAULT_RECORD_LEN = 24;
+	
+	/**
+	 * The number of bytes of a slot in the bucket area.
+	 */
+	private static final int SLOT_SIZE = 8;
+	
+	/**
+	 * The number of bytes of a record header.
+	 */
+	private static final int HEADER_SIZE = 16;
+	
+	private static final int HEADER_HASH_OFFSET = 8;
+	
+	private static final int HEADER_LENGTH_OFFSET = 12;
+	
+	/**
+	 * The pointer marking the end of a chain.
+	 */
+	private static final long NULL_POINTER = -1L;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private final TypeSerializer<BT> buildSideSerializer;
+	
+	private final TypeSerializer<PT> probeSideSerializer;
+	
+	private final TypeComparator<BT> buildSideComparator;
+	
+	private final TypeComparator<PT> probeSideComparator;
+	
+	private final TypePairComparator<PT, BT> pairComparator;
+	
+	private final BT candidate;							// holder for records compared during updates
+	
+	private final BT spilledRecord;						// holder for records read from spilled partitions
+	
+	private final MemorySegment[] buckets;
+	
+	private final int numSlots;
+	
+	private final int slotsPerSegmentBits;
+	
+	private final int slotsPerSegmentMask;
+	
+	private final int segmentSize;
+	
+	private final int segmentSizeBits;
+	
+	private final int segmentSizeMask;
+	
+	private final ArrayList<MemorySegment> freeSegments;	// the segments not used by the record area
+	
+	private final ArrayList<MemorySegment> recordSegments;	// the segments of the record area, oldest first
+	
+	private final RecordAreaInputView recordReader;
+	
+	private final RecordAreaOutputView recordWriter;
+	
+	private final IOManager ioManager;					// the I/O manager to spill partitions, or null
+	
+	private final Partition[] partitions;
+	
+	private final int slotsPerPartitionBits;
+	
+	private List<MemorySegment> spillWriteBuffers;		// the segments to write spilled partitions
+	
+	private List<MemorySegment> spillReadBuffers;		// the segments to read spilled partitions and logs
+	
+	private final ArrayList<MemorySegment> logBuffers;	// one segment for each log and each update log
+	
+	private int numSpilledPartitions;
+	
+	private int pinnedPartition = -1;					// the partition currently being loaded, never spilled
+	
+	private LogReplayIterator replay;					// the replay of the log of the pinned partition
+	
+	private long firstSegmentNumber;					// the number of the first segment in the record area
+	
+	private long headAddress;							// the address of the oldest record not yet compacted
+	
+	private long tailAddress;							// the address at which the next record is appended
+	
+	private long liveBytes;								// the bytes of all linked records, including headers
+	
+	private long currentMatchAddress;					// the address of the last matched or updated record
+	
+	private int currentMatchHash;						// the hash code of the last matched or updated record
+	
+	private int numElements;
+	
+	private boolean compacting;							// flag indicating that the reserved segments may be used
+	
+	private boolean closed;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Creates a new compacting hash table that works with the given memory segments and fails, if the records do
+	 * not fit into them.
+	 * 
+	 * @param buildSideSerializer The serializer for the records in the table.
+	 * @param buildSideComparator The comparator that hashes the records in the table and compares their keys.
+	 * @param probeSideComparator The comparator that hashes the probe records.
+	 * @param pairComparator The comparator that compares the keys of probe records with those of the records
+	 *                       in the table.
+	 * @param memory The memory segments that hold the table. All segments must be of the same size, which must
+	 *               be a power of two.
+	 */
+	public CompactingHashTable(TypeSerializer<BT> buildSideSerializer, TypeComparator<BT> buildSideComparator,
+			TypeComparator<PT> probeSideComparator, TypePairComparator<PT, BT> pairComparator, List<MemorySegment> memory)
+	{
+		this(buildSideSerializer, null, buildSideComparator, probeSideComparator, pairComparator, memory, null);
+	}
+	
+	/**
+	 * Creates a new compacting hash table that works with the given memory segments and spills partitions through
+	 * the given I/O manager, if the records do not fit into them.
+	 * 
+	 * @param buildSideSerializer The serializer for the records in the table.
+	 * @param probeSideSerializer The serializer for the probe records, which is used to defer probes.
+	 * @param buildSideComparator The comparator that hashes the records in the table and compares their keys.
+	 * @param probeSideComparator The comparator that hashes the probe records.
+	 * @param pairComparator The comparator that compares the keys of probe records with those of the records
+	 *                       in the table.
+	 * @param memory The memory segments that hold the table. All segments must be of the same size, which must
+	 *               be a power of two.
+	 * @param ioManager The I/O manager used to spill partitions, or null, if the table must not spill.
+	 */
+	public CompactingHashTable(TypeSerializer<BT> buildSideSerializer, TypeSerializer<PT> probeSideSerializer,
+			TypeComparator<BT> buildSideComparator, TypeComparator<PT> probeSideComparator,
+			TypePairComparator<PT, BT> pairComparator, List<MemorySegment> memory, IOManager ioManager)
+	{
+		if (buildSideSerializer == null || buildSideComparator == null || probeSideComparator == null ||
+				pairComparator == null || memory == null || (ioManager != null && probeSideSerializer == null))
+		{
+			throw new NullPointerException();
+		}
+		if (memory.size() < MIN_NUM_MEMORY_SEGMENTS) {
+			throw new IllegalArgumentException("Too few memory segments provided. The hash table needs at least " + 
+				MIN_NUM_MEMORY_SEGMENTS + " memory segments.");
+		}
+		
+		this.buildSideSerializer = buildSideSerializer;
+		this.probeSideSerializer = probeSideSerializer;
+		this.buildSideComparator = buildSideComparator;
+		this.probeSideComparator = probeSideComparator;
+		this.pairComparator = pairComparator;
+		this.candidate = buildSideSerializer.createInstance();
+		this.spilledRecord = buildSideSerializer.createInstance();
+		
+		this.segmentSize = memory.get(0).size();
+		this.segmentSizeBits = MathUtils.log2strict(this.segmentSize);
+		this.segmentSizeMask = this.segmentSize - 1;
+		
+		final int slotsPerSegment = this.segmentSize / SLOT_SIZE;
+		this.slotsPerSegmentBits = MathUtils.log2strict(slotsPerSegment);
+		this.slotsPerSegmentMask = slotsPerSegment - 1;
+		
+		// set aside the I/O buffers, if the table may spill
+		final int numPartitions = ioManager == null ? 1 :
+			Math.min(MAX_NUM_PARTITIONS, MathUtils.roundDownToPowerOf2(memory.size() / MIN_SEGMENTS_PER_PARTITION));
+		final List<MemorySegment> tableMemory;
+		if (numPartitions > 1) {
+			final int numIOSegments = 2 * NUM_IO_SEGMENTS + 2 * numPartitions;
+			tableMemory = memory.subList(0, memory.size() - numIOSegments);
+			this.ioManager = ioManager;
+			this.spillWriteBuffers = new ArrayList<MemorySegment>(memory.subList(tableMemory.size(), tableMemory.size() + NUM_IO_SEGMENTS));
+			this.spillReadBuffers = new ArrayList<MemorySegment>(memory.subList(tableMemory.size() + NUM_IO_SEGMENTS, 
+				tableMemory.size() + 2 * NUM_IO_SEGMENTS));
+			this.logBuffers = new ArrayList<MemorySegment>(memory.subList(tableMemory.size() + 2 * NUM_IO_SEGMENTS, memory.size()));
+		} else {
+			tableMemory = memory;
+			this.ioManager = null;
+			this.spillWriteBuffers = new ArrayList<MemorySegment>();
+			this.spillReadBuffers = new ArrayList<MemorySegment>();
+			this.logBuffers = new ArrayList<MemorySegment>();
+		}
+		
+		// split the memory between buckets and records, aiming at roughly one record per slot
+		final int recordLen = buildSideSerializer.getLength() > 0 ? buildSideSerializer.getLength() : DEFAULT_RECORD_LEN;
+		final int numUsableSegments = tableMemory.size() - NUM_RESERVED_SEGMENTS;
+		final int numBucketSegments = Math.min(numUsableSegments - 1, Math.max(1, MathUtils.roundDownToPowerOf2(
+			(int) ((long) numUsableSegments * SLOT_SIZE / (recordLen + HEADER_SIZE + SLOT_SIZE)))));
+		
+		this.buckets = new MemorySegment[numBucketSegments];
+		for (int i = 0; i < numBucketSegments; i++) {
+			this.buckets[i] = tableMemory.get(i);
+		}
+		this.numSlots = numBucketSegments * slotsPerSegment;
+		
+		// the partitions are ranges of consecutive slots
+		this.partitions = new Partition[Math.min(numPartitions, this.numSlots)];
+		for (int i = 0; i < this.partitions.length; i++) {
+			this.partitions[i] = new Partition();
+		}
+		this.slotsPerPartitionBits = MathUtils.log2strict(this.numSlots) - MathUtils.log2strict(this.partitions.length);
+		
+		this.freeSegments = new ArrayList<MemorySegment>(tableMemory.subList(numBucketSegments, tableMemory.size()));
+		this.recordSegments = new ArrayList<MemorySegment>(this.freeSegments.size());
+		this.recordReader = new RecordAreaInputView();
+		this.recordWriter = new RecordAreaOutputView(this.segmentSize);
+		
+		for (MemorySegment bucket : this.buckets) {
+			for (int pos = 0; pos < this.segmentSize; pos += SLOT_SIZE) {
+				bucket.putLong(pos, NULL_POINTER);
+			}
+		}
+		this.currentMatchAddress = NULL_POINTER;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	//                                       Life cycle
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Inserts all records of the given input into the table. If the input contains several records with equal keys,
+	 * the table keeps the last one.
+	 * 
+	 * @param input The records to insert.
+	 * @throws IOException Thrown, if the input could not be read, or the records not be serialized.
+	 */
+	public synchronized void open(MutableObjectIterator<BT> input) throws IOException {
+		final BT record = this.buildSideSerializer.createInstance();
+		while (input.next(record)) {
+			insertOrReplaceRecord(record);
+		}
+	}
+	
+	/**
+	 * Closes the table, deletes the files of spilled partitions, and makes the memory available through
+	 * {@link #getFreedMemory()}. The table must not be used any more afterwards.
+	 */
+	public synchronized void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		notifyAll();
+		
+		// release the files of spilled partitions. failures are not propagated, because the files are
+		// temporary and closing happens also when the task is cleaning up after an error
+		if (this.replay != null) {
+			try {
+				this.replay.finish();
+			} catch (Throwable t) {}
+		}
+		for (Partition partition : this.partitions) {
+			try {
+				partition.discard(this.logBuffers);
+			} catch (Throwable t) {}
+		}
+		
+		for (MemorySegment bucket : this.buckets) {
+			this.freeSegments.add(bucket);
+		}
+		this.freeSegments.addAll(this.recordSegments);
+		this.recordSegments.clear();
+		this.freeSegments.addAll(this.spillWriteBuffers);
+		this.freeSegments.addAll(this.spillReadBuffers);
+		this.freeSegments.addAll(this.logBuffers);
+		this.spillWriteBuffers.clear();
+		this.spillReadBuffers.clear();
+		this.logBuffers.clear();
+	}
+	
+	/**
+	 * Gets the memory segments of the table, once it has been closed.
+	 * 
+	 * @return The memory segments of the closed table.
+	 */
+	public synchronized List<MemorySegment> getFreedMemory() {
+		if (!this.closed) {
+			throw new IllegalStateException("Cannot return memory while the hash table is open.");
+		}
+		return this.freeSegments;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	//                                  Probing and updating
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Looks up the record with the same key as the given probe record. If the table contains such a record, it
+	 * becomes the current match, which can be replaced by {@link #updateMatch(Object)}. The record must not belong
+	 * to a spilled partition, see {@link #isSpilled(Object)}.
+	 * 
+	 * @param probeSideRecord The probe record.
+	 * @param target The object into which the matching record is deserialized.
+	 * @return True, if the table contains a record with the same key, false otherwise.
+	 * @throws IOException Thrown, if a record could not be deserialized.
+	 */
+	public synchronized boolean getMatchFor(PT probeSideRecord, BT target) throws IOException {
+		final int hashCode = MutableHashTable.hash(this.probeSideComparator.hash(probeSideRecord), 0);
+		final Partition partition = getPartition(hashCode);
+		if (partition.spilled) {
+			throw new IllegalStateException("The probe record belongs to a spilled partition and must be deferred.");
+		}
+		partition.accesses++;
+		
+		this.pairComparator.setReference(probeSideRecord);
+		
+		long pointer = getSlot(hashCode);
+		while (pointer != NULL_POINTER) {
+			if (getHashCode(pointer) == hashCode) {
+				readRecord(pointer, target);
+				if (this.pairComparator.equalToReference(target)) {
+					this.currentMatchAddress = pointer;
+					this.currentMatchHash = hashCode;
+					return true;
+				}
+			}
+			pointer = getNext(pointer);
+		}
+		
+		this.currentMatchAddress = NULL_POINTER;
+		return false;
+	}
+	
+	/**
+	 * Checks whether the record matching the given probe record would be in a spilled partition. Such probe
+	 * records must be deferred through {@link #deferProbe(Object)} instead of being looked up.
+	 * 
+	 * @param probeSideRecord The probe record.
+	 * @return True, if the partition of the probe record is spilled, false otherwise.
+	 */
+	public synchronized boolean isSpilled(PT probeSideRecord) {
+		return this.numSpilledPartitions > 0 && getPartition(MutableHashTable.hash(this.probeSideComparator.hash(probeSideRecord), 0)).spilled;
+	}
+	
+	/**
+	 * Defers the given probe record, which belongs to a spilled partition, until the partition is loaded by
+	 * {@link #getNextDeferredProbes()}.
+	 * 
+	 * @param probeSideRecord The probe record to defer.
+	 * @throws IOException Thrown, if the probe record could not be written to the log of its partition.
+	 */
+	public synchronized void deferProbe(PT probeSideRecord) throws IOException {
+		final Partition partition = getPartition(MutableHashTable.hash(this.probeSideComparator.hash(probeSideRecord), 0));
+		if (!partition.spilled) {
+			throw new IllegalStateException("Only probe records for spilled partitions can be deferred.");
+		}
+		partition.log.writeByte(LOG_PROBE);
+		this.probeSideSerializer.serialize(probeSideRecord, partition.log);
+		partition.numDeferredProbes++;
+	}
+	
+	/**
+	 * Loads the spilled partition with the most deferred probes and returns the probes. While the probes are
+	 * consumed, the inserts and updates logged for the partition are applied in the order they were made, such
+	 * that each probe sees the state of the partition at the time it was deferred. The partition stays in memory
+	 * until the returned iterator is exhausted, such that the current match of each probe can be updated.
+	 * 
+	 * @return The deferred probe records of the next partition, or null, if no probe records are deferred.
+	 * @throws IOException Thrown, if the partition or its log could not be read.
+	 */
+	public synchronized MutableObjectIterator<PT> getNextDeferredProbes() throws IOException {
+		Partition next = null;
+		for (Partition partition : this.partitions) {
+			if (partition.numDeferredProbes > 0 && (next == null || partition.numDeferredProbes > next.numDeferredProbes)) {
+				next = partition;
+			}
+		}
+		if (this.replay != null) {
+			throw new IllegalStateException("The deferred probes of the previous partition have not been consumed.");
+		}
+		return next == null ? null : loadPartition(next);
+	}
+	
+	/**
+	 * Replaces the current match, as determined by the last call to {@link #getMatchFor(Object, Object)}, with the
+	 * given record. The record must have the same key as the match. The record may have a different length.
+	 * After the update, the given record is the current match.
+	 * 
+	 * @param record The record to replace the current match with.
+	 * @throws IOException Thrown, if the record could not be serialized.
+	 */
+	public synchronized void updateMatch(BT record) throws IOException {
+		if (this.currentMatchAddress == NULL_POINTER) {
+			throw new IllegalStateException("There is no current match to update.");
+		}
+		replaceCurrentMatch(record, this.currentMatchHash);
+	}
+	
+	/**
+	 * Replaces the record with the same key as the given record. If the table has no record with that key, the
+	 * table is not changed. After a replacement, the given record is the current match. If the record belongs
+	 * to a spilled partition, or to a partition with logged updates, the update is logged and applied by
+	 * {@link #applyLoggedUpdates(Collector)}. Because it is not known at this point whether the partition has a
+	 * record with the same key, false is returned for logged updates.
+	 * 
+	 * @param record The record to replace the record with the same key with.
+	 * @return True, if a record was replaced, false if the table has no record with the same key or the update
+	 *         was logged.
+	 * @throws IOException Thrown, if a record could not be serialized or deserialized.
+	 */
+	public synchronized boolean updateRecord(BT record) throws IOException {
+		final int hashCode = MutableHashTable.hash(this.buildSideComparator.hash(record), 0);
+		final Partition partition = getPartition(hashCode);
+		if (partition.spilled || partition.updateLog != null) {
+			if (partition.updateLog == null) {
+				partition.updateLogFile = this.ioManager.createChannel();
+				partition.updateLog = openLog(partition.updateLogFile);
+			}
+			this.buildSideSerializer.serialize(record, partition.updateLog);
+			partition.numLoggedUpdates++;
+			return false;
+		}
+		partition.accesses++;
+		
+		if (findRecord(record, hashCode)) {
+			replaceCurrentMatch(record, hashCode);
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	/**
+	 * Replaces the record with the same key as the given record, or inserts the given record, if the table has
+	 * no record with that key. After this call, the given record is the current match, unless it belongs to a
+	 * spilled partition, in which case the insert is logged and applied when the partition is loaded again.
+	 * 
+	 * @param record The record to insert.
+	 * @throws IOException Thrown, if a record could not be serialized or deserialized.
+	 */
+	public synchronized void insertOrReplaceRecord(BT record) throws IOException {
+		final int hashCode = MutableHashTable.hash(this.buildSideComparator.hash(record), 0);
+		final Partition partition = getPartition(hashCode);
+		if (partition.spilled) {
+			partition.log.writeByte(LOG_INSERT);
+			this.buildSideSerializer.serialize(record, partition.log);
+			return;
+		}
+		partition.accesses++;
+		
+		if (findRecord(record, hashCode)) {
+			replaceCurrentMatch(record, hashCode);
+			return;
+		}
+		
+		// new key: append the record and put it at the front of its chain. the slot must be read after
+		// appending, because the compaction may move the records of the chain
+		final long address = append(record, hashCode);
+		setNext(address, getSlot(hashCode));
+		setSlot(hashCode, address);
+		this.currentMatchAddress = address;
+		this.currentMatchHash = hashCode;
+		partition.numRecords++;
+		this.numElements++;
+	}
+	
+	/**
+	 * Applies all updates logged by {@link #updateRecord(Object)}, loading the spilled partitions they belong to.
+	 * The partitions may be spilled again afterwards. The updates that replace a record are handed to the given
+	 * collector, logged updates of keys that the table does not contain are dropped.
+	 * <p>
+	 * If another thread has deferred probes, the call blocks until that thread has consumed all of them through
+	 * {@link #getNextDeferredProbes()}. The caller must therefore not defer probes itself without consuming them.
+	 * 
+	 * @param collector The collector for the logged updates that replaced a record, or null.
+	 * @throws IOException Thrown, if a partition or a log could not be read, or the thread was interrupted.
+	 */
+	public synchronized void applyLoggedUpdates(Collector<BT> collector) throws IOException {
+		while (this.replay != null || hasDeferredProbes()) {
+			if (this.closed) {
+				throw new IllegalStateException("The hash table was closed.");
+			}
+			try {
+				wait();
+			}
+			catch (InterruptedException iex) {
+				throw new IOException("Interrupted while waiting for the deferred probes to be consumed.", iex);
+			}
+		}
+		
+		for (Partition partition : this.partitions) {
+			if (partition.updateLog != null) {
+				if (partition.spilled) {
+					loadPartition(partition).replayUpdates();
+				}
+				replayUpdateLog(partition, collector);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the number of records in the table, including the records of spilled partitions, but not the records
+	 * logged for spilled partitions.
+	 * 
+	 * @return The number of records in the table.
+	 */
+	public synchronized int size() {
+		return this.numElements;
+	}
+	
+	/**
+	 * Gets the number of partitions that are currently spilled.
+	 * 
+	 * @return The number of spilled partitions.
+	 */
+	public synchronized int getNumSpilledPartitions() {
+		return this.numSpilledPartitions;
+	}
+	
+	/**
+	 * Gets an iterator over all records in the table. Spilled partitions are loaded and logged updates are applied
+	 * as the iterator reaches them, which fails, if probes are still deferred for them. The iterator must not be
+	 * used after the table has been modified by others.
+	 * 
+	 * @return An iterator over the records in the table.
+	 */
+	public MutableObjectIterator<BT> getEntryIterator() {
+		return new EntryIterator();
+	}
+	
+	public TypeComparator<PT> getProbeSideComparator() {
+		return this.probeSideComparator;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	//                                       Spilling
+	// --------------------------------------------------------------------------------------------
+	
+	private Partition getPartition(int hashCode) {
+		return this.partitions[(hashCode & (this.numSlots - 1)) >>> this.slotsPerPartitionBits];
+	}
+	
+	/**
+	 * Spills the resident partition that was accessed least, excluding the given partition and the pinned one.
+	 * 
+	 * @return True, if a partition was spilled, false if no partition can be spilled.
+	 */
+	private boolean spillPartition(Partition excluded) throws IOException {
+		if (this.ioManager == null) {
+			return false;
+		}
+		
+		int victim = -1;
+		for (int i = 0; i < this.partitions.length; i++) {
+			final Partition p = this.partitions[i];
+			if (p.spilled || p == excluded || i == this.pinnedPartition || p.numRecords == 0) {
+				continue;
+			}
+			if (victim == -1 || p.accesses < this.partitions[victim].accesses ||
+					(p.accesses == this.partitions[victim].accesses && p.numRecords > this.partitions[victim].numRecords))
+			{
+				victim = i;
+			}
+		}
+		if (victim == -1) {
+			return false;
+		}
+		
+		final Partition partition = this.partitions[victim];
+		partition.file = this.ioManager.createChannel();
+		final ChannelWriterOutputView out = new ChannelWriterOutputView(
+			this.ioManager.createBlockChannelWriter(partition.file), this.spillWriteBuffers, this.segmentSize);
+		
+		// copy the records of all slots of the partition to disk and unlink them. their memory is
+		// reclaimed by the compaction
+		final int firstSlot = victim << this.slotsPerPartitionBits;
+		final int lastSlot = firstSlot + (1 << this.slotsPerPartitionBits);
+		for (int slot = firstSlot; slot < lastSlot; slot++) {
+			final MemorySegment bucket = this.buckets[slot >>> this.slotsPerSegmentBits];
+			final int slotOffset = (slot & this.slotsPerSegmentMask) * SLOT_SIZE;
+			
+			long pointer = bucket.getLong(slotOffset);
+			while (pointer != NULL_POINTER) {
+				final int length = getLength(pointer);
+				this.recordReader.seek(pointer + HEADER_SIZE);
+				out.write(this.recordReader, length);
+				this.liveBytes -= HEADER_SIZE + length;
+				pointer = getNext(pointer);
+			}
+			bucket.putLong(slotOffset, NULL_POINTER);
+		}
+		this.spillWriteBuffers = out.close();
+		
+		if (this.currentMatchAddress != NULL_POINTER && getPartition(this.currentMatchHash) == partition) {
+			this.currentMatchAddress = NULL_POINTER;
+		}
+		
+		// open the log for the accesses while the partition is spilled
+		partition.logFile = this.ioManager.createChannel();
+		partition.log = openLog(partition.logFile);
+		partition.spilled = true;
+		this.numSpilledPartitions++;
+		return true;
+	}
+	
+	private ChannelWriterOutputView openLog(Channel.ID channel) throws IOException {
+		final List<MemorySegment> logBuffer = new ArrayList<MemorySegment>(1);
+		logBuffer.add(this.logBuffers.remove(this.logBuffers.size() - 1));
+		return new ChannelWriterOutputView(this.ioManager.createBlockChannelWriter(channel), logBuffer, this.segmentSize);
+	}
+	
+	private boolean hasDeferredProbes() {
+		for (Partition partition : this.partitions) {
+			if (partition.numDeferredProbes > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private void pin(Partition partition) {
+		for (int i = 0; i < this.partitions.length; i++) {
+			if (this.partitions[i] == partition) {
+				this.pinnedPartition = i;
+			}
+		}
+	}
+	
+	/**
+	 * Loads the given spilled partition into memory and pins it, such that it is not spilled while its log is
+	 * replayed. The update log of the partition is kept.
+	 * 
+	 * @return The iterator that replays the partition's log and returns the deferred probes.
+	 */
+	private LogReplayIterator loadPartition(Partition partition) throws IOException {
+		pin(partition);
+		
+		// the partitions that stay in memory until now are the hot ones
+		for (Partition p : this.partitions) {
+			p.accesses >>>= 1;
+		}
+		
+		this.logBuffers.addAll(partition.log.close());
+		partition.log = null;
+		partition.spilled = false;
+		this.numSpilledPartitions--;
+		this.numElements -= partition.numRecords;
+		partition.numRecords = 0;
+		
+		// re-insert the spilled records. this may spill other partitions
+		final BlockChannelReader reader = this.ioManager.createBlockChannelReader(partition.file);
+		final ChannelReaderInputView in = new ChannelReaderInputView(reader, this.spillReadBuffers, true);
+		try {
+			while (true) {
+				this.buildSideSerializer.deserialize(this.spilledRecord, in);
+				insertOrReplaceRecord(this.spilledRecord);
+			}
+		}
+		catch (EOFException eofex) {
+			// all records are read
+		}
+		this.spillReadBuffers = in.close();
+		reader.deleteChannel();
+		partition.file = null;
+		
+		final BlockChannelReader logReader = this.ioManager.createBlockChannelReader(partition.logFile);
+		partition.logFile = null;
+		partition.numDeferredProbes = 0;
+		this.replay = new LogReplayIterator(logReader);
+		return this.replay;
+	}
+	
+	/**
+	 * Applies the update log of the given partition, which must be in memory, and deletes the log. The partition
+	 * is pinned while the log is replayed.
+	 */
+	private void replayUpdateLog(Partition partition, Collector<BT> collector) throws IOException {
+		pin(partition);
+		this.logBuffers.addAll(partition.updateLog.close());
+		partition.updateLog = null;
+		partition.numLoggedUpdates = 0;
+		
+		final BlockChannelReader reader = this.ioManager.createBlockChannelReader(partition.updateLogFile);
+		partition.updateLogFile = null;
+		final ChannelReaderInputView in = new ChannelReaderInputView(reader, this.spillReadBuffers, true);
+		try {
+			while (true) {
+				this.buildSideSerializer.deserialize(this.spilledRecord, in);
+				if (updateRecord(this.spilledRecord) && collector != null) {
+					collector.collect(this.spilledRecord);
+				}
+			}
+		}
+		catch (EOFException eofex) {
+			// all updates are applied
+		}
+		this.spillReadBuffers = in.close();
+		reader.deleteChannel();
+		this.pinnedPartition = -1;
+	}
+	
+	private static final class Partition {
+		
+		private int numRecords;					// the number of records in memory or in the spilled file
+		
+		private long accesses;					// the number of accesses, halved whenever a partition is loaded
+		
+		private boolean spilled;
+		
+		private Channel.ID file;				// the file with the records of the spilled partition
+		
+		private Channel.ID logFile;				// the file with the log of the spilled partition
+		
+		private ChannelWriterOutputView log;	// the writer of the log
+		
+		private Channel.ID updateLogFile;		// the file with the updates not yet applied
+		
+		private ChannelWriterOutputView updateLog;	// the writer of the update log
+		
+		private int numDeferredProbes;
+		
+		private int numLoggedUpdates;			// the number of updates in the update log
+		
+		void discard(List<MemorySegment> logBuffers) throws IOException {
+			if (this.log != null) {
+				logBuffers.addAll(this.log.close());
+				this.log = null;
+			}
+			if (this.updateLog != null) {
+				logBuffers.addAll(this.updateLog.close());
+				this.updateLog = null;
+			}
+			if (this.updateLogFile != null) {
+				new File(this.updateLogFile.getPath()).delete();
+				this.updateLogFile = null;
+			}
+			if (this.file != null) {
+				new File(this.file.getPath()).delete();
+				this.file = null;
+			}
+			if (this.logFile != null) {
+				new File(this.logFile.getPath()).delete();
+				this.logFile = null;
+			}
+		}
+	}
+	
+	/**
+	 * Replays the log of a loaded partition, applying the logged inserts and returning the deferred probes. When
+	 * exhausted, the iterator deletes the log and unpins the partition.
+	 */
+	private final class LogReplayIterator implements MutableObjectIterator<PT> {
+		
+		private final BlockChannelReader reader;
+		
+		private final ChannelReaderInputView in;
+		
+		private boolean done;
+		
+		LogReplayIterator(BlockChannelReader reader) throws IOException {
+			this.reader = reader;
+			this.in = new ChannelReaderInputView(reader, spillReadBuffers, true);
+		}
+		
+		@Override
+		public boolean next(PT target) throws IOException {
+			synchronized (CompactingHashTable.this) {
+				if (this.done) {
+					return false;
+				}
+				
+				while (true) {
+					final byte type;
+					try {
+						type = this.in.readByte();
+					}
+					catch (EOFException eofex) {
+						finish();
+						return false;
+					}
+					
+					switch (type) {
+					case LOG_INSERT:
+						buildSideSerializer.deserialize(spilledRecord, this.in);
+						insertOrReplaceRecord(spilledRecord);
+						break;
+					case LOG_PROBE:
+						if (target == null) {
+							throw new IllegalStateException("Probes are deferred for the partition.");
+						}
+						probeSideSerializer.deserialize(target, this.in);
+						return true;
+					default:
+						throw new IOException("Corrupt log of spilled partition.");
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Applies the rest of the log, expecting no deferred probes.
+		 */
+		void replayUpdates() throws IOException {
+			next(null);
+		}
+		
+		private void finish() throws IOException {
+			this.done = true;
+			spillReadBuffers = this.in.close();
+			this.reader.deleteChannel();
+			pinnedPartition = -1;
+			replay = null;
+			CompactingHashTable.this.notifyAll();
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	//                                     Record area
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Looks up the record with the same key as the given record and makes it the current match.
+	 */
+	private boolean findRecord(BT record, int hashCode) throws IOException {
+		this.buildSideComparator.setReference(record);
+		
+		long pointer = getSlot(hashCode);
+		while (pointer != NULL_POINTER) {
+			if (getHashCode(pointer) == hashCode) {
+				readRecord(pointer, this.candidate);
+				if (this.buildSideComparator.equalToReference(this.candidate)) {
+					this.currentMatchAddress = pointer;
+					this.currentMatchHash = hashCode;
+					return true;
+				}
+			}
+			pointer = getNext(pointer);
+		}
+		return false;
+	}
+	
+	/**
+	 * Appends the record in place of the current match and unlinks the current match.
+	 */
+	private void replaceCurrentMatch(BT record, int hashCode) throws IOException {
+		// the compaction in the course of appending keeps the address of the current match up to date
+		final long address = append(record, hashCode);
+		final long previous = this.currentMatchAddress;
+		
+		relink(previous, address, hashCode);
+		this.liveBytes -= HEADER_SIZE + getLength(previous);
+		this.currentMatchAddress = address;
+	}
+	
+	/**
+	 * Appends the record to the tail of the record area, compacting the record area if it is full. If compacting
+	 * frees no memory, a partition other than the one of the record is spilled. The record's next-pointer is not set.
+	 * 
+	 * @return The address of the appended record.
+	 * @throws RuntimeException Thrown, if the record does not fit into memory.
+	 */
+	private long append(BT record, int hashCode) throws IOException {
+		while (true) {
+			final long start = startAddressForHeader(this.tailAddress);
+			if (this.recordWriter.seek(start)) {
+				try {
+					this.buildSideSerializer.serialize(record, this.recordWriter);
+					finishAppend(start, hashCode);
+					return start;
+				}
+				catch (EOFException eofex) {
+					// fall through to compaction
+				}
+			}
+			
+			releaseSegmentsAfterTail();
+			if (!compact() && !spillPartition(getPartition(hashCode))) {
+				throw new RuntimeException("The solution set hash table ran out of memory: The " + this.numElements +
+					" records occupy " + this.liveBytes + " bytes. Increase the memory for the solution set" +
+					(this.ioManager == null ? "." : ", or the number of partitions that can be spilled."));
+			}
+		}
+	}
+	
+	/**
+	 * Copies the record at the given address to the tail of the record area.
+	 * 
+	 * @return The address of the copy.
+	 */
+	private long copyToTail(long address) throws IOException {
+		final int length = getLength(address);
+		final int hashCode = getHashCode(address);
+		
+		final long start = startAddressForHeader(this.tailAddress);
+		if (this.recordWriter.seek(start)) {
+			try {
+				this.recordReader.seek(address + HEADER_SIZE);
+				this.recordWriter.write(this.recordReader, length);
+				finishAppend(start, hashCode);
+				return start;
+			}
+			catch (EOFException eofex) {
+				// fall through
+			}
+		}
+		
+		releaseSegmentsAfterTail();
+		throw new RuntimeException("The solution set hash table ran out of memory: A record of " + length + 
+			" bytes could not be moved during compaction. Increase the memory for the solution set.");
+	}
+	
+	private void finishAppend(long start, int hashCode) {
+		final long end = this.recordWriter.getAddress();
+		final long length = end - start - HEADER_SIZE;
+		if (length > Integer.MAX_VALUE) {
+			throw new RuntimeException("Records larger than 2 GB are not supported by the solution set hash table.");
+		}
+		
+		final MemorySegment segment = getSegment(start);
+		final int offset = (int) (start & this.segmentSizeMask);
+		segment.putLong(offset, NULL_POINTER);
+		segment.putInt(offset + HEADER_HASH_OFFSET, hashCode);
+		segment.putInt(offset + HEADER_LENGTH_OFFSET, (int) length);
+		
+		this.tailAddress = end;
+		this.liveBytes += end - start;
+	}
+	
+	/**
+	 * Compacts the record area by moving the linked records from its head to its tail, until one more segment
+	 * is free than before, or the records that existed when the compaction started have all been processed.
+	 * Because every compaction must free another segment, repeated compactions for a large record terminate.
+	 * 
+	 * @return True, if another segment was freed, false otherwise.
+	 */
+	private boolean compact() throws IOException {
+		final long garbage = this.tailAddress - this.headAddress - this.liveBytes;
+		if (garbage < this.segmentSize) {
+			return false;
+		}
+		
+		final int targetFreeSegments = this.freeSegments.size() + 1;
+		final long end = this.tailAddress;
+		this.compacting = true;
+		try {
+			while (this.freeSegments.size() < targetFreeSegments) {
+				final long address = startAddressForHeader(this.headAddress);
+				if (address >= end) {
+					break;
+				}
+				
+				final int length = getLength(address);
+				final int hashCode = getHashCode(address);
+				
+				if (isLinked(address, hashCode)) {
+					final long copy = copyToTail(address);
+					relink(address, copy, hashCode);
+					this.liveBytes -= HEADER_SIZE + length;
+					if (this.currentMatchAddress == address) {
+						this.currentMatchAddress = copy;
+					}
+				}
+				
+				this.headAddress = address + HEADER_SIZE + length;
+				
+				// release the segments that lie completely before the head
+				while ((this.headAddress >>> this.segmentSizeBits) > this.firstSegmentNumber) {
+					this.freeSegments.add(this.recordSegments.remove(0));
+					this.firstSegmentNumber++;
+				}
+			}
+		}
+		finally {
+			this.compacting = false;
+		}
+		
+		return this.freeSegments.size() >= targetFreeSegments;
+	}
+	
+	/**
+	 * Gets the address at which a record header may start, given a position in the record area. Headers do not
+	 * cross segment boundaries.
+	 */
+	private long startAddressForHeader(long address) {
+		final int remaining = this.segmentSize - (int) (address & this.segmentSizeMask);
+		return remaining < HEADER_SIZE ? address + remaining : address;
+	}
+	
+	/**
+	 * Gives the segments behind the tail, which were taken by an aborted append, back to the free segments.
+	 */
+	private void releaseSegmentsAfterTail() {
+		final long lastNeeded = (this.tailAddress >>> this.segmentSizeBits) - this.firstSegmentNumber;
+		while (this.recordSegments.size() - 1 > lastNeeded) {
+			this.freeSegments.add(this.recordSegments.remove(this.recordSegments.size() - 1));
+		}
+	}
+	
+	/**
+	 * Takes a free segment for the record area.
+	 * 
+	 * @return The segment, or null, if no segment may be taken.
+	 */
+	private MemorySegment takeSegment() {
+		final int numFree = this.freeSegments.size();
+		if (numFree > NUM_RESERVED_SEGMENTS || (this.compacting && numFree > 0)) {
+			final MemorySegment segment = this.freeSegments.remove(numFree - 1);
+			this.recordSegments.add(segment);
+			return segment;
+		} else {
+			return null;
+		}
+	}
+	
+	private MemorySegment getSegment(long address) {
+		return this.recordSegments.get((int) ((address >>> this.segmentSizeBits) - this.firstSegmentNumber));
+	}
+	
+	private void readRecord(long address, BT target) throws IOException {
+		this.recordReader.seek(address + HEADER_SIZE);
+		this.buildSideSerializer.deserialize(target, this.recordReader);
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	//                                  Buckets and chains
+	// --------------------------------------------------------------------------------------------
+	
+	private long getSlot(int hashCode) {
+		final int slot = hashCode & (this.numSlots - 1);
+		return this.buckets[slot >>> this.slotsPerSegmentBits].getLong((slot & this.slotsPerSegmentMask) * SLOT_SIZE);
+	}
+	
+	private void setSlot(int hashCode, long pointer) {
+		final int slot = hashCode & (this.numSlots - 1);
+		this.buckets[slot >>> this.slotsPerSegmentBits].putLong((slot & this.slotsPerSegmentMask) * SLOT_SIZE, pointer);
+	}
+	
+	private long getNext(long address) {
+		return getSegment(address).getLong((int) (address & this.segmentSizeMask));
+	}
+	
+	private void setNext(long address, long next) {
+		getSegment(address).putLong((int) (address & this.segmentSizeMask), next);
+	}
+	
+	private int getHashCode(long address) {
+		return getSegment(address).getInt((int) (address & this.segmentSizeMask) + HEADER_HASH_OFFSET);
+	}
+	
+	private int getLength(long address) {
+		return getSegment(address).getInt((int) (address & this.segmentSizeMask) + HEADER_LENGTH_OFFSET);
+	}
+	
+	/**
+	 * Checks whether the record at the given address is linked into the chain of its hash code.
+	 */
+	private boolean isLinked(long address, int hashCode) {
+		long pointer = getSlot(hashCode);
+		while (pointer != NULL_POINTER) {
+			if (pointer == address) {
+				return true;
+			}
+			pointer = getNext(pointer);
+		}
+		return false;
+	}
+	
+	/**
+	 * Replaces the record at the old address in its chain by the record at the new address.
+	 */
+	private void relink(long oldAddress, long newAddress, int hashCode) {
+		setNext(newAddress, getNext(oldAddress));
+		
+		long pointer = getSlot(hashCode);
+		if (pointer == oldAddress) {
+			setSlot(hashCode, newAddress);
+			return;
+		}
+		
+		while (pointer != NULL_POINTER) {
+			final long next = getNext(pointer);
+			if (next == oldAddress) {
+				setNext(pointer, newAddress);
+				return;
+			}
+			pointer = next;
+		}
+		throw new IllegalStateException("Bug: The replaced record is not linked in the hash table.");
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	//                                        Views
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * The view that reads records from the record area.
+	 */
+	private final class RecordAreaInputView extends AbstractPagedInputView {
+		
+		private int segmentIndex;
+		
+		RecordAreaInputView() {
+			super(0);
+		}
+		
+		void seek(long address) {
+			this.segmentIndex = (int) ((address >>> segmentSizeBits) - firstSegmentNumber);
+			if (this.segmentIndex < recordSegments.size()) {
+				seekInput(recordSegments.get(this.segmentIndex), (int) (address & segmentSizeMask), segmentSize);
+			} else {
+				// an empty record whose header ends the last segment
+				this.segmentIndex = recordSegments.size() - 1;
+				seekInput(recordSegments.get(this.segmentIndex), segmentSize, segmentSize);
+			}
+		}
+		
+		@Override
+		protected MemorySegment nextSegment(MemorySegment current) throws EOFException {
+			if (++this.segmentIndex < recordSegments.size()) {
+				return recordSegments.get(this.segmentIndex);
+			} else {
+				throw new EOFException();
+			}
+		}
+		
+		@Override
+		protected int getLimitForSegment(MemorySegment segment) {
+			return segmentSize;
+		}
+	}
+	
+	/**
+	 * The view that appends records to the tail of the record area, taking free segments as needed.
+	 */
+	private final class RecordAreaOutputView extends AbstractPagedOutputView {
+		
+		private long segmentNumber;
+		
+		RecordAreaOutputView(int segmentSize) {
+			super(segmentSize, 0);
+		}
+		
+		/**
+		 * Positions the view to write the record following the header at the given address.
+		 * 
+		 * @return True, if the view is positioned, false if no segment is available for the header.
+		 */
+		boolean seek(long headerAddress) {
+			this.segmentNumber = headerAddress >>> segmentSizeBits;
+			if (this.segmentNumber - firstSegmentNumber >= recordSegments.size() && takeSegment() == null) {
+				return false;
+			}
+			seekOutput(getSegment(headerAddress), (int) (headerAddress & segmentSizeMask) + HEADER_SIZE);
+			return true;
+		}
+		
+		long getAddress() {
+			return (this.segmentNumber << segmentSizeBits) + getCurrentPositionInSegment();
+		}
+		
+		@Override
+		protected MemorySegment nextSegment(MemorySegment current, int positionInCurrent) throws EOFException {
+			final MemorySegment next = takeSegment();
+			if (next == null) {
+				throw new EOFException();
+			}
+			this.segmentNumber++;
+			return next;
+		}
+	}
+	
+	/**
+	 * Iterates over the records in the table, slot by slot and chain by chain. Spilled partitions are loaded and
+	 * logged updates applied when the iterator reaches their first slot.
+	 */
+	private final class EntryIterator implements MutableObjectIterator<BT> {
+		
+		private int slot = -1;
+		
+		private long pointer = NULL_POINTER;
+		
+		@Override
+		public boolean next(BT target) throws IOException {
+			synchronized (CompactingHashTable.this) {
+				while (this.pointer == NULL_POINTER) {
+					if (++this.slot >= numSlots) {
+						return false;
+					}
+					if ((this.slot & ((1 << slotsPerPartitionBits) - 1)) == 0) {
+						final Partition partition = partitions[this.slot >>> slotsPerPartitionBits];
+						if (partition.spilled) {
+							loadPartition(partition).replayUpdates();
+						}
+						if (partition.updateLog != null) {
+							replayUpdateLog(partition, null);
+						}
+					}
+					this.pointer = buckets[this.slot >>> slotsPerSegmentBits].getLong((this.slot & slotsPerSegmentMask) * SLOT_SIZE);
+				}
+				
+				readRecord(this.pointer, target);
+				this.pointer = getNext(this.pointer);
+				return true;
+			}
+		}
+	}
+}
@@ -0,0 +1,321 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.pact.runtime.hash;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.core.memory.MemorySegment;
+import eu.stratosphere.nephele.services.iomanager.BlockChannelReader;
+import eu.stratosphere.nephele.services.iomanager.BlockChannelWriter;
+import eu.stratosphere.nephele.services.iomanager.Channel;
+import eu.stratosphere.nephele.services.iomanager.ChannelReaderInputView;
+import eu.stratosphere.nephele.services.iomanager.ChannelWriterOutputView;
+import eu.stratosphere.nephele.services.iomanager.IOManager;
+import eu.stratosphere.util.MutableObjectIterator;
+
+/**
+ * Spills records that do not fit into an in-memory hash structure to disk, partitioned by their hash code, and
+ * hands the spilled partitions back for recursive processing. Each partition remembers the recursion level on
+ * which it is to be processed, such that the in-memory structure can use a different hash function on each level.
+ * <p>
+ * The spiller works with a fixed set of memory segments: two segments per partition for writing, and two
+ * segments for reading back a spilled partition while the next level is written.
+ * 
+ * @param <T> The type of the spilled records.
+ */
+public class HashPartitionSpiller<T> {
+	
+	private static final Log LOG = LogFactory.getLog(HashPartitionSpiller.class);
+	
+	/**
+	 * The maximal number of partitions into which the records are spilled on each level.
+	 */
+	public static final int MAX_NUM_PARTITIONS = 16;
+	
+	/**
+	 * The number of memory segments used to write or read a spilled partition.
+	 */
+	public static final int NUM_SEGMENTS_PER_CHANNEL = 2;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private final IOManager ioManager;
+	
+	private final TypeSerializer<T> serializer;
+	
+	private final List<MemorySegment> memory;
+	
+	private final int segmentSize;
+	
+	private final ChannelWriterOutputView[] writers;
+	
+	private final BlockChannelWriter[] channels;
+	
+	private final ArrayDeque<SpilledPartition> spilledPartitions = new ArrayDeque<SpilledPartition>();
+	
+	private BlockChannelReader currentReader;
+	
+	private ChannelReaderInputView currentInView;
+	
+	private int currentLevel;
+	
+	private boolean spilled;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Creates a new spiller with the given number of partitions.
+	 * 
+	 * @param ioManager The I/O manager used to create the spill files.
+	 * @param serializer The serializer for the records.
+	 * @param numPartitions The number of partitions per level.
+	 * @param memory The memory for the spill buffers. Exactly {@link #getNumRequiredSegments(int)} segments
+	 *               are required.
+	 */
+	public HashPartitionSpiller(IOManager ioManager, TypeSerializer<T> serializer, int numPartitions,
+			List<MemorySegment> memory)
+	{
+		if (ioManager == null || serializer == null || memory == null) {
+			throw new NullPointerException();
+		}
+		if (numPartitions < 1 || numPartitions > MAX_NUM_PARTITIONS) {
+			throw new IllegalArgumentException("The number of partitions must be between 1 and " + MAX_NUM_PARTITIONS + ".");
+		}
+		if (memory.size() != getNumRequiredSegments(numPartitions)) {
+			throw new IllegalArgumentException("The spiller needs exactly " + getNumRequiredSegments(numPartitions) +
+				" memory segments for " + numPartitions + " partitions.");
+		}
+		
+		this.ioManager = ioManager;
+		this.serializer = serializer;
+		this.memory = new ArrayList<MemorySegment>(memory);
+		this.segmentSize = memory.get(0).size();
+		this.writers = new ChannelWriterOutputView[numPartitions];
+		this.channels = new BlockChannelWriter[numPartitions];
+	}
+	
+	/**
+	 * Computes the number of memory segments that a spiller with the given number of partitions needs.
+	 * 
+	 * @param numPartitions The number of partitions.
+	 * @return The number of memory segments needed.
+	 */
+	public static int getNumRequiredSegments(int numPartitions) {
+		return (numPartitions + 1) * NUM_SEGMENTS_PER_CHANNEL;
+	}
+	
+	/**
+	 * Computes the number of partitions to use, if the given number of memory segments is available overall.
+	 * 
+	 * @param numSegments The number of memory segments available overall.
+	 * @return The number of partitions to use.
+	 */
+	public static int getNumPartitionsForMemory(int numSegments) {
+		return Math.min(MAX_NUM_PARTITIONS, Math.max(2, numSegments / 16));
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Writes the record to the spill partition that corresponds to the given hash code.
+	 * 
+	 * @param record The record to spill.
+	 * @param hashCode The (non-negative) hash code of the record.
+	 * @throws IOException Thrown, if the record could not be written.
+	 */
+	public void spill(T record, int hashCode) throws IOException {
+		final int partition = (hashCode >>> 8) % this.writers.length;
+		
+		ChannelWriterOutputView writer = this.writers[partition];
+		if (writer == null) {
+			final BlockChannelWriter channel = this.ioManager.createBlockChannelWriter(this.ioManager.createChannel());
+			this.channels[partition] = channel;
+			writer = this.writers[partition] = new ChannelWriterOutputView(channel, takeSegments(), this.segmentSize);
+			this.spilled = true;
+		}
+		this.serializer.serialize(record, writer);
+	}
+	
+	/**
+	 * Checks whether any record has been spilled on the current level.
+	 * 
+	 * @return True, if records have been spilled on the current level, false otherwise.
+	 */
+	public boolean hasSpilled() {
+		return this.spilled;
+	}
+	
+	/**
+	 * Finishes the current level: The spill files written so far are closed and queued for processing on
+	 * the next level.
+	 * 
+	 * @throws IOException Thrown, if a spill file could not be closed.
+	 */
+	public void finishLevel() throws IOException {
+		for (int i = 0; i < this.writers.length; i++) {
+			final ChannelWriterOutputView writer = this.writers[i];
+			if (writer != null) {
+				final BlockChannelWriter channel = this.channels[i];
+				this.writers[i] = null;
+				this.channels[i] = null;
+				
+				this.memory.addAll(writer.close());
+				this.spilledPartitions.add(new SpilledPartition(channel.getChannelID(), writer.getBlockCount(),
+					this.currentLevel + 1));
+			}
+		}
+		this.spilled = false;
+	}
+	
+	/**
+	 * Checks whether spilled partitions are waiting to be processed.
+	 * 
+	 * @return True, if spilled partitions are pending, false otherwise.
+	 */
+	public boolean hasSpilledPartitions() {
+		return !this.spilledPartitions.isEmpty();
+	}
+	
+	/**
+	 * Opens the next spilled partition for reading. The previously opened partition is closed and deleted.
+	 * The recursion level of the opened partition becomes the current level.
+	 * 
+	 * @return An iterator over the records of the partition.
+	 * @throws IOException Thrown, if the spill file could not be opened.
+	 */
+	public MutableObjectIterator<T> openNextPartition() throws IOException {
+		closeCurrentPartition();
+		
+		final SpilledPartition partition = this.spilledPartitions.removeFirst();
+		this.currentLevel = partition.level;
+		
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Reading spilled partition with " + partition.numBlocks + " blocks on level " + 
+				partition.level + ".");
+		}
+		
+		this.currentReader = this.ioManager.createBlockChannelReader(partition.channel);
+		this.currentInView = new ChannelReaderInputView(this.currentReader, takeSegments(), partition.numBlocks, false);
+		
+		final ChannelReaderInputView inView = this.currentInView;
+		final TypeSerializer<T> serializer = this.serializer;
+		return new MutableObjectIterator<T>() {
+			@Override
+			public boolean next(T target) throws IOException {
+				try {
+					serializer.deserialize(target, inView);
+					return true;
+				} catch (EOFException eofex) {
+					return false;
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Gets the recursion level of the partition that was opened last, or zero, if none was opened yet.
+	 * 
+	 * @return The current recursion level.
+	 */
+	public int getCurrentLevel() {
+		return this.currentLevel;
+	}
+	
+	/**
+	 * Closes all open spill files and deletes all spill files, including the ones that were not yet processed.
+	 * After this method was called, all memory segments are again owned by the caller.
+	 */
+	public void close() {
+		for (int i = 0; i < this.channels.length; i++) {
+			final BlockChannelWriter channel = this.channels[i];
+			if (channel != null) {
+				this.channels[i] = null;
+				this.writers[i] = null;
+				try {
+					channel.closeAndDelete();
+				} catch (Throwable t) {
+					LOG.error("Could not delete spill file: " + t.getMessage(), t);
+				}
+			}
+		}
+		
+		try {
+			closeCurrentPartition();
+		} catch (Throwable t) {
+			LOG.error("Could not delete spill file: " + t.getMessage(), t);
+		}
+		
+		while (!this.spilledPartitions.isEmpty()) {
+			final SpilledPartition partition = this.spilledPartitions.removeFirst();
+			try {
+				this.ioManager.createBlockChannelReader(partition.channel).closeAndDelete();
+			} catch (Throwable t) {
+				LOG.error("Could not delete spill file: " + t.getMessage(), t);
+			}
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private void closeCurrentPartition() throws IOException {
+		if (this.currentReader != null) {
+			final BlockChannelReader reader = this.currentReader;
+			final ChannelReaderInputView inView = this.currentInView;
+			this.currentReader = null;
+			this.currentInView = null;
+			
+			if (!inView.isClosed()) {
+				this.memory.addAll(inView.close());
+			}
+			reader.closeAndDelete();
+		}
+	}
+	
+	private List<MemorySegment> takeSegments() {
+		final List<MemorySegment> segments = new ArrayList<MemorySegment>(NUM_SEGMENTS_PER_CHANNEL);
+		for (int i = 0; i < NUM_SEGMENTS_PER_CHANNEL; i++) {
+			segments.add(this.memory.remove(this.memory.size() - 1));
+		}
+		return segments;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Describes a partition of records that was spilled to disk.
+	 */
+	private static final class SpilledPartition {
+		
+		private final Channel.ID channel;
+		
+		private final int numBlocks;
+		
+		private final int level;
+		
+		private SpilledPartition(Channel.ID channel, int numBlocks, int level) {
+			this.channel = channel;
+			this.numBlocks = numBlocks;
+			this.level = level;
+		}
+	}
+}
@@ -0,0 +1,332 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.pact.runtime.hash;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.core.memory.MemorySegment;
+import eu.stratosphere.nephele.services.memorymanager.ListMemorySegmentSource;
+import eu.stratosphere.pact.runtime.io.RandomAccessInputView;
+import eu.stratosphere.pact.runtime.io.SimpleCollectingOutputView;
+import eu.stratosphere.pact.runtime.util.MathUtils;
+
+/**
+ * A hash set of records that lives entirely in a fixed set of memory segments. The set is used to eliminate
+ * duplicates: Records are inserted if no record with an equal key (as determined by the type comparator) is
+ * contained yet. The set never grows beyond its memory. Once it is full, it still answers whether a record is
+ * contained, but it does not accept any further records.
+ * <p>
+ * The memory is split into the bucket area and the record area. The bucket area is an open addressing table with
+ * linear probing. Each slot holds the hash code of the record (4 bytes) and the offset of the record in the record
+ * area (4 bytes). The record area holds the serialized records, one after the other:
+ * 
+ * <pre>
+ * | hashCode (4 bytes) | serialized record | hashCode (4 bytes) | serialized record | ...
+ * </pre>
+ * 
+ * Comparing the full hash codes in the slots first means that records are only deserialized for a comparison if
+ * they are very likely equal.
+ * 
+ * @param <T> The type of the records in the set.
+ */
+public class MutableHashSet<T> {
+	
+	/**
+	 * The outcome of an attempt to insert a record into the set.
+	 */
+	public static enum InsertResult {
+		/** The record was not contained and has been inserted. */
+		INSERTED,
+		/** A record with an equal key is already contained. */
+		DUPLICATE,
+		/** The record is not contained, but the set has no space left to insert it. */
+		NO_SPACE
+	}
+	
+	/**
+	 * The minimum number of memory segments the set needs: one for the buckets and one for the records.
+	 */
+	public static final int MIN_NUM_MEMORY_SEGMENTS = 2;
+	
+	/**
+	 * The record length assumed to split the memory, if the serializer reports variable length records.
+	 */
+	private static final int DEFAULT_RECORD_LEN = 24;
+	
+	/**
+	 * The number of bytes of a slot in the bucket area.
+	 */
+	private static final int SLOT_SIZE = 8;
+	
+	/**
+	 * The maximal fill grade of the bucket area, in percent, before the set rejects new records.
+	 */
+	private static final int MAX_LOAD_PERCENT = 75;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private final TypeSerializer<T> serializer;
+	
+	private final TypeComparator<T> comparator;
+	
+	private final T candidate;
+	
+	private final MemorySegment[] buckets;
+	
+	private final int numSlots;
+	
+	private final int slotsPerSegmentBits;
+	
+	private final int slotsPerSegmentMask;
+	
+	private final int maxNumElements;
+	
+	private final ArrayList<MemorySegment> recordSegments;
+	
+	private final ArrayList<MemorySegment> freeRecordSegments;
+	
+	private final SimpleCollectingOutputView recordWriter;
+	
+	private final RandomAccessInputView recordReader;
+	
+	private final long maxRecordOffset;
+	
+	private int numElements;
+	
+	private int hashLevel;
+	
+	private boolean full;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Creates a new hash set that works with the given memory segments.
+	 * 
+	 * @param serializer The serializer for the records.
+	 * @param comparator The comparator that hashes the records and decides which records are duplicates.
+	 * @param memory The memory segments that hold the set. All segments must be of the same size, which must
+	 *               be a power of two.
+	 */
+	public MutableHashSet(TypeSerializer<T> serializer, TypeComparator<T> comparator, List<MemorySegment> memory) {
+		if (serializer == null || comparator == null || memory == null) {
+			throw new NullPointerException();
+		}
+		if (memory.size() < MIN_NUM_MEMORY_SEGMENTS) {
+			throw new IllegalArgumentException("Too few memory segments provided. The hash set needs at least " + 
+				MIN_NUM_MEMORY_SEGMENTS + " memory segments.");
+		}
+		
+		this.serializer = serializer;
+		this.comparator = comparator;
+		this.candidate = serializer.createInstance();
+		
+		final int segmentSize = memory.get(0).size();
+		final int slotsPerSegment = segmentSize / SLOT_SIZE;
+		this.slotsPerSegmentBits = MathUtils.log2strict(slotsPerSegment);
+		this.slotsPerSegmentMask = slotsPerSegment - 1;
+		
+		// split the memory between buckets and records, such that the bucket area reaches its maximal fill grade
+		// roughly when the record area is full
+		final int recordLen = (serializer.getLength() > 0 ? serializer.getLength() : DEFAULT_RECORD_LEN) + 4;
+		final int slotBytesPerRecord = SLOT_SIZE * 100 / MAX_LOAD_PERCENT;
+		final int numBucketSegments = Math.max(1, MathUtils.roundDownToPowerOf2(
+			(int) ((long) memory.size() * slotBytesPerRecord / (recordLen + slotBytesPerRecord))));
+		
+		this.buckets = new MemorySegment[numBucketSegments];
+		for (int i = 0; i < numBucketSegments; i++) {
+			this.buckets[i] = memory.get(i);
+		}
+		this.numSlots = numBucketSegments * slotsPerSegment;
+		this.maxNumElements = (int) ((long) this.numSlots * MAX_LOAD_PERCENT / 100);
+		
+		this.freeRecordSegments = new ArrayList<MemorySegment>(memory.size() - numBucketSegments);
+		for (int i = memory.size() - 1; i >= numBucketSegments; i--) {
+			this.freeRecordSegments.add(memory.get(i));
+		}
+		
+		// the record offsets must fit into the four bytes of a slot
+		this.maxRecordOffset = Integer.MAX_VALUE;
+		
+		this.recordSegments = new ArrayList<MemorySegment>(this.freeRecordSegments.size());
+		this.recordWriter = new SimpleCollectingOutputView(this.recordSegments,
+			new ListMemorySegmentSource(this.freeRecordSegments), segmentSize);
+		this.recordReader = new RandomAccessInputView(this.recordSegments, segmentSize);
+		
+		clearBuckets();
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Inserts the given record, if the set contains no record with an equal key.
+	 * 
+	 * @param record The record to insert.
+	 * @return {@link InsertResult#INSERTED}, if the record was inserted, {@link InsertResult#DUPLICATE}, if
+	 *         an equal record is contained, or {@link InsertResult#NO_SPACE}, if the record is not contained,
+	 *         but the set is full.
+	 * 
+	 * @throws IOException Thrown, if the serialization or deserialization of a record failed.
+	 */
+	public InsertResult insertIfAbsent(T record) throws IOException {
+		final int hashCode = MutableHashTable.hash(this.comparator.hash(record), this.hashLevel);
+		
+		int slot = hashCode & (this.numSlots - 1);
+		boolean referenceSet = false;
+		
+		while (true) {
+			final MemorySegment segment = this.buckets[slot >>> this.slotsPerSegmentBits];
+			final int offsetInSegment = (slot & this.slotsPerSegmentMask) * SLOT_SIZE;
+			final int pointer = segment.getInt(offsetInSegment + 4);
+			
+			if (pointer == 0) {
+				// empty slot, the record is not contained
+				return insertIntoSlot(record, hashCode, segment, offsetInSegment);
+			}
+			
+			if (segment.getInt(offsetInSegment) == hashCode) {
+				// same hash code, compare the actual records
+				if (!referenceSet) {
+					this.comparator.setReference(record);
+					referenceSet = true;
+				}
+				
+				this.recordReader.setReadPosition(pointer - 1);
+				this.serializer.deserialize(this.candidate, this.recordReader);
+				if (this.comparator.equalToReference(this.candidate)) {
+					return InsertResult.DUPLICATE;
+				}
+			}
+			
+			slot = (slot + 1) & (this.numSlots - 1);
+		}
+	}
+	
+	private InsertResult insertIntoSlot(T record, int hashCode, MemorySegment segment, int offsetInSegment)
+	throws IOException
+	{
+		if (this.full || this.numElements >= this.maxNumElements) {
+			this.full = true;
+			return InsertResult.NO_SPACE;
+		}
+		
+		final long recordOffset = this.recordWriter.getCurrentOffset();
+		try {
+			this.recordWriter.writeInt(hashCode);
+			this.serializer.serialize(record, this.recordWriter);
+		}
+		catch (EOFException eofex) {
+			// the record area is exhausted. the partially written record is never referenced
+			this.full = true;
+			return InsertResult.NO_SPACE;
+		}
+		
+		// the pointer refers to the record behind the hash code and is shifted by one, to distinguish it from
+		// an empty slot
+		final long pointer = recordOffset + 4 + 1;
+		if (pointer > this.maxRecordOffset) {
+			this.full = true;
+			return InsertResult.NO_SPACE;
+		}
+		
+		segment.putInt(offsetInSegment, hashCode);
+		segment.putInt(offsetInSegment + 4, (int) pointer);
+		this.numElements++;
+		return InsertResult.INSERTED;
+	}
+	
+	/**
+	 * Checks whether the set has rejected a record, because it had no space left.
+	 * 
+	 * @return True, if the set is full, false otherwise.
+	 */
+	public boolean isFull() {
+		return this.full;
+	}
+	
+	/**
+	 * Gets the number of records in the set.
+	 * 
+	 * @return The number of records in the set.
+	 */
+	public int size() {
+		return this.numElements;
+	}
+	
+	/**
+	 * Removes all records from the set and sets the level of the hash function used from now on. Records that
+	 * are re-partitioned by a hash function of a certain level should be inserted into a set that uses a higher
+	 * level, such that they are spread over all buckets.
+	 * 
+	 * @param hashLevel The level of the hash function.
+	 */
+	public void clear(int hashLevel) {
+		this.hashLevel = hashLevel;
+		this.numElements = 0;
+		this.full = false;
+		
+		clearBuckets();
+		
+		for (int i = this.recordSegments.size() - 1; i >= 0; i--) {
+			this.freeRecordSegments.add(this.recordSegments.remove(i));
+		}
+		this.recordWriter.reset();
+	}
+	
+	/**
+	 * Computes the hash code under which the set stores the given record.
+	 * 
+	 * @param record The record to hash.
+	 * @return The hash code of the record.
+	 */
+	public int hash(T record) {
+		return MutableHashTable.hash(this.comparator.hash(record), this.hashLevel);
+	}
+	
+	/**
+	 * Releases all memory segments of the set. The set must not be used any more afterwards.
+	 * 
+	 * @return All memory segments that were given to the set.
+	 */
+	public List<MemorySegment> close() {
+		final ArrayList<MemorySegment> memory = new ArrayList<MemorySegment>(
+			this.buckets.length + this.recordSegments.size() + this.freeRecordSegments.size());
+		
+		for (MemorySegment bucket : this.buckets) {
+			memory.add(bucket);
+		}
+		memory.addAll(this.recordSegments);
+		memory.addAll(this.freeRecordSegments);
+		
+		this.recordSegments.clear();
+		this.freeRecordSegments.clear();
+		return memory;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private void clearBuckets() {
+		for (MemorySegment bucket : this.buckets) {
+			final int size = bucket.size();
+			for (int pos = 0; pos < size; pos += 8) {
+				bucket.putLong(pos, 0L);
+			}
+		}
+	}
+}
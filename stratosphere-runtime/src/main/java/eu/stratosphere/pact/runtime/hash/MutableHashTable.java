@@ -81,6 +81,12 @@ import eu.stratosphere.util.MutableObjectIterator;
  * |
  * </pre>
  * 
+ * When a partition is spilled, the hash codes and pointers of its buckets are no longer needed. The buckets
+ * then set their status to spilled and reuse the space after the header for a bloom filter over the hash codes
+ * of all build side records in that bucket (those that were in the bucket before, and those that are inserted
+ * into the spilled partition later). Probe side records whose hash code is not contained in the bloom filter
+ * cannot have a join partner and are dropped, rather than being spilled together with the partition.
+ * 
  * @param <BT> The type of records from the build side that are stored in the hash table.
  * @param <PT> The type of records from the probe side that are stored in the hash table.
  */
@@ -183,13 +189,29 @@ public class MutableHashTable<BT, PT> implements MemorySegmentSource {
 	 */
 	private static final long BUCKET_FORWARD_POINTER_NOT_SET = ~0x0L;
 	
-//	private static final byte BUCKET_STATUS_SPILLED = 1;
+	/**
+	 * Constant for the bucket status, indicating that the bucket belongs to a spilled partition and
+	 * holds a bloom filter instead of hash codes and pointers.
+	 */
+	private static final byte BUCKET_STATUS_SPILLED = 1;
 	
 	/**
 	 * Constant for the bucket status, indicating that the bucket is in memory.
 	 */
 	private static final byte BUCKET_STATUS_IN_MEMORY = 0;
 	
+	// ------------------------------ Bloom Filter Fields ------------------------------
+	
+	/**
+	 * The number of bits of the bloom filter that a spilled bucket holds after its header.
+	 */
+	private static final int BLOOM_FILTER_NUM_BITS = (HASH_BUCKET_SIZE - BUCKET_HEADER_LENGTH) << 3;
+	
+	/**
+	 * The number of bits that are set in a bucket's bloom filter for every hash code.
+	 */
+	private static final int BLOOM_FILTER_NUM_HASH_FUNCTIONS = 4;
+	
 	// ------------------------------------------------------------------------
 	//                              Members
 	// ------------------------------------------------------------------------
@@ -465,7 +487,10 @@ public class MutableHashTable<BT, PT> implements MemorySegmentSource {
 				this.bucketIterator.set(bucket, p.overflowSegments, p, hash, bucketInSegmentOffset);
 				return true;
 			}
-			else {
+			else if (bucket.get(bucketInSegmentOffset + HEADER_STATUS_OFFSET) != BUCKET_STATUS_SPILLED ||
+					bloomFilterContains(bucket, bucketInSegmentOffset, hash))
+			{
+				// the record may have a join partner in the spilled partition
 				p.insertIntoProbeBuffer(next);
 			}
 		}
@@ -855,6 +880,10 @@ public class MutableHashTable<BT, PT> implements MemorySegmentSource {
 			// record was inserted into an in-memory partition. a pointer must be inserted into the buckets
 			insertBucketEntry(p, bucket, bucketInSegmentPos, hashCode, pointer);
 		}
+		else if (bucket.get(bucketInSegmentPos + HEADER_STATUS_OFFSET) == BUCKET_STATUS_SPILLED) {
+			// record went to a spilled partition. remember its hash code for the probe side
+			addToBloomFilter(bucket, bucketInSegmentPos, hashCode);
+		}
 	}
 	
 	/**
@@ -925,7 +954,9 @@ public class MutableHashTable<BT, PT> implements MemorySegmentSource {
 					// no memory available to create overflow bucket. we need to spill a partition
 					final int spilledPart = spillPartition();
 					if (spilledPart == p.getPartitionNumber()) {
-						// this bucket is no longer in-memory
+						// this bucket is no longer in-memory. the record was spilled with the partition,
+						// so its hash code must be added to the bucket's bloom filter
+						addToBloomFilter(bucket, bucketInSegmentPos, hashCode);
 						return;
 					}
 					overflowSeg = getNextBuffer();
@@ -1094,6 +1125,9 @@ public class MutableHashTable<BT, PT> implements MemorySegmentSource {
 		}
 		final HashPartition<BT, PT> p = partitions.get(largestPartNum);
 		
+		// turn the buckets into bloom filters, while the overflow buckets are still available
+		buildBloomFiltersForPartition(p);
+		
 		// spill the partition
 		int numBuffersFreed = p.spillPartition(this.availableMemory, this.ioManager, 
 										this.currentEnumerator.next(), this.writeBehindBuffers);
@@ -1107,6 +1141,69 @@ public class MutableHashTable<BT, PT> implements MemorySegmentSource {
 		return largestPartNum;
 	}
 	
+	/**
+	 * Replaces the hash codes and pointers in all buckets of the given partition by a bloom filter over the
+	 * hash codes. The hash codes from the overflow buckets are included, so this method must be called before
+	 * the partition is spilled and its overflow segments are released.
+	 * 
+	 * @param p The partition that is about to be spilled.
+	 */
+	private void buildBloomFiltersForPartition(final HashPartition<BT, PT> p) {
+		if (this.buckets == null) {
+			return;
+		}
+		
+		final int partitionNumber = p.getPartitionNumber();
+		final int bucketsPerSegment = this.bucketsPerSegmentMask + 1;
+		final int[] hashCodes = new int[NUM_ENTRIES_PER_BUCKET];
+		
+		for (int i = 0, bucketNum = 0; i < this.buckets.length && bucketNum < this.numBuckets; i++) {
+			final MemorySegment seg = this.buckets[i];
+			
+			for (int k = 0; k < bucketsPerSegment && bucketNum < this.numBuckets; k++, bucketNum++) {
+				final int bucketOffset = k * HASH_BUCKET_SIZE;
+				if (seg.get(bucketOffset + HEADER_PARTITION_OFFSET) != partitionNumber ||
+						seg.get(bucketOffset + HEADER_STATUS_OFFSET) == BUCKET_STATUS_SPILLED)
+				{
+					continue;
+				}
+				
+				// save the bucket's own hash codes, because the bloom filter occupies their space
+				final int count = seg.getShort(bucketOffset + HEADER_COUNT_OFFSET);
+				for (int n = 0; n < count; n++) {
+					hashCodes[n] = seg.getInt(bucketOffset + BUCKET_HEADER_LENGTH + (n * HASH_CODE_LEN));
+				}
+				
+				// clear the filter and mark the bucket as spilled
+				for (int pos = bucketOffset + BUCKET_HEADER_LENGTH; pos < bucketOffset + HASH_BUCKET_SIZE; pos += 8) {
+					seg.putLong(pos, 0L);
+				}
+				seg.put(bucketOffset + HEADER_STATUS_OFFSET, BUCKET_STATUS_SPILLED);
+				
+				for (int n = 0; n < count; n++) {
+					addToBloomFilter(seg, bucketOffset, hashCodes[n]);
+				}
+				
+				// add the hash codes from the chain of overflow buckets
+				long forwardPointer = seg.getLong(bucketOffset + HEADER_FORWARD_OFFSET);
+				while (forwardPointer != BUCKET_FORWARD_POINTER_NOT_SET) {
+					final MemorySegment overflowSeg = p.overflowSegments[(int) (forwardPointer >>> 32)];
+					final int overflowOffset = (int) (forwardPointer & 0xffffffff);
+					final int overflowCount = overflowSeg.getShort(overflowOffset + HEADER_COUNT_OFFSET);
+					
+					for (int n = 0; n < overflowCount; n++) {
+						addToBloomFilter(seg, bucketOffset, 
+							overflowSeg.getInt(overflowOffset + BUCKET_HEADER_LENGTH + (n * HASH_CODE_LEN)));
+					}
+					forwardPointer = overflowSeg.getLong(overflowOffset + HEADER_FORWARD_OFFSET);
+				}
+				
+				seg.putShort(bucketOffset + HEADER_COUNT_OFFSET, (short) 0);
+				seg.putLong(bucketOffset + HEADER_FORWARD_OFFSET, BUCKET_FORWARD_POINTER_NOT_SET);
+			}
+		}
+	}
+	
 	/**
 	 * This method makes sure that at least a certain number of memory segments is in the list of free segments.
 	 * Free memory can be in the list of free segments, or in the return-queue where segments used to write behind are
@@ -1287,6 +1384,66 @@ public class MutableHashTable<BT, PT> implements MemorySegmentSource {
 		return code >= 0 ? code : -(code + 1);
 	}
 
+	/**
+	 * Sets the bits for the given hash code in the bloom filter of the spilled bucket at the given position.
+	 * 
+	 * @param bucket The memory segment holding the bucket.
+	 * @param bucketInSegmentPos The offset of the bucket in the memory segment.
+	 * @param hashCode The hash code to add.
+	 */
+	static final void addToBloomFilter(MemorySegment bucket, int bucketInSegmentPos, int hashCode) {
+		final int h1 = hashCode;
+		final int h2 = bloomFilterHash(hashCode);
+		final int filterStart = bucketInSegmentPos + BUCKET_HEADER_LENGTH;
+		
+		for (int i = 1; i <= BLOOM_FILTER_NUM_HASH_FUNCTIONS; i++) {
+			final int bit = ((h1 + i * h2) & 0x7fffffff) % BLOOM_FILTER_NUM_BITS;
+			final int pos = filterStart + (bit >>> 3);
+			bucket.put(pos, (byte) (bucket.get(pos) | (1 << (bit & 0x7))));
+		}
+	}
+	
+	/**
+	 * Checks whether the given hash code may have been added to the bloom filter of the spilled bucket at the
+	 * given position. A return value of <tt>false</tt> means that no build side record with that hash code
+	 * exists in the bucket.
+	 * 
+	 * @param bucket The memory segment holding the bucket.
+	 * @param bucketInSegmentPos The offset of the bucket in the memory segment.
+	 * @param hashCode The hash code to test.
+	 * @return False, if the hash code is definitely not contained, true if it may be contained.
+	 */
+	static final boolean bloomFilterContains(MemorySegment bucket, int bucketInSegmentPos, int hashCode) {
+		final int h1 = hashCode;
+		final int h2 = bloomFilterHash(hashCode);
+		final int filterStart = bucketInSegmentPos + BUCKET_HEADER_LENGTH;
+		
+		for (int i = 1; i <= BLOOM_FILTER_NUM_HASH_FUNCTIONS; i++) {
+			final int bit = ((h1 + i * h2) & 0x7fffffff) % BLOOM_FILTER_NUM_BITS;
+			if ((bucket.get(filterStart + (bit >>> 3)) & (1 << (bit & 0x7))) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Derives the second hash function for the bloom filters. All hash codes in one bucket are congruent
+	 * modulo the number of buckets, so the hash code is re-mixed (using the MurmurHash3 finalizer) to obtain
+	 * bits that are independent of the bucket choice.
+	 * 
+	 * @param code The hash code.
+	 * @return The re-mixed hash code.
+	 */
+	private static final int bloomFilterHash(int code) {
+		code ^= code >>> 16;
+		code *= 0x85ebca6b;
+		code ^= code >>> 13;
+		code *= 0xc2b2ae35;
+		code ^= code >>> 16;
+		return code | 0x1;
+	}
+
 	public TypeComparator<PT> getProbeSideComparator () {
 		return this.probeSideComparator;
 	}
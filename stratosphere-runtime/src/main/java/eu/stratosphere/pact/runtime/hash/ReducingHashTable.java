@@ -0,0 +1,362 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.pact.runtime.hash;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import eu.stratosphere.api.common.functions.GenericReduce;
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.core.memory.MemorySegment;
+import eu.stratosphere.pact.runtime.io.RandomAccessInputView;
+import eu.stratosphere.pact.runtime.io.RandomAccessOutputView;
+import eu.stratosphere.pact.runtime.util.MathUtils;
+import eu.stratosphere.util.MutableObjectIterator;
+
+/**
+ * A hash table that aggregates records with equal keys by means of a reduce function. The table holds one
+ * record per key, which is the reduced result of all records with that key inserted so far. The table lives
+ * entirely in a fixed set of memory segments and never grows beyond them.
+ * <p>
+ * The memory is split into the bucket area and the record area, as in the {@link MutableHashSet}. Each slot in
+ * the bucket area holds the hash code of a key (4 bytes) and the offset of the key's current record in the record
+ * area (4 bytes). If the records have a fixed length, a reduced record overwrites its predecessor. Otherwise, it is
+ * appended to the record area and the slot is pointed to it. The stale predecessor is only reclaimed when the
+ * table is cleared.
+ * 
+ * @param <T> The type of the records in the table.
+ */
+public class ReducingHashTable<T> {
+	
+	/**
+	 * The minimum number of memory segments the table needs: one for the buckets and one for the records.
+	 */
+	public static final int MIN_NUM_MEMORY_SEGMENTS = 2;
+	
+	/**
+	 * The record length assumed to split the memory, if the serializer reports variable length records.
+	 */
+	private static final int DEFAULT_RECORD_LEN = 24;
+	
+	/**
+	 * The number of bytes of a slot in the bucket area.
+	 */
+	private static final int SLOT_SIZE = 8;
+	
+	/**
+	 * The maximal fill grade of the bucket area, in percent, before the table rejects new keys.
+	 */
+	private static final int MAX_LOAD_PERCENT = 75;
+	
+	/**
+	 * The pointer value of a slot whose record has been handed back to the caller.
+	 */
+	private static final int REMOVED = -1;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private final TypeSerializer<T> serializer;
+	
+	private final TypeComparator<T> comparator;
+	
+	private final GenericReduce<T> reducer;
+	
+	private final T candidate;
+	
+	private final MemorySegment[] buckets;
+	
+	private final int numSlots;
+	
+	private final int slotsPerSegmentBits;
+	
+	private final int slotsPerSegmentMask;
+	
+	private final int maxNumElements;
+	
+	private final ArrayList<MemorySegment> recordSegments;
+	
+	private final RandomAccessOutputView recordWriter;
+	
+	private final RandomAccessInputView recordReader;
+	
+	private final long recordAreaSize;
+	
+	private final boolean fixedLengthRecords;
+	
+	private long appendPosition;
+	
+	private int numElements;
+	
+	private int hashLevel;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Creates a new reducing hash table that works with the given memory segments.
+	 * 
+	 * @param serializer The serializer for the records.
+	 * @param comparator The comparator that hashes the records and decides which records have equal keys.
+	 * @param reducer The function that combines two records with equal keys into one.
+	 * @param memory The memory segments that hold the table. All segments must be of the same size, which must
+	 *               be a power of two.
+	 */
+	public ReducingHashTable(TypeSerializer<T> serializer, TypeComparator<T> comparator, GenericReduce<T> reducer,
+			List<MemorySegment> memory)
+	{
+		if (serializer == null || comparator == null || reducer == null || memory == null) {
+			throw new NullPointerException();
+		}
+		if (memory.size() < MIN_NUM_MEMORY_SEGMENTS) {
+			throw new IllegalArgumentException("Too few memory segments provided. The hash table needs at least " + 
+				MIN_NUM_MEMORY_SEGMENTS + " memory segments.");
+		}
+		
+		this.serializer = serializer;
+		this.comparator = comparator;
+		this.reducer = reducer;
+		this.candidate = serializer.createInstance();
+		this.fixedLengthRecords = serializer.getLength() > 0;
+		
+		final int segmentSize = memory.get(0).size();
+		final int slotsPerSegment = segmentSize / SLOT_SIZE;
+		this.slotsPerSegmentBits = MathUtils.log2strict(slotsPerSegment);
+		this.slotsPerSegmentMask = slotsPerSegment - 1;
+		
+		// split the memory between buckets and records, such that the bucket area reaches its maximal fill grade
+		// roughly when the record area is full
+		final int recordLen = this.fixedLengthRecords ? serializer.getLength() : DEFAULT_RECORD_LEN;
+		final int slotBytesPerRecord = SLOT_SIZE * 100 / MAX_LOAD_PERCENT;
+		final int numBucketSegments = Math.min(memory.size() - 1, Math.max(1, MathUtils.roundDownToPowerOf2(
+			(int) ((long) memory.size() * slotBytesPerRecord / (recordLen + slotBytesPerRecord)))));
+		
+		this.buckets = new MemorySegment[numBucketSegments];
+		for (int i = 0; i < numBucketSegments; i++) {
+			this.buckets[i] = memory.get(i);
+		}
+		this.numSlots = numBucketSegments * slotsPerSegment;
+		this.maxNumElements = (int) ((long) this.numSlots * MAX_LOAD_PERCENT / 100);
+		
+		this.recordSegments = new ArrayList<MemorySegment>(memory.subList(numBucketSegments, memory.size()));
+		this.recordAreaSize = ((long) this.recordSegments.size()) * segmentSize;
+		this.recordWriter = new RandomAccessOutputView(
+			this.recordSegments.toArray(new MemorySegment[this.recordSegments.size()]), segmentSize);
+		this.recordReader = new RandomAccessInputView(this.recordSegments, segmentSize);
+		
+		clear(0);
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Adds the given record to the table. If the table contains a record with an equal key, the two records are
+	 * reduced into one. Otherwise, the record is inserted.
+	 * <p>
+	 * If the table has no space left, it returns false. If that happens while reducing, the table has already
+	 * combined the contained record with the given record: The reduced record is copied into the given record
+	 * object, and the contained record is removed from the table. In any case, the caller should retrieve the
+	 * table's contents, clear it, and add the given record again.
+	 * 
+	 * @param record The record to add.
+	 * @return True, if the record was added, false if the table has no space left.
+	 * 
+	 * @throws Exception Thrown, if the serialization of a record or the reduce function failed.
+	 */
+	public boolean insertOrReduce(T record) throws Exception {
+		final int hashCode = MutableHashTable.hash(this.comparator.hash(record), this.hashLevel);
+		
+		int slot = hashCode & (this.numSlots - 1);
+		boolean referenceSet = false;
+		
+		while (true) {
+			final MemorySegment segment = this.buckets[slot >>> this.slotsPerSegmentBits];
+			final int offsetInSegment = (slot & this.slotsPerSegmentMask) * SLOT_SIZE;
+			final int pointer = segment.getInt(offsetInSegment + 4);
+			
+			if (pointer == 0) {
+				// empty slot, the key is not contained
+				if (this.numElements >= this.maxNumElements) {
+					return false;
+				}
+				final long position = append(record);
+				if (position < 0) {
+					return false;
+				}
+				segment.putInt(offsetInSegment, hashCode);
+				segment.putInt(offsetInSegment + 4, (int) (position + 1));
+				this.numElements++;
+				return true;
+			}
+			
+			if (pointer != REMOVED && segment.getInt(offsetInSegment) == hashCode) {
+				// same hash code, compare the actual records
+				if (!referenceSet) {
+					this.comparator.setReference(record);
+					referenceSet = true;
+				}
+				
+				this.recordReader.setReadPosition(pointer - 1);
+				this.serializer.deserialize(this.candidate, this.recordReader);
+				if (this.comparator.equalToReference(this.candidate)) {
+					final T reduced = this.reducer.reduce(this.candidate, record);
+					
+					if (this.fixedLengthRecords) {
+						// the reduced record takes exactly the space of its predecessor
+						this.recordWriter.setWritePosition(pointer - 1);
+						this.serializer.serialize(reduced, this.recordWriter);
+						return true;
+					}
+					
+					final long position = append(reduced);
+					if (position < 0) {
+						// hand the reduced record back, such that it is neither lost nor counted twice
+						if (reduced != record) {
+							this.serializer.copyTo(reduced, record);
+						}
+						segment.putInt(offsetInSegment + 4, REMOVED);
+						return false;
+					}
+					segment.putInt(offsetInSegment + 4, (int) (position + 1));
+					return true;
+				}
+			}
+			
+			slot = (slot + 1) & (this.numSlots - 1);
+		}
+	}
+	
+	/**
+	 * Appends the record to the record area.
+	 * 
+	 * @return The offset of the record, or -1, if the record area has no space left.
+	 */
+	private long append(T record) throws IOException {
+		if (this.appendPosition >= this.recordAreaSize) {
+			return -1;
+		}
+		
+		final long position = this.appendPosition;
+		this.recordWriter.setWritePosition(position);
+		try {
+			this.serializer.serialize(record, this.recordWriter);
+		}
+		catch (EOFException eofex) {
+			// the partially written record is never referenced
+			this.appendPosition = this.recordAreaSize;
+			return -1;
+		}
+		
+		final long end = this.recordWriter.getWritePosition();
+		if (end >= Integer.MAX_VALUE) {
+			// the offsets must fit into the four bytes of a slot
+			this.appendPosition = this.recordAreaSize;
+			return -1;
+		}
+		this.appendPosition = end;
+		return position;
+	}
+	
+	/**
+	 * Gets the number of keys in the table.
+	 * 
+	 * @return The number of keys in the table.
+	 */
+	public int size() {
+		return this.numElements;
+	}
+	
+	/**
+	 * Gets an iterator over the records in the table, one per key. The iterator must not be used after the
+	 * table has been modified.
+	 * 
+	 * @return An iterator over the records in the table.
+	 */
+	public MutableObjectIterator<T> getEntries() {
+		return new EntryIterator();
+	}
+	
+	/**
+	 * Computes the hash code under which the table stores the given record.
+	 * 
+	 * @param record The record to hash.
+	 * @return The hash code of the record.
+	 */
+	public int hash(T record) {
+		return MutableHashTable.hash(this.comparator.hash(record), this.hashLevel);
+	}
+	
+	/**
+	 * Removes all records from the table and sets the level of the hash function used from now on. Records that
+	 * are re-partitioned by a hash function of a certain level should be inserted into a table that uses a higher
+	 * level, such that they are spread over all buckets.
+	 * 
+	 * @param hashLevel The level of the hash function.
+	 */
+	public void clear(int hashLevel) {
+		this.hashLevel = hashLevel;
+		this.numElements = 0;
+		this.appendPosition = 0;
+		
+		for (MemorySegment bucket : this.buckets) {
+			final int size = bucket.size();
+			for (int pos = 0; pos < size; pos += 8) {
+				bucket.putLong(pos, 0L);
+			}
+		}
+	}
+	
+	/**
+	 * Releases all memory segments of the table. The table must not be used any more afterwards.
+	 * 
+	 * @return All memory segments that were given to the table.
+	 */
+	public List<MemorySegment> close() {
+		final ArrayList<MemorySegment> memory = new ArrayList<MemorySegment>(
+			this.buckets.length + this.recordSegments.size());
+		
+		for (MemorySegment bucket : this.buckets) {
+			memory.add(bucket);
+		}
+		memory.addAll(this.recordSegments);
+		return memory;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private final class EntryIterator implements MutableObjectIterator<T> {
+		
+		private int slot;
+
+		@Override
+		public boolean next(T target) throws IOException {
+			final ReducingHashTable<T> table = ReducingHashTable.this;
+			
+			while (this.slot < table.numSlots) {
+				final MemorySegment segment = table.buckets[this.slot >>> table.slotsPerSegmentBits];
+				final int pointer = segment.getInt(((this.slot & table.slotsPerSegmentMask) * SLOT_SIZE) + 4);
+				this.slot++;
+				
+				if (pointer != 0 && pointer != REMOVED) {
+					table.recordReader.setReadPosition(pointer - 1);
+					table.serializer.deserialize(target, table.recordReader);
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -79,4 +79,13 @@ public class RandomAccessOutputView extends AbstractPagedOutputView implements S
 		this.currentSegmentIndex = bufferNum;
 		seekOutput(this.segments[bufferNum], offset);
 	}
+	
+	/**
+	 * Gets the current write position, i.e. the number of bytes from the beginning of the first segment.
+	 * 
+	 * @return The current write position.
+	 */
+	public long getWritePosition() {
+		return (((long) this.currentSegmentIndex) << this.segmentSizeBits) + getCurrentPositionInSegment();
+	}
 }
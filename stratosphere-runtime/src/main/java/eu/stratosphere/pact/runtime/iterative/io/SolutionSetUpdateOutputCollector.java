@@ -15,8 +15,7 @@
 
 package eu.stratosphere.pact.runtime.iterative.io;
 
-import eu.stratosphere.api.common.typeutils.TypeSerializer;
-import eu.stratosphere.pact.runtime.hash.MutableHashTable;
+import eu.stratosphere.pact.runtime.hash.CompactingHashTable;
 import eu.stratosphere.util.Collector;
 
 import java.io.IOException;
@@ -24,10 +23,14 @@ import java.io.IOException;
 /**
  * A {@link Collector} to update the solution set of a workset iteration.
  * <p/>
- * The records are written to a {@link MutableHashTable} hash table to allow in-memory point updates.
+ * The records are written to a {@link CompactingHashTable} hash table to allow in-memory point updates.
  * <p/>
- * Records will only be collected, if there is a match after probing the hash table. If the build side iterator is
- * already positioned for the update, use {@link SolutionSetFastUpdateOutputCollector} to the save re-probing.
+ * Records will only be collected, if there is a match after probing the hash table. If the current match of the
+ * hash table is already the record to update, use {@link SolutionSetFastUpdateOutputCollector} to the save re-probing.
+ * <p/>
+ * Updates of records in spilled partitions of the hash table are logged, and it is only known whether they match
+ * when the log is replayed. The logged updates are applied and collected when this collector is closed. If the
+ * solution set is probed by another task, closing waits until that task has consumed its deferred probes.
  * 
  * @see SolutionSetFastUpdateOutputCollector
  */
@@ -35,29 +38,21 @@ public class SolutionSetUpdateOutputCollector<T> implements Collector<T> {
 
 	private final Collector<T> delegate;
 
-	private final MutableHashTable<T, T> solutionSet;
-
-	private final T buildSideRecord;
+	private final CompactingHashTable<T, ?> solutionSet;
 
-	public SolutionSetUpdateOutputCollector(MutableHashTable<T, T> solutionSet, TypeSerializer<T> serializer) {
-		this(solutionSet, serializer, null);
+	public SolutionSetUpdateOutputCollector(CompactingHashTable<T, ?> solutionSet) {
+		this(solutionSet, null);
 	}
 
-	public SolutionSetUpdateOutputCollector(MutableHashTable<T, T> solutionSet, TypeSerializer<T> serializer,
-			Collector<T> delegate) {
+	public SolutionSetUpdateOutputCollector(CompactingHashTable<T, ?> solutionSet, Collector<T> delegate) {
 		this.solutionSet = solutionSet;
 		this.delegate = delegate;
-		buildSideRecord = serializer.createInstance();
 	}
 
 	@Override
 	public void collect(T record) {
 		try {
-			MutableHashTable.HashBucketIterator<T, T> bucket = solutionSet.getMatchesFor(record);
-
-			if (bucket.next(buildSideRecord)) {
-				bucket.writeBack(record);
-
+			if (solutionSet.updateRecord(record)) {
 				if (delegate != null) {
 					delegate.collect(record);
 				}
@@ -69,6 +64,12 @@ public class SolutionSetUpdateOutputCollector<T> implements Collector<T> {
 
 	@Override
 	public void close() {
+		try {
+			solutionSet.applyLoggedUpdates(delegate);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		
 		if (delegate != null) {
 			delegate.close();
 		}
@@ -22,7 +22,7 @@ import eu.stratosphere.api.common.typeutils.TypeSerializerFactory;
 import eu.stratosphere.core.memory.DataOutputView;
 import eu.stratosphere.nephele.execution.Environment;
 import eu.stratosphere.nephele.io.MutableReader;
-import eu.stratosphere.pact.runtime.hash.MutableHashTable;
+import eu.stratosphere.pact.runtime.hash.CompactingHashTable;
 import eu.stratosphere.pact.runtime.iterative.concurrent.*;
 import eu.stratosphere.pact.runtime.iterative.convergence.WorksetEmptyConvergenceCriterion;
 import eu.stratosphere.pact.runtime.iterative.io.SolutionSetFastUpdateOutputCollector;
@@ -123,7 +123,7 @@ public abstract class AbstractIterativePactTask<S extends Function, OT> extends
 			// re-read the iterative broadcast variables
 			for (int i : this.iterativeBroadcastInputs) {
 				final String name = getTaskConfig().getBroadcastInputName(i);
-				readAndSetBroadcastInput(i, name, this.runtimeUdfContext);
+				readAndSetBroadcastInput(i, name, this.runtimeUdfContext, currentIteration());
 			}
 		}
 
@@ -330,19 +330,15 @@ public abstract class AbstractIterativePactTask<S extends Function, OT> extends
 	 * @return a new {@link SolutionSetFastUpdateOutputCollector} or {@link SolutionSetUpdateOutputCollector}
 	 */
 	protected Collector<OT> createSolutionSetUpdateOutputCollector(Collector<OT> delegate) {
-		Broker<MutableHashTable<?, ?>> solutionSetBroker = SolutionSetBroker.instance();
+		Broker<CompactingHashTable<?, ?>> solutionSetBroker = SolutionSetBroker.instance();
 
-		if (config.getIsSolutionSetUpdateWithoutReprobe()) {
-			@SuppressWarnings("unchecked")
-			MutableHashTable<OT, ?> solutionSet = (MutableHashTable<OT, ?>) solutionSetBroker.get(brokerKey());
+		@SuppressWarnings("unchecked")
+		CompactingHashTable<OT, ?> solutionSet = (CompactingHashTable<OT, ?>) solutionSetBroker.get(brokerKey());
 
+		if (config.getIsSolutionSetUpdateWithoutReprobe()) {
 			return new SolutionSetFastUpdateOutputCollector<OT>(solutionSet, delegate);
 		} else {
-			@SuppressWarnings("unchecked")
-			MutableHashTable<OT, OT> solutionSet = (MutableHashTable<OT, OT>) solutionSetBroker.get(brokerKey());
-			TypeSerializer<OT> serializer = getOutputSerializer();
-
-			return new SolutionSetUpdateOutputCollector<OT>(solutionSet, serializer, delegate);
+			return new SolutionSetUpdateOutputCollector<OT>(solutionSet, delegate);
 		}
 	}
 
@@ -41,7 +41,7 @@ import eu.stratosphere.core.memory.MemorySegment;
 import eu.stratosphere.nephele.io.AbstractRecordWriter;
 import eu.stratosphere.nephele.io.RecordWriter;
 import eu.stratosphere.nephele.io.channels.bytebuffered.EndOfSuperstepEvent;
-import eu.stratosphere.pact.runtime.hash.MutableHashTable;
+import eu.stratosphere.pact.runtime.hash.CompactingHashTable;
 import eu.stratosphere.pact.runtime.io.InputViewIterator;
 import eu.stratosphere.pact.runtime.iterative.event.AllWorkersDoneEvent;
 import eu.stratosphere.pact.runtime.iterative.event.TerminationEvent;
@@ -49,7 +49,6 @@ import eu.stratosphere.pact.runtime.iterative.event.WorkerDoneEvent;
 import eu.stratosphere.pact.runtime.iterative.io.SerializedUpdateBuffer;
 import eu.stratosphere.pact.runtime.task.RegularPactTask;
 import eu.stratosphere.pact.runtime.task.util.TaskConfig;
-import eu.stratosphere.pact.runtime.util.EmptyMutableObjectIterator;
 import eu.stratosphere.types.Value;
 import eu.stratosphere.util.Collector;
 import eu.stratosphere.util.MutableObjectIterator;
@@ -154,7 +153,7 @@ public class IterationHeadPactTask<X, Y, S extends Function, OT> extends Abstrac
 		return backChannel;
 	}
 
-	private <BT, PT> MutableHashTable<BT, PT> initHashTable() throws Exception {
+	private <BT, PT> CompactingHashTable<BT, PT> initHashTable() throws Exception {
 		// get some memory
 		long hashjoinMemorySize = config.getSolutionSetMemory();
 
@@ -174,15 +173,14 @@ public class IterationHeadPactTask<X, Y, S extends Function, OT> extends Abstrac
 		TypePairComparator<PT, BT> pairComparator = pairComparatorFactory.createComparator21(solutionTypeComparator,
 			probeSideComparator);
 
-		MutableHashTable<BT, PT> hashTable = null;
+		CompactingHashTable<BT, PT> hashTable = null;
 		List<MemorySegment> memSegments = null;
 		boolean success = false;
 		try {
 			int numPages = getMemoryManager().computeNumberOfPages(hashjoinMemorySize);
 			memSegments = getMemoryManager().allocatePages(getOwningNepheleTask(), numPages);
-			hashTable = new MutableHashTable<BT, PT>(solutionTypeSerializer, probeSideSerializer,
-				solutionTypeComparator,
-				probeSideComparator, pairComparator, memSegments, getIOManager());
+			hashTable = new CompactingHashTable<BT, PT>(solutionTypeSerializer, probeSideSerializer,
+				solutionTypeComparator, probeSideComparator, pairComparator, memSegments, getIOManager());
 			success = true;
 			return hashTable;
 		} finally {
@@ -205,10 +203,9 @@ public class IterationHeadPactTask<X, Y, S extends Function, OT> extends Abstrac
 		}
 	}
 
-	private <T> void readInitialSolutionSet(MutableHashTable<X, T> solutionSet,
+	private void readInitialSolutionSet(CompactingHashTable<X, ?> solutionSet,
 			MutableObjectIterator<X> solutionSetInput) throws IOException {
-		MutableObjectIterator<T> emptyInput = EmptyMutableObjectIterator.get();
-		solutionSet.open(solutionSetInput, emptyInput);
+		solutionSet.open(solutionSetInput);
 	}
 
 	private SuperstepBarrier initSuperstepBarrier() {
@@ -224,7 +221,7 @@ public class IterationHeadPactTask<X, Y, S extends Function, OT> extends Abstrac
 		final String brokerKey = brokerKey();
 		final int workerIndex = getEnvironment().getIndexInSubtaskGroup();
 
-		MutableHashTable<X, ?> solutionSet = null; // if workset iteration
+		CompactingHashTable<X, ?> solutionSet = null; // if workset iteration
 
 		boolean waitForSolutionSetUpdate = config.getWaitForSolutionSetUpdate();
 		boolean isWorksetIteration = config.getIsWorksetIteration();
@@ -355,6 +352,7 @@ public class IterationHeadPactTask<X, Y, S extends Function, OT> extends Abstrac
 			}
 			if (solutionSet != null) {
 				solutionSet.close();
+				getMemoryManager().release(solutionSet.getFreedMemory());
 				solutionSet = null;
 			}
 		}
@@ -369,9 +367,9 @@ public class IterationHeadPactTask<X, Y, S extends Function, OT> extends Abstrac
 		}
 	}
 
-	private void streamSolutionSetToFinalOutput(MutableHashTable<X, ?> hashTable) throws IOException,
+	private void streamSolutionSetToFinalOutput(CompactingHashTable<X, ?> hashTable) throws IOException,
 			InterruptedException {
-		final MutableObjectIterator<X> results = hashTable.getPartitionEntryIterator();
+		final MutableObjectIterator<X> results = hashTable.getEntryIterator();
 		final Collector<X> output = this.finalOutputCollector;
 		final X record = solutionTypeSerializer.createInstance();
 
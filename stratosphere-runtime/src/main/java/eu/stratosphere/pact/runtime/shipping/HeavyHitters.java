@@ -0,0 +1,151 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.pact.runtime.shipping;
+
+import java.util.Arrays;
+
+/**
+ * The heavy hitter keys of a skew resilient hash partitioning, derived from a sample of the hash codes of the
+ * partitioning keys. A key is a heavy hitter, if its share of the sample exceeds the share of a single channel.
+ * Its records are then spread over as many channels as are needed to bring each channel's share back to
+ * the fair share. These channels are the key's regular hash channel and the channels following it.
+ * <p>
+ * Heavy hitters are identified by the hash codes of their keys, because the two inputs of a join have
+ * different types, but equal keys have equal hash codes on both sides. Keys that collide with a heavy hitter
+ * are treated like the heavy hitter, which costs some replication, but never correctness.
+ */
+public final class HeavyHitters {
+	
+	private final int[] hashes;				// the sorted hash codes of the heavy hitter keys
+	
+	private final int[] spreads;				// the number of channels each heavy hitter is spread over
+	
+	private final int[][] targets;			// the target channels of each heavy hitter, computed lazily
+	
+	private final int[] nextTargets;			// the position of the next target channel for round robin
+	
+	private final int numChannels;			// the number of channels the heavy hitters were computed for
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Determines the heavy hitters from the given sample of key hash codes.
+	 * 
+	 * @param sampledHashes The sample of the hash codes of the partitioning keys.
+	 * @param numChannels The number of channels to partition among.
+	 */
+	public HeavyHitters(int[] sampledHashes, int numChannels) {
+		if (sampledHashes == null) {
+			throw new NullPointerException();
+		}
+		if (numChannels < 1) {
+			throw new IllegalArgumentException("The number of channels must be at least one.");
+		}
+		
+		this.numChannels = numChannels;
+		
+		final int[] sorted = sampledHashes.clone();
+		Arrays.sort(sorted);
+		final long total = sorted.length;
+		
+		// count the runs of equal hash codes and keep those larger than a channel's fair share
+		final int[] hashes = new int[numChannels];
+		final int[] spreads = new int[numChannels];
+		int num = 0;
+		
+		for (int start = 0, end; start < sorted.length; start = end) {
+			end = start + 1;
+			while (end < sorted.length && sorted[end] == sorted[start]) {
+				end++;
+			}
+			
+			final long count = end - start;
+			final int spread = (int) Math.min(numChannels, (count * numChannels + total - 1) / total);
+			if (spread > 1) {
+				hashes[num] = sorted[start];
+				spreads[num] = spread;
+				num++;
+			}
+		}
+		
+		this.hashes = Arrays.copyOf(hashes, num);
+		this.spreads = Arrays.copyOf(spreads, num);
+		this.targets = new int[num][];
+		this.nextTargets = new int[num];
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Gets the number of channels that these heavy hitters were computed for.
+	 * 
+	 * @return The number of channels.
+	 */
+	public int getNumChannels() {
+		return this.numChannels;
+	}
+	
+	/**
+	 * Gets the number of heavy hitter keys.
+	 * 
+	 * @return The number of heavy hitters.
+	 */
+	public int getNumHeavyHitters() {
+		return this.hashes.length;
+	}
+	
+	/**
+	 * Gets the index of the heavy hitter with the given key hash code.
+	 * 
+	 * @param hash The hash code of the key.
+	 * @return The index of the heavy hitter, or -1, if the key is no heavy hitter.
+	 */
+	public int indexOf(int hash) {
+		final int pos = Arrays.binarySearch(this.hashes, hash);
+		return pos >= 0 ? pos : -1;
+	}
+	
+	/**
+	 * Gets all channels that the heavy hitter with the given index is spread over.
+	 * 
+	 * @param index The index of the heavy hitter.
+	 * @param hashChannel The channel that the heavy hitter's key is regularly hash partitioned to.
+	 * @return The channels that the heavy hitter is spread over.
+	 */
+	public int[] getTargetChannels(int index, int hashChannel) {
+		int[] channels = this.targets[index];
+		if (channels == null) {
+			channels = new int[this.spreads[index]];
+			for (int i = 0; i < channels.length; i++) {
+				channels[i] = (hashChannel + i) % this.numChannels;
+			}
+			this.targets[index] = channels;
+		}
+		return channels;
+	}
+	
+	/**
+	 * Gets the next channel, round robin, of the channels that the heavy hitter with the given index is spread over.
+	 * 
+	 * @param index The index of the heavy hitter.
+	 * @param hashChannel The channel that the heavy hitter's key is regularly hash partitioned to.
+	 * @return The next channel to send a record of the heavy hitter to.
+	 */
+	public int getNextTargetChannel(int index, int hashChannel) {
+		final int[] channels = getTargetChannels(index, hashChannel);
+		final int next = this.nextTargets[index];
+		this.nextTargets[index] = next + 1 < channels.length ? next + 1 : 0;
+		return channels[next];
+	}
+}
@@ -13,6 +13,8 @@
 
 package eu.stratosphere.pact.runtime.shipping;
 
+import java.util.Collection;
+
 import eu.stratosphere.api.common.distributions.DataDistribution;
 import eu.stratosphere.api.common.typeutils.TypeComparator;
 import eu.stratosphere.nephele.io.ChannelSelector;
@@ -31,9 +33,13 @@ public class OutputEmitter<T> implements ChannelSelector<SerializationDelegate<T
 	
 	private final TypeComparator<T> comparator;	// the comparator for hashing / sorting
 	
-//	private Key[][] partitionBoundaries;		// the partition boundaries for range partitioning
-//	
-//	private final DataDistribution distribution; // the data distribution to create the partition boundaries for range partitioning
+	private Collection<T> rangeSample;			// the sample of the data from which the range boundaries are computed
+	
+	private RangeBoundaries<T> rangeBoundaries;	// the partition boundaries for range partitioning
+	
+	private int[] heavyHitterSample;			// the sampled key hashes from which the heavy hitters are computed
+	
+	private HeavyHitters heavyHitters;			// the heavy hitters for the skew resilient hash partitioning
 	
 	private final byte[] salt;					// the salt used to randomize the hash values
 
@@ -109,7 +115,6 @@ public class OutputEmitter<T> implements ChannelSelector<SerializationDelegate<T
 		this.strategy = strategy;
 		this.comparator = comparator;
 		this.salt = salt;
-//		this.distribution = distr;
 		
 		switch (strategy) {
 		case FORWARD:
@@ -117,14 +122,40 @@ public class OutputEmitter<T> implements ChannelSelector<SerializationDelegate<T
 		case PARTITION_LOCAL_HASH:
 		case PARTITION_RANGE:
 		case PARTITION_RANDOM:
+		case PARTITION_HASH_SPLIT_HEAVY:
+		case PARTITION_HASH_REPLICATE_HEAVY:
 		case BROADCAST:
 			break;
 		default:
 			throw new IllegalArgumentException("Invalid shipping strategy for OutputEmitter: " + strategy.name());
 		}
 		
-		if ((strategy == ShipStrategyType.PARTITION_RANGE) && distr == null)
-			throw new NullPointerException("Data distribution must not be null when the ship strategy is range partitioning.");
+		if (strategy == ShipStrategyType.PARTITION_RANGE && distr != null) {
+			throw new UnsupportedOperationException("Range partitioning with a given data distribution is only " +
+					"supported for the record data model. Other types derive the range boundaries from a sample.");
+		}
+	}
+	
+	/**
+	 * Sets the sample of the data, from which the boundaries for the range partitioning are computed.
+	 * The sample must be identical for all senders of a range partitioned data exchange.
+	 * 
+	 * @param sample The sample of the data to partition.
+	 */
+	public void setRangePartitionSample(Collection<T> sample) {
+		this.rangeSample = sample;
+		this.rangeBoundaries = null;
+	}
+	
+	/**
+	 * Sets the sample of key hash codes, from which the heavy hitters of the skew resilient hash partitioning
+	 * are computed. The sample must be identical for all senders of both inputs of the join.
+	 * 
+	 * @param keyHashes The sampled hash codes of the partitioning keys.
+	 */
+	public void setHeavyHitterSample(int[] keyHashes) {
+		this.heavyHitterSample = keyHashes;
+		this.heavyHitters = null;
 	}
 
 	// ------------------------------------------------------------------------
@@ -142,6 +173,9 @@ public class OutputEmitter<T> implements ChannelSelector<SerializationDelegate<T
 			return hashPartitionDefault(record.getInstance(), numberOfChannels);
 		case PARTITION_RANGE:
 			return rangePartition(record.getInstance(), numberOfChannels);
+		case PARTITION_HASH_SPLIT_HEAVY:
+		case PARTITION_HASH_REPLICATE_HEAVY:
+			return skewResilientHashPartition(record.getInstance(), numberOfChannels);
 		case BROADCAST:
 			return broadcast(numberOfChannels);
 		default:
@@ -179,55 +213,64 @@ public class OutputEmitter<T> implements ChannelSelector<SerializationDelegate<T
 			channels = new int[1];
 		}
 		
-		int hash = this.comparator.hash(record);
+		this.channels[0] = hashChannel(this.comparator.hash(record), numberOfChannels);
+		return this.channels;
+	}
+	
+	private final int hashChannel(int hash, int numberOfChannels) {
 		for (int i = 0; i < this.salt.length; i++) {
 			hash ^= ((hash << 5) + this.salt[i] + (hash >> 2));
 		}
+		return (hash < 0) ? -hash % numberOfChannels : hash % numberOfChannels;
+	}
 	
-		this.channels[0] = (hash < 0) ? -hash % numberOfChannels : hash % numberOfChannels;
+	private final int[] skewResilientHashPartition(T record, int numberOfChannels) {
+		if (this.heavyHitters == null) {
+			if (this.heavyHitterSample == null) {
+				throw new IllegalStateException("No sample has been set to compute the heavy hitters from.");
+			}
+			this.heavyHitters = new HeavyHitters(this.heavyHitterSample, numberOfChannels);
+		}
+		else if (this.heavyHitters.getNumChannels() != numberOfChannels) {
+			throw new IllegalStateException(
+				"The number of channels to partition among is inconsistent with the partitioners state.");
+		}
+		
+		if (this.channels == null || this.channels.length != 1) {
+			this.channels = new int[1];
+		}
+		
+		final int hash = this.comparator.hash(record);
+		final int channel = hashChannel(hash, numberOfChannels);
+		final int heavyHitter = this.heavyHitters.indexOf(hash);
+		
+		if (heavyHitter < 0) {
+			this.channels[0] = channel;
+		} else if (this.strategy == ShipStrategyType.PARTITION_HASH_REPLICATE_HEAVY) {
+			return this.heavyHitters.getTargetChannels(heavyHitter, channel);
+		} else {
+			this.channels[0] = this.heavyHitters.getNextTargetChannel(heavyHitter, channel);
+		}
 		return this.channels;
 	}
 	
 	private final int[] rangePartition(T record, int numberOfChannels) {
-		throw new UnsupportedOperationException();
-//		if (channels == null || channels.length != 1) {
-//			channels = new int[1];
-//		}
-//		
-//		if (this.partitionBoundaries == null) {
-//			this.partitionBoundaries = new Key[numberOfChannels - 1][];
-//			for (int i = 0; i < numberOfChannels - 1; i++) {
-//				this.partitionBoundaries[i] = this.distribution.getBucketBoundary(i, numberOfChannels);
-//			}
-//		}
-//		
-//		if (numberOfChannels == this.partitionBoundaries.length + 1) {
-//			final TypeComparator<T>[] boundaries = this.partitionBoundaries;
-//			this.comparator.setReference(record);
-//			
-//			// bin search the bucket
-//			int low = 0;
-//			int high = this.partitionBoundaries.length - 1;
-//			
-//			while (low <= high) {
-//				final int mid = (low + high) >>> 1;
-//				final int result = this.comparator.compareToReference(boundaries[mid]);
-//				
-//				if (result < 0) {
-//					low = mid + 1;
-//				} else if (result > 0) {
-//					high = mid - 1;
-//				} else {
-//					this.channels[0] = mid;
-//					return this.channels;
-//				}
-//			}
-//			this.channels[0] = low;	// key not found, but the low index is the target
-//									// bucket, since the boundaries are the upper bound
-//			return this.channels;
-//		} else {
-//			throw new IllegalStateException(
-//			"The number of channels to partition among is inconsistent with the partitioners state.");
-//		}
+		if (this.channels == null || this.channels.length != 1) {
+			this.channels = new int[1];
+		}
+		
+		if (this.rangeBoundaries == null) {
+			if (this.rangeSample == null) {
+				throw new IllegalStateException("No sample has been set to compute the range partition boundaries from.");
+			}
+			this.rangeBoundaries = new RangeBoundaries<T>(this.comparator, this.rangeSample, numberOfChannels);
+		}
+		else if (this.rangeBoundaries.getNumPartitions() != numberOfChannels) {
+			throw new IllegalStateException(
+				"The number of channels to partition among is inconsistent with the partitioners state.");
+		}
+		
+		this.channels[0] = this.rangeBoundaries.getPartition(record);
+		return this.channels;
 	}
 }
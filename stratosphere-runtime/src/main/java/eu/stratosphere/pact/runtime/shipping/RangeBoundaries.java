@@ -0,0 +1,162 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.pact.runtime.shipping;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.core.memory.MemorySegment;
+
+/**
+ * The boundaries of a range partitioning, derived from a sample of the data. The boundaries are held as
+ * normalized keys, such that the partition of a record is found through a binary search over byte arrays.
+ * <p>
+ * Partition <i>i</i> receives all records whose normalized key is larger than boundary <i>i-1</i> and not
+ * larger than boundary <i>i</i>. Since the order of the normalized keys is consistent with the order of the
+ * comparator, all records of a lower partition are smaller than or equal to all records of a higher partition.
+ * That holds also if the normalized keys are only a prefix of the key; records with equal prefixes then simply
+ * end up in the same partition.
+ *
+ * @param <T> The type of the partitioned records.
+ */
+public final class RangeBoundaries<T> {
+	
+	/**
+	 * The maximal number of normalized key bytes that is used to describe a boundary.
+	 */
+	public static final int MAX_NORMALIZED_KEY_LEN = 32;
+	
+	private final TypeComparator<T> comparator;		// the comparator that creates the normalized keys
+	
+	private final byte[][] boundaries;				// the normalized keys of the upper partition boundaries
+	
+	private final byte[] currentKey;					// the reused buffer for the normalized key of the current record
+	
+	private final MemorySegment currentKeySegment;	// the memory segment wrapping the buffer for the current key
+	
+	private final int numPartitions;					// the number of partitions the boundaries were computed for
+	
+	private final boolean invertedOrder;				// flag whether the normalized keys sort inversely
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Computes the boundaries to split the data of which the given sample was taken into the given number
+	 * of equally large partitions.
+	 * 
+	 * @param comparator The comparator for the partitioning key. It must support normalized keys.
+	 * @param sample The sample of the data.
+	 * @param numPartitions The number of partitions to split the data into.
+	 */
+	public RangeBoundaries(TypeComparator<T> comparator, Collection<T> sample, int numPartitions) {
+		if (comparator == null || sample == null) {
+			throw new NullPointerException();
+		}
+		if (numPartitions < 1) {
+			throw new IllegalArgumentException("The number of partitions must be at least one.");
+		}
+		if (!comparator.supportsNormalizedKey()) {
+			throw new IllegalArgumentException("Range partitioning based on a sample requires a key that " +
+					"supports normalized keys.");
+		}
+		
+		this.comparator = comparator;
+		this.numPartitions = numPartitions;
+		this.invertedOrder = comparator.invertNormalizedKey();
+		this.currentKey = new byte[Math.min(comparator.getNormalizeKeyLen(), MAX_NORMALIZED_KEY_LEN)];
+		this.currentKeySegment = new MemorySegment(this.currentKey);
+		
+		// normalize and sort the sampled keys
+		final byte[][] sampledKeys = new byte[sample.size()][];
+		int num = 0;
+		for (T record : sample) {
+			sampledKeys[num++] = normalize(record).clone();
+		}
+		Arrays.sort(sampledKeys, new Comparator<byte[]>() {
+			@Override
+			public int compare(byte[] o1, byte[] o2) {
+				return compareKeys(o1, o2);
+			}
+		});
+		
+		// the upper boundary of partition i is the largest key of the i-th equally sized fraction of the sample
+		final int numBoundaries = sampledKeys.length == 0 ? 0 : numPartitions - 1;
+		this.boundaries = new byte[numBoundaries][];
+		for (int i = 0; i < numBoundaries; i++) {
+			final int pos = (int) (((long) (i + 1)) * sampledKeys.length / numPartitions) - 1;
+			this.boundaries[i] = sampledKeys[Math.max(pos, 0)];
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * Gets the number of partitions that these boundaries split the data into.
+	 * 
+	 * @return The number of partitions.
+	 */
+	public int getNumPartitions() {
+		return this.numPartitions;
+	}
+	
+	/**
+	 * Determines the partition of the given record.
+	 * 
+	 * @param record The record to find the partition for.
+	 * @return The partition of the record.
+	 */
+	public int getPartition(T record) {
+		final byte[] key = normalize(record);
+		final byte[][] boundaries = this.boundaries;
+		
+		// bin search the first boundary that is not smaller than the key
+		int low = 0;
+		int high = boundaries.length - 1;
+		
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int result = compareKeys(boundaries[mid], key);
+			
+			if (result < 0) {
+				low = mid + 1;
+			} else if (result > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		// key not found, but the low index is the target partition,
+		// since the boundaries are the upper bounds
+		return low;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private byte[] normalize(T record) {
+		this.comparator.putNormalizedKey(record, this.currentKeySegment, 0, this.currentKey.length);
+		return this.currentKey;
+	}
+	
+	private int compareKeys(byte[] first, byte[] second) {
+		for (int i = 0; i < first.length; i++) {
+			final int cmp = (first[i] & 0xff) - (second[i] & 0xff);
+			if (cmp != 0) {
+				return this.invertedOrder ? -cmp : cmp;
+			}
+		}
+		return 0;
+	}
+}
@@ -13,6 +13,8 @@
 
 package eu.stratosphere.pact.runtime.shipping;
 
+import java.util.Collection;
+
 import eu.stratosphere.api.common.distributions.DataDistribution;
 import eu.stratosphere.nephele.io.ChannelSelector;
 import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordComparator;
@@ -38,6 +40,14 @@ public class RecordOutputEmitter implements ChannelSelector<Record> {
 	
 	private final DataDistribution distribution; // the data distribution to create the partition boundaries for range partitioning
 	
+	private Collection<Record> rangeSample;	// the sample to compute the range boundaries from, if no distribution is given
+	
+	private RangeBoundaries<Record> rangeBoundaries; // the partition boundaries computed from the sample
+	
+	private int[] heavyHitterSample;			// the sampled key hashes from which the heavy hitters are computed
+	
+	private HeavyHitters heavyHitters;			// the heavy hitters for the skew resilient hash partitioning
+	
 	private int nextChannelToSendTo;				// counter to go over channels round robin
 
 	// ------------------------------------------------------------------------
@@ -87,6 +97,8 @@ public class RecordOutputEmitter implements ChannelSelector<Record> {
 		case PARTITION_LOCAL_HASH:
 		case PARTITION_RANGE:
 		case PARTITION_RANDOM:
+		case PARTITION_HASH_SPLIT_HEAVY:
+		case PARTITION_HASH_REPLICATE_HEAVY:
 			this.channels = new int[1];
 			break;
 		case BROADCAST:
@@ -94,9 +106,29 @@ public class RecordOutputEmitter implements ChannelSelector<Record> {
 		default:
 			throw new IllegalArgumentException("Invalid shipping strategy for OutputEmitter: " + strategy.name());
 		}
-		
-		if ((strategy == ShipStrategyType.PARTITION_RANGE) && distr == null)
-			throw new NullPointerException("Data distribution must not be null when the ship strategy is range partitioning.");
+	}
+	
+	/**
+	 * Sets the sample of the data, from which the boundaries for the range partitioning are computed, if
+	 * no data distribution is given. The sample must be identical for all senders of a range partitioned
+	 * data exchange.
+	 * 
+	 * @param sample The sample of the data to partition.
+	 */
+	public void setRangePartitionSample(Collection<Record> sample) {
+		this.rangeSample = sample;
+		this.rangeBoundaries = null;
+	}
+	
+	/**
+	 * Sets the sample of key hash codes, from which the heavy hitters of the skew resilient hash partitioning
+	 * are computed. The sample must be identical for all senders of both inputs of the join.
+	 * 
+	 * @param keyHashes The sampled hash codes of the partitioning keys.
+	 */
+	public void setHeavyHitterSample(int[] keyHashes) {
+		this.heavyHitterSample = keyHashes;
+		this.heavyHitters = null;
 	}
 
 	// ------------------------------------------------------------------------
@@ -114,6 +146,9 @@ public class RecordOutputEmitter implements ChannelSelector<Record> {
 			return hashPartitionDefault(record, numberOfChannels);
 		case PARTITION_RANGE:
 			return rangePartition(record, numberOfChannels);
+		case PARTITION_HASH_SPLIT_HEAVY:
+		case PARTITION_HASH_REPLICATE_HEAVY:
+			return skewResilientHashPartition(record, numberOfChannels);
 		case BROADCAST:
 			return broadcast(numberOfChannels);
 		default:
@@ -142,15 +177,48 @@ public class RecordOutputEmitter implements ChannelSelector<Record> {
 	}
 
 	private final int[] hashPartitionDefault(final Record record, int numberOfChannels) {
-		int hash = this.comparator.hash(record);
+		this.channels[0] = hashChannel(this.comparator.hash(record), numberOfChannels);
+		return this.channels;
+	}
+	
+	private final int hashChannel(int hash, int numberOfChannels) {
 		for (int i = 0; i < DEFAULT_SALT.length; i++) {
 			hash ^= ((hash << 5) + DEFAULT_SALT[i] + (hash >> 2));
 		}
-		this.channels[0] = (hash < 0) ? -hash % numberOfChannels : hash % numberOfChannels;
+		return (hash < 0) ? -hash % numberOfChannels : hash % numberOfChannels;
+	}
+	
+	private final int[] skewResilientHashPartition(final Record record, int numberOfChannels) {
+		if (this.heavyHitters == null) {
+			if (this.heavyHitterSample == null) {
+				throw new IllegalStateException("No sample has been set to compute the heavy hitters from.");
+			}
+			this.heavyHitters = new HeavyHitters(this.heavyHitterSample, numberOfChannels);
+		}
+		else if (this.heavyHitters.getNumChannels() != numberOfChannels) {
+			throw new IllegalStateException(
+				"The number of channels to partition among is inconsistent with the partitioners state.");
+		}
+		
+		final int hash = this.comparator.hash(record);
+		final int channel = hashChannel(hash, numberOfChannels);
+		final int heavyHitter = this.heavyHitters.indexOf(hash);
+		
+		if (heavyHitter < 0) {
+			this.channels[0] = channel;
+		} else if (this.strategy == ShipStrategyType.PARTITION_HASH_REPLICATE_HEAVY) {
+			return this.heavyHitters.getTargetChannels(heavyHitter, channel);
+		} else {
+			this.channels[0] = this.heavyHitters.getNextTargetChannel(heavyHitter, channel);
+		}
 		return this.channels;
 	}
 	
 	private final int[] rangePartition(final Record record, int numberOfChannels) {
+		if (this.distribution == null) {
+			return sampledRangePartition(record, numberOfChannels);
+		}
+		
 		if (this.partitionBoundaries == null) {
 			this.partitionBoundaries = new Key[numberOfChannels - 1][];
 			for (int i = 0; i < numberOfChannels - 1; i++) {
@@ -187,4 +255,21 @@ public class RecordOutputEmitter implements ChannelSelector<Record> {
 			"The number of channels to partition among is inconsistent with the partitioners state.");
 		}
 	}
+	
+	private final int[] sampledRangePartition(final Record record, int numberOfChannels) {
+		if (this.rangeBoundaries == null) {
+			if (this.rangeSample == null) {
+				throw new IllegalStateException("Range partitioning requires either a data distribution " +
+						"or a sample to compute the partition boundaries from.");
+			}
+			this.rangeBoundaries = new RangeBoundaries<Record>(this.comparator, this.rangeSample, numberOfChannels);
+		}
+		else if (this.rangeBoundaries.getNumPartitions() != numberOfChannels) {
+			throw new IllegalStateException(
+				"The number of channels to partition among is inconsistent with the partitioners state.");
+		}
+		
+		this.channels[0] = this.rangeBoundaries.getPartition(record);
+		return this.channels;
+	}
 }
@@ -50,6 +50,18 @@ public enum ShipStrategyType {
 	 */
 	PARTITION_RANGE(true, true, true),
 	
+	/**
+	 * Repartitioning the data through a hash function, but spreading the records of heavy hitter keys round robin
+	 * over several channels. Used together with {@link #PARTITION_HASH_REPLICATE_HEAVY} on the other input of a join.
+	 */
+	PARTITION_HASH_SPLIT_HEAVY(true, true, true),
+	
+	/**
+	 * Repartitioning the data through a hash function, but replicating the records of heavy hitter keys to all
+	 * channels that the other input of the join spreads these keys over.
+	 */
+	PARTITION_HASH_REPLICATE_HEAVY(true, true, true),
+	
 	/**
 	 * Replicating the data set to all instances.
 	 */
@@ -81,4 +93,13 @@ public enum ShipStrategyType {
 	public boolean requiresComparator() {
 		return this.requiresComparator;
 	}
+	
+	/**
+	 * Checks whether this strategy is one of the hash partitionings that treat heavy hitter keys specially.
+	 * 
+	 * @return True, if this strategy splits or replicates heavy hitter keys, false otherwise.
+	 */
+	public boolean isSkewResilient() {
+		return this == PARTITION_HASH_SPLIT_HEAVY || this == PARTITION_HASH_REPLICATE_HEAVY;
+	}
 }
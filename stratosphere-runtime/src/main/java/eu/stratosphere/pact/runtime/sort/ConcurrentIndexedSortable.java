@@ -0,0 +1,31 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.pact.runtime.sort;
+
+/**
+ * An {@link IndexedSortable} that can be sorted by multiple threads at the same time, each thread working on its
+ * own range of indices.
+ */
+public interface ConcurrentIndexedSortable extends IndexedSortable {
+
+	/**
+	 * Creates a view on the elements of this sortable that has its own state for comparing and swapping elements.
+	 * The view may be used by another thread concurrently with this sortable and other views, as long as the
+	 * threads compare and swap elements in disjoint index ranges. The elements must not be added or removed
+	 * while views are in use.
+	 * 
+	 * @return A view on the elements of this sortable.
+	 */
+	IndexedSortable createConcurrentView();
+}
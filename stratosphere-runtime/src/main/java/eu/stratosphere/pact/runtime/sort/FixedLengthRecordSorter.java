@@ -29,7 +29,7 @@ import eu.stratosphere.util.MutableObjectIterator;
 /**
  * 
  */
-public final class FixedLengthRecordSorter<T> implements InMemorySorter<T> {
+public final class FixedLengthRecordSorter<T> implements InMemorySorter<T>, NormalizedKeySortable {
 	
 	private static final int MIN_REQUIRED_BUFFERS = 3;
 
@@ -73,6 +73,8 @@ public final class FixedLengthRecordSorter<T> implements InMemorySorter<T> {
 	
 	private final boolean useNormKeyUninverted;
 	
+	private final boolean normalizedKeyFullyDetermines;
+	
 	private final T recordInstance;
 	
 	
@@ -99,6 +101,7 @@ public final class FixedLengthRecordSorter<T> implements InMemorySorter<T> {
 		this.segmentSize = memory.get(0).size();
 		this.recordSize = serializer.getLength();
 		this.numKeyBytes = this.comparator.getNormalizeKeyLen();
+		this.normalizedKeyFullyDetermines = !this.comparator.isNormalizedKeyPrefixOnly(this.numKeyBytes);
 		
 		// check that the serializer and comparator allow our operations
 		if (this.recordSize <= 0) {
@@ -286,6 +289,10 @@ public final class FixedLengthRecordSorter<T> implements InMemorySorter<T> {
 
 	@Override
 	public void swap(int i, int j) {
+		swap(i, j, this.swapBuffer);
+	}
+	
+	private final void swap(int i, int j, byte[] swapBuffer) {
 		final int bufferNumI = i / this.recordsPerSegment;
 		final int segmentOffsetI = (i % this.recordsPerSegment) * this.recordSize;
 		
@@ -295,13 +302,70 @@ public final class FixedLengthRecordSorter<T> implements InMemorySorter<T> {
 		final MemorySegment segI = this.sortBuffer.get(bufferNumI);
 		final MemorySegment segJ = this.sortBuffer.get(bufferNumJ);
 		
-		MemorySegment.swapBytes(segI, segJ, this.swapBuffer, segmentOffsetI, segmentOffsetJ, this.recordSize);
+		MemorySegment.swapBytes(segI, segJ, swapBuffer, segmentOffsetI, segmentOffsetJ, this.recordSize);
 	}
 
 	@Override
 	public int size() {
 		return this.numRecords;
 	}
+	
+	@Override
+	public boolean isNormalizedKeyFullyDetermining() {
+		return this.normalizedKeyFullyDetermines;
+	}
+
+	@Override
+	public int getNormalizedKeyLength() {
+		return this.numKeyBytes;
+	}
+
+	@Override
+	public int getNormalizedKeyByte(int i, int keyByte) {
+		final int bufferNum = i / this.recordsPerSegment;
+		final int segmentOffset = (i % this.recordsPerSegment) * this.recordSize;
+		
+		final int b = this.sortBuffer.get(bufferNum).get(segmentOffset + keyByte) & 0xff;
+		return this.useNormKeyUninverted ? b : 255 - b;
+	}
+	
+	@Override
+	public IndexedSortable createConcurrentView() {
+		return new NormalizedKeySortable() {
+			
+			private final byte[] swapBuffer = new byte[recordSize];
+			
+			@Override
+			public int compare(int i, int j) {
+				return FixedLengthRecordSorter.this.compare(i, j);
+			}
+
+			@Override
+			public void swap(int i, int j) {
+				FixedLengthRecordSorter.this.swap(i, j, this.swapBuffer);
+			}
+
+			@Override
+			public int size() {
+				return numRecords;
+			}
+
+			@Override
+			public boolean isNormalizedKeyFullyDetermining() {
+				return normalizedKeyFullyDetermines;
+			}
+
+			@Override
+			public int getNormalizedKeyLength() {
+				return numKeyBytes;
+			}
+
+			@Override
+			public int getNormalizedKeyByte(int i, int keyByte) {
+				return FixedLengthRecordSorter.this.getNormalizedKeyByte(i, keyByte);
+			}
+		};
+	}
 
 	// -------------------------------------------------------------------------
 	
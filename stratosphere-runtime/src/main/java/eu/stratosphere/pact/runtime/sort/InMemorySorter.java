@@ -23,7 +23,7 @@ import eu.stratosphere.util.MutableObjectIterator;
 /**
  *
  */
-public interface InMemorySorter<T> extends IndexedSortable {
+public interface InMemorySorter<T> extends ConcurrentIndexedSortable {
 	
 	/**
 	 * Resets the sort buffer back to the state where it is empty. All contained data is discarded.
@@ -0,0 +1,46 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.pact.runtime.sort;
+
+/**
+ * An {@link IndexedSortable} whose elements carry a binary normalized key, which can be accessed byte by byte.
+ */
+public interface NormalizedKeySortable extends IndexedSortable {
+
+	/**
+	 * Checks whether the order of the elements is fully determined by their normalized keys, i.e. whether two
+	 * elements with equal normalized keys are always equal with respect to the sort order.
+	 * 
+	 * @return True, if the normalized keys fully determine the order, false otherwise.
+	 */
+	boolean isNormalizedKeyFullyDetermining();
+	
+	/**
+	 * Gets the number of bytes in the normalized key of each element.
+	 * 
+	 * @return The number of bytes in the normalized keys.
+	 */
+	int getNormalizedKeyLength();
+	
+	/**
+	 * Gets a byte of the normalized key of the element at the given index, as an unsigned value in the range
+	 * [0, 255]. For descending sort orders, the byte is inverted, such that the elements are always sorted by
+	 * ascending byte values.
+	 * 
+	 * @param i The index of the element.
+	 * @param keyByte The position of the byte in the normalized key.
+	 * @return The byte of the normalized key, in sort order.
+	 */
+	int getNormalizedKeyByte(int i, int keyByte);
+}
@@ -30,7 +30,7 @@ import eu.stratosphere.util.MutableObjectIterator;
 /**
  * 
  */
-public final class NormalizedKeySorter<T> implements InMemorySorter<T>
+public final class NormalizedKeySorter<T> implements InMemorySorter<T>, NormalizedKeySortable
 {
 	private static final int OFFSET_LEN = 8;
 	
@@ -300,12 +300,14 @@ public final class NormalizedKeySorter<T> implements InMemorySorter<T>
 		this.serializer.deserialize(target, this.recordBuffer);
 	}
 	
-	private final int compareRecords(long pointer1, long pointer2) {
-		this.recordBuffer.setReadPosition(pointer1);
-		this.recordBufferForComparison.setReadPosition(pointer2);
+	private static final int compareRecords(long pointer1, long pointer2, TypeComparator<?> comparator,
+			RandomAccessInputView buffer1, RandomAccessInputView buffer2)
+	{
+		buffer1.setReadPosition(pointer1);
+		buffer2.setReadPosition(pointer2);
 		
 		try {
-			return this.comparator.compare(this.recordBuffer, this.recordBufferForComparison);
+			return comparator.compare(buffer1, buffer2);
 		} catch (IOException ioex) {
 			throw new RuntimeException("Error comparing two records.", ioex);
 		}
@@ -328,6 +330,12 @@ public final class NormalizedKeySorter<T> implements InMemorySorter<T>
 	 */
 	@Override
 	public int compare(int i, int j) {
+		return compare(i, j, this.comparator, this.recordBuffer, this.recordBufferForComparison);
+	}
+	
+	private final int compare(int i, int j, TypeComparator<?> comparator,
+			RandomAccessInputView buffer1, RandomAccessInputView buffer2)
+	{
 		final int bufferNumI = i / this.indexEntriesPerSegment;
 		final int segmentOffsetI = (i % this.indexEntriesPerSegment) * this.indexEntrySize;
 		
@@ -346,11 +354,15 @@ public final class NormalizedKeySorter<T> implements InMemorySorter<T>
 		final long pointerI = segI.getLong(segmentOffsetI);
 		final long pointerJ = segJ.getLong(segmentOffsetJ);
 		
-		return compareRecords(pointerI, pointerJ);
+		return compareRecords(pointerI, pointerJ, comparator, buffer1, buffer2);
 	}
 
 	@Override
 	public void swap(int i, int j) {
+		swap(i, j, this.swapBuffer);
+	}
+	
+	private final void swap(int i, int j, byte[] swapBuffer) {
 		final int bufferNumI = i / this.indexEntriesPerSegment;
 		final int segmentOffsetI = (i % this.indexEntriesPerSegment) * this.indexEntrySize;
 		
@@ -360,13 +372,76 @@ public final class NormalizedKeySorter<T> implements InMemorySorter<T>
 		final MemorySegment segI = this.sortIndex.get(bufferNumI);
 		final MemorySegment segJ = this.sortIndex.get(bufferNumJ);
 		
-		MemorySegment.swapBytes(segI, segJ, this.swapBuffer, segmentOffsetI, segmentOffsetJ, this.indexEntrySize);
+		MemorySegment.swapBytes(segI, segJ, swapBuffer, segmentOffsetI, segmentOffsetJ, this.indexEntrySize);
 	}
 
 	@Override
 	public int size() {
 		return this.numRecords;
 	}
+	
+	@Override
+	public boolean isNormalizedKeyFullyDetermining() {
+		return this.normalizedKeyFullyDetermines;
+	}
+
+	@Override
+	public int getNormalizedKeyLength() {
+		return this.numKeyBytes;
+	}
+
+	@Override
+	public int getNormalizedKeyByte(int i, int keyByte) {
+		final int bufferNum = i / this.indexEntriesPerSegment;
+		final int segmentOffset = (i % this.indexEntriesPerSegment) * this.indexEntrySize;
+		
+		final int b = this.sortIndex.get(bufferNum).get(segmentOffset + OFFSET_LEN + keyByte) & 0xff;
+		return this.useNormKeyUninverted ? b : 255 - b;
+	}
+	
+	@Override
+	public IndexedSortable createConcurrentView() {
+		return new NormalizedKeySortable() {
+			
+			private final byte[] swapBuffer = new byte[indexEntrySize];
+			
+			private final TypeComparator<T> comparator = NormalizedKeySorter.this.comparator.duplicate();
+			
+			private final RandomAccessInputView buffer1 = new RandomAccessInputView(recordBufferSegments, segmentSize);
+			
+			private final RandomAccessInputView buffer2 = new RandomAccessInputView(recordBufferSegments, segmentSize);
+			
+			@Override
+			public int compare(int i, int j) {
+				return NormalizedKeySorter.this.compare(i, j, this.comparator, this.buffer1, this.buffer2);
+			}
+
+			@Override
+			public void swap(int i, int j) {
+				NormalizedKeySorter.this.swap(i, j, this.swapBuffer);
+			}
+
+			@Override
+			public int size() {
+				return numRecords;
+			}
+
+			@Override
+			public boolean isNormalizedKeyFullyDetermining() {
+				return normalizedKeyFullyDetermines;
+			}
+
+			@Override
+			public int getNormalizedKeyLength() {
+				return numKeyBytes;
+			}
+
+			@Override
+			public int getNormalizedKeyByte(int i, int keyByte) {
+				return NormalizedKeySorter.this.getNormalizedKeyByte(i, keyByte);
+			}
+		};
+	}
 
 	// -------------------------------------------------------------------------
 	
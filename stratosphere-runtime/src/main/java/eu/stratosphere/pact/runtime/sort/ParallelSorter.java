@@ -0,0 +1,252 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.pact.runtime.sort;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A sorter that sorts large ranges with multiple threads. The range is split by quick sort partitioning steps,
+ * until the partitions are small enough to give every thread several of them. Each partition is then sorted by
+ * the sequential sorter. Because the partitions are already in their final order, no merge step is needed
+ * afterwards. The partitioning itself is parallelized as well, because every partition is split further by the
+ * thread that picked it up.
+ * <p>
+ * The threads come from a pool that is shared by all parallel sorters in the JVM, such that concurrently sorting
+ * tasks do not use more threads than the pool has. The sortable must be a {@link ConcurrentIndexedSortable}.
+ * Otherwise, and for small ranges, the sorter falls back to the sequential sorter.
+ */
+public final class ParallelSorter implements IndexedSorter {
+	
+	/**
+	 * The minimal number of elements for which the parallel sort is used.
+	 */
+	private static final int MIN_PARALLEL_SORT_SIZE = 1 << 16;
+	
+	/**
+	 * The minimal number of elements in a partition that is split further.
+	 */
+	private static final int MIN_PARTITION_SIZE = 1 << 12;
+	
+	/**
+	 * The number of partitions per thread that the range is split into, to even out unequal partition sizes.
+	 */
+	private static final int PARTITIONS_PER_THREAD = 4;
+	
+	private static ExecutorService sharedPool;
+	
+	private static int sharedPoolSize;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private final IndexedSorter sequentialSorter;
+	
+	private final int parallelism;
+	
+	/**
+	 * Creates a new parallel sorter that sorts the partitions with quick sort.
+	 * 
+	 * @param parallelism The number of threads to sort with. The shared pool is created with this number of threads,
+	 *                    if it does not exist yet.
+	 */
+	public ParallelSorter(int parallelism) {
+		this(parallelism, new QuickSort());
+	}
+	
+	/**
+	 * Creates a new parallel sorter.
+	 * 
+	 * @param parallelism The number of threads to sort with. The shared pool is created with this number of threads,
+	 *                    if it does not exist yet.
+	 * @param sequentialSorter The sorter for the partitions and for ranges that are too small to be split. It is
+	 *                         used by several threads at the same time and must hence be stateless.
+	 */
+	public ParallelSorter(int parallelism, IndexedSorter sequentialSorter) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be at least one.");
+		}
+		if (sequentialSorter == null) {
+			throw new NullPointerException();
+		}
+		
+		this.parallelism = parallelism;
+		this.sequentialSorter = sequentialSorter;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public void sort(IndexedSortable s) {
+		sort(s, 0, s.size());
+	}
+
+	@Override
+	public void sort(IndexedSortable s, int p, int r) {
+		if (this.parallelism == 1 || r - p < MIN_PARALLEL_SORT_SIZE || !(s instanceof ConcurrentIndexedSortable)) {
+			this.sequentialSorter.sort(s, p, r);
+			return;
+		}
+		
+		final int minPartitionSize = Math.max(MIN_PARTITION_SIZE, (r - p) / (this.parallelism * PARTITIONS_PER_THREAD));
+		final SortJob job = new SortJob((ConcurrentIndexedSortable) s, minPartitionSize);
+		job.sortAndWait(p, r, QuickSort.getMaxDepth(r - p));
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private static synchronized ExecutorService getSharedPool(int numThreads) {
+		if (sharedPool == null) {
+			sharedPoolSize = numThreads;
+			sharedPool = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+				
+				private final AtomicInteger count = new AtomicInteger();
+				
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "Parallel sort thread " + count.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return sharedPool;
+	}
+	
+	/**
+	 * Gets the number of threads in the pool that is shared by the parallel sorters.
+	 * 
+	 * @return The number of threads in the shared pool, or zero, if the pool has not been created yet.
+	 */
+	public static synchronized int getSharedPoolSize() {
+		return sharedPoolSize;
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	/**
+	 * The state of the parallel sort of one range. Each task works on its own view of the sortable. It splits its
+	 * partition, hands the upper part to another task, and continues with the lower part, until the partition is
+	 * small enough to be sorted sequentially. No task ever waits for another one, so the pool cannot deadlock.
+	 */
+	private final class SortJob {
+		
+		private final ConcurrentIndexedSortable sortable;
+		
+		private final ExecutorService pool;
+		
+		private final int minPartitionSize;
+		
+		private final AtomicInteger pendingTasks = new AtomicInteger();
+		
+		private volatile Throwable error;
+		
+		
+		SortJob(ConcurrentIndexedSortable sortable, int minPartitionSize) {
+			this.sortable = sortable;
+			this.minPartitionSize = minPartitionSize;
+			this.pool = getSharedPool(parallelism);
+		}
+		
+		void sortAndWait(int p, int r, int depth) {
+			// the calling thread works on the first partition itself
+			this.pendingTasks.incrementAndGet();
+			sortPartition(this.sortable, p, r, depth);
+			
+			boolean interrupted = false;
+			synchronized (this) {
+				while (this.pendingTasks.get() > 0) {
+					try {
+						wait();
+					} catch (InterruptedException iex) {
+						// the other threads still work on the sortable, so we must not return before they are done
+						interrupted = true;
+					}
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			
+			final Throwable t = this.error;
+			if (t instanceof RuntimeException) {
+				throw (RuntimeException) t;
+			} else if (t instanceof Error) {
+				throw (Error) t;
+			} else if (t != null) {
+				throw new RuntimeException("Parallel sorting failed: " + t.getMessage(), t);
+			}
+		}
+		
+		private void sortPartition(IndexedSortable view, int p, int r, int depth) {
+			try {
+				// split the partition until it is small enough. we hand the upper parts to other threads and
+				// continue with the lower part ourselves
+				while (r - p > this.minPartitionSize && depth-- > 0 && this.error == null) {
+					final long bounds = QuickSort.partition(view, p, r);
+					final int i = (int) (bounds >>> 32);
+					final int j = (int) bounds;
+					
+					if (r - j > 1) {
+						submit(j, r, depth);
+					}
+					r = i;
+				}
+				
+				if (r - p > 1 && this.error == null) {
+					sequentialSorter.sort(view, p, r);
+				}
+			}
+			catch (Throwable t) {
+				this.error = t;
+			}
+			finally {
+				taskDone();
+			}
+		}
+		
+		private void taskDone() {
+			if (this.pendingTasks.decrementAndGet() == 0) {
+				synchronized (this) {
+					notifyAll();
+				}
+			}
+		}
+		
+		private void submit(final int p, final int r, final int depth) {
+			this.pendingTasks.incrementAndGet();
+			try {
+				this.pool.execute(new Runnable() {
+					@Override
+					public void run() {
+						final IndexedSortable view;
+						try {
+							view = SortJob.this.sortable.createConcurrentView();
+						} catch (Throwable t) {
+							SortJob.this.error = t;
+							taskDone();
+							return;
+						}
+						sortPartition(view, p, r, depth);
+					}
+				});
+			}
+			catch (Throwable t) {
+				this.pendingTasks.decrementAndGet();
+				throw new RuntimeException("Could not submit a partition to the parallel sort threads.", t);
+			}
+		}
+	}
+}
@@ -65,45 +65,9 @@ public final class QuickSort implements IndexedSorter {
 				return;
 			}
 
-			// select, move pivot into first position
-			fix(s, (p + r) >>> 1, p);
-			fix(s, (p + r) >>> 1, r - 1);
-			fix(s, p, r - 1);
-
-			// Divide
-			int i = p;
-			int j = r;
-			int ll = p;
-			int rr = r;
-			int cr;
-			while (true) {
-				while (++i < j) {
-					if ((cr = s.compare(i, p)) > 0)
-						break;
-					if (0 == cr && ++ll != i) {
-						s.swap(ll, i);
-					}
-				}
-				while (--j > i) {
-					if ((cr = s.compare(p, j)) > 0)
-						break;
-					if (0 == cr && --rr != j) {
-						s.swap(rr, j);
-					}
-				}
-				if (i < j)
-					s.swap(i, j);
-				else
-					break;
-			}
-			j = i;
-			// swap pivot- and all eq values- into position
-			while (ll >= p) {
-				s.swap(ll--, --i);
-			}
-			while (rr < r) {
-				s.swap(rr++, j++);
-			}
+			final long bounds = partition(s, p, r);
+			final int i = (int) (bounds >>> 32);
+			final int j = (int) bounds;
 
 			// Conquer
 			// Recurse on smaller interval first to keep stack shallow
@@ -118,4 +82,55 @@ public final class QuickSort implements IndexedSorter {
 		}
 	}
 
+	/**
+	 * Partitions the given range around a median-of-three pivot, such that it consists of a sub-range of elements
+	 * smaller than the pivot, followed by the elements equal to the pivot, followed by the elements larger than the
+	 * pivot. The range must contain at least three elements.
+	 * 
+	 * @return The start index of the equal elements in the upper 32 bits and the start index of the larger elements
+	 *         in the lower 32 bits.
+	 */
+	static long partition(final IndexedSortable s, final int p, final int r) {
+		// select, move pivot into first position
+		fix(s, (p + r) >>> 1, p);
+		fix(s, (p + r) >>> 1, r - 1);
+		fix(s, p, r - 1);
+
+		// Divide
+		int i = p;
+		int j = r;
+		int ll = p;
+		int rr = r;
+		int cr;
+		while (true) {
+			while (++i < j) {
+				if ((cr = s.compare(i, p)) > 0)
+					break;
+				if (0 == cr && ++ll != i) {
+					s.swap(ll, i);
+				}
+			}
+			while (--j > i) {
+				if ((cr = s.compare(p, j)) > 0)
+					break;
+				if (0 == cr && --rr != j) {
+					s.swap(rr, j);
+				}
+			}
+			if (i < j)
+				s.swap(i, j);
+			else
+				break;
+		}
+		j = i;
+		// swap pivot- and all eq values- into position
+		while (ll >= p) {
+			s.swap(ll--, --i);
+		}
+		while (rr < r) {
+			s.swap(rr++, j++);
+		}
+
+		return (((long) i) << 32) | (j & 0xffffffffL);
+	}
 }
@@ -0,0 +1,106 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.pact.runtime.sort;
+
+/**
+ * A most-significant-digit radix sort over the bytes of the normalized keys. It sorts in place, by permuting the
+ * elements of a range into the buckets of their current key byte (American flag sort) and recursing into the
+ * buckets with the next key byte. Buckets below a size threshold are finished with quick sort.
+ * <p>
+ * The radix sort is only applicable if the normalized keys fully determine the order of the elements. For
+ * sortables that are no {@link NormalizedKeySortable}, or whose keys are only a prefix, the sorter falls back to
+ * quick sort.
+ */
+public final class RadixSort implements IndexedSorter {
+	
+	/**
+	 * Buckets with fewer elements are sorted with quick sort.
+	 */
+	private static final int MIN_RADIX_SORT_SIZE = 64;
+	
+	private static final int NUM_BUCKETS = 256;
+	
+	private static final IndexedSorter alt = new QuickSort();
+
+	public RadixSort() {
+	}
+
+	@Override
+	public void sort(IndexedSortable s) {
+		sort(s, 0, s.size());
+	}
+
+	@Override
+	public void sort(IndexedSortable s, int p, int r) {
+		if (s instanceof NormalizedKeySortable && ((NormalizedKeySortable) s).isNormalizedKeyFullyDetermining()) {
+			final NormalizedKeySortable ns = (NormalizedKeySortable) s;
+			sortInternal(ns, p, r, 0, ns.getNormalizedKeyLength());
+		} else {
+			alt.sort(s, p, r);
+		}
+	}
+	
+	private static void sortInternal(final NormalizedKeySortable s, final int p, final int r,
+			final int keyByte, final int keyLength)
+	{
+		if (keyByte >= keyLength || r - p < 2) {
+			// all elements share the same key
+			return;
+		}
+		if (r - p < MIN_RADIX_SORT_SIZE) {
+			alt.sort(s, p, r);
+			return;
+		}
+		
+		// count the elements per bucket
+		final int[] bucketEnds = new int[NUM_BUCKETS];
+		for (int i = p; i < r; i++) {
+			bucketEnds[s.getNormalizedKeyByte(i, keyByte)]++;
+		}
+		
+		// compute the bucket boundaries
+		final int[] next = new int[NUM_BUCKETS];
+		int start = p;
+		for (int b = 0; b < NUM_BUCKETS; b++) {
+			next[b] = start;
+			start += bucketEnds[b];
+			bucketEnds[b] = start;
+		}
+		
+		// move every element into its bucket. the elements before next[b] are in bucket b already.
+		for (int b = 0; b < NUM_BUCKETS; b++) {
+			final int end = bucketEnds[b];
+			int i = next[b];
+			while (i < end) {
+				final int target = s.getNormalizedKeyByte(i, keyByte);
+				if (target == b) {
+					i++;
+				} else {
+					s.swap(i, next[target]++);
+				}
+			}
+			next[b] = end;
+		}
+		
+		// sort the buckets by the next key byte
+		int bucketStart = p;
+		for (int b = 0; b < NUM_BUCKETS; b++) {
+			final int bucketEnd = bucketEnds[b];
+			if (bucketEnd - bucketStart > 1) {
+				sortInternal(s, bucketStart, bucketEnd, keyByte + 1, keyLength);
+			}
+			bucketStart = bucketEnd;
+		}
+	}
+}
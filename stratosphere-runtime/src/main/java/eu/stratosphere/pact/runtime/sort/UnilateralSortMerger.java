@@ -30,6 +30,8 @@ import org.apache.commons.logging.LogFactory;
 
 import eu.stratosphere.api.common.typeutils.TypeComparator;
 import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.configuration.ConfigConstants;
+import eu.stratosphere.configuration.GlobalConfiguration;
 import eu.stratosphere.core.memory.MemorySegment;
 import eu.stratosphere.nephele.services.iomanager.BlockChannelAccess;
 import eu.stratosphere.nephele.services.iomanager.BlockChannelReader;
@@ -39,6 +41,7 @@ import eu.stratosphere.nephele.services.iomanager.ChannelReaderInputView;
 import eu.stratosphere.nephele.services.iomanager.ChannelWriterOutputView;
 import eu.stratosphere.nephele.services.iomanager.Channel.ID;
 import eu.stratosphere.nephele.services.iomanager.IOManager;
+import eu.stratosphere.nephele.services.iomanager.ReadAheadPool;
 import eu.stratosphere.nephele.services.memorymanager.MemoryAllocationException;
 import eu.stratosphere.nephele.services.memorymanager.MemoryManager;
 import eu.stratosphere.nephele.template.AbstractInvokable;
@@ -1115,8 +1118,11 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 				AbstractInvokable parentTask) {
 			super(exceptionHandler, "SortMerger sorting thread", queues, parentTask);
 
-			// members
-			this.sorter = new QuickSort();
+			// members. the parallelism is read for every sorter, such that it follows the current configuration
+			final int configured = GlobalConfiguration.getInteger(ConfigConstants.SORT_PARALLELISM_KEY,
+				ConfigConstants.DEFAULT_SORT_PARALLELISM);
+			final int parallelism = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+			this.sorter = parallelism > 1 ? new ParallelSorter(parallelism, new RadixSort()) : new RadixSort();
 		}
 
 		/**
@@ -1436,6 +1442,9 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 			
 			final List<MutableObjectIterator<E>> iterators = new ArrayList<MutableObjectIterator<E>>(channelIDs.size());
 			
+			// the views share their buffers, such that the runs that are consumed faster read further ahead
+			final ReadAheadPool readAhead = new ReadAheadPool();
+			
 			for (int i = 0; i < channelIDs.size(); i++) {
 				final ChannelWithBlockCount channel = channelIDs.get(i);
 				final List<MemorySegment> segsForChannel = inputSegments.get(i);
@@ -1451,7 +1460,7 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 				
 				// wrap channel reader as a view, to get block spanning record deserialization
 				final ChannelReaderInputView inView = new ChannelReaderInputView(reader, segsForChannel, 
-																			channel.getBlockCount(), false);
+																			channel.getBlockCount(), readAhead, false);
 				iterators.add(new ChannelReaderInputViewIterator<E>(inView, null, this.serializer));
 			}
 
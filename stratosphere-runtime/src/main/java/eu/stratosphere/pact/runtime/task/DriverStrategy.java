@@ -41,6 +41,18 @@ public enum DriverStrategy {
 	SORTED_GROUP(ReduceDriver.class, null, PIPELINED, true),
 	// partially grouping inputs (best effort resulting possibly in duplicates --> combiner)
 	PARTIAL_GROUP(CombineDriver.class, SynchronousChainedCombineDriver.class, MATERIALIZING, true),
+	// grouping and aggregating the inputs in a hash table, spilling to disk if the table runs full
+	HASH_GROUP(HashGroupDriver.class, null, MATERIALIZING, true),
+	// partially aggregating the inputs in a hash table (best effort resulting possibly in duplicates --> combiner)
+	HASH_PARTIAL_GROUP(HashGroupDriver.class, null, MATERIALIZING, true),
+	// eliminating duplicates with a hash set, spilling to disk if the set runs full
+	HASH_DISTINCT(HashDistinctDriver.class, null, MATERIALIZING, true),
+	// partially eliminating duplicates with a hash set (best effort resulting possibly in duplicates --> combiner)
+	HASH_PARTIAL_DISTINCT(HashDistinctDriver.class, null, MATERIALIZING, true),
+	// drawing a fixed size random sample from the input, as used to find the boundaries for range partitioning
+	SAMPLE(SampleDriver.class, null, FULL_DAM, false),
+	// drawing a fixed size random sample of the key hash codes, as used to find heavy hitter keys
+	SAMPLE_KEY_HASHES(KeyHashSampleDriver.class, null, FULL_DAM, true),
 	// group everything together into one group
 	ALL_GROUP(AllReduceDriver.class, null, PIPELINED, false),
 	// already grouped input, within a key values are crossed in a nested loop fashion
@@ -0,0 +1,244 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.pact.runtime.task;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import eu.stratosphere.api.common.functions.GenericGroupReduce;
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.core.memory.MemorySegment;
+import eu.stratosphere.nephele.services.memorymanager.MemoryManager;
+import eu.stratosphere.pact.runtime.hash.HashPartitionSpiller;
+import eu.stratosphere.pact.runtime.hash.MutableHashSet;
+import eu.stratosphere.pact.runtime.hash.MutableHashSet.InsertResult;
+import eu.stratosphere.pact.runtime.task.util.TaskConfig;
+import eu.stratosphere.util.Collector;
+import eu.stratosphere.util.MutableObjectIterator;
+
+/**
+ * Distinct task which eliminates records with duplicate keys by means of a hash set in managed memory. Each record
+ * is emitted as soon as it is found to be the first record with its key. The user function is never invoked,
+ * because the distinct semantics (one arbitrary record per key) are implied by the driver strategy.
+ * <p>
+ * The driver works in two modes:
+ * <ul>
+ *   <li>{@link DriverStrategy#HASH_DISTINCT} eliminates all duplicates. If the hash set runs full, records that are
+ *       not contained in the set are hash partitioned and spilled to disk. The spilled partitions are processed
+ *       recursively afterwards, with a new hash function for each level.</li>
+ *   <li>{@link DriverStrategy#HASH_PARTIAL_DISTINCT} is the combiner variant, which eliminates duplicates on a
+ *       best effort basis. If the hash set runs full, it is simply cleared and the elimination starts over.
+ *       Duplicates that span such a clear are emitted multiple times.</li>
+ * </ul>
+ * 
+ * @param <T> The data type consumed and produced by the distinct operation.
+ */
+public class HashDistinctDriver<T> implements PactDriver<GenericGroupReduce<T, ?>, T> {
+	
+	private static final Log LOG = LogFactory.getLog(HashDistinctDriver.class);
+	
+	private static final int MAX_RECURSION_DEPTH = 8;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private PactTaskContext<GenericGroupReduce<T, ?>, T> taskContext;
+	
+	private TypeSerializer<T> serializer;
+	
+	private TypeComparator<T> comparator;
+	
+	private List<MemorySegment> memory;
+	
+	private MutableHashSet<T> hashSet;
+	
+	private HashPartitionSpiller<T> spiller;
+	
+	private boolean partial;
+	
+	private volatile boolean running;
+	
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public void setup(PactTaskContext<GenericGroupReduce<T, ?>, T> context) {
+		this.taskContext = context;
+		this.running = true;
+	}
+
+	@Override
+	public int getNumberOfInputs() {
+		return 1;
+	}
+
+	@Override
+	public Class<GenericGroupReduce<T, ?>> getStubType() {
+		@SuppressWarnings("unchecked")
+		final Class<GenericGroupReduce<T, ?>> clazz = (Class<GenericGroupReduce<T, ?>>) (Class<?>) GenericGroupReduce.class;
+		return clazz;
+	}
+
+	@Override
+	public boolean requiresComparatorOnInput() {
+		return true;
+	}
+
+	@Override
+	public void prepare() throws Exception {
+		final TaskConfig config = this.taskContext.getTaskConfig();
+		final DriverStrategy ls = config.getDriverStrategy();
+		
+		switch (ls) {
+		case HASH_DISTINCT:
+			this.partial = false;
+			break;
+		case HASH_PARTIAL_DISTINCT:
+			this.partial = true;
+			break;
+		default:
+			throw new Exception("Invalid local strategy provided for the hash distinct driver: " + ls.name());
+		}
+		
+		this.serializer = this.taskContext.getInputSerializer(0);
+		this.comparator = this.taskContext.getInputComparator(0);
+		
+		final MemoryManager memoryManager = this.taskContext.getMemoryManager();
+		final int numPages = memoryManager.computeNumberOfPages(config.getMemoryDriver());
+		this.memory = memoryManager.allocatePages(this.taskContext.getOwningNepheleTask(), numPages);
+		
+		final List<MemorySegment> setMemory;
+		if (this.partial) {
+			setMemory = this.memory;
+		} else {
+			// reserve the buffers to write the spill partitions of one level and to read one spilled partition
+			final int numPartitions = HashPartitionSpiller.getNumPartitionsForMemory(numPages);
+			final int numSpillPages = HashPartitionSpiller.getNumRequiredSegments(numPartitions);
+			
+			if (numPages - numSpillPages < MutableHashSet.MIN_NUM_MEMORY_SEGMENTS) {
+				memoryManager.release(this.memory);
+				this.memory = null;
+				throw new Exception("Too little memory provided to the hash distinct driver: " + numPages + 
+					" pages, but at least " + (numSpillPages + MutableHashSet.MIN_NUM_MEMORY_SEGMENTS) + 
+					" pages are required.");
+			}
+			
+			setMemory = new ArrayList<MemorySegment>(this.memory.subList(0, numPages - numSpillPages));
+			this.spiller = new HashPartitionSpiller<T>(this.taskContext.getIOManager(), this.serializer, numPartitions,
+				this.memory.subList(numPages - numSpillPages, numPages));
+		}
+		
+		this.hashSet = new MutableHashSet<T>(this.serializer, this.comparator.duplicate(), setMemory);
+	}
+
+	@Override
+	public void run() throws Exception {
+		if (LOG.isDebugEnabled()) {
+			LOG.debug(this.taskContext.formatLogString("Starting hash based duplicate elimination" + 
+				(this.partial ? " (partial)." : ".")));
+		}
+		
+		final MutableObjectIterator<T> input = this.taskContext.getInput(0);
+		final Collector<T> output = this.taskContext.getOutputCollector();
+		final T record = this.serializer.createInstance();
+		
+		if (this.partial) {
+			runPartial(input, output, record);
+			return;
+		}
+		
+		// the first pass over the input, then the spilled partitions recursively
+		eliminateDuplicates(input, output, record, 0);
+		
+		while (this.running && this.spiller.hasSpilledPartitions()) {
+			final MutableObjectIterator<T> partition = this.spiller.openNextPartition();
+			final int level = this.spiller.getCurrentLevel();
+			
+			if (level > MAX_RECURSION_DEPTH) {
+				throw new RuntimeException("Hash duplicate elimination exceeded maximum number of recursions, without "
+					+ "reducing partitions enough to be memory resident.");
+			}
+			eliminateDuplicates(partition, output, record, level);
+		}
+	}
+	
+	private void runPartial(MutableObjectIterator<T> input, Collector<T> output, T record) throws IOException {
+		final MutableHashSet<T> set = this.hashSet;
+		
+		while (this.running && input.next(record)) {
+			InsertResult result = set.insertIfAbsent(record);
+			if (result == InsertResult.NO_SPACE) {
+				// start over with an empty set. this may let some duplicates pass, which is fine for a combiner
+				set.clear(0);
+				result = set.insertIfAbsent(record);
+			}
+			// if the record alone does not fit into the memory, it is passed on without deduplication
+			if (result != InsertResult.DUPLICATE) {
+				output.collect(record);
+			}
+		}
+	}
+	
+	private void eliminateDuplicates(MutableObjectIterator<T> input, Collector<T> output, T record, int level)
+	throws IOException
+	{
+		final MutableHashSet<T> set = this.hashSet;
+		final HashPartitionSpiller<T> spiller = this.spiller;
+		
+		set.clear(level);
+		
+		while (this.running && input.next(record)) {
+			switch (set.insertIfAbsent(record)) {
+			case INSERTED:
+				output.collect(record);
+				break;
+			case DUPLICATE:
+				break;
+			case NO_SPACE:
+				if (set.size() == 0) {
+					throw new RuntimeException("A record does not fit into the memory of the hash distinct driver.");
+				}
+				spiller.spill(record, set.hash(record));
+				break;
+			}
+		}
+		
+		spiller.finishLevel();
+	}
+
+	@Override
+	public void cleanup() throws Exception {
+		if (this.spiller != null) {
+			this.spiller.close();
+			this.spiller = null;
+		}
+		if (this.hashSet != null) {
+			this.hashSet.close();
+			this.hashSet = null;
+		}
+		if (this.memory != null) {
+			this.taskContext.getMemoryManager().release(this.memory);
+			this.memory = null;
+		}
+	}
+
+	@Override
+	public void cancel() {
+		this.running = false;
+	}
+}
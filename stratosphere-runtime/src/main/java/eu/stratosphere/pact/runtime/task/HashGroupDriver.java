@@ -0,0 +1,270 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.pact.runtime.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import eu.stratosphere.api.common.functions.GenericReduce;
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.core.memory.MemorySegment;
+import eu.stratosphere.nephele.services.memorymanager.MemoryManager;
+import eu.stratosphere.pact.runtime.hash.HashPartitionSpiller;
+import eu.stratosphere.pact.runtime.hash.ReducingHashTable;
+import eu.stratosphere.pact.runtime.task.util.TaskConfig;
+import eu.stratosphere.util.Collector;
+import eu.stratosphere.util.MutableObjectIterator;
+
+/**
+ * Reduce task which groups and aggregates its input in a hash table, rather than sorting it. Each record is
+ * reduced with the aggregate of its key right away, so the table holds one record per key. This is much cheaper
+ * than sorting the input, if the number of distinct keys is small.
+ * <p>
+ * The driver works in two modes:
+ * <ul>
+ *   <li>{@link DriverStrategy#HASH_GROUP} computes the final aggregates. If the hash table runs full, its
+ *       contents are hash partitioned and spilled to disk, together with all subsequent records of the same
+ *       level. The spilled partitions are aggregated recursively afterwards, with a new hash function for each
+ *       level.</li>
+ *   <li>{@link DriverStrategy#HASH_PARTIAL_GROUP} is the combiner variant. If the hash table runs full, its
+ *       partial aggregates are emitted and the table is cleared.</li>
+ * </ul>
+ * 
+ * @param <T> The data type consumed and produced by the reduce function.
+ */
+public class HashGroupDriver<T> implements PactDriver<GenericReduce<T>, T> {
+	
+	private static final Log LOG = LogFactory.getLog(HashGroupDriver.class);
+	
+	/**
+	 * The maximum number of recursive partitionings before giving up.
+	 */
+	private static final int MAX_RECURSION_DEPTH = 8;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private PactTaskContext<GenericReduce<T>, T> taskContext;
+	
+	private TypeSerializer<T> serializer;
+	
+	private List<MemorySegment> memory;
+	
+	private ReducingHashTable<T> table;
+	
+	private HashPartitionSpiller<T> spiller;
+	
+	private boolean partial;
+	
+	private volatile boolean running;
+	
+	// --------------------------------------------------------------------------------------------
+
+	@Override
+	public void setup(PactTaskContext<GenericReduce<T>, T> context) {
+		this.taskContext = context;
+		this.running = true;
+	}
+
+	@Override
+	public int getNumberOfInputs() {
+		return 1;
+	}
+
+	@Override
+	public Class<GenericReduce<T>> getStubType() {
+		@SuppressWarnings("unchecked")
+		final Class<GenericReduce<T>> clazz = (Class<GenericReduce<T>>) (Class<?>) GenericReduce.class;
+		return clazz;
+	}
+
+	@Override
+	public boolean requiresComparatorOnInput() {
+		return true;
+	}
+
+	@Override
+	public void prepare() throws Exception {
+		final TaskConfig config = this.taskContext.getTaskConfig();
+		final DriverStrategy ls = config.getDriverStrategy();
+		
+		switch (ls) {
+		case HASH_GROUP:
+			this.partial = false;
+			break;
+		case HASH_PARTIAL_GROUP:
+			this.partial = true;
+			break;
+		default:
+			throw new Exception("Invalid local strategy provided for the hash group driver: " + ls.name());
+		}
+		
+		this.serializer = this.taskContext.getInputSerializer(0);
+		final TypeComparator<T> comparator = this.taskContext.getInputComparator(0);
+		
+		final MemoryManager memoryManager = this.taskContext.getMemoryManager();
+		final int numPages = memoryManager.computeNumberOfPages(config.getMemoryDriver());
+		this.memory = memoryManager.allocatePages(this.taskContext.getOwningNepheleTask(), numPages);
+		
+		final List<MemorySegment> tableMemory;
+		if (this.partial) {
+			tableMemory = this.memory;
+		} else {
+			// reserve the buffers to write the spill partitions of one level and to read one spilled partition
+			final int numPartitions = HashPartitionSpiller.getNumPartitionsForMemory(numPages);
+			final int numSpillPages = HashPartitionSpiller.getNumRequiredSegments(numPartitions);
+			
+			if (numPages - numSpillPages < ReducingHashTable.MIN_NUM_MEMORY_SEGMENTS) {
+				memoryManager.release(this.memory);
+				this.memory = null;
+				throw new Exception("Too little memory provided to the hash group driver: " + numPages + 
+					" pages, but at least " + (numSpillPages + ReducingHashTable.MIN_NUM_MEMORY_SEGMENTS) + 
+					" pages are required.");
+			}
+			
+			tableMemory = new ArrayList<MemorySegment>(this.memory.subList(0, numPages - numSpillPages));
+			this.spiller = new HashPartitionSpiller<T>(this.taskContext.getIOManager(), this.serializer, numPartitions,
+				this.memory.subList(numPages - numSpillPages, numPages));
+		}
+		
+		this.table = new ReducingHashTable<T>(this.serializer, comparator.duplicate(), this.taskContext.getStub(),
+			tableMemory);
+	}
+
+	@Override
+	public void run() throws Exception {
+		if (LOG.isDebugEnabled()) {
+			LOG.debug(this.taskContext.formatLogString("Starting hash based grouping" + 
+				(this.partial ? " (partial)." : ".")));
+		}
+		
+		final MutableObjectIterator<T> input = this.taskContext.getInput(0);
+		final Collector<T> output = this.taskContext.getOutputCollector();
+		final T record = this.serializer.createInstance();
+		final T aggregate = this.serializer.createInstance();
+		
+		if (this.partial) {
+			runPartial(input, output, record, aggregate);
+			return;
+		}
+		
+		// the first pass over the input, then the spilled partitions recursively
+		aggregate(input, output, record, aggregate, 0);
+		
+		while (this.running && this.spiller.hasSpilledPartitions()) {
+			final MutableObjectIterator<T> partition = this.spiller.openNextPartition();
+			final int level = this.spiller.getCurrentLevel();
+			
+			if (level > MAX_RECURSION_DEPTH) {
+				throw new RuntimeException("Hash grouping exceeded maximum number of recursions, without reducing "
+					+ "partitions enough to be memory resident.");
+			}
+			aggregate(partition, output, record, aggregate, level);
+		}
+	}
+	
+	private void runPartial(MutableObjectIterator<T> input, Collector<T> output, T record, T aggregate)
+	throws Exception
+	{
+		final ReducingHashTable<T> table = this.table;
+		
+		while (this.running && input.next(record)) {
+			if (!table.insertOrReduce(record)) {
+				// emit the partial aggregates and start over with an empty table
+				emit(table.getEntries(), output, aggregate);
+				table.clear(0);
+				
+				if (!table.insertOrReduce(record)) {
+					// the record alone does not fit into the memory, so pass it on unaggregated
+					output.collect(record);
+				}
+			}
+		}
+		
+		if (this.running) {
+			emit(table.getEntries(), output, aggregate);
+		}
+	}
+	
+	private void aggregate(MutableObjectIterator<T> input, Collector<T> output, T record, T aggregate, int level)
+	throws Exception
+	{
+		final ReducingHashTable<T> table = this.table;
+		final HashPartitionSpiller<T> spiller = this.spiller;
+		
+		table.clear(level);
+		
+		while (this.running && input.next(record)) {
+			if (!table.insertOrReduce(record)) {
+				// move the aggregates to disk. they are combined with the rest of their partition later
+				spillTable(aggregate);
+				table.clear(level);
+				
+				if (!table.insertOrReduce(record)) {
+					throw new RuntimeException("A record does not fit into the memory of the hash group driver.");
+				}
+			}
+		}
+		
+		if (!this.running) {
+			return;
+		}
+		
+		if (spiller.hasSpilled()) {
+			// some aggregates of this level are incomplete, so the table goes to the spilled partitions as well
+			spillTable(aggregate);
+			spiller.finishLevel();
+		} else {
+			emit(table.getEntries(), output, aggregate);
+		}
+	}
+	
+	private void spillTable(T aggregate) throws Exception {
+		final MutableObjectIterator<T> entries = this.table.getEntries();
+		while (entries.next(aggregate)) {
+			this.spiller.spill(aggregate, this.table.hash(aggregate));
+		}
+	}
+	
+	private void emit(MutableObjectIterator<T> entries, Collector<T> output, T aggregate) throws Exception {
+		while (entries.next(aggregate)) {
+			output.collect(aggregate);
+		}
+	}
+
+	@Override
+	public void cleanup() throws Exception {
+		if (this.spiller != null) {
+			this.spiller.close();
+			this.spiller = null;
+		}
+		if (this.table != null) {
+			this.table.close();
+			this.table = null;
+		}
+		if (this.memory != null) {
+			this.taskContext.getMemoryManager().release(this.memory);
+			this.memory = null;
+		}
+	}
+
+	@Override
+	public void cancel() {
+		this.running = false;
+	}
+}
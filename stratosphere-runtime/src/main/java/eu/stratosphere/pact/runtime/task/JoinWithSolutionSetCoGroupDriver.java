@@ -20,18 +20,19 @@ import eu.stratosphere.api.common.functions.GenericCoGrouper;
 import eu.stratosphere.api.common.typeutils.TypeComparator;
 import eu.stratosphere.api.common.typeutils.TypeSerializer;
 import eu.stratosphere.api.common.typeutils.TypeSerializerFactory;
-import eu.stratosphere.pact.runtime.hash.MutableHashTable;
+import eu.stratosphere.pact.runtime.hash.CompactingHashTable;
 import eu.stratosphere.pact.runtime.iterative.concurrent.SolutionSetBroker;
 import eu.stratosphere.pact.runtime.iterative.task.AbstractIterativePactTask;
 import eu.stratosphere.pact.runtime.task.util.TaskConfig;
 import eu.stratosphere.pact.runtime.util.KeyGroupedIterator;
 import eu.stratosphere.util.Collector;
+import eu.stratosphere.util.MutableObjectIterator;
 
 public abstract class JoinWithSolutionSetCoGroupDriver<IT1, IT2, OT> implements ResettablePactDriver<GenericCoGrouper<IT1, IT2, OT>, OT> {
 	
 	protected PactTaskContext<GenericCoGrouper<IT1, IT2, OT>, OT> taskContext;
 	
-	protected MutableHashTable<?, ?> hashTable;
+	protected CompactingHashTable<?, ?> hashTable;
 	
 	private TypeSerializer<IT1> serializer1;
 	private TypeSerializer<IT2> serializer2;
@@ -125,9 +126,8 @@ public abstract class JoinWithSolutionSetCoGroupDriver<IT1, IT2, OT> implements
 
 	@Override
 	public void prepare() throws Exception {
-		// nothing to prepare in each iteration
-		// later, if we support out-of-core operation, we need to put the code in here
-		// that brings the initial in-memory partitions into memory
+		// nothing to prepare in each iteration. spilled partitions of the solution set are
+		// loaded on demand, after the groups in memory are processed
 	}
 
 	@Override
@@ -140,44 +140,90 @@ public abstract class JoinWithSolutionSetCoGroupDriver<IT1, IT2, OT> implements
 			final IT1 buildSideRecord = rec1;
 			
 			@SuppressWarnings("unchecked")
-			final MutableHashTable<IT1, IT2> join = (MutableHashTable<IT1, IT2>) hashTable;
+			final CompactingHashTable<IT1, IT2> join = (CompactingHashTable<IT1, IT2>) hashTable;
 			
-			final KeyGroupedIterator<IT2> probeSideInput = new KeyGroupedIterator<IT2>(taskContext.<IT2>getInput(0), serializer2, comparator2);
 			final SingleRecordIterator<IT1> siIter = new SingleRecordIterator<IT1>();
+			MutableObjectIterator<IT2> input = taskContext.<IT2>getInput(0);
 			
-			while (this.running && probeSideInput.nextKey()) {
-				IT2 current = probeSideInput.getCurrent();
-				final MutableHashTable.HashBucketIterator<IT1, IT2> bucket = join.getMatchesFor(current);
-				if (bucket.next(buildSideRecord)) {
-					siIter.set(buildSideRecord);
-					coGroupStub.coGroup(siIter, probeSideInput.getValues(), collector);
+			do {
+				final KeyGroupedIterator<IT2> probeSideInput = new KeyGroupedIterator<IT2>(input, serializer2, comparator2);
+				while (this.running && probeSideInput.nextKey()) {
+					IT2 current = probeSideInput.getCurrent();
+					final Iterator<IT2> group = probeSideInput.getValues();
+					final boolean spilled;
+					boolean found = false;
+					// the solution set may be spilled and loaded by the updating task in between the calls. once
+					// a probe is deferred, the partition stays spilled until this task requests the probes
+					synchronized (join) {
+						spilled = join.isSpilled(current);
+						if (spilled) {
+							join.deferProbe(group.next());
+						} else {
+							found = join.getMatchFor(current, buildSideRecord);
+						}
+					}
+					
+					if (spilled) {
+						while (group.hasNext()) {
+							join.deferProbe(group.next());
+						}
+					}
+					else if (found) {
+						siIter.set(buildSideRecord);
+						coGroupStub.coGroup(siIter, group, collector);
+					}
+					else {
+						// no match found, this is for now an error case
+						throw new RuntimeException("No Match found in solution set.");
+					}
 				}
-				else {
-					// no match found, this is for now an error case
-					throw new RuntimeException("No Match found in solution set.");
-				}
-			}
+				// continue with the groups deferred for spilled partitions, one partition at a time. the records
+				// of a group are deferred together, so they are grouped again
+			} while (this.running && (input = join.getNextDeferredProbes()) != null);
 		} else if (getSolutionSetInputIndex() == 1) {
 			final IT2 buildSideRecord = rec2;
 			
 			@SuppressWarnings("unchecked")
-			final MutableHashTable<IT2, IT1> join = (MutableHashTable<IT2, IT1>) hashTable;
+			final CompactingHashTable<IT2, IT1> join = (CompactingHashTable<IT2, IT1>) hashTable;
 			
-			final KeyGroupedIterator<IT1> probeSideInput = new KeyGroupedIterator<IT1>(taskContext.<IT1>getInput(0), serializer1, comparator1);
 			final SingleRecordIterator<IT2> siIter = new SingleRecordIterator<IT2>();
+			MutableObjectIterator<IT1> input = taskContext.<IT1>getInput(0);
 			
-			while (this.running && probeSideInput.nextKey()) {
-				IT1 current = probeSideInput.getCurrent();
-				final MutableHashTable.HashBucketIterator<IT2, IT1> bucket = join.getMatchesFor(current);
-				if (bucket.next(buildSideRecord)) {
-					siIter.set(buildSideRecord);
-					coGroupStub.coGroup(probeSideInput.getValues(), siIter, collector);
+			do {
+				final KeyGroupedIterator<IT1> probeSideInput = new KeyGroupedIterator<IT1>(input, serializer1, comparator1);
+				while (this.running && probeSideInput.nextKey()) {
+					IT1 current = probeSideInput.getCurrent();
+					final Iterator<IT1> group = probeSideInput.getValues();
+					final boolean spilled;
+					boolean found = false;
+					// the solution set may be spilled and loaded by the updating task in between the calls. once
+					// a probe is deferred, the partition stays spilled until this task requests the probes
+					synchronized (join) {
+						spilled = join.isSpilled(current);
+						if (spilled) {
+							join.deferProbe(group.next());
+						} else {
+							found = join.getMatchFor(current, buildSideRecord);
+						}
+					}
+					
+					if (spilled) {
+						while (group.hasNext()) {
+							join.deferProbe(group.next());
+						}
+					}
+					else if (found) {
+						siIter.set(buildSideRecord);
+						coGroupStub.coGroup(group, siIter, collector);
+					}
+					else {
+						// no match found, this is for now an error case
+						throw new RuntimeException("No Match found in solution set.");
+					}
 				}
-				else {
-					// no match found, this is for now an error case
-					throw new RuntimeException("No Match found in solution set.");
-				}
-			}
+				// continue with the groups deferred for spilled partitions, one partition at a time. the records
+				// of a group are deferred together, so they are grouped again
+			} while (this.running && (input = join.getNextDeferredProbes()) != null);
 		} else {
 			throw new Exception();
 		}
@@ -16,7 +16,7 @@ package eu.stratosphere.pact.runtime.task;
 import eu.stratosphere.api.common.functions.GenericJoiner;
 import eu.stratosphere.api.common.typeutils.TypeSerializer;
 import eu.stratosphere.api.common.typeutils.TypeSerializerFactory;
-import eu.stratosphere.pact.runtime.hash.MutableHashTable;
+import eu.stratosphere.pact.runtime.hash.CompactingHashTable;
 import eu.stratosphere.pact.runtime.iterative.concurrent.SolutionSetBroker;
 import eu.stratosphere.pact.runtime.iterative.task.AbstractIterativePactTask;
 import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordComparator;
@@ -30,7 +30,7 @@ public abstract class JoinWithSolutionSetMatchDriver<IT1, IT2, OT> implements Re
 	
 	protected PactTaskContext<GenericJoiner<IT1, IT2, OT>, OT> taskContext;
 	
-	protected MutableHashTable<?, ?> hashTable;
+	protected CompactingHashTable<?, ?> hashTable;
 	
 	private TypeSerializer<IT1> serializer1;
 	private TypeSerializer<IT2> serializer2;
@@ -123,9 +123,8 @@ public abstract class JoinWithSolutionSetMatchDriver<IT1, IT2, OT> implements Re
 
 	@Override
 	public void prepare() throws Exception {
-		// nothing to prepare in each iteration
-		// later, if we support out-of-core operation, we need to put the code in here
-		// that brings the initial in-memory partitions into memory
+		// nothing to prepare in each iteration. spilled partitions of the solution set are
+		// loaded on demand, after the probes in memory are processed
 	}
 
 	@Override
@@ -139,41 +138,65 @@ public abstract class JoinWithSolutionSetMatchDriver<IT1, IT2, OT> implements Re
 			final IT2 probeSideRecord = rec2;
 			
 			@SuppressWarnings("unchecked")
-			final MutableHashTable<IT1, IT2> join = (MutableHashTable<IT1, IT2>) hashTable;
-			final MutableObjectIterator<IT2> probeSideInput = taskContext.<IT2>getInput(0);
+			final CompactingHashTable<IT1, IT2> join = (CompactingHashTable<IT1, IT2>) hashTable;
+			MutableObjectIterator<IT2> probeSideInput = taskContext.<IT2>getInput(0);
 			
-			while (this.running && probeSideInput.next(probeSideRecord)) {
-				final MutableHashTable.HashBucketIterator<IT1, IT2> bucket = join.getMatchesFor(probeSideRecord);
-				if (bucket.next(buildSideRecord)) {
-					matchStub.join(buildSideRecord, probeSideRecord, collector);
-				} else {
-					// no match found, this is for now an error case
-					throwNoMatchFoundException(join, probeSideRecord);
+			do {
+				while (this.running && probeSideInput.next(probeSideRecord)) {
+					final boolean found;
+					// the solution set may be spilled and loaded by the updating task in between the calls
+					synchronized (join) {
+						if (join.isSpilled(probeSideRecord)) {
+							join.deferProbe(probeSideRecord);
+							continue;
+						}
+						found = join.getMatchFor(probeSideRecord, buildSideRecord);
+					}
+					
+					if (found) {
+						matchStub.join(buildSideRecord, probeSideRecord, collector);
+					} else {
+						// no match found, this is for now an error case
+						throwNoMatchFoundException(join, probeSideRecord);
+					}
 				}
-			}
+				// continue with the probes deferred for spilled partitions, one partition at a time
+			} while (this.running && (probeSideInput = join.getNextDeferredProbes()) != null);
 		} else if (getSolutionSetInputIndex() == 1) {
 			final IT2 buildSideRecord = rec2;
 			final IT1 probeSideRecord = rec1;
 			
 			@SuppressWarnings("unchecked")
-			final MutableHashTable<IT2, IT1> join = (MutableHashTable<IT2, IT1>) hashTable;
-			final MutableObjectIterator<IT1> probeSideInput = taskContext.<IT1>getInput(0);
+			final CompactingHashTable<IT2, IT1> join = (CompactingHashTable<IT2, IT1>) hashTable;
+			MutableObjectIterator<IT1> probeSideInput = taskContext.<IT1>getInput(0);
 			
-			while (this.running && probeSideInput.next(probeSideRecord)) {
-				final MutableHashTable.HashBucketIterator<IT2, IT1> bucket = join.getMatchesFor(probeSideRecord);
-				if (bucket.next(buildSideRecord)) {
-					matchStub.join(probeSideRecord, buildSideRecord, collector);
-				} else {
-					// no match found, this is for now an error case
-					throwNoMatchFoundException(join, probeSideRecord);
+			do {
+				while (this.running && probeSideInput.next(probeSideRecord)) {
+					final boolean found;
+					// the solution set may be spilled and loaded by the updating task in between the calls
+					synchronized (join) {
+						if (join.isSpilled(probeSideRecord)) {
+							join.deferProbe(probeSideRecord);
+							continue;
+						}
+						found = join.getMatchFor(probeSideRecord, buildSideRecord);
+					}
+					
+					if (found) {
+						matchStub.join(probeSideRecord, buildSideRecord, collector);
+					} else {
+						// no match found, this is for now an error case
+						throwNoMatchFoundException(join, probeSideRecord);
+					}
 				}
-			}
+				// continue with the probes deferred for spilled partitions, one partition at a time
+			} while (this.running && (probeSideInput = join.getNextDeferredProbes()) != null);
 		} else {
 			throw new Exception();
 		}
 	}
 
-	private <PT> void throwNoMatchFoundException (MutableHashTable<?, PT> join, PT probeSideRecord) {
+	private <PT> void throwNoMatchFoundException (CompactingHashTable<?, PT> join, PT probeSideRecord) {
 		if (probeSideRecord instanceof Record) {
 			Record record = (Record) probeSideRecord;
 			RecordComparator comparator = (RecordComparator) join.getProbeSideComparator();
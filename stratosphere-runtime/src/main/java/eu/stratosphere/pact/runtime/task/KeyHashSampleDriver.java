@@ -0,0 +1,116 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.pact.runtime.task;
+
+import java.util.Random;
+
+import eu.stratosphere.api.common.functions.AbstractFunction;
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.types.IntValue;
+import eu.stratosphere.types.Record;
+import eu.stratosphere.util.Collector;
+import eu.stratosphere.util.MutableObjectIterator;
+
+/**
+ * A driver that draws a uniform random sample of fixed size of the hash codes of its input's keys, using
+ * reservoir sampling. The sample is emitted after the input has been consumed completely, as records with
+ * the hash code in their first field. The driver has no user code and is used to find the heavy hitter keys
+ * for a skew resilient hash partitioning.
+ * <p>
+ * Only the hash codes are sampled, because the inputs of a join have different types, but the hash codes of
+ * equal keys are the same on both sides.
+ * 
+ * @param <T> The type of the sampled records.
+ */
+public class KeyHashSampleDriver<T> implements PactDriver<AbstractFunction, Record> {
+	
+	private static final long SEED = 0x5deece66dL;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private PactTaskContext<AbstractFunction, Record> taskContext;
+	
+	private volatile boolean running;
+	
+	
+	@Override
+	public void setup(PactTaskContext<AbstractFunction, Record> context) {
+		this.taskContext = context;
+		this.running = true;
+	}
+
+	@Override
+	public int getNumberOfInputs() {
+		return 1;
+	}
+	
+	@Override
+	public Class<AbstractFunction> getStubType() {
+		return null;
+	}
+
+	@Override
+	public boolean requiresComparatorOnInput() {
+		return true;
+	}
+
+	@Override
+	public void prepare() {}
+
+	@Override
+	public void run() throws Exception {
+		// cache references on the stack
+		final MutableObjectIterator<T> input = this.taskContext.getInput(0);
+		final TypeComparator<T> comparator = this.taskContext.getInputComparator(0);
+		final Collector<Record> output = this.taskContext.getOutputCollector();
+		
+		final int[] reservoir = new int[SampleDriver.SAMPLE_SIZE];
+		final Random rnd = new Random(SEED);
+		
+		final T record = this.taskContext.<T>getInputSerializer(0).createInstance();
+		long numSeen = 0;
+		
+		while (this.running && input.next(record)) {
+			final int hash = comparator.hash(record);
+			if (numSeen < reservoir.length) {
+				reservoir[(int) numSeen] = hash;
+			} else {
+				// replace a sampled hash with probability SAMPLE_SIZE / (numSeen + 1)
+				final long pos = (long) (rnd.nextDouble() * (numSeen + 1));
+				if (pos < reservoir.length) {
+					reservoir[(int) pos] = hash;
+				}
+			}
+			numSeen++;
+		}
+		
+		final IntValue hash = new IntValue();
+		final Record result = new Record(1);
+		final int sampleSize = (int) Math.min(numSeen, reservoir.length);
+		
+		for (int i = 0; this.running && i < sampleSize; i++) {
+			hash.setValue(reservoir[i]);
+			result.setField(0, hash);
+			output.collect(result);
+		}
+	}
+	
+	@Override
+	public void cleanup() {}
+
+	@Override
+	public void cancel() {
+		this.running = false;
+	}
+}
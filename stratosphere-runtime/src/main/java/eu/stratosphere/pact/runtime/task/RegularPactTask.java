@@ -15,6 +15,7 @@ package eu.stratosphere.pact.runtime.task;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -49,6 +50,9 @@ import eu.stratosphere.nephele.services.memorymanager.MemoryManager;
 import eu.stratosphere.nephele.template.AbstractInputTask;
 import eu.stratosphere.nephele.template.AbstractInvokable;
 import eu.stratosphere.nephele.template.AbstractTask;
+import eu.stratosphere.pact.runtime.broadcast.BroadcastVariableKey;
+import eu.stratosphere.pact.runtime.broadcast.BroadcastVariableManager;
+import eu.stratosphere.pact.runtime.broadcast.BroadcastVariableMaterialization;
 import eu.stratosphere.pact.runtime.plugable.DeserializationDelegate;
 import eu.stratosphere.pact.runtime.plugable.SerializationDelegate;
 import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordComparator;
@@ -70,6 +74,7 @@ import eu.stratosphere.pact.runtime.task.util.ReaderIterator;
 import eu.stratosphere.pact.runtime.task.util.RecordReaderIterator;
 import eu.stratosphere.pact.runtime.task.util.TaskConfig;
 import eu.stratosphere.pact.runtime.udf.RuntimeUDFContext;
+import eu.stratosphere.types.IntValue;
 import eu.stratosphere.types.Record;
 import eu.stratosphere.util.Collector;
 import eu.stratosphere.util.InstantiationUtil;
@@ -172,6 +177,12 @@ public class RegularPactTask<S extends Function, OT> extends AbstractTask implem
 	 * The serializers for the broadcast input data types.
 	 */
 	protected TypeSerializer<?>[] broadcastInputSerializers;
+	
+	/**
+	 * The broadcast variables that this task shares with the other subtasks in the same TaskManager.
+	 * The entries for broadcast inputs that are not shared are null.
+	 */
+	protected BroadcastVariableMaterialization<?>[] sharedBroadcastVariables;
 
 	/**
 	 * The comparators for the central driver.
@@ -367,8 +378,11 @@ public class RegularPactTask<S extends Function, OT> extends AbstractTask implem
 			// read the broadcast variables
 			for (int i = 0; i < this.config.getNumBroadcastInputs(); i++) {
 				final String name = this.config.getBroadcastInputName(i);
-				readAndSetBroadcastInput(i, name, this.runtimeUdfContext);
+				readAndSetBroadcastInput(i, name, this.runtimeUdfContext, 1);
 			}
+			
+			// hand the samples to the outputs that compute their partitioning from a sample
+			setPartitioningSamples();
 	
 			// the work goes here
 			run();
@@ -376,6 +390,7 @@ public class RegularPactTask<S extends Function, OT> extends AbstractTask implem
 		finally {
 			// clean up in any case!
 			closeLocalStrategiesAndCaches();
+			releaseSharedBroadcastVariables();
 		}
 		
 		if (this.running) {
@@ -442,7 +457,20 @@ public class RegularPactTask<S extends Function, OT> extends AbstractTask implem
 		}
 	}
 	
-	protected <X> void readAndSetBroadcastInput(int inputNum, String bcVarName, RuntimeUDFContext context) throws IOException {
+	/**
+	 * Reads the broadcast input with the given number and binds it to the given name in the context. If the
+	 * broadcast input has a shared variable ID, the variable is materialized once per TaskManager and shared with
+	 * the other subtasks that read it in the same superstep. Otherwise, the task reads its own copy.
+	 * 
+	 * @param inputNum The number of the broadcast input.
+	 * @param bcVarName The name that the variable is bound to.
+	 * @param context The context in which the variable is bound.
+	 * @param superstep The superstep in which the variable is read, 1 outside of iterations.
+	 * @throws IOException Thrown, if the broadcast input could not be read.
+	 */
+	protected <X> void readAndSetBroadcastInput(int inputNum, String bcVarName, RuntimeUDFContext context, int superstep)
+			throws IOException
+	{
 		// drain the broadcast inputs
 
 		@SuppressWarnings("unchecked")
@@ -450,6 +478,20 @@ public class RegularPactTask<S extends Function, OT> extends AbstractTask implem
 		
 		@SuppressWarnings("unchecked")
 		final TypeSerializer<X> serializer =  (TypeSerializer<X>) this.broadcastInputSerializers[inputNum];
+		
+		final String sharedId = this.config.getBroadcastVariableId(inputNum);
+		if (sharedId != null) {
+			// release the variable of the previous superstep before acquiring the one of this superstep
+			releaseSharedBroadcastVariable(inputNum);
+			
+			final BroadcastVariableMaterialization<X> variable = BroadcastVariableManager.acquireBroadcastVariable(
+				new BroadcastVariableKey(getEnvironment().getJobID(), sharedId, superstep));
+			this.sharedBroadcastVariables[inputNum] = variable;
+			
+			variable.materializeVariable(reader, serializer);
+			context.setBroadcastVariable(bcVarName, variable.getVariable(serializer));
+			return;
+		}
 
 		ArrayList<X> collection = new ArrayList<X>();
 		
@@ -461,6 +503,78 @@ public class RegularPactTask<S extends Function, OT> extends AbstractTask implem
 		context.setBroadcastVariable(bcVarName, collection);
 	}
 	
+	/**
+	 * Releases this task's reference to the shared broadcast variable of the given broadcast input, if it holds one.
+	 * 
+	 * @param inputNum The number of the broadcast input.
+	 */
+	protected void releaseSharedBroadcastVariable(int inputNum) {
+		final BroadcastVariableMaterialization<?> variable = this.sharedBroadcastVariables[inputNum];
+		if (variable != null) {
+			this.sharedBroadcastVariables[inputNum] = null;
+			BroadcastVariableManager.releaseBroadcastVariable(variable);
+		}
+	}
+	
+	/**
+	 * Releases this task's references to all shared broadcast variables.
+	 */
+	protected void releaseSharedBroadcastVariables() {
+		if (this.sharedBroadcastVariables != null) {
+			for (int i = 0; i < this.sharedBroadcastVariables.length; i++) {
+				releaseSharedBroadcastVariable(i);
+			}
+		}
+	}
+	
+	/**
+	 * Hands the samples that were received as broadcast variables to the outputs whose partitioning is
+	 * computed from a sample of the data. These are the range partitionings without a given data distribution,
+	 * which compute their boundaries from a sample of the records, and the skew resilient hash partitionings,
+	 * which compute the heavy hitters from a sample of the key hash codes.
+	 */
+	@SuppressWarnings("unchecked")
+	protected void setPartitioningSamples() {
+		if (this.config.getNumberOfChainedStubs() > 0) {
+			// partitioning from samples happens only in dedicated tasks, which are never chained
+			return;
+		}
+		
+		for (int i = 0; i < this.eventualOutputs.size(); i++) {
+			final ChannelSelector<?> selector = this.eventualOutputs.get(i).getChannelSelector();
+			
+			final String rangeSampleName = this.config.getOutputRangePartitionSampleName(i);
+			if (rangeSampleName != null) {
+				final Collection<Object> sample = this.runtimeUdfContext.getBroadcastVariable(rangeSampleName);
+				if (selector instanceof RecordOutputEmitter) {
+					((RecordOutputEmitter) selector).setRangePartitionSample((Collection<Record>) (Collection<?>) sample);
+				} else if (selector instanceof OutputEmitter) {
+					((OutputEmitter<Object>) selector).setRangePartitionSample(sample);
+				} else {
+					throw new IllegalStateException("The output " + i + " does not support range partitioning from a sample.");
+				}
+			}
+			
+			final String heavyHitterSampleName = this.config.getOutputHeavyHitterSampleName(i);
+			if (heavyHitterSampleName != null) {
+				final Collection<Record> sample = this.runtimeUdfContext.getBroadcastVariable(heavyHitterSampleName);
+				final int[] keyHashes = new int[sample.size()];
+				int num = 0;
+				for (Record r : sample) {
+					keyHashes[num++] = r.getField(0, IntValue.class).getValue();
+				}
+				
+				if (selector instanceof RecordOutputEmitter) {
+					((RecordOutputEmitter) selector).setHeavyHitterSample(keyHashes);
+				} else if (selector instanceof OutputEmitter) {
+					((OutputEmitter<?>) selector).setHeavyHitterSample(keyHashes);
+				} else {
+					throw new IllegalStateException("The output " + i + " does not support skew resilient hash partitioning.");
+				}
+			}
+		}
+	}
+	
 	protected void run() throws Exception {
 		// ---------------------------- Now, the actual processing starts ------------------------
 		// check for asynchronous canceling
@@ -784,6 +898,7 @@ public class RegularPactTask<S extends Function, OT> extends AbstractTask implem
 	protected void initBroadcastInputsSerializers(int numBroadcastInputs) throws Exception {
 		this.broadcastInputSerializers = new TypeSerializer[numBroadcastInputs];
 		this.broadcastInputIterators = new MutableObjectIterator[numBroadcastInputs];
+		this.sharedBroadcastVariables = new BroadcastVariableMaterialization[numBroadcastInputs];
 
 		for (int i = 0; i < numBroadcastInputs; i++) {
 			//  ---------------- create the serializer first ---------------------
@@ -0,0 +1,112 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.pact.runtime.task;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import eu.stratosphere.api.common.functions.AbstractFunction;
+import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.util.Collector;
+import eu.stratosphere.util.MutableObjectIterator;
+
+/**
+ * A driver that draws a uniform random sample of fixed size from its input, using reservoir sampling. The
+ * sample is emitted after the input has been consumed completely. The driver has no user code and is used
+ * to compute the boundaries for range partitioning, when no data distribution is given.
+ * <p>
+ * The random number generator is seeded with a fixed value, such that repeated executions over the same
+ * input produce the same sample.
+ * 
+ * @param <T> The data type.
+ */
+public class SampleDriver<T> implements PactDriver<AbstractFunction, T> {
+	
+	/**
+	 * The number of records that each parallel instance of the driver samples.
+	 */
+	public static final int SAMPLE_SIZE = 1000;
+	
+	private static final long SEED = 0x2545f4914f6cdd1dL;
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private PactTaskContext<AbstractFunction, T> taskContext;
+	
+	private volatile boolean running;
+	
+	
+	@Override
+	public void setup(PactTaskContext<AbstractFunction, T> context) {
+		this.taskContext = context;
+		this.running = true;
+	}
+
+	@Override
+	public int getNumberOfInputs() {
+		return 1;
+	}
+	
+	@Override
+	public Class<AbstractFunction> getStubType() {
+		return null;
+	}
+
+	@Override
+	public boolean requiresComparatorOnInput() {
+		return false;
+	}
+
+	@Override
+	public void prepare() {}
+
+	@Override
+	public void run() throws Exception {
+		// cache references on the stack
+		final MutableObjectIterator<T> input = this.taskContext.getInput(0);
+		final Collector<T> output = this.taskContext.getOutputCollector();
+		final TypeSerializer<T> serializer = this.taskContext.<T>getInputSerializer(0);
+		
+		final ArrayList<T> reservoir = new ArrayList<T>(SAMPLE_SIZE);
+		final Random rnd = new Random(SEED);
+		
+		T record = serializer.createInstance();
+		long numSeen = 0;
+		
+		while (this.running && input.next(record)) {
+			numSeen++;
+			if (reservoir.size() < SAMPLE_SIZE) {
+				reservoir.add(serializer.createCopy(record));
+			} else {
+				// replace a sampled record with probability SAMPLE_SIZE / numSeen
+				final long pos = (long) (rnd.nextDouble() * numSeen);
+				if (pos < SAMPLE_SIZE) {
+					serializer.copyTo(record, reservoir.get((int) pos));
+				}
+			}
+		}
+		
+		for (int i = 0; this.running && i < reservoir.size(); i++) {
+			output.collect(reservoir.get(i));
+		}
+	}
+	
+	@Override
+	public void cleanup() {}
+
+	@Override
+	public void cancel() {
+		this.running = false;
+	}
+}
@@ -112,6 +112,8 @@ public class TaskConfig {
 	
 	private static final String BROADCAST_INPUT_NAME_PREFIX = "in.broadcast.name.";
 	
+	private static final String BROADCAST_INPUT_SHARED_ID_PREFIX = "in.broadcast.shared-id.";
+	
 	
 	// -------------------------------------- Outputs ---------------------------------------------
 	
@@ -131,6 +133,10 @@ public class TaskConfig {
 	
 	private static final String OUTPUT_DATA_DISTRIBUTION_PREFIX = "out.distribution.";
 	
+	private static final String OUTPUT_RANGE_SAMPLE_NAME_PREFIX = "out.range.sample.";
+	
+	private static final String OUTPUT_HEAVY_HITTER_SAMPLE_NAME_PREFIX = "out.heavyhitter.sample.";
+	
 	// ------------------------------------- Chaining ---------------------------------------------
 	
 	private static final String CHAINING_NUM_STUBS = "chaining.num";
@@ -480,6 +486,28 @@ public class TaskConfig {
 		return this.config.getString(BROADCAST_INPUT_NAME_PREFIX + groupIndex, String.format("broadcastVar%04d", groupIndex));
 	}
 	
+	/**
+	 * Sets the ID under which the subtasks in a TaskManager share the broadcast variable read from the given
+	 * broadcast input. The ID must be unique within the job.
+	 * 
+	 * @param id The job-wide unique ID of the broadcast variable.
+	 * @param groupIndex The index of the broadcast input.
+	 */
+	public void setBroadcastVariableId(String id, int groupIndex) {
+		this.config.setString(BROADCAST_INPUT_SHARED_ID_PREFIX + groupIndex, id);
+	}
+	
+	/**
+	 * Gets the ID under which the subtasks in a TaskManager share the broadcast variable read from the given
+	 * broadcast input.
+	 * 
+	 * @param groupIndex The index of the broadcast input.
+	 * @return The ID of the shared broadcast variable, or null, if every subtask reads its own copy.
+	 */
+	public String getBroadcastVariableId(int groupIndex) {
+		return this.config.getString(BROADCAST_INPUT_SHARED_ID_PREFIX + groupIndex, null);
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	//                                        Outputs
 	// --------------------------------------------------------------------------------------------
@@ -583,6 +611,36 @@ public class TaskConfig {
 		}
 	}
 	
+	/**
+	 * Sets the name of the broadcast variable that holds the sample from which the boundaries of the
+	 * range partitioned output are computed.
+	 * 
+	 * @param name The name of the broadcast variable with the sample.
+	 * @param outputNum The number of the range partitioned output.
+	 */
+	public void setOutputRangePartitionSampleName(String name, int outputNum) {
+		this.config.setString(OUTPUT_RANGE_SAMPLE_NAME_PREFIX + outputNum, name);
+	}
+	
+	public String getOutputRangePartitionSampleName(int outputNum) {
+		return this.config.getString(OUTPUT_RANGE_SAMPLE_NAME_PREFIX + outputNum, null);
+	}
+	
+	/**
+	 * Sets the name of the broadcast variable that holds the sampled key hash codes from which the heavy
+	 * hitters of the skew resilient hash partitioned output are computed.
+	 * 
+	 * @param name The name of the broadcast variable with the sampled key hash codes.
+	 * @param outputNum The number of the skew resilient hash partitioned output.
+	 */
+	public void setOutputHeavyHitterSampleName(String name, int outputNum) {
+		this.config.setString(OUTPUT_HEAVY_HITTER_SAMPLE_NAME_PREFIX + outputNum, name);
+	}
+	
+	public String getOutputHeavyHitterSampleName(int outputNum) {
+		return this.config.getString(OUTPUT_HEAVY_HITTER_SAMPLE_NAME_PREFIX + outputNum, null);
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	//                       Parameters to configure the memory and I/O behavior
 	// --------------------------------------------------------------------------------------------
@@ -80,4 +80,29 @@ public class JobEventTest {
 			fail(ioe.getMessage());
 		}
 	}
+
+	/**
+	 * This test checks the correct serialization/deserialization of a {@link RecoveryEvent}.
+	 */
+	@Test
+	public void testRecoveryEvent() {
+
+		try {
+
+			final RecoveryEvent orig = new RecoveryEvent(23423423L, new JobVertexID(), "Test Vertex", 2, 1, 4711L);
+			final RecoveryEvent copy = (RecoveryEvent) CommonTestUtils.createCopy(orig);
+
+			assertEquals(orig.getTimestamp(), copy.getTimestamp());
+			assertEquals(orig.getJobVertexID(), copy.getJobVertexID());
+			assertEquals(orig.getJobVertexName(), copy.getJobVertexName());
+			assertEquals(orig.getTotalNumberOfSubtasks(), copy.getTotalNumberOfSubtasks());
+			assertEquals(orig.getIndexOfSubtask(), copy.getIndexOfSubtask());
+			assertEquals(orig.getRecoveryTime(), copy.getRecoveryTime());
+			assertEquals(orig.hashCode(), copy.hashCode());
+			assertTrue(orig.equals(copy));
+
+		} catch (IOException ioe) {
+			fail(ioe.getMessage());
+		}
+	}
 }
@@ -1171,4 +1171,108 @@ public class ExecutionGraphTest {
 			}
 		}
 	}
+
+	/**
+	 * Tests the stage separation of file channels. A file channel separates the vertices it connects into consecutive
+	 * execution stages.
+	 */
+	@Test
+	public void testFileChannelStages() {
+
+		final int degreeOfParallelism = 2;
+		File inputFile1 = null;
+		File outputFile1 = null;
+		JobID jobID = null;
+
+		try {
+
+			inputFile1 = ServerTestUtils.createInputFile(0);
+			outputFile1 = new File(ServerTestUtils.getRandomFilename());
+
+			// create job graph
+			final JobGraph jg = new JobGraph("File Channel Test Job");
+			jobID = jg.getJobID();
+
+			// input vertex
+			final JobFileInputVertex input1 = new JobFileInputVertex("Input 1", jg);
+			input1.setFileInputClass(FileLineReader.class);
+			input1.setFilePath(new Path(inputFile1.toURI()));
+			input1.setNumberOfSubtasks(degreeOfParallelism);
+
+			// forward vertex 1
+			final JobTaskVertex forward1 = new JobTaskVertex("Forward 1", jg);
+			forward1.setTaskClass(ForwardTask1Input1Output.class);
+			forward1.setNumberOfSubtasks(degreeOfParallelism);
+
+			// forward vertex 2
+			final JobTaskVertex forward2 = new JobTaskVertex("Forward 2", jg);
+			forward2.setTaskClass(ForwardTask1Input1Output.class);
+			forward2.setNumberOfSubtasks(degreeOfParallelism);
+
+			// output vertex
+			final JobFileOutputVertex output1 = new JobFileOutputVertex("Output 1", jg);
+			output1.setFileOutputClass(FileLineWriter.class);
+			output1.setFilePath(new Path(outputFile1.toURI()));
+			output1.setNumberOfSubtasks(degreeOfParallelism);
+
+			// connect vertices
+			input1.connectTo(forward1, ChannelType.INMEMORY, DistributionPattern.POINTWISE);
+			forward1.connectTo(forward2, ChannelType.FILE, DistributionPattern.BIPARTITE);
+			forward2.connectTo(output1, ChannelType.INMEMORY, DistributionPattern.POINTWISE);
+
+			LibraryCacheManager.register(jobID, new String[0]);
+
+			// now convert job graph to execution graph
+			final ExecutionGraph eg = new ExecutionGraph(jg, INSTANCE_MANAGER);
+
+			// The file channel separates the two stages
+			assertEquals(2, eg.getNumberOfStages());
+
+			final ExecutionStage stage0 = eg.getStage(0);
+			assertEquals(2, stage0.getNumberOfStageMembers());
+			final ExecutionStage stage1 = eg.getStage(1);
+			assertEquals(2, stage1.getNumberOfStageMembers());
+
+			for (int i = 0; i < stage0.getNumberOfStageMembers(); ++i) {
+				final String name = stage0.getStageMember(i).getName();
+				assertTrue(name.equals("Input 1") || name.equals("Forward 1"));
+			}
+
+			// The consumer of the file channel is the input vertex of the second stage
+			assertEquals(degreeOfParallelism, eg.getNumberOfInputVertices(1));
+			for (int i = 0; i < eg.getNumberOfInputVertices(1); ++i) {
+				assertEquals("Forward 2", eg.getInputVertex(1, i).getName());
+			}
+
+			// The producer of the file channel is the output vertex of the first stage
+			assertEquals(degreeOfParallelism, eg.getNumberOfOutputVertices(0));
+			for (int i = 0; i < eg.getNumberOfOutputVertices(0); ++i) {
+				assertEquals("Forward 1", eg.getOutputVertex(0, i).getName());
+			}
+
+			// The channels of the file channel are of type file
+			final ExecutionVertex producer = eg.getOutputVertex(0, 0);
+			assertEquals(ChannelType.FILE, producer.getOutputGate(0).getChannelType());
+
+		} catch (GraphConversionException e) {
+			fail(e.getMessage());
+		} catch (JobGraphDefinitionException e) {
+			fail(e.getMessage());
+		} catch (IOException ioe) {
+			fail(ioe.getMessage());
+		} finally {
+			if (inputFile1 != null) {
+				inputFile1.delete();
+			}
+			if (outputFile1 != null) {
+				outputFile1.delete();
+			}
+			if (jobID != null) {
+				try {
+					LibraryCacheManager.unregister(jobID);
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
 }
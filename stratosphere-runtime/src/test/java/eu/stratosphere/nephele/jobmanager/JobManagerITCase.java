@@ -572,7 +572,7 @@ public class JobManagerITCase {
 			// connect vertices
 			try {
 				i1.connectTo(t1, ChannelType.NETWORK);
-				t1.connectTo(t2, ChannelType.INMEMORY);
+				t1.connectTo(t2, ChannelType.FILE);
 				t2.connectTo(o1, ChannelType.INMEMORY);
 			} catch (JobGraphDefinitionException e) {
 				e.printStackTrace();
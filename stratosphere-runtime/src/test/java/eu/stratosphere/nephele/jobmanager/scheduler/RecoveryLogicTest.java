@@ -0,0 +1,205 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.nephele.jobmanager.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.stratosphere.nephele.execution.ExecutionState;
+import eu.stratosphere.nephele.execution.librarycache.LibraryCacheManager;
+import eu.stratosphere.nephele.executiongraph.ExecutionGraph;
+import eu.stratosphere.nephele.executiongraph.ExecutionGraphIterator;
+import eu.stratosphere.nephele.executiongraph.ExecutionVertex;
+import eu.stratosphere.nephele.executiongraph.ForwardTask1Input1Output;
+import eu.stratosphere.nephele.executiongraph.GraphConversionException;
+import eu.stratosphere.nephele.instance.AllocatedResource;
+import eu.stratosphere.nephele.instance.AllocationID;
+import eu.stratosphere.nephele.instance.DummyInstance;
+import eu.stratosphere.nephele.instance.HardwareDescriptionFactory;
+import eu.stratosphere.nephele.instance.InstanceConnectionInfo;
+import eu.stratosphere.nephele.instance.InstanceType;
+import eu.stratosphere.nephele.instance.local.LocalInstance;
+import eu.stratosphere.nephele.io.channels.ChannelType;
+import eu.stratosphere.nephele.jobgraph.JobGraph;
+import eu.stratosphere.nephele.jobgraph.JobGraphDefinitionException;
+import eu.stratosphere.nephele.jobgraph.JobInputVertex;
+import eu.stratosphere.nephele.jobgraph.JobOutputVertex;
+import eu.stratosphere.nephele.jobgraph.JobTaskVertex;
+import eu.stratosphere.nephele.jobmanager.scheduler.queue.QueueSchedulerTest;
+import eu.stratosphere.nephele.jobmanager.scheduler.queue.TestInstanceManager;
+import eu.stratosphere.nephele.topology.NetworkTopology;
+import eu.stratosphere.util.StringUtils;
+
+/**
+ * This class checks which vertices the {@link RecoveryLogic} restarts in order to recover a failed vertex.
+ */
+public class RecoveryLogicTest {
+
+	/**
+	 * The execution graph of the sample job: Input 1 -(network)-> Task 1 -(file)-> Output 1.
+	 */
+	private ExecutionGraph executionGraph;
+
+	@Before
+	public void createExecutionGraph() {
+
+		final JobGraph jobGraph = new JobGraph("Job Graph");
+
+		final JobInputVertex inputVertex = new JobInputVertex("Input 1", jobGraph);
+		inputVertex.setInputClass(QueueSchedulerTest.InputTask.class);
+		inputVertex.setNumberOfSubtasks(1);
+
+		final JobTaskVertex taskVertex = new JobTaskVertex("Task 1", jobGraph);
+		taskVertex.setTaskClass(ForwardTask1Input1Output.class);
+		taskVertex.setNumberOfSubtasks(1);
+
+		final JobOutputVertex outputVertex = new JobOutputVertex("Output 1", jobGraph);
+		outputVertex.setOutputClass(QueueSchedulerTest.OutputTask.class);
+		outputVertex.setNumberOfSubtasks(1);
+
+		try {
+			inputVertex.connectTo(taskVertex, ChannelType.NETWORK);
+			taskVertex.connectTo(outputVertex, ChannelType.FILE);
+		} catch (JobGraphDefinitionException e) {
+			fail(StringUtils.stringifyException(e));
+		}
+
+		try {
+			LibraryCacheManager.register(jobGraph.getJobID(), new String[0]);
+			this.executionGraph = new ExecutionGraph(jobGraph, new TestInstanceManager());
+		} catch (GraphConversionException e) {
+			fail(StringUtils.stringifyException(e));
+		} catch (IOException e) {
+			fail(StringUtils.stringifyException(e));
+		}
+	}
+
+	@After
+	public void unregisterJob() {
+
+		try {
+			LibraryCacheManager.unregister(this.executionGraph.getJobID());
+		} catch (IOException ioe) {
+			// Ignore exception here
+		}
+	}
+
+	/**
+	 * Checks that a failure behind a file channel does not restart the finished producers of the file channel.
+	 */
+	@Test
+	public void testRecoveryStopsAtFileChannel() {
+
+		final ExecutionVertex input = getVertex("Input 1");
+		final ExecutionVertex task = getVertex("Task 1");
+		final ExecutionVertex output = getVertex("Output 1");
+
+		assignInstance(input, task, output);
+		input.updateExecutionState(ExecutionState.FINISHED);
+		task.updateExecutionState(ExecutionState.FINISHED);
+		output.updateExecutionState(ExecutionState.FAILED);
+
+		final Set<ExecutionVertex> verticesToBeCanceled = new HashSet<ExecutionVertex>();
+		assertTrue(RecoveryLogic.findVerticesToRestart(output, verticesToBeCanceled));
+		assertTrue(verticesToBeCanceled.isEmpty());
+	}
+
+	/**
+	 * Checks that a failure in front of a file channel restarts the producers connected through a network channel.
+	 */
+	@Test
+	public void testRecoveryRestartsPipelinedProducers() {
+
+		final ExecutionVertex input = getVertex("Input 1");
+		final ExecutionVertex task = getVertex("Task 1");
+
+		assignInstance(input, task);
+		input.updateExecutionState(ExecutionState.RUNNING);
+		task.updateExecutionState(ExecutionState.FAILED);
+
+		final Set<ExecutionVertex> verticesToBeCanceled = new HashSet<ExecutionVertex>();
+		assertTrue(RecoveryLogic.findVerticesToRestart(task, verticesToBeCanceled));
+		assertEquals(1, verticesToBeCanceled.size());
+		assertTrue(verticesToBeCanceled.contains(input));
+	}
+
+	/**
+	 * Checks that the recovery is impossible if the persisted output of a finished producer has been lost together
+	 * with its instance.
+	 */
+	@Test
+	public void testRecoveryFailsIfPersistedOutputIsLost() {
+
+		final ExecutionVertex input = getVertex("Input 1");
+		final ExecutionVertex task = getVertex("Task 1");
+		final ExecutionVertex output = getVertex("Output 1");
+
+		assignInstance(output);
+		input.updateExecutionState(ExecutionState.FINISHED);
+		task.updateExecutionState(ExecutionState.FINISHED);
+		output.updateExecutionState(ExecutionState.FAILED);
+
+		// The task's instance has died, so its vertices are assigned to a dummy instance again
+		final InstanceType instanceType = task.getAllocatedResource().getInstanceType();
+		task.setAllocatedResource(new AllocatedResource(DummyInstance.createDummyInstance(instanceType),
+			instanceType, new AllocationID()));
+
+		assertFalse(RecoveryLogic.findVerticesToRestart(output, new HashSet<ExecutionVertex>()));
+	}
+
+	private ExecutionVertex getVertex(final String name) {
+
+		final Iterator<ExecutionVertex> it = new ExecutionGraphIterator(this.executionGraph, true);
+		while (it.hasNext()) {
+			final ExecutionVertex vertex = it.next();
+			if (vertex.getName().equals(name)) {
+				return vertex;
+			}
+		}
+
+		fail("Cannot find vertex " + name);
+		return null;
+	}
+
+	private static void assignInstance(final ExecutionVertex... vertices) {
+
+		try {
+			final InstanceType instanceType = vertices[0].getAllocatedResource().getInstanceType();
+			final NetworkTopology nt = new NetworkTopology();
+			final LocalInstance instance = new LocalInstance(instanceType, new InstanceConnectionInfo(
+				InetAddress.getLocalHost(), 1, 1), nt.getRootNode(), nt, HardwareDescriptionFactory.construct(1, 1L,
+				1L));
+			final AllocatedResource allocatedResource = new AllocatedResource(instance, instanceType,
+				new AllocationID());
+
+			for (final ExecutionVertex vertex : vertices) {
+				vertex.setAllocatedResource(allocatedResource);
+			}
+		} catch (IOException ioe) {
+			fail(StringUtils.stringifyException(ioe));
+		}
+	}
+}
@@ -16,6 +16,7 @@ package eu.stratosphere.nephele.services.iomanager;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Random;
 
 import junit.framework.Assert;
 
@@ -188,6 +189,75 @@ public class IOManagerTest
 		}
 	}
 
+	/**
+	 * Writes and re-reads a mix of compressible and incompressible blocks through an I/O manager
+	 * that compresses its blocks.
+	 */
+	@Test
+	public void channelReadWriteCompressed()
+	{
+		final int NUM_IOS = 200;
+		final long SEED = 347685431675L;
+		
+		final IOManager compressingIOManager = new IOManager(new String[] { System.getProperty("java.io.tmpdir") }, true);
+		try {
+			MemorySegment memSeg = this.memoryManager.allocatePages(new DummyInvokable(), 1).get(0);
+			final int segmentSize = memSeg.size();
+			
+			final Channel.ID channelID = compressingIOManager.createChannel();
+			final BlockChannelWriter writer = compressingIOManager.createBlockChannelWriter(channelID);
+			Assert.assertTrue(writer.isCompressingBlocks());
+			
+			Random rnd = new Random(SEED);
+			for (int i = 0; i < NUM_IOS; i++) {
+				fillSegment(memSeg, i, rnd);
+				writer.writeBlock(memSeg);
+				memSeg = writer.getNextReturnedSegment();
+			}
+			writer.close();
+			
+			final long fileLength = new File(channelID.getPath()).length();
+			Assert.assertTrue("The compressed channel is not smaller than the raw data.", 
+				fileLength < ((long) NUM_IOS) * segmentSize);
+			
+			final BlockChannelReader reader = compressingIOManager.createBlockChannelReader(channelID);
+			final MemorySegment expected = new MemorySegment(new byte[segmentSize]);
+			rnd = new Random(SEED);
+			for (int i = 0; i < NUM_IOS; i++) {
+				reader.readBlock(memSeg);
+				memSeg = reader.getNextReturnedSegment();
+				
+				fillSegment(expected, i, rnd);
+				Assert.assertEquals("Read memory segment contains invalid data.", 0,
+					MemorySegment.compare(expected, memSeg, 0, 0, segmentSize));
+			}
+			
+			reader.closeAndDelete();
+			this.memoryManager.release(memSeg);
+		} catch (Exception ex) {
+			ex.printStackTrace();
+			Assert.fail("Test encountered an exception: " + ex.getMessage());
+		} finally {
+			compressingIOManager.shutdown();
+		}
+	}
+	
+	/**
+	 * Fills every third segment with random bytes, which do not compress, and the others with repeated ints.
+	 */
+	private static void fillSegment(MemorySegment seg, int i, Random rnd)
+	{
+		if (i % 3 == 0) {
+			final byte[] bytes = new byte[seg.size()];
+			rnd.nextBytes(bytes);
+			seg.put(0, bytes);
+		} else {
+			for (int pos = 0; pos < seg.size(); pos += 4) {
+				seg.putInt(pos, i);
+			}
+		}
+	}
+
 	// ============================================================================================
 	
 	final class FailingSegmentReadRequest implements ReadRequest
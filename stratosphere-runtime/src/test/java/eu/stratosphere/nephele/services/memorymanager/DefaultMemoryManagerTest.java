@@ -13,6 +13,7 @@
 
 package eu.stratosphere.nephele.services.memorymanager;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -159,6 +160,110 @@ public class DefaultMemoryManagerTest
 		}
 	}
 	
+	@Test
+	public void allocateLazily() throws Exception
+	{
+		final DefaultMemoryManager lazyManager = new DefaultMemoryManager(MEMORY_SIZE, PAGE_SIZE, false, false);
+		final AbstractInvokable owner1 = new DummyInvokable();
+		final AbstractInvokable owner2 = new DummyInvokable();
+		
+		Assert.assertEquals(NUM_PAGES, lazyManager.getTotalNumPages());
+		Assert.assertEquals(0, lazyManager.getNumAllocatedPages());
+		
+		// pages are allocated when requested
+		List<MemorySegment> segs1 = lazyManager.allocatePages(owner1, NUM_PAGES / 2);
+		List<MemorySegment> segs2 = lazyManager.allocatePages(owner2, NUM_PAGES / 4);
+		Assert.assertEquals(NUM_PAGES / 2 + NUM_PAGES / 4, lazyManager.getNumAllocatedPages());
+		Assert.assertEquals(NUM_PAGES / 2 + NUM_PAGES / 4, lazyManager.getNumPagesInUse());
+		
+		// the budget is still enforced
+		try {
+			lazyManager.allocatePages(owner1, NUM_PAGES / 2);
+			Assert.fail("Expected MemoryAllocationException.");
+		} catch (MemoryAllocationException maex) {
+			// expected
+		}
+		
+		// released pages are pooled while memory is in use
+		lazyManager.release(segs1);
+		Assert.assertEquals(NUM_PAGES / 2 + NUM_PAGES / 4, lazyManager.getNumAllocatedPages());
+		Assert.assertEquals(NUM_PAGES / 4, lazyManager.getNumPagesInUse());
+		
+		segs1 = lazyManager.allocatePages(owner1, NUM_PAGES / 2);
+		Assert.assertEquals(NUM_PAGES / 2 + NUM_PAGES / 4, lazyManager.getNumAllocatedPages());
+		lazyManager.releaseAll(owner1);
+		Assert.assertTrue(allMemorySegmentsFreed(segs1));
+		Assert.assertEquals(NUM_PAGES / 2 + NUM_PAGES / 4, lazyManager.getNumAllocatedPages());
+		
+		// the pooled pages are dropped when the memory manager becomes idle
+		lazyManager.release(segs2);
+		Assert.assertEquals(NUM_PAGES / 2 + NUM_PAGES / 4, lazyManager.getNumAllocatedPages());
+		lazyManager.releaseAll(owner2);
+		Assert.assertEquals(0, lazyManager.getNumAllocatedPages());
+		Assert.assertEquals(NUM_PAGES / 2 + NUM_PAGES / 4, lazyManager.getPeakNumPagesInUse());
+		Assert.assertTrue(lazyManager.verifyEmpty());
+		
+		lazyManager.shutdown();
+	}
+	
+	@Test
+	public void allocateLazilyOffHeap() throws Exception
+	{
+		final DefaultMemoryManager lazyManager = new DefaultMemoryManager(MEMORY_SIZE, PAGE_SIZE, true, false);
+		final AbstractInvokable owner = new DummyInvokable();
+		
+		lazyManager.allocatePages(owner, NUM_PAGES / 4);
+		lazyManager.releaseAll(owner);
+		
+		// direct memory is only freed by the garbage collector, so the pooled pages are kept
+		Assert.assertEquals(NUM_PAGES / 4, lazyManager.getNumAllocatedPages());
+		Assert.assertEquals(0, lazyManager.getNumPagesInUse());
+		Assert.assertTrue(lazyManager.verifyEmpty());
+		
+		lazyManager.shutdown();
+	}
+	
+	@Test
+	public void allocateLazilyOutOfMemory() throws Exception
+	{
+		// the JVM runs out of memory after a few pages
+		final int numAllocatable = NUM_PAGES / 4;
+		final DefaultMemoryManager lazyManager = new DefaultMemoryManager(MEMORY_SIZE, PAGE_SIZE, false, false) {
+			private int numAllocated;
+			
+			@Override
+			protected ByteBuffer allocatePage() {
+				if (++this.numAllocated > numAllocatable) {
+					throw new OutOfMemoryError("Java heap space");
+				}
+				return super.allocatePage();
+			}
+		};
+		final AbstractInvokable owner = new DummyInvokable();
+		
+		final List<MemorySegment> segs = lazyManager.allocatePages(owner, NUM_PAGES / 8);
+		final List<MemorySegment> target = new ArrayList<MemorySegment>(segs);
+		try {
+			lazyManager.allocatePages(owner, target, NUM_PAGES / 2);
+			Assert.fail("Expected MemoryAllocationException.");
+		} catch (MemoryAllocationException maex) {
+			// expected
+		}
+		
+		// the failed request leaves no trace, and the pages allocated for it are pooled
+		Assert.assertEquals(segs, target);
+		Assert.assertEquals(numAllocatable, lazyManager.getNumAllocatedPages());
+		Assert.assertEquals(NUM_PAGES / 8, lazyManager.getNumPagesInUse());
+		
+		final List<MemorySegment> pooled = lazyManager.allocatePages(owner, numAllocatable - NUM_PAGES / 8);
+		Assert.assertTrue(allMemorySegmentsValid(pooled));
+		
+		lazyManager.releaseAll(owner);
+		Assert.assertTrue(allMemorySegmentsFreed(segs));
+		Assert.assertTrue(lazyManager.verifyEmpty());
+		lazyManager.shutdown();
+	}
+	
 	private boolean allMemorySegmentsValid(List<MemorySegment> memSegs)
 	{
 		for (MemorySegment seg : memSegs) {
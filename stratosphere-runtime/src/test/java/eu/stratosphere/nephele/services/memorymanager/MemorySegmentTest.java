@@ -18,6 +18,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Random;
 
 import junit.framework.Assert;
@@ -25,10 +28,14 @@ import junit.framework.Assert;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 
 import eu.stratosphere.core.memory.MemorySegment;
 import eu.stratosphere.nephele.services.memorymanager.spi.DefaultMemoryManager;
 
+@RunWith(Parameterized.class)
 public class MemorySegmentTest {
 	
 	public static final long RANDOM_SEED = 643196033469871L;
@@ -42,13 +49,25 @@ public class MemorySegmentTest {
 	private MemorySegment segment;
 
 	private Random random;
+	
+	private final boolean offHeap;
+	
+	public MemorySegmentTest(boolean offHeap) {
+		this.offHeap = offHeap;
+	}
+	
+	@Parameters
+	public static Collection<Object[]> getMemoryKinds() {
+		return Arrays.asList(new Object[][] { { false }, { true } });
+	}
 
 	@Before
 	public void setUp() throws Exception{
 		try {
-			this.manager = new DefaultMemoryManager(MANAGED_MEMORY_SIZE, PAGE_SIZE);
+			this.manager = new DefaultMemoryManager(MANAGED_MEMORY_SIZE, PAGE_SIZE, this.offHeap);
 			this.segment = manager.allocatePages(new DefaultMemoryManagerTest.DummyInvokable(), 1).get(0);
 			this.random = new Random(RANDOM_SEED);
+			assertEquals(this.offHeap, this.segment.isOffHeap());
 		} catch (Exception e) {
 			e.printStackTrace();
 			fail("Test setup failed.");
@@ -540,4 +559,39 @@ public class MemorySegmentTest {
 			}
 		}
 	}
+	
+	@Test
+	public void copyBetweenMemoryKinds() {
+		final MemorySegment heap = new MemorySegment(new byte[PAGE_SIZE]);
+		final MemorySegment offHeap = new MemorySegment(ByteBuffer.allocateDirect(PAGE_SIZE));
+		final byte[] expected = new byte[PAGE_SIZE];
+		final byte[] actual = new byte[PAGE_SIZE];
+		random.nextBytes(expected);
+		
+		// copy through segments of both kinds and back
+		segment.put(0, expected);
+		segment.copyTo(0, heap, 0, PAGE_SIZE);
+		heap.copyTo(0, offHeap, 0, PAGE_SIZE);
+		offHeap.copyTo(0, segment, 0, PAGE_SIZE);
+		segment.get(0, actual);
+		assertArrayEquals(expected, actual);
+		
+		assertEquals(0, MemorySegment.compare(segment, offHeap, 0, 0, PAGE_SIZE));
+		assertEquals(0, MemorySegment.compare(heap, segment, 0, 0, PAGE_SIZE));
+		
+		// swap two different ranges
+		segment.put(0, (byte) 1);
+		offHeap.put(0, (byte) 2);
+		MemorySegment.swapBytes(segment, offHeap, new byte[16], 0, 0, 16);
+		assertEquals(2, segment.get(0));
+		assertEquals(1, offHeap.get(0));
+		assertTrue(MemorySegment.compare(segment, offHeap, 0, 0, PAGE_SIZE) > 0);
+		
+		try {
+			segment.copyTo(1, offHeap, 0, PAGE_SIZE);
+			fail("IndexOutOfBoundsException expected");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
 }
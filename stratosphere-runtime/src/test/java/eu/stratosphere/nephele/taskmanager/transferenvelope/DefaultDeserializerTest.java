@@ -16,6 +16,7 @@ package eu.stratosphere.nephele.taskmanager.transferenvelope;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
@@ -178,6 +179,35 @@ public class DefaultDeserializerTest {
 		}
 	}
 
+	/**
+	 * A {@link CompressionStatisticsLookup} which compresses the buffers of all channels and keeps a single set of
+	 * statistics for each direction.
+	 */
+	private static final class TestCompressionStatisticsLookup implements CompressionStatisticsLookup {
+
+		private final CompressionStatistics compressionStatistics = new CompressionStatistics();
+
+		private final CompressionStatistics decompressionStatistics = new CompressionStatistics();
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CompressionStatistics getCompressionStatistics(final ChannelID sourceChannelID) {
+
+			return this.compressionStatistics;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CompressionStatistics getDecompressionStatistics(final ChannelID sourceChannelID) {
+
+			return this.decompressionStatistics;
+		}
+	}
+
 	/**
 	 * Constructs an {@link InterruptibleByteChannel} from which the deserializer to be tested can read its data.
 	 * 
@@ -192,6 +222,25 @@ public class DefaultDeserializerTest {
 	private ReadableByteChannel createByteChannel(final int[] readInterruptPositions, final int testBufferSize)
 			throws IOException {
 
+		return createByteChannel(readInterruptPositions, testBufferSize, null);
+	}
+
+	/**
+	 * Constructs an {@link InterruptibleByteChannel} from which the deserializer to be tested can read its data.
+	 * 
+	 * @param readInterruptPositions
+	 *        the positions after which the byte stream shall be interrupted
+	 * @param testBufferSize
+	 *        the size of the test buffer to create
+	 * @param compressionStatisticsLookup
+	 *        the lookup deciding whether the buffer is compressed, may be <code>null</code>
+	 * @return an {@link InterruptibleByteChannel} holding the serialized data in memory
+	 * @throws IOException
+	 *         thrown if an error occurs while serializing the original data
+	 */
+	private ReadableByteChannel createByteChannel(final int[] readInterruptPositions, final int testBufferSize,
+			final CompressionStatisticsLookup compressionStatisticsLookup) throws IOException {
+
 		final TransferEnvelope te = new TransferEnvelope(SEQUENCE_NUMBER, JOB_ID, CHANNEL_ID);
 
 		if (testBufferSize >= 0) {
@@ -207,7 +256,7 @@ public class DefaultDeserializerTest {
 
 			final ByteBuffer srcBuffer = ByteBuffer.allocate(testBufferSize);
 			for (int i = 0; i < testBufferSize; ++i) {
-				srcBuffer.put((byte) i);
+				srcBuffer.put((byte) (i % 10));
 			}
 			srcBuffer.flip();
 
@@ -216,7 +265,7 @@ public class DefaultDeserializerTest {
 			te.setBuffer(buffer);
 		}
 
-		final DefaultSerializer ds = new DefaultSerializer();
+		final DefaultSerializer ds = new DefaultSerializer(compressionStatisticsLookup);
 		ds.setTransferEnvelope(te);
 
 		final InterruptibleByteChannel ibc = new InterruptibleByteChannel(null, readInterruptPositions);
@@ -245,7 +294,28 @@ public class DefaultDeserializerTest {
 	private TransferEnvelope executeDeserialization(final ReadableByteChannel rbc, final BufferProviderBroker bpb)
 			throws IOException, NoBufferAvailableException {
 
-		final DefaultDeserializer dd = new DefaultDeserializer(bpb);
+		return executeDeserialization(rbc, bpb, null);
+	}
+
+	/**
+	 * Executes the deserialization method.
+	 * 
+	 * @param rbc
+	 *        the byte channel to read the serialized data from
+	 * @param bpb
+	 *        the buffer provider broker to request empty buffers from
+	 * @param csl
+	 *        the lookup for the decompression statistics, may be <code>null</code>
+	 * @return the deserialized transfer envelope
+	 * @throws IOException
+	 *         thrown if an error occurs during the deserialization process
+	 * @throws NoBufferAvailableException
+	 *         thrown if the buffer provider broker could not provide an empty buffer
+	 */
+	private TransferEnvelope executeDeserialization(final ReadableByteChannel rbc, final BufferProviderBroker bpb,
+			final CompressionStatisticsLookup csl) throws IOException, NoBufferAvailableException {
+
+		final DefaultDeserializer dd = new DefaultDeserializer(bpb, csl);
 
 		TransferEnvelope te = dd.getFullyDeserializedTransferEnvelope();
 		while (te == null) {
@@ -335,6 +405,51 @@ public class DefaultDeserializerTest {
 		}
 	}
 
+	/**
+	 * Tests the deserialization process of a {@link TransferEnvelope} whose buffer has been compressed by the
+	 * serializer, with and without interruptions of the byte stream.
+	 */
+	@Test
+	public void testDeserializationWithCompressedBuffer() {
+
+		try {
+
+			final int[][] interruptPositions = { null, { 3, 7, 24, 41, 45, 50, 52 } };
+
+			for (final int[] positions : interruptPositions) {
+
+				final TestCompressionStatisticsLookup csl = new TestCompressionStatisticsLookup();
+
+				final ReadableByteChannel rbc = createByteChannel(positions, 100, csl);
+
+				final TestBufferProviderBroker tbpb = new TestBufferProviderBroker(new TestBufferProvider(1));
+
+				final TransferEnvelope te = executeDeserialization(rbc, tbpb, csl);
+
+				final Buffer buffer = te.getBuffer();
+				assertNotNull(buffer);
+				assertEquals(100, buffer.size());
+
+				final ByteBuffer data = ByteBuffer.allocate(100);
+				buffer.read(data);
+				for (int i = 0; i < 100; ++i) {
+					assertEquals((byte) (i % 10), data.get(i));
+				}
+
+				assertEquals(1, csl.compressionStatistics.getNumberOfBuffers());
+				assertTrue(csl.compressionStatistics.getCompressedBytes() < 100);
+				assertEquals(1, csl.decompressionStatistics.getNumberOfBuffers());
+				assertEquals(csl.compressionStatistics.getCompressedBytes(),
+					csl.decompressionStatistics.getCompressedBytes());
+			}
+
+		} catch (IOException ioe) {
+			fail(StringUtils.stringifyException(ioe));
+		} catch (NoBufferAvailableException nbae) {
+			fail(StringUtils.stringifyException(nbae));
+		}
+	}
+
 	/**
 	 * Tests the deserialization process in case the buffer provide cannot deliver an empty buffer to read the byte
 	 * stream into.
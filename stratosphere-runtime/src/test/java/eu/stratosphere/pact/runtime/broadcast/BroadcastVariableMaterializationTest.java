@@ -0,0 +1,163 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.pact.runtime.broadcast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import eu.stratosphere.nephele.jobgraph.JobID;
+import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordSerializer;
+import eu.stratosphere.types.IntValue;
+import eu.stratosphere.types.Record;
+import eu.stratosphere.types.StringValue;
+import eu.stratosphere.util.MutableObjectIterator;
+
+public class BroadcastVariableMaterializationTest
+{
+	private static final int NUM_RECORDS = 100000;
+	
+	private static final int NUM_SUBTASKS = 8;
+	
+	@Test
+	public void testSharedMaterialization() throws Exception
+	{
+		final BroadcastVariableKey key = new BroadcastVariableKey(new JobID(), "vertex.0", 1);
+		final AtomicInteger numMaterialized = new AtomicInteger();
+		final Throwable[] errors = new Throwable[NUM_SUBTASKS];
+		
+		final Thread[] subtasks = new Thread[NUM_SUBTASKS];
+		for (int i = 0; i < NUM_SUBTASKS; i++) {
+			final int subtask = i;
+			subtasks[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						final BroadcastVariableMaterialization<Record> variable = 
+								BroadcastVariableManager.acquireBroadcastVariable(key);
+						try {
+							if (variable.materializeVariable(new RecordGenerator(NUM_RECORDS), RecordSerializer.get())) {
+								numMaterialized.incrementAndGet();
+							}
+							
+							// iterate the variable twice, to check that every iterator starts over
+							final Collection<Record> records = variable.getVariable(RecordSerializer.get());
+							assertEquals(NUM_RECORDS, records.size());
+							checkRecords(records);
+							checkRecords(records);
+						} finally {
+							BroadcastVariableManager.releaseBroadcastVariable(variable);
+						}
+					}
+					catch (Throwable t) {
+						errors[subtask] = t;
+					}
+				}
+			};
+			subtasks[i].start();
+		}
+		
+		for (int i = 0; i < NUM_SUBTASKS; i++) {
+			subtasks[i].join();
+			if (errors[i] != null) {
+				errors[i].printStackTrace();
+				fail("Subtask " + i + " failed: " + errors[i].getMessage());
+			}
+		}
+		
+		assertTrue(numMaterialized.get() >= 1);
+		assertEquals("Not all broadcast variables were released.", 0, BroadcastVariableManager.getNumberOfVariables());
+	}
+	
+	@Test
+	public void testFailedMaterialization() throws Exception
+	{
+		final BroadcastVariableKey key = new BroadcastVariableKey(new JobID(), "vertex.0", 1);
+		final BroadcastVariableMaterialization<Record> first = BroadcastVariableManager.acquireBroadcastVariable(key);
+		final BroadcastVariableMaterialization<Record> second = BroadcastVariableManager.acquireBroadcastVariable(key);
+		assertTrue(first == second);
+		
+		try {
+			first.materializeVariable(new MutableObjectIterator<Record>() {
+				@Override
+				public boolean next(Record target) throws IOException {
+					throw new IOException("Test exception");
+				}
+			}, RecordSerializer.get());
+			fail("The exception of the input should have been forwarded.");
+		}
+		catch (IOException ioex) {
+			// expected
+		}
+		
+		assertFalse(second.materializeVariable(new RecordGenerator(10), RecordSerializer.get()));
+		try {
+			second.getVariable(RecordSerializer.get());
+			fail("Accessing a variable whose materialization failed should fail.");
+		}
+		catch (IOException ioex) {
+			// expected
+		}
+		
+		BroadcastVariableManager.releaseBroadcastVariable(first);
+		assertEquals(1, BroadcastVariableManager.getNumberOfVariables());
+		BroadcastVariableManager.releaseBroadcastVariable(second);
+		assertEquals(0, BroadcastVariableManager.getNumberOfVariables());
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private static void checkRecords(Collection<Record> records) {
+		final Iterator<Record> iter = records.iterator();
+		for (int i = 0; i < NUM_RECORDS; i++) {
+			assertTrue(iter.hasNext());
+			final Record rec = iter.next();
+			assertEquals(i, rec.getField(0, IntValue.class).getValue());
+			assertEquals("value-" + i, rec.getField(1, StringValue.class).getValue());
+		}
+		assertFalse(iter.hasNext());
+	}
+	
+	private static final class RecordGenerator implements MutableObjectIterator<Record>
+	{
+		private final int numRecords;
+		
+		private int count;
+		
+		RecordGenerator(int numRecords) {
+			this.numRecords = numRecords;
+		}
+		
+		@Override
+		public boolean next(Record target) {
+			if (this.count < this.numRecords) {
+				target.setField(0, new IntValue(this.count));
+				target.setField(1, new StringValue("value-" + this.count));
+				this.count++;
+				return true;
+			} else {
+				return false;
+			}
+		}
+	}
+}
@@ -0,0 +1,469 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+
+package eu.stratosphere.pact.runtime.hash;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.stratosphere.api.common.typeutils.TypeComparator;
+import eu.stratosphere.api.common.typeutils.TypePairComparator;
+import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.core.memory.MemorySegment;
+import eu.stratosphere.nephele.services.iomanager.IOManager;
+import eu.stratosphere.nephele.services.memorymanager.MemoryManager;
+import eu.stratosphere.nephele.services.memorymanager.spi.DefaultMemoryManager;
+import eu.stratosphere.nephele.template.AbstractInvokable;
+import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordComparator;
+import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordPairComparator;
+import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordSerializer;
+import eu.stratosphere.pact.runtime.test.util.DummyInvokable;
+import eu.stratosphere.types.IntValue;
+import eu.stratosphere.types.Key;
+import eu.stratosphere.types.Record;
+import eu.stratosphere.types.StringValue;
+import eu.stratosphere.util.Collector;
+import eu.stratosphere.util.MutableObjectIterator;
+
+public class CompactingHashTableTest {
+	
+	private static final AbstractInvokable MEM_OWNER = new DummyInvokable();
+	
+	private static final int PAGE_SIZE = 4 * 1024;
+	
+	private MemoryManager memManager;
+	
+	private IOManager ioManager;
+	
+	private TypeSerializer<Record> serializer;
+	
+	private TypeComparator<Record> buildSideComparator;
+	
+	private TypeComparator<Record> probeSideComparator;
+	
+	private TypePairComparator<Record, Record> pairComparator;
+	
+	@Before
+	public void setup() {
+		final int[] keyPos = new int[] {0};
+		@SuppressWarnings("unchecked")
+		final Class<? extends Key>[] keyType = (Class<? extends Key>[]) new Class[] { IntValue.class };
+		
+		this.serializer = RecordSerializer.get();
+		this.buildSideComparator = new RecordComparator(keyPos, keyType);
+		this.probeSideComparator = new RecordComparator(keyPos, keyType);
+		this.pairComparator = new RecordPairComparator(keyPos, keyPos, keyType);
+		
+		this.memManager = new DefaultMemoryManager(4 * 1024 * 1024, PAGE_SIZE);
+		this.ioManager = new IOManager();
+	}
+	
+	@After
+	public void tearDown() {
+		this.ioManager.shutdown();
+		if (!this.ioManager.isProperlyShutDown()) {
+			fail("I/O manager was not property shut down.");
+		}
+		if (!this.memManager.verifyEmpty()) {
+			fail("Not all memory was properly released to the memory manager --> Memory Leak.");
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	@Test
+	public void testBuildAndProbe() throws Exception {
+		final int numKeys = 10000;
+		
+		final List<MemorySegment> memory = this.memManager.allocatePages(MEM_OWNER, 256);
+		final CompactingHashTable<Record, Record> table = createTable(memory);
+		
+		table.open(new RecordIterator(numKeys, 0));
+		assertEquals(numKeys, table.size());
+		
+		final Record probe = new Record(new IntValue(), new StringValue());
+		final Record target = new Record();
+		for (int i = 0; i < numKeys; i++) {
+			probe.setField(0, new IntValue(i));
+			assertTrue("Key " + i + " not found.", table.getMatchFor(probe, target));
+			assertEquals(i, target.getField(0, IntValue.class).getValue());
+			assertEquals(getValue(i, 0), target.getField(1, StringValue.class).getValue());
+		}
+		
+		probe.setField(0, new IntValue(numKeys));
+		assertFalse(table.getMatchFor(probe, target));
+		
+		table.close();
+		this.memManager.release(table.getFreedMemory());
+	}
+	
+	@Test
+	public void testVariableLengthUpdatesWithCompaction() throws Exception {
+		final int numKeys = 2000;
+		final int numRounds = 20;
+		
+		// the live records take about half of the memory, such that each round forces compactions
+		final List<MemorySegment> memory = this.memManager.allocatePages(MEM_OWNER, 64);
+		final CompactingHashTable<Record, Record> table = createTable(memory);
+		table.open(new RecordIterator(numKeys, 0));
+		
+		final Record probe = new Record(new IntValue(), new StringValue());
+		final Record target = new Record();
+		final Record update = new Record(new IntValue(), new StringValue());
+		
+		for (int round = 1; round <= numRounds; round++) {
+			for (int i = 0; i < numKeys; i++) {
+				probe.setField(0, new IntValue(i));
+				assertTrue("Key " + i + " not found in round " + round + ".", table.getMatchFor(probe, target));
+				assertEquals(getValue(i, round - 1), target.getField(1, StringValue.class).getValue());
+				
+				update.setField(0, new IntValue(i));
+				update.setField(1, new StringValue(getValue(i, round)));
+				table.updateMatch(update);
+			}
+		}
+		assertEquals(numKeys, table.size());
+		
+		// every key must be contained exactly once, with its last value
+		final boolean[] seen = new boolean[numKeys];
+		final MutableObjectIterator<Record> entries = table.getEntryIterator();
+		int count = 0;
+		while (entries.next(target)) {
+			final int key = target.getField(0, IntValue.class).getValue();
+			assertFalse("Key " + key + " found twice.", seen[key]);
+			seen[key] = true;
+			assertEquals(getValue(key, numRounds), target.getField(1, StringValue.class).getValue());
+			count++;
+		}
+		assertEquals(numKeys, count);
+		
+		table.close();
+		this.memManager.release(table.getFreedMemory());
+	}
+	
+	@Test
+	public void testInsertOrReplaceAndUpdateRecord() throws Exception {
+		final int numKeys = 1000;
+		
+		final List<MemorySegment> memory = this.memManager.allocatePages(MEM_OWNER, 128);
+		final CompactingHashTable<Record, Record> table = createTable(memory);
+		table.open(new RecordIterator(numKeys, 0));
+		
+		final Record record = new Record(new IntValue(), new StringValue());
+		for (int round = 1; round <= 10; round++) {
+			for (int i = 0; i < 2 * numKeys; i++) {
+				record.setField(0, new IntValue(i));
+				record.setField(1, new StringValue(getValue(i, round)));
+				assertEquals(i < numKeys, table.updateRecord(record));
+			}
+		}
+		assertEquals(numKeys, table.size());
+		
+		for (int i = 0; i < 2 * numKeys; i++) {
+			record.setField(0, new IntValue(i));
+			record.setField(1, new StringValue(getValue(i, 11)));
+			table.insertOrReplaceRecord(record);
+		}
+		assertEquals(2 * numKeys, table.size());
+		
+		final Record target = new Record();
+		for (int i = 0; i < 2 * numKeys; i++) {
+			record.setField(0, new IntValue(i));
+			assertTrue(table.getMatchFor(record, target));
+			assertEquals(getValue(i, 11), target.getField(1, StringValue.class).getValue());
+		}
+		
+		table.close();
+		this.memManager.release(table.getFreedMemory());
+	}
+	
+	@Test
+	public void testFailsIfRecordsDoNotFit() throws Exception {
+		final List<MemorySegment> memory = this.memManager.allocatePages(MEM_OWNER, 8);
+		final CompactingHashTable<Record, Record> table = createTable(memory);
+		
+		try {
+			table.open(new RecordIterator(10000, 0));
+			fail("The table should have run out of memory.");
+		}
+		catch (RuntimeException rex) {
+			// expected
+		}
+		finally {
+			table.close();
+			this.memManager.release(table.getFreedMemory());
+		}
+	}
+	
+	@Test
+	public void testSpillingWithDeferredProbesAndUpdates() throws Exception {
+		final int numKeys = 20000;
+		final int numRounds = 3;
+		
+		// the records take several times the memory, such that most partitions are spilled
+		final List<MemorySegment> memory = this.memManager.allocatePages(MEM_OWNER, 128);
+		final CompactingHashTable<Record, Record> table = new CompactingHashTable<Record, Record>(this.serializer,
+			this.serializer, this.buildSideComparator, this.probeSideComparator, this.pairComparator, memory, this.ioManager);
+		table.open(new RecordIterator(numKeys, 0));
+		assertTrue(table.getNumSpilledPartitions() > 0);
+		
+		final Record probe = new Record(new IntValue(), new StringValue());
+		final Record target = new Record();
+		final Record update = new Record(new IntValue(), new StringValue());
+		
+		for (int round = 1; round <= numRounds; round++) {
+			// probe and update like the solution set join, deferring the probes of spilled partitions
+			int numProbed = 0;
+			MutableObjectIterator<Record> probes = new RecordIterator(numKeys, round - 1);
+			do {
+				while (probes.next(probe)) {
+					if (table.isSpilled(probe)) {
+						table.deferProbe(probe);
+						continue;
+					}
+					
+					final int key = probe.getField(0, IntValue.class).getValue();
+					assertTrue("Key " + key + " not found in round " + round + ".", table.getMatchFor(probe, target));
+					assertEquals(getValue(key, round - 1), target.getField(1, StringValue.class).getValue());
+					
+					update.setField(0, new IntValue(key));
+					update.setField(1, new StringValue(getValue(key, round)));
+					table.updateMatch(update);
+					numProbed++;
+				}
+			} while ((probes = table.getNextDeferredProbes()) != null);
+			
+			assertEquals(numKeys, numProbed);
+		}
+		
+		// update without probing, like the re-probing update of a separate tail. the keys from numKeys on are
+		// not in the table and must never be reported as updated, whether their partition is spilled or not
+		final boolean[] updated = new boolean[numKeys];
+		final Collector<Record> updateCollector = new Collector<Record>() {
+			@Override
+			public void collect(Record record) {
+				final int key = record.getField(0, IntValue.class).getValue();
+				assertTrue("Absent key " + key + " reported as updated.", key < numKeys);
+				assertFalse("Key " + key + " reported as updated twice.", updated[key]);
+				assertEquals(getValue(key, numRounds + 1), record.getField(1, StringValue.class).getValue());
+				updated[key] = true;
+			}
+			
+			@Override
+			public void close() {}
+		};
+		
+		int numLogged = 0;
+		for (int i = 0; i < 2 * numKeys; i++) {
+			update.setField(0, new IntValue(i));
+			update.setField(1, new StringValue(getValue(i, numRounds + 1)));
+			if (table.isSpilled(update)) {
+				assertFalse(table.updateRecord(update));
+				numLogged++;
+			} else if (i < numKeys) {
+				assertTrue("Key " + i + " not found.", table.updateRecord(update));
+				assertFalse(updated[i]);
+				updated[i] = true;
+			} else {
+				assertFalse("Absent key " + i + " found.", table.updateRecord(update));
+			}
+		}
+		assertTrue(numLogged > 0);
+		
+		table.applyLoggedUpdates(updateCollector);
+		for (int i = 0; i < numKeys; i++) {
+			assertTrue("Key " + i + " not reported as updated.", updated[i]);
+		}
+		
+		final boolean[] seen = new boolean[numKeys];
+		final MutableObjectIterator<Record> entries = table.getEntryIterator();
+		int count = 0;
+		while (entries.next(target)) {
+			final int key = target.getField(0, IntValue.class).getValue();
+			assertFalse("Key " + key + " found twice.", seen[key]);
+			seen[key] = true;
+			assertEquals(getValue(key, numRounds + 1), target.getField(1, StringValue.class).getValue());
+			count++;
+		}
+		assertEquals(numKeys, count);
+		assertEquals(numKeys, table.size());
+		
+		table.close();
+		this.memManager.release(table.getFreedMemory());
+	}
+	
+	@Test
+	public void testConcurrentProbesAndUpdates() throws Exception {
+		final int numKeys = 20000;
+		final int numRounds = 5;
+		
+		final List<MemorySegment> memory = this.memManager.allocatePages(MEM_OWNER, 128);
+		final CompactingHashTable<Record, Record> table = new CompactingHashTable<Record, Record>(this.serializer,
+			this.serializer, this.buildSideComparator, this.probeSideComparator, this.pairComparator, memory, this.ioManager);
+		table.open(new RecordIterator(numKeys, 0));
+		assertTrue(table.getNumSpilledPartitions() > 0);
+		
+		for (int round = 1; round <= numRounds; round++) {
+			final int currentRound = round;
+			final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+			
+			// probe like the solution set join, while a separate tail updates the table
+			final Thread prober = new Thread() {
+				@Override
+				public void run() {
+					try {
+						final Record probe = new Record();
+						final Record target = new Record();
+						int numProbed = 0;
+						MutableObjectIterator<Record> probes = new RecordIterator(numKeys, 0);
+						do {
+							while (probes.next(probe)) {
+								final boolean found;
+								synchronized (table) {
+									if (table.isSpilled(probe)) {
+										table.deferProbe(probe);
+										continue;
+									}
+									found = table.getMatchFor(probe, target);
+								}
+								
+								final int key = probe.getField(0, IntValue.class).getValue();
+								assertTrue("Key " + key + " not found in round " + currentRound + ".", found);
+								assertEquals(key, target.getField(0, IntValue.class).getValue());
+								final String value = target.getField(1, StringValue.class).getValue();
+								assertTrue(value.equals(getValue(key, currentRound - 1)) || value.equals(getValue(key, currentRound)));
+								numProbed++;
+							}
+						} while ((probes = table.getNextDeferredProbes()) != null);
+						assertEquals(numKeys, numProbed);
+					}
+					catch (Throwable t) {
+						error.compareAndSet(null, t);
+					}
+				}
+			};
+			
+			final Thread updater = new Thread() {
+				@Override
+				public void run() {
+					try {
+						final boolean[] updated = new boolean[numKeys];
+						final Record update = new Record(new IntValue(), new StringValue());
+						for (int i = numKeys - 1; i >= 0; i--) {
+							update.setField(0, new IntValue(i));
+							update.setField(1, new StringValue(getValue(i, currentRound)));
+							if (table.updateRecord(update)) {
+								updated[i] = true;
+							}
+						}
+						
+						table.applyLoggedUpdates(new Collector<Record>() {
+							@Override
+							public void collect(Record record) {
+								final int key = record.getField(0, IntValue.class).getValue();
+								assertFalse("Key " + key + " reported as updated twice.", updated[key]);
+								updated[key] = true;
+							}
+							
+							@Override
+							public void close() {}
+						});
+						for (int i = 0; i < numKeys; i++) {
+							assertTrue("Key " + i + " not reported as updated.", updated[i]);
+						}
+					}
+					catch (Throwable t) {
+						error.compareAndSet(null, t);
+					}
+				}
+			};
+			
+			prober.start();
+			updater.start();
+			prober.join();
+			updater.join();
+			if (error.get() != null) {
+				throw new AssertionError(error.get());
+			}
+		}
+		
+		final Record target = new Record();
+		final MutableObjectIterator<Record> entries = table.getEntryIterator();
+		int count = 0;
+		while (entries.next(target)) {
+			final int key = target.getField(0, IntValue.class).getValue();
+			assertEquals(getValue(key, numRounds), target.getField(1, StringValue.class).getValue());
+			count++;
+		}
+		assertEquals(numKeys, count);
+		
+		table.close();
+		this.memManager.release(table.getFreedMemory());
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private CompactingHashTable<Record, Record> createTable(List<MemorySegment> memory) {
+		return new CompactingHashTable<Record, Record>(this.serializer, this.buildSideComparator,
+			this.probeSideComparator, this.pairComparator, memory);
+	}
+	
+	/**
+	 * Creates a value whose length varies with key and round, between 0 and 100 characters.
+	 */
+	private static String getValue(int key, int round) {
+		final int length = (key * 7 + round * 31) % 101;
+		final StringBuilder bld = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			bld.append((char) ('a' + (key + round + i) % 26));
+		}
+		return bld.toString();
+	}
+	
+	private static final class RecordIterator implements MutableObjectIterator<Record> {
+		
+		private final int numKeys;
+		
+		private final int round;
+		
+		private int key;
+		
+		RecordIterator(int numKeys, int round) {
+			this.numKeys = numKeys;
+			this.round = round;
+		}
+		
+		@Override
+		public boolean next(Record target) {
+			if (this.key < this.numKeys) {
+				target.setField(0, new IntValue(this.key));
+				target.setField(1, new StringValue(getValue(this.key, this.round)));
+				this.key++;
+				return true;
+			} else {
+				return false;
+			}
+		}
+	}
+}
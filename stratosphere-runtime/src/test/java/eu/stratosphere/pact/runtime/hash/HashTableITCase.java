@@ -675,6 +675,57 @@ public class HashTableITCase
 		this.memManager.release(join.getFreedMemory());
 	}
 	
+	/*
+	 * Spills build records, and probes with as many keys that have no join partner as keys that have one.
+	 * The probe records without partner are mostly dropped by the bloom filters of the spilled buckets,
+	 * which must not drop any record that has a partner.
+	 */
+	@Test
+	public void testSpillingHashJoinWithNonMatchingProbeRecords() throws IOException, MemoryAllocationException
+	{
+		final int NUM_BUILD_KEYS = 500000;
+		final int NUM_BUILD_VALS = 1;
+		final int NUM_PROBE_KEYS = 2 * NUM_BUILD_KEYS;
+		final int NUM_PROBE_VALS = 2;
+
+		MutableObjectIterator<Record> buildInput = new UniformRecordGenerator(
+				NUM_BUILD_KEYS, NUM_BUILD_VALS, false);
+
+		// allocate the memory for the HashTable
+		List<MemorySegment> memSegments;
+		try {
+			memSegments = this.memManager.allocatePages(MEM_OWNER, 128);
+		}
+		catch (MemoryAllocationException maex) {
+			fail("Memory for the Join could not be provided.");
+			return;
+		}
+
+		final MutableHashTable<Record, Record> join = new MutableHashTable<Record, Record>(
+				this.recordBuildSideAccesssor, this.recordProbeSideAccesssor, 
+				this.recordBuildSideComparator, this.recordProbeSideComparator, this.pactRecordComparator,
+				memSegments, ioManager);
+		join.open(buildInput, new UniformRecordGenerator(NUM_PROBE_KEYS, NUM_PROBE_VALS, true));
+
+		int expectedNumResults = (Math.min(NUM_PROBE_KEYS, NUM_BUILD_KEYS) * NUM_BUILD_VALS)
+				* NUM_PROBE_VALS;
+
+		final Record record = new Record();
+		int numRecordsInJoinResult = 0;
+		
+		while (join.nextRecord()) {
+			HashBucketIterator<Record, Record> buildSide = join.getBuildSideIterator();
+			while (buildSide.next(record)) {
+				numRecordsInJoinResult++;
+			}
+		}
+		Assert.assertEquals("Wrong number of records in join result.", expectedNumResults, numRecordsInJoinResult);
+
+		join.close();
+		
+		this.memManager.release(join.getFreedMemory());
+	}
+	
 	/*
 	 * This test validates a bug fix against former memory loss in the case where a partition was spilled
 	 * during an insert into the same.
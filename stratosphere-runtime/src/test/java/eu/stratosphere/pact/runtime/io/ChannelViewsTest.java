@@ -29,6 +29,7 @@ import eu.stratosphere.nephele.services.iomanager.Channel;
 import eu.stratosphere.nephele.services.iomanager.ChannelReaderInputView;
 import eu.stratosphere.nephele.services.iomanager.ChannelWriterOutputView;
 import eu.stratosphere.nephele.services.iomanager.IOManager;
+import eu.stratosphere.nephele.services.iomanager.ReadAheadPool;
 import eu.stratosphere.nephele.services.memorymanager.MemoryManager;
 import eu.stratosphere.nephele.services.memorymanager.spi.DefaultMemoryManager;
 import eu.stratosphere.nephele.template.AbstractTask;
@@ -361,4 +362,84 @@ public class ChannelViewsTest
 		this.memoryManager.release(inView.close());
 		reader.deleteChannel();
 	}
+	
+	@Test
+	public void testReadAheadPoolWithUnevenConsumption() throws Exception
+	{
+		final int numPairs = NUM_PAIRS_SHORT / 10;
+		final TestData.Generator fastGenerator = new TestData.Generator(SEED, KEY_MAX, VALUE_SHORT_LENGTH, KeyMode.RANDOM, ValueMode.RANDOM_LENGTH);
+		final TestData.Generator slowGenerator = new TestData.Generator(SEED + 1, KEY_MAX, VALUE_SHORT_LENGTH, KeyMode.RANDOM, ValueMode.RANDOM_LENGTH);
+		final Channel.ID fastChannel = this.ioManager.createChannel();
+		final Channel.ID slowChannel = this.ioManager.createChannel();
+		
+		// write both channels
+		final Record rec = new Record();
+		List<MemorySegment> memory = this.memoryManager.allocatePages(this.parentTask, NUM_MEMORY_SEGMENTS);
+		ChannelWriterOutputView outView = new ChannelWriterOutputView(this.ioManager.createBlockChannelWriter(fastChannel), memory, MEMORY_PAGE_SIZE);
+		for (int i = 0; i < numPairs; i++) {
+			fastGenerator.next(rec);
+			rec.write(outView);
+		}
+		memory = outView.close();
+		final int fastBlocks = outView.getBlockCount();
+		
+		outView = new ChannelWriterOutputView(this.ioManager.createBlockChannelWriter(slowChannel), memory, MEMORY_PAGE_SIZE);
+		for (int i = 0; i < numPairs; i++) {
+			slowGenerator.next(rec);
+			rec.write(outView);
+		}
+		this.memoryManager.release(outView.close());
+		final int slowBlocks = outView.getBlockCount();
+		
+		// create the reader input views that share their read-ahead buffers
+		final ReadAheadPool readAhead = new ReadAheadPool();
+		final List<MemorySegment> fastMemory = this.memoryManager.allocatePages(this.parentTask, 4);
+		final List<MemorySegment> slowMemory = this.memoryManager.allocatePages(this.parentTask, 4);
+		final BlockChannelReader fastReader = this.ioManager.createBlockChannelReader(fastChannel);
+		final BlockChannelReader slowReader = this.ioManager.createBlockChannelReader(slowChannel);
+		final ChannelReaderInputView fastView = new ChannelReaderInputView(fastReader, fastMemory, fastBlocks, readAhead, true);
+		final ChannelReaderInputView slowView = new ChannelReaderInputView(slowReader, slowMemory, slowBlocks, readAhead, true);
+		fastGenerator.reset();
+		slowGenerator.reset();
+		
+		// consume the first channel ten times as fast as the second one, then drain the second one
+		final Record readRec = new Record();
+		int slowRead = 0;
+		for (int i = 0; i < numPairs; i++) {
+			fastGenerator.next(rec);
+			readRec.read(fastView);
+			Assert.assertTrue("The re-generated and the read record do not match.", recordsEqual(rec, readRec));
+			
+			if (i % 10 == 0) {
+				slowGenerator.next(rec);
+				readRec.read(slowView);
+				Assert.assertTrue("The re-generated and the read record do not match.", recordsEqual(rec, readRec));
+				slowRead++;
+			}
+		}
+		try {
+			readRec.read(fastView);
+			Assert.fail("Expected an EOFException after all records were read.");
+		} catch (EOFException eofex) {}
+		
+		for (; slowRead < numPairs; slowRead++) {
+			slowGenerator.next(rec);
+			readRec.read(slowView);
+			Assert.assertTrue("The re-generated and the read record do not match.", recordsEqual(rec, readRec));
+		}
+		
+		// the views return the segments they still hold, the others are with the pool
+		final int numReturned = fastView.close().size() + slowView.close().size() + readAhead.getNumSpareSegments();
+		Assert.assertEquals("Segments of the read-ahead pool were lost.", 8, numReturned);
+		
+		this.memoryManager.release(fastMemory);
+		this.memoryManager.release(slowMemory);
+		fastReader.deleteChannel();
+		slowReader.deleteChannel();
+	}
+	
+	private static boolean recordsEqual(Record rec1, Record rec2) {
+		return rec1.getField(0, Key.class).equals(rec2.getField(0, Key.class)) &&
+				rec1.getField(1, Value.class).equals(rec2.getField(1, Value.class));
+	}
 }
@@ -362,4 +362,49 @@ public class FixedLengthRecordSorterTest
 		// release the memory occupied by the buffers
 		this.memoryManager.release(sorter.dispose());
 	}
+	
+	@Test
+	public void testRadixSort() throws Exception {
+		final int NUM_RECORDS = 559273;
+		final int numSegments = MEMORY_SIZE / MEMORY_PAGE_SIZE;
+		final List<MemorySegment> memory = this.memoryManager.allocatePages(new DummyInvokable(), numSegments);
+		
+		FixedLengthRecordSorter<IntPair> sorter = newSortBuffer(memory);
+		Assert.assertTrue("The radix sort requires fully determining normalized keys.",
+			sorter.isNormalizedKeyFullyDetermining());
+		
+		RandomIntPairGenerator generator = new RandomIntPairGenerator(SEED);
+		
+		// write the records
+		IntPair record = new IntPair();
+		int num = -1;
+		do {
+			generator.next(record);
+			num++;
+		}
+		while (sorter.write(record) && num < NUM_RECORDS);
+		
+		RadixSort rs = new RadixSort();
+		rs.sort(sorter);
+		
+		MutableObjectIterator<IntPair> iter = sorter.getIterator();
+		IntPair readTarget = new IntPair();
+		
+		iter.next(readTarget);
+		int last = readTarget.getKey();
+		int count = 1;
+		
+		while (iter.next(readTarget)) {
+			final int current = readTarget.getKey();
+			if (last > current)
+				Assert.fail("Next key is not larger or equal to previous key.");
+			
+			last = current;
+			count++;
+		}
+		Assert.assertEquals("Wrong number of records after sorting.", sorter.size(), count);
+		
+		// release the memory occupied by the buffers
+		this.memoryManager.release(sorter.dispose());
+	}
 }
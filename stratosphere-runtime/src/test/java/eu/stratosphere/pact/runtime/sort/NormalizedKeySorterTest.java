@@ -21,6 +21,10 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import eu.stratosphere.api.java.typeutils.PojoTypeInfo;
+import eu.stratosphere.api.java.typeutils.TypeExtractor;
+import eu.stratosphere.api.java.typeutils.runtime.ReferenceWrappedComparator;
+import eu.stratosphere.api.java.typeutils.runtime.ReferenceWrappedSerializer;
 import eu.stratosphere.core.memory.MemorySegment;
 import eu.stratosphere.nephele.services.memorymanager.spi.DefaultMemoryManager;
 import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordComparator;
@@ -33,6 +37,7 @@ import eu.stratosphere.pact.runtime.test.util.TestData.Key;
 import eu.stratosphere.pact.runtime.test.util.TestData.Value;
 import eu.stratosphere.types.Record;
 import eu.stratosphere.util.MutableObjectIterator;
+import eu.stratosphere.util.Reference;
 
 /**
  */
@@ -455,4 +460,193 @@ public class NormalizedKeySorterTest
 		// release the memory occupied by the buffers
 		this.memoryManager.release(sorter.dispose());
 	}
+	
+	@Test
+	public void testParallelSort() throws Exception
+	{
+		final int NUM_RECORDS = 559273;
+		
+		final int numSegments = MEMORY_SIZE / MEMORY_PAGE_SIZE;
+		final List<MemorySegment> memory = this.memoryManager.allocatePages(new DummyInvokable(), numSegments);
+		
+		NormalizedKeySorter<Record> sorter = newSortBuffer(memory);
+		TestData.Generator generator = new TestData.Generator(SEED, KEY_MAX, VALUE_LENGTH, KeyMode.RANDOM,
+			ValueMode.RANDOM_LENGTH);
+		
+		// write the records
+		Record record = new Record();
+		int num = 0;
+		do {
+			generator.next(record);
+			num++;
+		}
+		while (sorter.write(record) && num < NUM_RECORDS);
+		
+		ParallelSorter ps = new ParallelSorter(4);
+		ps.sort(sorter);
+		
+		MutableObjectIterator<Record> iter = sorter.getIterator();
+		Record readTarget = new Record();
+		
+		Key current = new Key();
+		Key last = new Key();
+		
+		iter.next(readTarget);
+		readTarget.getFieldInto(0, last);
+		
+		int count = 1;
+		while (iter.next(readTarget)) {
+			readTarget.getFieldInto(0, current);
+			count++;
+			
+			final int cmp = last.compareTo(current);
+			if (cmp > 0)
+				Assert.fail("Next key is not larger or equal to previous key.");
+			
+			Key tmp = current;
+			current = last;
+			last = tmp;
+		}
+		Assert.assertEquals("Wrong number of records after sorting.", sorter.size(), count);
+		
+		// release the memory occupied by the buffers
+		this.memoryManager.release(sorter.dispose());
+	}
+	
+	@Test
+	public void testParallelSortLongStringKeys() throws Exception
+	{
+		final int numSegments = MEMORY_SIZE / MEMORY_PAGE_SIZE;
+		final List<MemorySegment> memory = this.memoryManager.allocatePages(new DummyInvokable(), numSegments);
+		
+		@SuppressWarnings("unchecked")
+		RecordComparator accessors = new RecordComparator(new int[] {1}, new Class[]{Value.class});
+		NormalizedKeySorter<Record> sorter = new NormalizedKeySorter<Record>(RecordSerializer.get(), accessors, memory);
+		
+		TestData.Generator generator = new TestData.Generator(SEED2, KEY_MAX, VALUE_LENGTH, KeyMode.RANDOM,
+			ValueMode.FIX_LENGTH);
+		
+		// write the records
+		Record record = new Record();
+		do {
+			generator.next(record);
+		}
+		while (sorter.write(record));
+		
+		ParallelSorter ps = new ParallelSorter(4);
+		ps.sort(sorter);
+		
+		MutableObjectIterator<Record> iter = sorter.getIterator();
+		Record readTarget = new Record();
+		
+		Value current = new Value();
+		Value last = new Value();
+		
+		iter.next(readTarget);
+		readTarget.getFieldInto(1, last);
+		
+		while (iter.next(readTarget)) {
+			readTarget.getFieldInto(1, current);
+			
+			final int cmp = last.compareTo(current);
+			if (cmp > 0)
+				Assert.fail("Next value is not larger or equal to previous value.");
+			
+			Value tmp = current;
+			current = last;
+			last = tmp;
+		}
+		
+		// release the memory occupied by the buffers
+		this.memoryManager.release(sorter.dispose());
+	}
+	
+	@Test
+	public void testSortPojos() throws Exception {
+		sortPojos(new boolean[] {true, true}, new QuickSort());
+	}
+	
+	@Test
+	public void testSortPojosMixedOrder() throws Exception {
+		// the second key does not agree with the first on the direction, so it is not part of the normalized key
+		sortPojos(new boolean[] {false, true}, new QuickSort());
+	}
+	
+	@Test
+	public void testParallelSortPojos() throws Exception {
+		// the threads compare through duplicates of the comparator, which must not share the serializer
+		sortPojos(new boolean[] {true, true}, new ParallelSorter(4));
+	}
+	
+	/**
+	 * Sorts POJOs on the keys age and name. The ages repeat and the names share a long prefix, such that
+	 * many comparisons are not decided by the normalized keys and the serialized records are compared.
+	 */
+	private void sortPojos(boolean[] orders, IndexedSorter sortAlgorithm) throws Exception {
+		final int numSegments = MEMORY_SIZE / MEMORY_PAGE_SIZE;
+		final List<MemorySegment> memory = this.memoryManager.allocatePages(new DummyInvokable(), numSegments);
+		
+		final PojoTypeInfo<Person> type = TypeExtractor.analyzePojo(Person.class);
+		final ReferenceWrappedComparator<Person> comparator = new ReferenceWrappedComparator<Person>(
+			type.createComparator(new int[] {0, 1}, orders));
+		final NormalizedKeySorter<Reference<Person>> sorter = new NormalizedKeySorter<Reference<Person>>(
+			new ReferenceWrappedSerializer<Person>(type.createSerializer()), comparator.duplicate(), memory);
+		
+		final Random rnd = new Random(SEED);
+		final Reference<Person> record = new Reference<Person>(new Person());
+		int num = 0;
+		do {
+			record.ref.age = rnd.nextInt(50);
+			record.ref.name = "a name that is longer than the normalized key " + rnd.nextInt(1000);
+			record.ref.payload = String.valueOf(num);
+			num++;
+		}
+		while (sorter.write(record) && num < 200000);
+		final int numWritten = sorter.size();
+		Assert.assertTrue(numWritten > 1 << 16);
+		
+		sortAlgorithm.sort(sorter);
+		
+		final MutableObjectIterator<Reference<Person>> iter = sorter.getIterator();
+		Reference<Person> last = new Reference<Person>(new Person());
+		Reference<Person> current = new Reference<Person>(new Person());
+		final boolean[] seen = new boolean[numWritten];
+		int numRead = 0;
+		
+		while (iter.next(current)) {
+			final int id = Integer.parseInt(current.ref.payload);
+			Assert.assertFalse("Record " + id + " returned twice.", seen[id]);
+			seen[id] = true;
+			
+			if (numRead > 0) {
+				int cmp = last.ref.age == current.ref.age ? 0 : (last.ref.age < current.ref.age ? -1 : 1);
+				cmp = orders[0] ? cmp : -cmp;
+				if (cmp == 0) {
+					cmp = last.ref.name.compareTo(current.ref.name);
+					cmp = orders[1] ? cmp : -cmp;
+				}
+				if (cmp > 0) {
+					Assert.fail("Next POJO is not larger or equal to previous POJO.");
+				}
+			}
+			numRead++;
+			
+			Reference<Person> tmp = current;
+			current = last;
+			last = tmp;
+		}
+		Assert.assertEquals(numWritten, numRead);
+		
+		// release the memory occupied by the buffers
+		this.memoryManager.release(sorter.dispose());
+	}
+	
+	public static class Person {
+		
+		public int age;
+		
+		public String name;
+		
+		public String payload;
+	}
 }
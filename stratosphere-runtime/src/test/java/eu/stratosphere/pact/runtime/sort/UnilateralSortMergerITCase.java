@@ -25,6 +25,9 @@ import org.junit.Test;
 
 import eu.stratosphere.api.common.typeutils.TypeComparator;
 import eu.stratosphere.api.common.typeutils.TypeSerializer;
+import eu.stratosphere.configuration.ConfigConstants;
+import eu.stratosphere.configuration.Configuration;
+import eu.stratosphere.configuration.GlobalConfiguration;
 import eu.stratosphere.nephele.services.iomanager.IOManager;
 import eu.stratosphere.nephele.services.memorymanager.MemoryManager;
 import eu.stratosphere.nephele.services.memorymanager.spi.DefaultMemoryManager;
@@ -146,6 +149,51 @@ public class UnilateralSortMergerITCase {
 		merger.close();
 	}
 	
+	@Test
+	public void testInMemorySortWithParallelSorting() throws Exception {
+		final Comparator<TestData.Key> keyComparator = new TestData.KeyComparator();
+		
+		final TestData.Generator generator = new TestData.Generator(SEED, KEY_MAX, VALUE_LENGTH, KeyMode.RANDOM, ValueMode.CONSTANT, VAL);
+		final MutableObjectIterator<Record> source = new TestData.GeneratorIterator(generator, NUM_PAIRS);
+		
+		// the parallelism is read when the sorter is created
+		setSortParallelism(4);
+		final Sorter<Record> merger;
+		try {
+			merger = new UnilateralSortMerger<Record>(this.memoryManager, this.ioManager, 
+				source, this.parentTask, this.pactRecordSerializer, this.pactRecordComparator,
+				64 * 1024 * 1024, 2, 0.9f);
+		}
+		finally {
+			setSortParallelism(ConfigConstants.DEFAULT_SORT_PARALLELISM);
+		}
+		
+		MutableObjectIterator<Record> iterator = merger.getIterator();
+		int pairsEmitted = 1;
+		
+		Record rec1 = new Record();
+		Record rec2 = new Record();
+		
+		Assert.assertTrue(iterator.next(rec1));
+		while (iterator.next(rec2)) {
+			final Key k1 = rec1.getField(0, TestData.Key.class);
+			final Key k2 = rec2.getField(0, TestData.Key.class);
+			pairsEmitted++;
+			
+			Assert.assertTrue(keyComparator.compare(k1, k2) <= 0); 
+			
+			Record tmp = rec1;
+			rec1 = rec2;
+			k1.setKey(k2.getKey());
+			
+			rec2 = tmp;
+		}
+		Assert.assertTrue(NUM_PAIRS == pairsEmitted);
+		Assert.assertTrue(ParallelSorter.getSharedPoolSize() > 0);
+		
+		merger.close();
+	}
+	
 	@Test
 	public void testInMemorySortUsing10Buffers() throws Exception {
 		// comparator
@@ -343,4 +391,12 @@ public class UnilateralSortMergerITCase {
 		Assert.assertEquals("Not all pairs were read back in.", PAIRS, pairsRead);
 		merger.close();
 	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	private static void setSortParallelism(int parallelism) {
+		Configuration config = new Configuration();
+		config.setInteger(ConfigConstants.SORT_PARALLELISM_KEY, parallelism);
+		GlobalConfiguration.includeConfiguration(config);
+	}
 }
@@ -0,0 +1,202 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.pact.runtime.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import eu.stratosphere.api.common.functions.GenericGroupReduce;
+import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordComparator;
+import eu.stratosphere.pact.runtime.task.CombineTaskTest.MockCombiningReduceStub;
+import eu.stratosphere.pact.runtime.test.util.DelayingInfinitiveInputIterator;
+import eu.stratosphere.pact.runtime.test.util.DiscardingOutputCollector;
+import eu.stratosphere.pact.runtime.test.util.DriverTestBase;
+import eu.stratosphere.pact.runtime.test.util.MutableObjectIteratorWrapper;
+import eu.stratosphere.pact.runtime.test.util.TaskCancelThread;
+import eu.stratosphere.pact.runtime.test.util.UniformRecordGenerator;
+import eu.stratosphere.types.IntValue;
+import eu.stratosphere.types.Key;
+import eu.stratosphere.types.Record;
+import eu.stratosphere.types.StringValue;
+
+public class HashDistinctDriverTest extends DriverTestBase<GenericGroupReduce<Record, ?>>
+{
+	private static final long DISTINCT_MEM = 12 * PAGE_SIZE;
+	
+	private final ArrayList<Record> outList = new ArrayList<Record>();
+	
+	@SuppressWarnings("unchecked")
+	private final RecordComparator comparator = new RecordComparator(
+		new int[]{0}, (Class<? extends Key>[])new Class[]{ IntValue.class });
+
+	public HashDistinctDriverTest() {
+		super(DISTINCT_MEM, 0);
+	}
+	
+	@Test
+	public void testDistinctInMemory() {
+		int keyCnt = 100;
+		int valCnt = 20;
+		
+		addInput(new UniformRecordGenerator(keyCnt, valCnt, false));
+		addInputComparator(this.comparator);
+		setOutput(this.outList);
+		
+		getTaskConfig().setDriverStrategy(DriverStrategy.HASH_DISTINCT);
+		getTaskConfig().setMemoryDriver(DISTINCT_MEM);
+		
+		try {
+			testDriver(new HashDistinctDriver<Record>(), MockCombiningReduceStub.class);
+		} catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail("Invoke method caused exception.");
+		}
+		
+		Assert.assertEquals("Wrong number of records.", keyCnt, this.outList.size());
+		assertDistinctKeys(keyCnt);
+		
+		this.outList.clear();
+	}
+	
+	@Test
+	public void testDistinctSpilling() {
+		// many more distinct keys than fit into the hash set
+		int keyCnt = 50000;
+		int valCnt = 3;
+		
+		addInput(new UniformRecordGenerator(keyCnt, valCnt, false));
+		addInputComparator(this.comparator);
+		setOutput(this.outList);
+		
+		getTaskConfig().setDriverStrategy(DriverStrategy.HASH_DISTINCT);
+		getTaskConfig().setMemoryDriver(DISTINCT_MEM);
+		
+		try {
+			testDriver(new HashDistinctDriver<Record>(), MockCombiningReduceStub.class);
+		} catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail("Invoke method caused exception.");
+		}
+		
+		Assert.assertEquals("Wrong number of records.", keyCnt, this.outList.size());
+		assertDistinctKeys(keyCnt);
+		
+		this.outList.clear();
+	}
+	
+	@Test
+	public void testPartialDistinct() {
+		int keyCnt = 50000;
+		int valCnt = 3;
+		
+		addInput(new UniformRecordGenerator(keyCnt, valCnt, true));
+		addInputComparator(this.comparator);
+		setOutput(this.outList);
+		
+		getTaskConfig().setDriverStrategy(DriverStrategy.HASH_PARTIAL_DISTINCT);
+		getTaskConfig().setMemoryDriver(DISTINCT_MEM);
+		
+		try {
+			testDriver(new HashDistinctDriver<Record>(), MockCombiningReduceStub.class);
+		} catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail("Invoke method caused exception.");
+		}
+		
+		// the keys of the input are clustered, so the partial elimination must find all duplicates
+		Assert.assertEquals("Wrong number of records.", keyCnt, this.outList.size());
+		assertDistinctKeys(keyCnt);
+		
+		this.outList.clear();
+	}
+	
+	@Test
+	public void testDistinctRecordTooLarge() {
+		// a single record that exceeds the memory of the hash set can never be deduplicated
+		final char[] chars = new char[(int) DISTINCT_MEM];
+		Arrays.fill(chars, 'x');
+		final Record record = new Record(new IntValue(1), new StringValue(new String(chars)));
+		
+		addInput(new MutableObjectIteratorWrapper(Collections.singletonList(record).iterator()));
+		addInputComparator(this.comparator);
+		setOutput(this.outList);
+		
+		getTaskConfig().setDriverStrategy(DriverStrategy.HASH_DISTINCT);
+		getTaskConfig().setMemoryDriver(DISTINCT_MEM);
+		
+		try {
+			testDriver(new HashDistinctDriver<Record>(), MockCombiningReduceStub.class);
+			Assert.fail("The driver did not fail on a record that does not fit into memory.");
+		} catch (Exception e) {
+			// expected
+		}
+		
+		this.outList.clear();
+	}
+	
+	@Test
+	public void testCancelDistinctTask() {
+		addInput(new DelayingInfinitiveInputIterator(100));
+		addInputComparator(this.comparator);
+		setOutput(new DiscardingOutputCollector());
+		
+		getTaskConfig().setDriverStrategy(DriverStrategy.HASH_DISTINCT);
+		getTaskConfig().setMemoryDriver(DISTINCT_MEM);
+		
+		final HashDistinctDriver<Record> testTask = new HashDistinctDriver<Record>();
+		
+		final AtomicBoolean success = new AtomicBoolean(false);
+		
+		Thread taskRunner = new Thread() {
+			@Override
+			public void run() {
+				try {
+					testDriver(testTask, MockCombiningReduceStub.class);
+					success.set(true);
+				} catch (Exception ie) {
+					ie.printStackTrace();
+				}
+			}
+		};
+		taskRunner.start();
+		
+		TaskCancelThread tct = new TaskCancelThread(1, taskRunner, this);
+		tct.start();
+		
+		try {
+			tct.join();
+			taskRunner.join();		
+		} catch(InterruptedException ie) {
+			Assert.fail("Joining threads failed");
+		}
+		
+		Assert.assertTrue("Exception was thrown despite proper canceling.", success.get());
+	}
+	
+	private void assertDistinctKeys(int keyCnt) {
+		final HashSet<Integer> keys = new HashSet<Integer>();
+		for (Record record : this.outList) {
+			int key = record.getField(0, IntValue.class).getValue();
+			Assert.assertTrue("Key out of range: " + key, key >= 0 && key < keyCnt);
+			Assert.assertTrue("Duplicate key: " + key, keys.add(key));
+		}
+	}
+}
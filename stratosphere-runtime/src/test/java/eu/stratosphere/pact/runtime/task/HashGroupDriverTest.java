@@ -0,0 +1,199 @@
+/***********************************************************************************************************************
+ * Copyright (C) 2010-2013 by the Stratosphere project (http://stratosphere.eu)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ **********************************************************************************************************************/
+
+package eu.stratosphere.pact.runtime.task;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import eu.stratosphere.api.common.functions.AbstractFunction;
+import eu.stratosphere.api.common.functions.GenericReduce;
+import eu.stratosphere.pact.runtime.plugable.pactrecord.RecordComparator;
+import eu.stratosphere.pact.runtime.test.util.DelayingInfinitiveInputIterator;
+import eu.stratosphere.pact.runtime.test.util.DiscardingOutputCollector;
+import eu.stratosphere.pact.runtime.test.util.DriverTestBase;
+import eu.stratosphere.pact.runtime.test.util.TaskCancelThread;
+import eu.stratosphere.pact.runtime.test.util.UniformRecordGenerator;
+import eu.stratosphere.types.IntValue;
+import eu.stratosphere.types.Key;
+import eu.stratosphere.types.Record;
+
+public class HashGroupDriverTest extends DriverTestBase<GenericReduce<Record>>
+{
+	private static final long GROUP_MEM = 12 * PAGE_SIZE;
+	
+	private final ArrayList<Record> outList = new ArrayList<Record>();
+	
+	@SuppressWarnings("unchecked")
+	private final RecordComparator comparator = new RecordComparator(
+		new int[]{0}, (Class<? extends Key>[])new Class[]{ IntValue.class });
+
+	public HashGroupDriverTest() {
+		super(GROUP_MEM, 0);
+	}
+	
+	@Test
+	public void testHashGroupInMemory() {
+		int keyCnt = 100;
+		int valCnt = 20;
+		
+		addInput(new UniformRecordGenerator(keyCnt, valCnt, false));
+		addInputComparator(this.comparator);
+		setOutput(this.outList);
+		
+		getTaskConfig().setDriverStrategy(DriverStrategy.HASH_GROUP);
+		getTaskConfig().setMemoryDriver(GROUP_MEM);
+		
+		try {
+			testDriver(new HashGroupDriver<Record>(), MockSumReducer.class);
+		} catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail("Invoke method caused exception.");
+		}
+		
+		Assert.assertEquals("Wrong number of records.", keyCnt, this.outList.size());
+		assertSums(keyCnt, valCnt);
+		
+		this.outList.clear();
+	}
+	
+	@Test
+	public void testHashGroupSpilling() {
+		// many more distinct keys than fit into the hash table
+		int keyCnt = 50000;
+		int valCnt = 4;
+		
+		addInput(new UniformRecordGenerator(keyCnt, valCnt, false));
+		addInputComparator(this.comparator);
+		setOutput(this.outList);
+		
+		getTaskConfig().setDriverStrategy(DriverStrategy.HASH_GROUP);
+		getTaskConfig().setMemoryDriver(GROUP_MEM);
+		
+		try {
+			testDriver(new HashGroupDriver<Record>(), MockSumReducer.class);
+		} catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail("Invoke method caused exception.");
+		}
+		
+		Assert.assertEquals("Wrong number of records.", keyCnt, this.outList.size());
+		assertSums(keyCnt, valCnt);
+		
+		this.outList.clear();
+	}
+	
+	@Test
+	public void testPartialHashGroup() {
+		int keyCnt = 50000;
+		int valCnt = 4;
+		
+		addInput(new UniformRecordGenerator(keyCnt, valCnt, true));
+		addInputComparator(this.comparator);
+		setOutput(this.outList);
+		
+		getTaskConfig().setDriverStrategy(DriverStrategy.HASH_PARTIAL_GROUP);
+		getTaskConfig().setMemoryDriver(GROUP_MEM);
+		
+		try {
+			testDriver(new HashGroupDriver<Record>(), MockSumReducer.class);
+		} catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail("Invoke method caused exception.");
+		}
+		
+		// the keys of the input are clustered, so the partial aggregation must find all groups
+		Assert.assertEquals("Wrong number of records.", keyCnt, this.outList.size());
+		assertSums(keyCnt, valCnt);
+		
+		this.outList.clear();
+	}
+	
+	@Test
+	public void testCancelHashGroupTask() {
+		addInput(new DelayingInfinitiveInputIterator(100));
+		addInputComparator(this.comparator);
+		setOutput(new DiscardingOutputCollector());
+		
+		getTaskConfig().setDriverStrategy(DriverStrategy.HASH_GROUP);
+		getTaskConfig().setMemoryDriver(GROUP_MEM);
+		
+		final HashGroupDriver<Record> testTask = new HashGroupDriver<Record>();
+		
+		final AtomicBoolean success = new AtomicBoolean(false);
+		
+		Thread taskRunner = new Thread() {
+			@Override
+			public void run() {
+				try {
+					testDriver(testTask, MockSumReducer.class);
+					success.set(true);
+				} catch (Exception ie) {
+					ie.printStackTrace();
+				}
+			}
+		};
+		taskRunner.start();
+		
+		TaskCancelThread tct = new TaskCancelThread(1, taskRunner, this);
+		tct.start();
+		
+		try {
+			tct.join();
+			taskRunner.join();		
+		} catch(InterruptedException ie) {
+			Assert.fail("Joining threads failed");
+		}
+		
+		Assert.assertTrue("Exception was thrown despite proper canceling.", success.get());
+	}
+	
+	private void assertSums(int keyCnt, int valCnt) {
+		int expSum = 0;
+		for (int i = 0; i < valCnt; i++) {
+			expSum += i;
+		}
+		
+		final HashSet<Integer> keys = new HashSet<Integer>();
+		for (Record record : this.outList) {
+			int key = record.getField(0, IntValue.class).getValue();
+			Assert.assertTrue("Key out of range: " + key, key >= 0 && key < keyCnt);
+			Assert.assertTrue("Duplicate key: " + key, keys.add(key));
+			Assert.assertEquals("Incorrect result", expSum, record.getField(1, IntValue.class).getValue());
+		}
+	}
+	
+	// --------------------------------------------------------------------------------------------
+	
+	public static final class MockSumReducer extends AbstractFunction implements GenericReduce<Record> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final IntValue value1 = new IntValue();
+		private final IntValue value2 = new IntValue();
+
+		@Override
+		public Record reduce(Record record1, Record record2) {
+			record1.getField(1, this.value1);
+			record2.getField(1, this.value2);
+			this.value1.setValue(this.value1.getValue() + this.value2.getValue());
+			record1.setField(1, this.value1);
+			return record1;
+		}
+	}
+}
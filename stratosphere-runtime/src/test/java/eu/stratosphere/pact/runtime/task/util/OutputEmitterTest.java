@@ -18,6 +18,10 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 import junit.framework.Assert;
 import junit.framework.TestCase;
@@ -41,7 +45,7 @@ import eu.stratosphere.types.StringValue;
 
 public class OutputEmitterTest extends TestCase {
 	
-//	private static final long SEED = 485213591485399L;
+	private static final long SEED = 485213591485399L;
 	
 	@Test
 	public void testPartitionHash() {
@@ -332,51 +336,141 @@ public class OutputEmitterTest extends TestCase {
 		Assert.fail("Expected a NullKeyFieldException.");
 	}
 	
-//	@Test
-//	public void testPartitionRange() {
-//		final Random rnd = new Random(SEED);
-//		
-//		final int DISTR_MIN = 0;
-//		final int DISTR_MAX = 1000000;
-//		final int DISTR_RANGE = DISTR_MAX - DISTR_MIN + 1;
-//		final int NUM_BUCKETS = 137;
-//		final float BUCKET_WIDTH = DISTR_RANGE / ((float) NUM_BUCKETS);
-//		
-//		final int NUM_ELEMENTS = 10000000;
-//		
-//		final DataDistribution distri = new UniformIntegerDistribution(DISTR_MIN, DISTR_MAX);
-//		
-//		@SuppressWarnings("unchecked")
-//		final TypeComparator<Record> intComp = new RecordComparatorFactory(new int[] {0}, new Class[] {IntValue.class}).createComparator();
-//		final ChannelSelector<SerializationDelegate<Record>> oe = new OutputEmitter<Record>(ShipStrategyType.PARTITION_RANGE, intComp, distri);
-//		final SerializationDelegate<Record> delegate = new SerializationDelegate<Record>(new RecordSerializerFactory().getSerializer());
-//		
-//		final IntValue integer = new IntValue();
-//		final Record rec = new Record();
-//		
-//		for (int i = 0; i < NUM_ELEMENTS; i++) {
-//			final int nextValue = rnd.nextInt(DISTR_RANGE) + DISTR_MIN;
-//			integer.setValue(nextValue);
-//			rec.setField(0, integer);
-//			delegate.setInstance(rec);
-//			
-//			final int[] channels = oe.selectChannels(delegate, NUM_BUCKETS);
-//			if (channels.length != 1) {
-//				Assert.fail("Resulting channels array has more than one channel.");
-//			}
-//			
-//			final int bucket = channels[0];
-//			final int shouldBeBucket = (int) ((nextValue - DISTR_MIN) / BUCKET_WIDTH);
-//			
-//			if (shouldBeBucket != bucket) {
-//				// we may have a rounding imprecision in the 'should be bucket' computation.
-//				final int lowerBoundaryForSelectedBucket = DISTR_MIN + (int) ((bucket    ) * BUCKET_WIDTH);
-//				final int upperBoundaryForSelectedBucket = DISTR_MIN + (int) ((bucket + 1) * BUCKET_WIDTH);
-//				if (nextValue <= lowerBoundaryForSelectedBucket || nextValue > upperBoundaryForSelectedBucket) {
-//					Assert.fail("Wrong bucket selected");
-//				}
-//			}
-//			
-//		}
-//	}
+	@Test
+	public void testPartitionRangeFromSample() {
+		final Random rnd = new Random(SEED);
+		
+		final int DISTR_MAX = 1000000;
+		final int NUM_BUCKETS = 137;
+		final int SAMPLE_SIZE = 10000;
+		final int NUM_ELEMENTS = 1000000;
+		
+		@SuppressWarnings("unchecked")
+		final TypeComparator<Record> intComp = new RecordComparatorFactory(new int[] {0}, new Class[] {IntValue.class}).createComparator();
+		final OutputEmitter<Record> oe = new OutputEmitter<Record>(ShipStrategyType.PARTITION_RANGE, intComp);
+		final SerializationDelegate<Record> delegate = new SerializationDelegate<Record>(new RecordSerializerFactory().getSerializer());
+		
+		final List<Record> sample = new ArrayList<Record>(SAMPLE_SIZE);
+		for (int i = 0; i < SAMPLE_SIZE; i++) {
+			sample.add(new Record(new IntValue(rnd.nextInt(DISTR_MAX))));
+		}
+		oe.setRangePartitionSample(sample);
+		
+		final int[] minPerBucket = new int[NUM_BUCKETS];
+		final int[] maxPerBucket = new int[NUM_BUCKETS];
+		final int[] hits = new int[NUM_BUCKETS];
+		Arrays.fill(minPerBucket, Integer.MAX_VALUE);
+		Arrays.fill(maxPerBucket, Integer.MIN_VALUE);
+		
+		final IntValue integer = new IntValue();
+		final Record rec = new Record();
+		
+		for (int i = 0; i < NUM_ELEMENTS; i++) {
+			final int nextValue = rnd.nextInt(DISTR_MAX);
+			integer.setValue(nextValue);
+			rec.setField(0, integer);
+			delegate.setInstance(rec);
+			
+			final int[] channels = oe.selectChannels(delegate, NUM_BUCKETS);
+			if (channels.length != 1) {
+				Assert.fail("Resulting channels array has more than one channel.");
+			}
+			
+			final int bucket = channels[0];
+			hits[bucket]++;
+			minPerBucket[bucket] = Math.min(minPerBucket[bucket], nextValue);
+			maxPerBucket[bucket] = Math.max(maxPerBucket[bucket], nextValue);
+		}
+		
+		// the buckets must hold disjoint, ascending ranges of roughly equal size
+		final int expectedPerBucket = NUM_ELEMENTS / NUM_BUCKETS;
+		int lastMax = Integer.MIN_VALUE;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			assertTrue("Bucket " + i + " received no elements.", hits[i] > 0);
+			assertTrue("Bucket " + i + " is heavily unbalanced.", hits[i] > expectedPerBucket / 2 && hits[i] < expectedPerBucket * 2);
+			assertTrue("Bucket ranges overlap.", minPerBucket[i] > lastMax);
+			lastMax = maxPerBucket[i];
+		}
+	}
+	
+	@Test
+	public void testPartitionHashSkewResilient() {
+		final Random rnd = new Random(SEED);
+		
+		final int NUM_CHANNELS = 16;
+		final int NUM_KEYS = 10000;
+		final int HEAVY_KEY = 42;
+		final int SAMPLE_SIZE = 1000;
+		final int NUM_ELEMENTS = 100000;
+		
+		@SuppressWarnings("unchecked")
+		final TypeComparator<Record> intComp = new RecordComparatorFactory(new int[] {0}, new Class[] {IntValue.class}).createComparator();
+		final OutputEmitter<Record> hashing = new OutputEmitter<Record>(ShipStrategyType.PARTITION_HASH, intComp);
+		final OutputEmitter<Record> split = new OutputEmitter<Record>(ShipStrategyType.PARTITION_HASH_SPLIT_HEAVY, intComp);
+		final OutputEmitter<Record> replicate = new OutputEmitter<Record>(ShipStrategyType.PARTITION_HASH_REPLICATE_HEAVY, intComp);
+		final SerializationDelegate<Record> delegate = new SerializationDelegate<Record>(new RecordSerializerFactory().getSerializer());
+		
+		// every third element has the heavy key, the others are uniformly distributed
+		final int[] sample = new int[SAMPLE_SIZE];
+		for (int i = 0; i < SAMPLE_SIZE; i++) {
+			final int key = i % 3 == 0 ? HEAVY_KEY : rnd.nextInt(NUM_KEYS);
+			sample[i] = intComp.hash(new Record(new IntValue(key)));
+		}
+		split.setHeavyHitterSample(sample);
+		replicate.setHeavyHitterSample(sample);
+		
+		final int[] hits = new int[NUM_CHANNELS];
+		final IntValue integer = new IntValue();
+		final Record rec = new Record();
+		
+		for (int i = 0; i < NUM_ELEMENTS; i++) {
+			final int key = i % 3 == 0 ? HEAVY_KEY : rnd.nextInt(NUM_KEYS);
+			integer.setValue(key);
+			rec.setField(0, integer);
+			delegate.setInstance(rec);
+			
+			final int[] splitChannels = split.selectChannels(delegate, NUM_CHANNELS);
+			assertEquals("Split side must send each record to exactly one channel.", 1, splitChannels.length);
+			final int channel = splitChannels[0];
+			hits[channel]++;
+			
+			// the matching records of the other side must be sent to that channel as well
+			final int[] replicateChannels = replicate.selectChannels(delegate, NUM_CHANNELS);
+			boolean contained = false;
+			for (int c : replicateChannels) {
+				contained |= c == channel;
+			}
+			assertTrue("Record of the split side is not matched by the replicated side.", contained);
+			
+			if (key == HEAVY_KEY) {
+				assertTrue("Heavy hitter is not replicated.", replicateChannels.length > 1);
+			} else {
+				// regular keys are hash partitioned as usual
+				assertEquals(1, replicateChannels.length);
+				assertEquals(hashing.selectChannels(delegate, NUM_CHANNELS)[0], channel);
+			}
+		}
+		
+		// with plain hash partitioning, one channel would receive a third of all elements
+		final int expectedPerChannel = NUM_ELEMENTS / NUM_CHANNELS;
+		for (int i = 0; i < NUM_CHANNELS; i++) {
+			assertTrue("Channel " + i + " is heavily unbalanced.", hits[i] < expectedPerChannel * 2);
+		}
+	}
+	
+	@Test
+	public void testPartitionRangeWithoutSample() {
+		@SuppressWarnings("unchecked")
+		final TypeComparator<Record> intComp = new RecordComparatorFactory(new int[] {0}, new Class[] {IntValue.class}).createComparator();
+		final ChannelSelector<SerializationDelegate<Record>> oe = new OutputEmitter<Record>(ShipStrategyType.PARTITION_RANGE, intComp);
+		final SerializationDelegate<Record> delegate = new SerializationDelegate<Record>(new RecordSerializerFactory().getSerializer());
+		
+		delegate.setInstance(new Record(new IntValue(1)));
+		try {
+			oe.selectChannels(delegate, 10);
+			Assert.fail("Expected an IllegalStateException.");
+		} catch (IllegalStateException isex) {
+			// expected
+		}
+	}
 }
@@ -94,7 +94,8 @@ public class GlobalSortingITCase extends TestBase {
 		Plan plan = globalSort.getPlan(
 				config.getString("GlobalSortingTest#NoSubtasks", "1"), 
 				getFilesystemProvider().getURIPrefix()+recordsPath,
-				getFilesystemProvider().getURIPrefix()+resultPath);
+				getFilesystemProvider().getURIPrefix()+resultPath,
+				config.getString("GlobalSortingTest#Sampled", "false"));
 
 		PactCompiler pc = new PactCompiler(new DataStatistics());
 		OptimizedPlan op = pc.compile(plan);
@@ -129,6 +130,12 @@ public class GlobalSortingITCase extends TestBase {
 		Configuration config = new Configuration();
 		config.setInteger("GlobalSortingTest#NoSubtasks", 4);
 		tConfigs.add(config);
+		
+		// range partitioning with boundaries computed from a sample, rather than a given distribution
+		config = new Configuration();
+		config.setInteger("GlobalSortingTest#NoSubtasks", 4);
+		config.setString("GlobalSortingTest#Sampled", "true");
+		tConfigs.add(config);
 
 		return toParameterList(tConfigs);
 	}
@@ -143,6 +150,7 @@ public class GlobalSortingITCase extends TestBase {
 			int numSubtasks       = (args.length > 0 ? Integer.parseInt(args[0]) : 1);
 			String recordsPath    = (args.length > 1 ? args[1] : "");
 			String output        = (args.length > 2 ? args[2] : "");
+			boolean sampled      = (args.length > 3 ? Boolean.parseBoolean(args[3]) : false);
 			
 			FileDataSource source = new FileDataSource(CsvInputFormat.class, recordsPath);
 			source.setDegreeOfParallelism(numSubtasks);
@@ -160,7 +168,11 @@ public class GlobalSortingITCase extends TestBase {
 				.lenient(true)
 				.field(IntValue.class, 0);
 			
-			sink.setGlobalOrder(new Ordering(0, IntValue.class, Order.ASCENDING), new UniformIntegerDistribution(Integer.MIN_VALUE, Integer.MAX_VALUE));
+			if (sampled) {
+				sink.setGlobalOrder(new Ordering(0, IntValue.class, Order.ASCENDING));
+			} else {
+				sink.setGlobalOrder(new Ordering(0, IntValue.class, Order.ASCENDING), new UniformIntegerDistribution(Integer.MIN_VALUE, Integer.MAX_VALUE));
+			}
 			sink.setInput(source);
 			
 			return new Plan(sink);
@@ -204,7 +204,9 @@ public class MatchITCase extends TestBase
 		String[] localStrategies = { PactCompiler.HINT_LOCAL_STRATEGY_SORT_BOTH_MERGE,
 				PactCompiler.HINT_LOCAL_STRATEGY_HASH_BUILD_FIRST, PactCompiler.HINT_LOCAL_STRATEGY_HASH_BUILD_SECOND };
 
-		String[] shipStrategies = { PactCompiler.HINT_SHIP_STRATEGY_REPARTITION_HASH, "BROADCAST_FIRST", "BROADCAST_SECOND"};
+		String[] shipStrategies = { PactCompiler.HINT_SHIP_STRATEGY_REPARTITION_HASH, "BROADCAST_FIRST", "BROADCAST_SECOND",
+				PactCompiler.HINT_SHIP_STRATEGY_REPARTITION_HASH_SKEWED_FIRST,
+				PactCompiler.HINT_SHIP_STRATEGY_REPARTITION_HASH_SKEWED_SECOND };
 
 		for (String localStrategy : localStrategies) {
 			for (String shipStrategy : shipStrategies) {